@@ -85,6 +85,12 @@ configure<SourceSetContainer> {
         compileClasspath += sourceSets["main"].output
         runtimeClasspath += sourceSets["main"].output
     }
+    register("jmh") {
+        java.srcDir("src/jmh/java")
+        resources.srcDir("src/jmh/resources")
+        compileClasspath += sourceSets["main"].output
+        runtimeClasspath += sourceSets["main"].output
+    }
 }
 
 
@@ -133,6 +139,16 @@ dependencies {
         addAll(configurations["compileOnly"].allDependencies)
     }
 
+    //Sets the dependencies for the benchmarks
+    configurations["jmhImplementation"].withDependencies {
+        addAll(configurations["api"].allDependencies)
+        addAll(configurations["implementation"].allDependencies)
+        addAll(configurations["compileOnly"].allDependencies)
+    }
+
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:1.36")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:1.36")
+
     testImplementation("org.junit.jupiter:junit-jupiter:5.8.2")
 }
 
@@ -314,6 +330,27 @@ test.apply {
     failFast = true
 }
 
+// Runs the benchmarks in src/jmh, results are written as json to compare them between versions
+//  gradlew jmh -Pjmh.include=EntityBuilderBenchmark -Pjmh.args="-f 2 -prof gc"
+val jmh = task<JavaExec>("jmh") {
+    group = "verification"
+    description = "Runs the JMH benchmarks"
+
+    val jmhSourceSet = sourceSets["jmh"]
+    dependsOn(jmhSourceSet.classesTaskName)
+    classpath = jmhSourceSet.runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+
+    val resultFile = file("$buildDir/reports/jmh/results-${project.version}.json")
+    args("-rf", "json", "-rff", resultFile.absolutePath)
+    getProjectProperty("jmh.args")?.let { args(it.split(" ").filter(String::isNotBlank)) }
+    getProjectProperty("jmh.include")?.let { args(it) }
+
+    doFirst {
+        resultFile.parentFile.mkdirs()
+    }
+}
+
 
 fun getProjectProperty(name: String) = project.properties[name] as? String
 
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.benchmark;
+
+import net.dv8tion.jda.api.OnlineStatus;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.entities.GuildImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups in the entity caches of a large guild.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CacheViewBenchmark
+{
+    @Param({"1000", "10000"})
+    public int members;
+
+    private JDAImpl api;
+    private GuildImpl guild;
+    private Role moderator;
+    private long[] ids;
+    private String[] names;
+    private int index;
+
+    @Setup
+    public void setup()
+    {
+        api = Fixtures.createJDA();
+        guild = Fixtures.createGuild(api, Fixtures.guildCreate(members));
+        moderator = guild.getRoleById(Fixtures.MODERATOR_ROLE_ID);
+        ids = new long[members];
+        names = new String[members];
+        for (int i = 0; i < members; i++)
+        {
+            ids[i] = Fixtures.getMemberId(i);
+            names[i] = "member" + i;
+        }
+    }
+
+    @Benchmark
+    public Member getMemberById()
+    {
+        return guild.getMemberById(ids[next()]);
+    }
+
+    @Benchmark
+    public User getUserById()
+    {
+        return api.getUserById(ids[next()]);
+    }
+
+    @Benchmark
+    public TextChannel getTextChannelById()
+    {
+        return api.getTextChannelById(Fixtures.GENERAL_CHANNEL_ID);
+    }
+
+    @Benchmark
+    public List<Member> getMembersByName()
+    {
+        return guild.getMembersByName(names[next()], false);
+    }
+
+    @Benchmark
+    public List<Member> getMembersWithRoles()
+    {
+        return guild.getMembersWithRoles(moderator);
+    }
+
+    @Benchmark
+    public long countOnlineMembers()
+    {
+        return guild.getMemberCache().applyStream(stream ->
+            stream.filter(member -> member.getOnlineStatus() == OnlineStatus.ONLINE).count()
+        );
+    }
+
+    private int next()
+    {
+        index = index + 1 == members ? 0 : index + 1;
+        return index;
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.benchmark;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.entities.EntityBuilder;
+import net.dv8tion.jda.internal.entities.GuildImpl;
+import net.dv8tion.jda.internal.entities.MemberImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Building entities from gateway payloads, which happens for every guild on startup and for every message afterwards.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EntityBuilderBenchmark
+{
+    private static final int PAYLOADS = 1024;
+
+    @Param({"1000", "10000"})
+    public int members;
+
+    private JDAImpl api;
+    private EntityBuilder builder;
+    private GuildImpl guild;
+    private DataObject guildJson;
+    private List<DataObject> memberPayloads;
+    private List<DataObject> messagePayloads;
+    private int index;
+
+    @Setup
+    public void setup()
+    {
+        api = Fixtures.createJDA();
+        builder = api.getEntityBuilder();
+        guildJson = Fixtures.guildCreate(members);
+        guild = Fixtures.createGuild(api, guildJson);
+        memberPayloads = IntStream.range(0, PAYLOADS)
+                .mapToObj(i -> Fixtures.member((i * 31) % members))
+                .collect(Collectors.toList());
+        messagePayloads = Fixtures.messageBurst(PAYLOADS, members).stream()
+                .map(payload -> payload.getObject("d"))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public GuildImpl createGuild()
+    {
+        return Fixtures.createGuild(api, guildJson);
+    }
+
+    @Benchmark
+    public MemberImpl createMember()
+    {
+        return builder.createMember(guild, memberPayloads.get(next()));
+    }
+
+    @Benchmark
+    public Message createMessageWithLookup()
+    {
+        return builder.createMessageWithLookup(messagePayloads.get(next()), guild, false);
+    }
+
+    private int next()
+    {
+        return index = (index + 1) & (PAYLOADS - 1);
+    }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.benchmark;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.entities.GuildImpl;
+import net.dv8tion.jda.internal.utils.IOUtil;
+import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Gateway payloads for the benchmarks.
+ *
+ * <p>The payloads are expanded from the templates in {@code src/jmh/resources/fixtures},
+ * which have the shape of payloads recorded from a large community guild.
+ * Ids, names, roles, and timestamps are generated deterministically, so every run works on the same data.
+ */
+public final class Fixtures
+{
+    public static final long GUILD_ID = 125227483518861312L;
+    public static final long SELF_ID = 125227483518861999L;
+    public static final long OWNER_ID = 107130754189766656L;
+    public static final long GENERAL_CHANNEL_ID = 125227483518861313L;
+    public static final long HELP_CHANNEL_ID = 125227483518861317L;
+    public static final long MODERATOR_ROLE_ID = 125227483518861401L;
+
+    private static final long FIRST_MEMBER_ID = 200000000000000000L;
+    private static final long FIRST_MESSAGE_ID = 1090004567891300000L;
+    private static final long[] LEVEL_ROLE_IDS = { 125227483518861405L, 125227483518861406L, 125227483518861407L };
+    private static final String[] STATUSES = { "online", "idle", "dnd", "offline" };
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSSSSSxxx");
+    private static final Instant FIRST_JOIN = Instant.parse("2021-03-14T15:09:26.535Z");
+
+    private static final byte[] GUILD_TEMPLATE = read("guild_create.json");
+    private static final byte[] MEMBER_TEMPLATE = read("member.json");
+    private static final byte[] PRESENCE_TEMPLATE = read("presence_update.json");
+    private static final byte[] MESSAGE_TEMPLATE = read("message_create.json");
+
+    private Fixtures() {}
+
+    public static long getMemberId(int index)
+    {
+        return index == 0 ? OWNER_ID : FIRST_MEMBER_ID + index;
+    }
+
+    /**
+     * The data of a {@code GUILD_CREATE} with the provided number of members, in addition to the self member.
+     * <br>Every third member has a presence, like a large guild without the presence intent for offline members.
+     */
+    public static DataObject guildCreate(int memberCount)
+    {
+        DataObject guild = DataObject.fromJson(GUILD_TEMPLATE);
+        DataArray members = DataArray.empty().add(guild.getArray("members").getObject(0));
+        DataArray presences = DataArray.empty();
+        for (int i = 0; i < memberCount; i++)
+        {
+            members.add(member(i));
+            if (i % 3 == 0)
+                presences.add(presence(i, STATUSES[(i / 3) % 3]).remove("guild_id"));
+        }
+        return guild.put("members", members)
+                    .put("presences", presences)
+                    .put("member_count", members.length());
+    }
+
+    public static DataObject member(int index)
+    {
+        DataObject member = DataObject.fromJson(MEMBER_TEMPLATE);
+        member.getObject("user")
+              .put("id", Long.toUnsignedString(getMemberId(index)))
+              .put("username", "member" + index)
+              .put("global_name", "Member " + index);
+
+        DataArray roles = DataArray.empty();
+        for (int i = 0; i < index % 4; i++)
+            roles.add(Long.toUnsignedString(LEVEL_ROLE_IDS[i % LEVEL_ROLE_IDS.length]));
+        if (index % 50 == 0)
+            roles.add(Long.toUnsignedString(MODERATOR_ROLE_ID));
+
+        OffsetDateTime joinedAt = FIRST_JOIN.plusSeconds(index * 97L).atOffset(ZoneOffset.UTC);
+        return member.put("roles", roles)
+                     .put("nick", index % 2 == 0 ? null : "nick" + index)
+                     .put("joined_at", TIMESTAMP.format(joinedAt))
+                     .put("premium_since", index % 20 == 0 ? TIMESTAMP.format(joinedAt.plusDays(30)) : null);
+    }
+
+    public static DataObject presence(int index, String status)
+    {
+        DataObject presence = DataObject.fromJson(PRESENCE_TEMPLATE);
+        presence.getObject("user").put("id", Long.toUnsignedString(getMemberId(index)));
+        presence.put("status", status);
+        // Most members only have a custom status or no activity at all
+        if (index % 4 != 0)
+            presence.put("activities", DataArray.empty().add(presence.getArray("activities").getObject(0)));
+        return presence;
+    }
+
+    /**
+     * {@code MESSAGE_CREATE} dispatches from random members of a guild created by {@link #guildCreate(int)}.
+     */
+    public static List<DataObject> messageBurst(int count, int memberCount)
+    {
+        List<DataObject> messages = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+        {
+            int author = (i * 31) % memberCount;
+            DataObject message = DataObject.fromJson(MESSAGE_TEMPLATE);
+            message.getObject("author")
+                   .put("id", Long.toUnsignedString(getMemberId(author)))
+                   .put("username", "member" + author);
+            message.put("member", member(author).remove("user"))
+                   .put("id", Long.toUnsignedString(FIRST_MESSAGE_ID + i))
+                   .put("channel_id", Long.toUnsignedString(i % 2 == 0 ? GENERAL_CHANNEL_ID : HELP_CHANNEL_ID));
+            if (i % 3 != 0)
+            {
+                // Only some messages have mentions, attachments, and embeds
+                message.put("content", "message " + i + " without any mentions in it")
+                       .put("mentions", DataArray.empty())
+                       .put("mention_roles", DataArray.empty())
+                       .put("attachments", DataArray.empty())
+                       .put("embeds", DataArray.empty());
+            }
+            messages.add(dispatch("MESSAGE_CREATE", i, message));
+        }
+        return messages;
+    }
+
+    /**
+     * {@code PRESENCE_UPDATE} dispatches for members of a guild created by {@link #guildCreate(int)}.
+     */
+    public static List<DataObject> presenceFlood(int count, int memberCount)
+    {
+        List<DataObject> presences = new ArrayList<>(count);
+        for (int i = 0; i < count; i++)
+            presences.add(dispatch("PRESENCE_UPDATE", i, presence((i * 7) % memberCount, STATUSES[i % STATUSES.length])));
+        return presences;
+    }
+
+    public static DataObject dispatch(String type, int sequence, DataObject data)
+    {
+        return DataObject.empty()
+                .put("op", 0)
+                .put("t", type)
+                .put("s", sequence)
+                .put("d", data);
+    }
+
+    /**
+     * A JDA instance with a self user, which is not connected to the gateway.
+     */
+    public static JDAImpl createJDA()
+    {
+        JDAImpl api = new JDAImpl(new AuthorizationConfig("token"));
+        DataObject self = DataObject.fromJson(GUILD_TEMPLATE).getArray("members").getObject(0).getObject("user");
+        api.getEntityBuilder().createSelfUser(self.put("verified", true).put("mfa_enabled", false));
+        return api;
+    }
+
+    public static GuildImpl createGuild(JDAImpl api, DataObject guildJson)
+    {
+        DataArray memberArray = guildJson.getArray("members");
+        TLongObjectMap<DataObject> members = new TLongObjectHashMap<>(memberArray.length());
+        for (int i = 0; i < memberArray.length(); i++)
+        {
+            DataObject member = memberArray.getObject(i);
+            members.put(member.getObject("user").getUnsignedLong("id"), member);
+        }
+        return api.getEntityBuilder().createGuild(GUILD_ID, guildJson, members, guildJson.getInt("member_count"));
+    }
+
+    private static byte[] read(String name)
+    {
+        try (InputStream stream = Fixtures.class.getResourceAsStream("/fixtures/" + name))
+        {
+            if (stream == null)
+                throw new IllegalStateException("Missing fixture " + name);
+            return IOUtil.readFully(stream);
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
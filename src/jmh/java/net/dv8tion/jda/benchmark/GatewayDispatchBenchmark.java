@@ -0,0 +1,77 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.benchmark;
+
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.handle.MessageCreateHandler;
+import net.dv8tion.jda.internal.handle.PresenceUpdateHandler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Handling bursts of dispatches, from the parsed payload to the event, without any listeners.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class GatewayDispatchBenchmark
+{
+    private static final int BURST = 1024;
+
+    @Param({"10000"})
+    public int members;
+
+    private PresenceUpdateHandler presenceHandler;
+    private MessageCreateHandler messageHandler;
+    private List<DataObject> presences;
+    private List<DataObject> messages;
+    private long sequence;
+
+    @Setup
+    public void setup()
+    {
+        JDAImpl api = Fixtures.createJDA();
+        Fixtures.createGuild(api, Fixtures.guildCreate(members));
+        presenceHandler = new PresenceUpdateHandler(api);
+        messageHandler = new MessageCreateHandler(api);
+        presences = Fixtures.presenceFlood(BURST, members);
+        messages = Fixtures.messageBurst(BURST, members);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void presenceFlood()
+    {
+        for (DataObject presence : presences)
+            presenceHandler.handle(sequence++, presence);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public void messageBurst()
+    {
+        for (DataObject message : messages)
+            messageHandler.handle(sequence++, message);
+    }
+}
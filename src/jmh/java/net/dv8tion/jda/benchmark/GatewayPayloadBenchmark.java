@@ -0,0 +1,96 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.benchmark;
+
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.api.utils.data.etf.ExTermDecoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing a {@code GUILD_CREATE} payload as JSON and ETF.
+ *
+ * <p>The {@code read*} benchmarks only access the ids, like the gateway does before handing a payload to the guild setup,
+ * which shows the difference between the lazy ETF views and decoding the full payload.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class GatewayPayloadBenchmark
+{
+    @Param({"1000", "10000"})
+    public int members;
+
+    private byte[] json;
+    private byte[] etf;
+
+    @Setup
+    public void setup()
+    {
+        DataObject payload = Fixtures.dispatch("GUILD_CREATE", 1, Fixtures.guildCreate(members));
+        json = payload.toJson();
+        etf = payload.toETF();
+    }
+
+    @Benchmark
+    public DataObject parseJson()
+    {
+        return DataObject.fromJson(json);
+    }
+
+    @Benchmark
+    public DataObject parseEtfLazy()
+    {
+        return DataObject.fromETF(etf);
+    }
+
+    @Benchmark
+    public Map<String, Object> parseEtfEager()
+    {
+        return ExTermDecoder.unpackMap(ByteBuffer.wrap(etf));
+    }
+
+    @Benchmark
+    public long readIdsJson()
+    {
+        return readIds(DataObject.fromJson(json));
+    }
+
+    @Benchmark
+    public long readIdsEtf()
+    {
+        return readIds(DataObject.fromETF(etf));
+    }
+
+    private static long readIds(DataObject payload)
+    {
+        DataObject data = payload.getObject("d");
+        long sum = payload.getInt("op") + payload.getLong("s") + data.getUnsignedLong("id");
+        DataArray members = data.getArray("members");
+        for (int i = 0; i < members.length(); i++)
+            sum += members.getObject(i).getObject("user").getUnsignedLong("id");
+        return sum;
+    }
+}
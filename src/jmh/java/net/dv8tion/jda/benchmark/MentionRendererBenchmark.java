@@ -0,0 +1,85 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.benchmark;
+
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.entities.GuildImpl;
+import net.dv8tion.jda.internal.entities.MessageMentionsImpl;
+import net.dv8tion.jda.internal.entities.mentions.MentionRenderer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering {@link net.dv8tion.jda.api.entities.Message#getContentDisplay() Message#getContentDisplay()}
+ * for messages with user, role, channel, and emoji mentions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MentionRendererBenchmark
+{
+    @Param({"0", "4", "40"})
+    public int mentions;
+
+    private GuildImpl guild;
+    private MessageMentionsImpl messageMentions;
+    private String content;
+
+    @Setup
+    public void setup()
+    {
+        JDAImpl api = Fixtures.createJDA();
+        guild = Fixtures.createGuild(api, Fixtures.guildCreate(100));
+
+        StringBuilder builder = new StringBuilder("Could someone take a look at this? ");
+        DataArray users = DataArray.empty();
+        for (int i = 0; i < mentions; i++)
+        {
+            switch (i % 4)
+            {
+            case 0:
+                builder.append("<@").append(Fixtures.getMemberId(i)).append('>');
+                users.add(Fixtures.member(i).getObject("user"));
+                break;
+            case 1:
+                builder.append("<@&").append(Fixtures.MODERATOR_ROLE_ID).append('>');
+                break;
+            case 2:
+                builder.append("<#").append(Fixtures.HELP_CHANNEL_ID).append('>');
+                break;
+            default:
+                builder.append("<:pog:125227483518861600>");
+            }
+            builder.append(" and some text in between, ");
+        }
+        content = builder.append("thanks!").toString();
+        DataArray roles = mentions > 1 ? DataArray.empty().add(Long.toUnsignedString(Fixtures.MODERATOR_ROLE_ID)) : DataArray.empty();
+        messageMentions = new MessageMentionsImpl(api, guild, content, false, users, roles);
+    }
+
+    @Benchmark
+    public String render()
+    {
+        return MentionRenderer.render(content, messageMentions, guild);
+    }
+}
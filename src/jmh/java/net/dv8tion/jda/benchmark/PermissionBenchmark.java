@@ -0,0 +1,76 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.benchmark;
+
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.internal.entities.GuildImpl;
+import net.dv8tion.jda.internal.utils.PermissionUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Permission checks for a member with several roles in a channel with role overrides.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PermissionBenchmark
+{
+    private Member member;
+    private Member moderator;
+    private TextChannel channel;
+
+    @Setup
+    public void setup()
+    {
+        GuildImpl guild = Fixtures.createGuild(Fixtures.createJDA(), Fixtures.guildCreate(100));
+        member = guild.getMemberById(Fixtures.getMemberId(3));
+        moderator = guild.getMemberById(Fixtures.getMemberId(50));
+        channel = guild.getTextChannelById(Fixtures.HELP_CHANNEL_ID);
+    }
+
+    @Benchmark
+    public long getEffectivePermission()
+    {
+        return PermissionUtil.getEffectivePermission(member);
+    }
+
+    @Benchmark
+    public long getEffectiveChannelPermission()
+    {
+        return PermissionUtil.getEffectivePermission(channel, member);
+    }
+
+    @Benchmark
+    public boolean hasChannelPermission()
+    {
+        return member.hasPermission(channel, Permission.VIEW_CHANNEL, Permission.MESSAGE_SEND, Permission.MESSAGE_EMBED_LINKS);
+    }
+
+    @Benchmark
+    public boolean canInteract()
+    {
+        return PermissionUtil.canInteract(moderator, member);
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.benchmark;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.requests.RestRateLimiter;
+import net.dv8tion.jda.api.requests.Route;
+import net.dv8tion.jda.api.requests.SequentialRestRateLimiter;
+import okhttp3.Headers;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.openjdk.jmh.annotations.*;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The overhead of the rate-limiter for requests which are answered right away.
+ *
+ * <p>Every response has enough remaining uses that the buckets never back off,
+ * so this measures bucket lookup, queueing, scheduling, and header parsing instead of waiting for a reset.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class RestRateLimiterBenchmark
+{
+    private static final int REQUESTS = 1000;
+    private static final Request REQUEST = new Request.Builder().url("https://discord.com/api/v10/channels/0/messages").build();
+    private static final Headers HEADERS = Headers.of(
+            RestRateLimiter.HASH_HEADER, "80c17d2f203122d936070c88c8d10f33",
+            RestRateLimiter.LIMIT_HEADER, "5",
+            RestRateLimiter.REMAINING_HEADER, "1000000",
+            RestRateLimiter.RESET_AFTER_HEADER, "5.000",
+            RestRateLimiter.RESET_HEADER, "1680084937.123",
+            "via", "1.1 google");
+
+    @Param({"1", "64"})
+    public int channels;
+
+    private ScheduledThreadPoolExecutor pool;
+    private SequentialRestRateLimiter rateLimiter;
+    private Route.CompiledRoute[] routes;
+    private JDA api;
+
+    @Setup
+    public void setup()
+    {
+        api = Fixtures.createJDA();
+        pool = new ScheduledThreadPoolExecutor(4);
+        rateLimiter = new SequentialRestRateLimiter(new RestRateLimiter.RateLimitConfig(pool, RestRateLimiter.GlobalRateLimit.create(), true));
+        routes = new Route.CompiledRoute[channels];
+        for (int i = 0; i < channels; i++)
+            routes[i] = Route.Messages.SEND_MESSAGE.compile(Long.toUnsignedString(Fixtures.GENERAL_CHANNEL_ID + i));
+    }
+
+    @TearDown
+    public void teardown()
+    {
+        rateLimiter.stop(true, () -> {});
+        pool.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS)
+    public void enqueueAndExecute() throws InterruptedException
+    {
+        CountDownLatch done = new CountDownLatch(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++)
+            rateLimiter.enqueue(new ImmediateWork(routes[i % channels], done));
+        done.await();
+    }
+
+    private class ImmediateWork implements RestRateLimiter.Work
+    {
+        private final Route.CompiledRoute route;
+        private final CountDownLatch done;
+        private volatile boolean isDone;
+
+        private ImmediateWork(Route.CompiledRoute route, CountDownLatch done)
+        {
+            this.route = route;
+            this.done = done;
+        }
+
+        @Nonnull
+        @Override
+        public Route.CompiledRoute getRoute()
+        {
+            return route;
+        }
+
+        @Nonnull
+        @Override
+        public JDA getJDA()
+        {
+            return api;
+        }
+
+        @Override
+        public Response execute()
+        {
+            Response response = new Response.Builder()
+                    .request(REQUEST)
+                    .protocol(Protocol.HTTP_1_1)
+                    .code(200)
+                    .message("OK")
+                    .headers(HEADERS)
+                    .body(ResponseBody.create(new byte[0], null))
+                    .build();
+            isDone = true;
+            done.countDown();
+            return response;
+        }
+
+        @Override
+        public boolean isSkipped()
+        {
+            return false;
+        }
+
+        @Override
+        public boolean isDone()
+        {
+            return isDone;
+        }
+
+        @Override
+        public boolean isPriority()
+        {
+            return false;
+        }
+
+        @Override
+        public boolean isCancelled()
+        {
+            return false;
+        }
+
+        @Override
+        public void cancel() {}
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.benchmark;
+
+import net.dv8tion.jda.internal.utils.concurrent.HashedWheelTimer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scheduling and cancelling a timeout, which is what happens for almost every interaction, chunk request, and request deadline.
+ * <br>The pending timeouts are scheduled far in the future, like the timeouts of a busy bot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TimeoutBenchmark
+{
+    private static final Runnable NOOP = () -> {};
+
+    @Param({"0", "10000"})
+    public int pending;
+
+    private HashedWheelTimer timer;
+    private ScheduledThreadPoolExecutor executor;
+
+    @Setup
+    public void setup()
+    {
+        timer = new HashedWheelTimer(runnable -> {
+            Thread thread = new Thread(runnable, "Benchmark Timer");
+            thread.setDaemon(true);
+            return thread;
+        }, 100, TimeUnit.MILLISECONDS, 512);
+        executor = new ScheduledThreadPoolExecutor(1);
+        executor.setRemoveOnCancelPolicy(true);
+        for (int i = 0; i < pending; i++)
+        {
+            timer.schedule(NOOP, 1, TimeUnit.HOURS);
+            executor.schedule(NOOP, 1, TimeUnit.HOURS);
+        }
+    }
+
+    @TearDown
+    public void teardown()
+    {
+        timer.stop();
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public boolean wheelTimer()
+    {
+        return timer.schedule(NOOP, 10, TimeUnit.SECONDS).cancel();
+    }
+
+    @Benchmark
+    public boolean scheduledExecutor()
+    {
+        return executor.schedule(NOOP, 10, TimeUnit.SECONDS).cancel(false);
+    }
+}
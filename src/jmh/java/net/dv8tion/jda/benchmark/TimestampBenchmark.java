@@ -0,0 +1,75 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.benchmark;
+
+import net.dv8tion.jda.internal.utils.Helpers;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing the timestamps of members, threads, and messages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TimestampBenchmark
+{
+    private static final int COUNT = 1024;
+
+    private final String[] timestamps = new String[COUNT];
+    private int index;
+
+    @Setup
+    public void setup()
+    {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSSSSSxxx");
+        Instant start = Instant.parse("2021-03-14T15:09:26.535Z");
+        for (int i = 0; i < COUNT; i++)
+        {
+            // Mix of the formats discord uses, with and without a fraction
+            Instant time = start.plusSeconds(i * 7919L).plusNanos(i * 1000L);
+            timestamps[i] = i % 4 == 0
+                    ? DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(time.atOffset(ZoneOffset.UTC).withNano(0))
+                    : formatter.format(time.atOffset(ZoneOffset.UTC));
+        }
+    }
+
+    @Benchmark
+    public long toTimestamp()
+    {
+        return Helpers.toTimestamp(timestamps[next()]);
+    }
+
+    @Benchmark
+    public long jdkFormatter()
+    {
+        return Instant.from(DateTimeFormatter.ISO_OFFSET_DATE_TIME.parse(timestamps[next()])).toEpochMilli();
+    }
+
+    private int next()
+    {
+        return index = (index + 1) & (COUNT - 1);
+    }
+}
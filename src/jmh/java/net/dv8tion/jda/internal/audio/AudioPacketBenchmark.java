@@ -0,0 +1,86 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.internal.audio;
+
+import com.iwebpp.crypto.TweetNaclFast;
+import net.dv8tion.jda.internal.utils.IOUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.net.DatagramPacket;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encrypting and decrypting 20ms opus frames, like the audio connection does 50 times per second for every guild.
+ *
+ * <p>This is in the package of {@link AudioPacket}, since the encryption methods are not public.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class AudioPacketBenchmark
+{
+    private static final int SSRC = 123456;
+    // Typical size of a 20ms opus frame at 64 kbps
+    private static final int FRAME_SIZE = 160;
+
+    private final byte[] secretKey = new byte[TweetNaclFast.SecretBox.keyLength];
+    private final byte[] nonce = new byte[TweetNaclFast.SecretBox.nonceLength];
+    private final ByteBuffer frame = ByteBuffer.allocate(FRAME_SIZE);
+    private final ByteBuffer rtpBuffer = ByteBuffer.allocate(512);
+    private ByteBuffer packetBuffer = ByteBuffer.allocate(512);
+    private TweetNaclFast.SecretBox boxer;
+    private DatagramPacket encrypted;
+    private char sequence;
+    private int timestamp;
+    private int nonceCounter;
+
+    @Setup
+    public void setup()
+    {
+        Random random = new Random(42);
+        random.nextBytes(secretKey);
+        random.nextBytes(frame.array());
+        boxer = new TweetNaclFast.SecretBox(secretKey);
+
+        ByteBuffer packet = encryptLite();
+        byte[] data = new byte[packet.remaining()];
+        packet.get(data);
+        encrypted = new DatagramPacket(data, data.length);
+    }
+
+    @Benchmark
+    public ByteBuffer encryptLite()
+    {
+        ((Buffer) rtpBuffer).clear();
+        AudioPacket packet = new AudioPacket(rtpBuffer, sequence++, timestamp += 960, SSRC, frame);
+        IOUtil.setIntBigEndian(nonce, 0, nonceCounter++);
+        return packetBuffer = packet.asEncryptedPacket(boxer, packetBuffer, nonce, 4);
+    }
+
+    @Benchmark
+    public AudioPacket decryptLite()
+    {
+        return AudioPacket.decryptAudioPacket(AudioEncryption.XSALSA20_POLY1305_LITE, encrypted, secretKey);
+    }
+}
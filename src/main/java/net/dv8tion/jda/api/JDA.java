@@ -38,6 +38,7 @@ import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.api.requests.restaction.*;
 import net.dv8tion.jda.api.sharding.ShardManager;
+import net.dv8tion.jda.api.utils.JDAMetrics;
 import net.dv8tion.jda.api.utils.MiscUtil;
 import net.dv8tion.jda.api.utils.cache.CacheFlag;
 import net.dv8tion.jda.api.utils.cache.CacheView;
@@ -1795,6 +1796,15 @@ public interface JDA extends IGuildChannelContainer
      */
     long getResponseTotal();
 
+    /**
+     * The metrics registry of this instance, which collects dispatch, cache, listener, and gateway queue metrics.
+     * <br>Metrics are only collected if a registry was configured with {@link JDABuilder#setMetrics(JDAMetrics)}.
+     *
+     * @return The {@link JDAMetrics}, or null if metrics are disabled
+     */
+    @Nullable
+    JDAMetrics getMetrics();
+
     /**
      * This value is the maximum amount of time, in seconds, that JDA will wait between reconnect attempts.
      * <br>Can be set using {@link net.dv8tion.jda.api.JDABuilder#setMaxReconnectDelay(int) JDABuilder.setMaxReconnectDelay(int)}.
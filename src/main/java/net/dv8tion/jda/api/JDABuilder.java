@@ -24,6 +24,7 @@ import net.dv8tion.jda.api.events.Event;
 import net.dv8tion.jda.api.events.session.ReadyEvent;
 import net.dv8tion.jda.api.exceptions.InvalidTokenException;
 import net.dv8tion.jda.api.hooks.IEventManager;
+import net.dv8tion.jda.api.hooks.RawDispatchInterceptor;
 import net.dv8tion.jda.api.hooks.VoiceDispatchInterceptor;
 import net.dv8tion.jda.api.requests.GatewayIntent;
 import net.dv8tion.jda.api.requests.RestAction;
@@ -34,6 +35,7 @@ import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.managers.PresenceImpl;
 import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.IOUtil;
+import net.dv8tion.jda.internal.utils.cache.MessageCache;
 import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
 import net.dv8tion.jda.internal.utils.config.MetaConfig;
 import net.dv8tion.jda.internal.utils.config.SessionConfig;
@@ -44,6 +46,9 @@ import okhttp3.OkHttpClient;
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.stream.Collectors;
@@ -73,6 +78,7 @@ public class JDABuilder
     protected boolean shutdownEventPool = true;
     protected ScheduledExecutorService audioPool = null;
     protected boolean shutdownAudioPool = true;
+    protected boolean virtualThreads = false;
     protected EnumSet<CacheFlag> cacheFlags = EnumSet.allOf(CacheFlag.class);
     protected ConcurrentMap<String, String> contextMap = null;
     protected SessionController controller = null;
@@ -95,6 +101,13 @@ public class JDABuilder
     protected EnumSet<ConfigFlag> flags = ConfigFlag.getDefault();
     protected ChunkingFilter chunkingFilter = ChunkingFilter.ALL;
     protected MemberCachePolicy memberCachePolicy = MemberCachePolicy.ALL;
+    protected int messageCacheChannelBytes = 0;
+    protected long messageCacheBytes = 0;
+    protected Path sessionSnapshotFile = null;
+    protected Path gatewayRecordingFile = null;
+    protected JDAMetrics metrics = null;
+    protected RawDispatchInterceptor rawDispatchInterceptor = null;
+    protected boolean stateless = false;
     protected GatewayEncoding encoding = GatewayEncoding.JSON;
     protected RestConfig restConfig = new RestConfig();
 
@@ -735,6 +748,167 @@ public class JDABuilder
         return this;
     }
 
+    /**
+     * Enables the message cache, which keeps the content of recent messages to provide the previous state in
+     * {@link net.dv8tion.jda.api.events.message.MessageUpdateEvent#getPreviousMessage() MessageUpdateEvent} and
+     * {@link net.dv8tion.jda.api.events.message.MessageDeleteEvent#getCachedMessage() MessageDeleteEvent}.
+     * <br>The message cache is disabled by default.
+     *
+     * <p>Messages are not cached as {@link net.dv8tion.jda.api.entities.Message Message} instances,
+     * the cache only keeps the ids, the edit timestamp, and the UTF-8 encoded content of each message.
+     * When a channel exceeds its limit, its oldest messages are evicted first.
+     * When the total limit is exceeded, messages of the least recently used channels are evicted first.
+     * The limits count the content with a fixed overhead of 40 bytes per message.
+     *
+     * <p>The content of messages is only available with the {@link GatewayIntent#MESSAGE_CONTENT MESSAGE_CONTENT} intent.
+     *
+     * @param  maxBytesPerChannel
+     *         The maximum number of bytes cached for each channel, or {@code 0} to disable the cache
+     * @param  maxBytes
+     *         The maximum number of bytes cached in total, or {@code 0} to disable the cache
+     *
+     * @throws IllegalArgumentException
+     *         If either limit is negative
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     *
+     * @see    net.dv8tion.jda.api.utils.cache.CachedMessage CachedMessage
+     */
+    @Nonnull
+    public JDABuilder setMessageCache(int maxBytesPerChannel, long maxBytes)
+    {
+        Checks.notNegative(maxBytesPerChannel, "Bytes per channel");
+        Checks.notNegative(maxBytes, "Bytes");
+        this.messageCacheChannelBytes = maxBytesPerChannel;
+        this.messageCacheBytes = maxBytes;
+        return this;
+    }
+
+    /**
+     * Sets the file used to persist the gateway session across restarts.
+     * <br>On {@link JDA#shutdown() shutdown}, JDA writes the session id, the sequence number, and a compressed snapshot of its cache to this file,
+     * without invalidating the session. When the next instance is built with the same file, it restores its cache from the snapshot
+     * and resumes the session instead of identifying, which avoids the identify rate limit and receiving every guild again.
+     * The file is deleted once it has been read.
+     *
+     * <p>The snapshot contains the self user, the guilds with their roles, channels, threads, emojis, members,
+     * voice states, and presences. Stickers, scheduled events, stage instances, private channels, and the details of rich presence activities
+     * are not included and are only loaded once they are updated by discord.
+     * The snapshot is only used if it was written for the same shard and the same intents.
+     * If discord rejects the resumed session, JDA falls back to a new session and rebuilds its cache from the {@code READY} event.
+     *
+     * <p>The session expires shortly after the connection is closed, so this is only useful for quick restarts.
+     * Snapshots older than 5 minutes are ignored.
+     * No snapshot is written while guilds are still being set up or are unavailable, since discord does not send these guilds again after resuming.
+     * Use {@link JDA#awaitShutdown()} to wait until the snapshot has been written before exiting the process.
+     *
+     * @param  file
+     *         The snapshot file, or null to disable snapshots (default)
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public JDABuilder setSessionSnapshotFile(@Nullable Path file)
+    {
+        this.sessionSnapshotFile = file;
+        return this;
+    }
+
+    /**
+     * Sets the file used to record every frame received from the gateway.
+     * <br>The frames are written exactly as received, together with the time they were received at,
+     * and can be replayed offline with {@link #buildReplay(Path, boolean)}.
+     * This is useful to reproduce issues or to profile the event throughput of a real session without a connection to discord.
+     *
+     * <p>The recording contains the full content of every event, including messages and user data, and should be handled accordingly.
+     * The file is overwritten when the session starts and closed on {@link JDA#shutdown() shutdown}.
+     *
+     * @param  file
+     *         The recording file, or null to disable recording (default)
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public JDABuilder setGatewayRecordingFile(@Nullable Path file)
+    {
+        this.gatewayRecordingFile = file;
+        return this;
+    }
+
+    /**
+     * Sets the {@link JDAMetrics} registry, which collects metrics about the gateway, the cache, event listeners, and REST queues.
+     *
+     * <p>Counters and histograms, such as the dispatch time per event type and the event manager time per event class, are updated while events are handled.
+     * Gauges, such as cache sizes and queue depths, are only computed when the registry is {@link JDAMetrics#publish(MetricsPublisher) published}.
+     * Without a registry, no measurements are taken.
+     *
+     * @param  metrics
+     *         The metrics registry, or null to disable metrics (default)
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public JDABuilder setMetrics(@Nullable JDAMetrics metrics)
+    {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /**
+     * Sets the {@link RawDispatchInterceptor}, which receives the decompressed bytes of every dispatch before they are parsed.
+     *
+     * <p>Dispatches consumed by the interceptor are never parsed, do not update the cache, and fire no events.
+     * This is useful to forward events to another system without paying for parsing and re-serializing them,
+     * as would be required with {@link #setRawEventsEnabled(boolean) raw events}.
+     *
+     * @param  interceptor
+     *         The interceptor, or null to parse all dispatches (default)
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public JDABuilder setRawDispatchInterceptor(@Nullable RawDispatchInterceptor interceptor)
+    {
+        this.rawDispatchInterceptor = interceptor;
+        return this;
+    }
+
+    /**
+     * Whether JDA should run without any cache, for workers which only react to messages and interactions.
+     *
+     * <p>A stateless session skips the guild setup on startup and fires the {@link net.dv8tion.jda.api.events.session.ReadyEvent ReadyEvent}
+     * right after the {@code READY} payload. Only {@link net.dv8tion.jda.api.events.message.MessageReceivedEvent MessageReceivedEvent}
+     * and the interaction events are fired, all other dispatches are dropped before they are parsed.
+     * This overrides the configured {@link CacheFlag CacheFlags}, {@link MemberCachePolicy}, and {@link ChunkingFilter}.
+     *
+     * <p>The entities of these events are detached. They are built from the event payload alone and are never added to the cache,
+     * which means for example:
+     * <ul>
+     *     <li>The {@link net.dv8tion.jda.api.entities.Guild Guild} only provides its id and public role, it has no channels or other roles.
+     *         The self member is only known for interactions.</li>
+     *     <li>Messages rarely include the type of their channel. The channel of a message in a thread is a
+     *         {@link net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel ThreadChannel}, any other guild message is assumed to be
+     *         in a {@link net.dv8tion.jda.api.entities.channel.concrete.TextChannel TextChannel}.</li>
+     *     <li>Members have no roles, only the resolved roles of an interaction option are available.</li>
+     *     <li>The permissions of the interaction member and the self member are only known in the channel of the interaction.
+     *         Permissions in other channels and in the guild throw an {@link IllegalStateException}.</li>
+     *     <li>Where permissions are unknown, they are not checked before a request, Discord rejects requests which are missing permissions instead.</li>
+     * </ul>
+     *
+     * <p>Audio connections are not supported by stateless sessions.
+     *
+     * @param  enabled
+     *         True, to run without a cache (default: false)
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public JDABuilder setStateless(boolean enabled)
+    {
+        this.stateless = enabled;
+        return this;
+    }
+
     /**
      * Sets the {@link org.slf4j.MDC MDC} mappings to use in JDA.
      * <br>If sharding is enabled JDA will automatically add a {@code jda.shard} context with the format {@code [SHARD_ID / TOTAL]}
@@ -1147,6 +1321,38 @@ public class JDABuilder
         return this;
     }
 
+    /**
+     * Whether JDA should use virtual threads for the pools that run blocking work, if they are supported by the runtime.
+     * <br>Virtual threads require Java 21 or newer. On older versions, this logs a warning and the default pools are used instead.
+     *
+     * <p>When enabled, JDA uses these pools, unless you configured your own:
+     * <ul>
+     *     <li>The callback pool starts a new virtual thread for each callback, instead of using {@link java.util.concurrent.ForkJoinPool#commonPool()}.</li>
+     *     <li>The event pool starts a new virtual thread for each event.
+     *         <b>This means events are no longer handled in order</b>, just like with any other multi-threaded event pool.</li>
+     *     <li>The rate-limit pool runs its tasks on virtual threads, and can execute up to 64 requests at the same time.</li>
+     * </ul>
+     * The gateway and audio pools keep using platform threads, since they only run short tasks.
+     *
+     * <p>This allows blocking calls like {@link net.dv8tion.jda.api.requests.RestAction#complete()} in event listeners,
+     * without exhausting the thread pools.
+     * However, a virtual thread which blocks while holding a monitor of a {@code synchronized} block stays pinned to its carrier thread until Java 24.
+     * Avoid blocking inside your own {@code synchronized} blocks and prefer a {@link java.util.concurrent.locks.ReentrantLock ReentrantLock} instead.
+     *
+     * <p>Default: <b>false</b>
+     *
+     * @param  enabled
+     *         True, to use virtual threads
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public JDABuilder setVirtualThreads(boolean enabled)
+    {
+        this.virtualThreads = enabled;
+        return this;
+    }
+
     /**
      * If enabled, JDA will separate the bulk delete event into individual delete events, but this isn't as efficient as
      * handling a single event would be. It is recommended that BulkDelete Splitting be disabled and that the developer
@@ -1476,6 +1682,28 @@ public class JDABuilder
         return this;
     }
 
+    /**
+     * Whether member chunks should be converted to members as soon as they arrive during guild setup.
+     * <br>Default: {@code false}
+     *
+     * <p>By default, JDA keeps the raw member data of every chunk until the last chunk of a guild has arrived,
+     * and only then creates the members. For very large guilds, this temporarily holds all the raw member data in memory at once.
+     * With this enabled, each chunk is converted immediately and its raw data can be collected right away.
+     * The members are still only added to the cache, after the guild setup is complete.
+     *
+     * <p>Use {@link #setChunkingFilter(ChunkingFilter)} to configure which guilds use member chunking.
+     *
+     * @param  enable
+     *         True, if member chunks should be converted incrementally
+     *
+     * @return The JDABuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public JDABuilder setIncrementalChunking(boolean enable)
+    {
+        return setFlag(ConfigFlag.INCREMENTAL_CHUNKING, enable);
+    }
+
     /**
      * Configures which events will be disabled.
      * Bots which did not enable presence/member updates in the developer dashboard are required to disable {@link GatewayIntent#GUILD_PRESENCES} and {@link GatewayIntent#GUILD_MEMBERS}!
@@ -1779,7 +2007,85 @@ public class JDABuilder
     @Nonnull
     public JDA build()
     {
-        checkIntents();
+        JDAImpl jda = createJDA();
+        jda.login(shardInfo, compression, true, intents, encoding);
+        return jda;
+    }
+
+    /**
+     * Builds a new {@link net.dv8tion.jda.api.JDA} instance which replays a gateway recording, instead of connecting to discord.
+     * <br>The recording is created with {@link #setGatewayRecordingFile(Path)}, and its frames are decoded and handled
+     * the same way as the frames of a live connection. This allows profiling the cache and the event listeners with the load of a real session on a single machine.
+     *
+     * <p>Only dispatch events are replayed, the instance is never connected to the gateway. The {@link ReadyEvent ReadyEvent}
+     * is fired once the guilds of the recorded {@code READY} event have been loaded, and the instance shuts down once the end of the recording is reached.
+     * Use {@link JDA#awaitShutdown()} to wait for the replay to finish.
+     *
+     * <p>REST requests made by event listeners are not sent to discord, they fail with an {@link IllegalStateException} instead.
+     * Use {@link #buildReplay(Path, boolean, boolean)} to send them with the configured token.
+     * Member chunking should be {@link #setChunkingFilter(ChunkingFilter) disabled}, since chunk requests are never sent.
+     *
+     * @param  file
+     *         The gateway recording
+     * @param  recordedSpeed
+     *         True, to replay the frames with the timing of the recording, or false to replay them as fast as possible
+     *
+     * @throws IllegalArgumentException
+     *         If the file is null or the provided intents/cache configuration is not possible
+     * @throws java.io.UncheckedIOException
+     *         If the recording cannot be read
+     *
+     * @return A {@link net.dv8tion.jda.api.JDA} instance that has started the replay
+     */
+    @Nonnull
+    public JDA buildReplay(@Nonnull Path file, boolean recordedSpeed)
+    {
+        return buildReplay(file, recordedSpeed, false);
+    }
+
+    /**
+     * Builds a new {@link net.dv8tion.jda.api.JDA} instance which replays a gateway recording, instead of connecting to discord.
+     * <br>This is identical to {@link #buildReplay(Path, boolean)}, but can also send the REST requests made by event listeners.
+     *
+     * <p>When requests are enabled, they are sent to discord with the configured token and act on the real entities of the recording.
+     * You should use a token which cannot cause any damage, or no listeners making requests at all.
+     *
+     * @param  file
+     *         The gateway recording
+     * @param  recordedSpeed
+     *         True, to replay the frames with the timing of the recording, or false to replay them as fast as possible
+     * @param  sendRequests
+     *         True, to send REST requests to discord, or false to fail them with an {@link IllegalStateException}
+     *
+     * @throws IllegalArgumentException
+     *         If the file is null or the provided intents/cache configuration is not possible
+     * @throws java.io.UncheckedIOException
+     *         If the recording cannot be read
+     *
+     * @return A {@link net.dv8tion.jda.api.JDA} instance that has started the replay
+     */
+    @Nonnull
+    public JDA buildReplay(@Nonnull Path file, boolean recordedSpeed, boolean sendRequests)
+    {
+        Checks.notNull(file, "File");
+        JDAImpl jda = createJDA();
+        try
+        {
+            jda.replay(file, recordedSpeed, sendRequests, shardInfo, intents);
+        }
+        catch (IOException e)
+        {
+            jda.shutdownNow();
+            throw new UncheckedIOException(e);
+        }
+        return jda;
+    }
+
+    private JDAImpl createJDA()
+    {
+        // The cache configuration does not apply to stateless sessions
+        if (!stateless)
+            checkIntents();
         OkHttpClient httpClient = this.httpClient;
         if (httpClient == null)
         {
@@ -1800,13 +2106,21 @@ public class JDABuilder
         threadingConfig.setRateLimitPool(rateLimitPool, shutdownRateLimitPool);
         threadingConfig.setEventPool(eventPool, shutdownEventPool);
         threadingConfig.setAudioPool(audioPool, shutdownAudioPool);
+        threadingConfig.setVirtualThreads(virtualThreads);
         SessionConfig sessionConfig = new SessionConfig(controller, httpClient, wsFactory, voiceDispatchInterceptor, flags, maxReconnectDelay, largeThreshold);
-        MetaConfig metaConfig = new MetaConfig(maxBufferSize, contextMap, cacheFlags, flags);
+        MetaConfig metaConfig = new MetaConfig(maxBufferSize, contextMap, stateless ? EnumSet.noneOf(CacheFlag.class) : cacheFlags, flags);
 
         JDAImpl jda = new JDAImpl(authConfig, sessionConfig, threadingConfig, metaConfig, restConfig);
-        jda.setMemberCachePolicy(memberCachePolicy);
+        jda.setStateless(stateless);
+        jda.setMemberCachePolicy(stateless ? MemberCachePolicy.NONE : memberCachePolicy);
+        if (!stateless && messageCacheChannelBytes > 0 && messageCacheBytes > 0)
+            jda.setMessageCache(new MessageCache(messageCacheChannelBytes, messageCacheBytes));
+        jda.setSessionSnapshotFile(sessionSnapshotFile);
+        jda.setGatewayRecordingFile(gatewayRecordingFile);
+        jda.setMetrics(metrics);
+        jda.setRawDispatchInterceptor(rawDispatchInterceptor);
         // We can only do member chunking with the GUILD_MEMBERS intent
-        if ((intents & GatewayIntent.GUILD_MEMBERS.getRawValue()) == 0)
+        if (stateless || (intents & GatewayIntent.GUILD_MEMBERS.getRawValue()) == 0)
             jda.setChunkingFilter(ChunkingFilter.NONE);
         else
             jda.setChunkingFilter(chunkingFilter);
@@ -1825,7 +2139,6 @@ public class JDABuilder
                 .setCacheActivity(activity)
                 .setCacheIdle(idle)
                 .setCacheStatus(status);
-        jda.login(shardInfo, compression, true, intents, encoding);
         return jda;
     }
 
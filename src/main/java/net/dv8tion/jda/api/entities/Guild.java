@@ -47,6 +47,7 @@ import net.dv8tion.jda.api.interactions.commands.build.CommandData;
 import net.dv8tion.jda.api.interactions.commands.build.Commands;
 import net.dv8tion.jda.api.interactions.commands.privileges.IntegrationPrivilege;
 import net.dv8tion.jda.api.managers.*;
+import net.dv8tion.jda.api.requests.BulkOperation;
 import net.dv8tion.jda.api.requests.GatewayIntent;
 import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.requests.restaction.*;
@@ -3646,6 +3647,33 @@ public interface Guild extends IGuildChannelContainer, ISnowflake
     @CheckReturnValue
     AuditableRestAction<Void> ban(@Nonnull UserSnowflake user, int deletionTimeframe, @Nonnull TimeUnit unit);
 
+    /**
+     * Creates a {@link BulkOperation} which bans all the provided users with {@link #ban(UserSnowflake, int, TimeUnit)}.
+     * <br>The operation has to be {@link BulkOperation#start() started}, and can be paused and resumed from a checkpoint.
+     *
+     * <p>Errors for individual users, such as a {@link net.dv8tion.jda.api.exceptions.HierarchyException HierarchyException},
+     * are reported by {@link BulkOperation#getFailures()}.
+     *
+     * @param  users
+     *         The users to ban
+     * @param  deletionTimeframe
+     *         The timeframe for the history of messages that will be deleted. (seconds precision)
+     * @param  unit
+     *         Timeframe unit as a {@link TimeUnit}
+     *
+     * @throws java.lang.IllegalArgumentException
+     *         If null is provided
+     *
+     * @return {@link BulkOperation}
+     */
+    @Nonnull
+    @CheckReturnValue
+    default BulkOperation banMembers(@Nonnull Collection<? extends UserSnowflake> users, int deletionTimeframe, @Nonnull TimeUnit unit)
+    {
+        Checks.notNull(unit, "TimeUnit");
+        return new BulkOperation(getJDA(), users, id -> ban(UserSnowflake.fromId(id), deletionTimeframe, unit));
+    }
+
     /**
      * Unbans the specified {@link UserSnowflake} from this Guild.
      *
@@ -3998,6 +4026,56 @@ public interface Guild extends IGuildChannelContainer, ISnowflake
     @CheckReturnValue
     AuditableRestAction<Void> removeRoleFromMember(@Nonnull UserSnowflake user, @Nonnull Role role);
 
+    /**
+     * Creates a {@link BulkOperation} which assigns the provided {@link Role} to all the provided members with {@link #addRoleToMember(UserSnowflake, Role)}.
+     * <br>The operation has to be {@link BulkOperation#start() started}, and can be paused and resumed from a checkpoint.
+     *
+     * <p>Errors for individual members, such as {@link net.dv8tion.jda.api.requests.ErrorResponse#UNKNOWN_MEMBER UNKNOWN_MEMBER},
+     * are reported by {@link BulkOperation#getFailures()}.
+     *
+     * @param  users
+     *         The members to assign the role to
+     * @param  role
+     *         The role which should be assigned
+     *
+     * @throws java.lang.IllegalArgumentException
+     *         If null is provided
+     *
+     * @return {@link BulkOperation}
+     */
+    @Nonnull
+    @CheckReturnValue
+    default BulkOperation addRoleToMembers(@Nonnull Collection<? extends UserSnowflake> users, @Nonnull Role role)
+    {
+        Checks.notNull(role, "Role");
+        return new BulkOperation(getJDA(), users, id -> addRoleToMember(UserSnowflake.fromId(id), role));
+    }
+
+    /**
+     * Creates a {@link BulkOperation} which removes the provided {@link Role} from all the provided members with {@link #removeRoleFromMember(UserSnowflake, Role)}.
+     * <br>The operation has to be {@link BulkOperation#start() started}, and can be paused and resumed from a checkpoint.
+     *
+     * <p>Errors for individual members, such as {@link net.dv8tion.jda.api.requests.ErrorResponse#UNKNOWN_MEMBER UNKNOWN_MEMBER},
+     * are reported by {@link BulkOperation#getFailures()}.
+     *
+     * @param  users
+     *         The members to remove the role from
+     * @param  role
+     *         The role which should be removed
+     *
+     * @throws java.lang.IllegalArgumentException
+     *         If null is provided
+     *
+     * @return {@link BulkOperation}
+     */
+    @Nonnull
+    @CheckReturnValue
+    default BulkOperation removeRoleFromMembers(@Nonnull Collection<? extends UserSnowflake> users, @Nonnull Role role)
+    {
+        Checks.notNull(role, "Role");
+        return new BulkOperation(getJDA(), users, id -> removeRoleFromMember(UserSnowflake.fromId(id), role));
+    }
+
     /**
      * Modifies the {@link Role Roles} of the specified {@link net.dv8tion.jda.api.entities.Member Member}
      * by adding and removing a collection of roles.
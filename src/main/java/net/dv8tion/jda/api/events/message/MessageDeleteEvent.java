@@ -17,16 +17,20 @@ package net.dv8tion.jda.api.events.message;
 
 import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
+import net.dv8tion.jda.api.utils.cache.CachedMessage;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 /**
  * Indicates that a Message was deleted in a {@link net.dv8tion.jda.api.entities.channel.middleman.MessageChannel MessageChannel}.
  * 
  * <p>Can be used to detect when a Message is deleted. No matter if private or guild.
  *
- * <p><b>JDA does not have a cache for messages and is not able to provide previous information due to limitations by the
+ * <p><b>JDA does not cache messages by default and is not able to provide previous information due to limitations by the
  * Discord API!</b>
+ * If the message cache is enabled with {@link net.dv8tion.jda.api.JDABuilder#setMessageCache(int, long) JDABuilder.setMessageCache(int, long)},
+ * the last known state of the message is available with {@link #getCachedMessage()}.
  *
  * <p><b>Requirements</b><br>
  *
@@ -38,8 +42,30 @@ import javax.annotation.Nonnull;
  */
 public class MessageDeleteEvent extends GenericMessageEvent
 {
+    private final CachedMessage cachedMessage;
+
     public MessageDeleteEvent(@Nonnull JDA api, long responseNumber, long messageId, @Nonnull MessageChannel channel)
+    {
+        this(api, responseNumber, messageId, channel, null);
+    }
+
+    public MessageDeleteEvent(@Nonnull JDA api, long responseNumber, long messageId, @Nonnull MessageChannel channel, @Nullable CachedMessage cachedMessage)
     {
         super(api, responseNumber, messageId, channel);
+        this.cachedMessage = cachedMessage;
+    }
+
+    /**
+     * The last known state of the deleted message.
+     * <br>This is only available if the message cache is enabled and the message was still cached.
+     *
+     * @return The {@link CachedMessage}, or null if the message was not cached
+     *
+     * @see    net.dv8tion.jda.api.JDABuilder#setMessageCache(int, long)
+     */
+    @Nullable
+    public CachedMessage getCachedMessage()
+    {
+        return cachedMessage;
     }
 }
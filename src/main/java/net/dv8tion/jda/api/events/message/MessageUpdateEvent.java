@@ -19,6 +19,7 @@ import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.entities.Member;
 import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.utils.cache.CachedMessage;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -29,8 +30,10 @@ import javax.annotation.Nullable;
  * <p>Can be used to detect a Message is edited in either a private or guild channel. Providing a MessageChannel and Message.
  * <br>This also includes whether a message is being pinned.
  *
- * <p><b>JDA does not have a cache for messages and is not able to provide previous information due to limitations by the
+ * <p><b>JDA does not cache messages by default and is not able to provide previous information due to limitations by the
  * Discord API!</b>
+ * If the message cache is enabled with {@link net.dv8tion.jda.api.JDABuilder#setMessageCache(int, long) JDABuilder.setMessageCache(int, long)},
+ * the state of the message before this update is available with {@link #getPreviousMessage()}.
  *
  * <p><b>Requirements</b><br>
  *
@@ -43,11 +46,18 @@ import javax.annotation.Nullable;
 public class MessageUpdateEvent extends GenericMessageEvent
 {
     private final Message message;
+    private final CachedMessage previousMessage;
 
     public MessageUpdateEvent(@Nonnull JDA api, long responseNumber, @Nonnull Message message)
+    {
+        this(api, responseNumber, message, null);
+    }
+
+    public MessageUpdateEvent(@Nonnull JDA api, long responseNumber, @Nonnull Message message, @Nullable CachedMessage previousMessage)
     {
         super(api, responseNumber, message.getIdLong(), message.getChannel());
         this.message = message;
+        this.previousMessage = previousMessage;
     }
 
     /**
@@ -62,6 +72,20 @@ public class MessageUpdateEvent extends GenericMessageEvent
         return message;
     }
 
+    /**
+     * The state of the message before this update.
+     * <br>This is only available if the message cache is enabled and the message was still cached.
+     *
+     * @return The previous {@link CachedMessage}, or null if the message was not cached
+     *
+     * @see    net.dv8tion.jda.api.JDABuilder#setMessageCache(int, long)
+     */
+    @Nullable
+    public CachedMessage getPreviousMessage()
+    {
+        return previousMessage;
+    }
+
     /**
      * The author of the Message.
      *
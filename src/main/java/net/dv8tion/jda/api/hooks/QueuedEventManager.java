@@ -0,0 +1,621 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.hooks;
+
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.JDALogger;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * An {@link IEventManager} implementation which gives every {@link EventListener} its own bounded queue,
+ * drained on the provided executor.
+ *
+ * <p>Each listener receives its events in the same order as they were fired, but listeners run independently of each other.
+ * A slow listener only delays its own events, and its queue is bounded by the configured capacity.
+ * When a queue is full, the {@link OverflowPolicy} decides whether the event dispatch waits for space or events are dropped.
+ *
+ * <p>Use {@link #getMetrics()} to monitor the queue depth, processing time, and event age of each listener.
+ *
+ * <p>This manager already handles events asynchronously, so it should not be combined with an event pool
+ * like {@link net.dv8tion.jda.api.JDABuilder#setEventPool(java.util.concurrent.ExecutorService)}.
+ * With {@link OverflowPolicy#BLOCK}, a full queue blocks the thread which fires the event, usually the gateway reader.
+ * This slows down reading from the gateway instead of buffering events without limit.
+ *
+ * <p><b>Example</b><br>
+ * <pre>{@code
+ * ExecutorService pool = Executors.newFixedThreadPool(4);
+ * QueuedEventManager manager = new QueuedEventManager(pool, 1000, OverflowPolicy.SHED_BY_TYPE,
+ *         Arrays.asList(UserUpdateOnlineStatusEvent.class, UserTypingEvent.class));
+ * JDABuilder.createDefault(token)
+ *     .setEventManager(manager)
+ *     .addEventListeners(new MyListener())
+ *     .build();
+ * }</pre>
+ *
+ * @see InterfacedEventManager
+ */
+public class QueuedEventManager implements IEventManager
+{
+    private static final Logger LOG = JDALogger.getLog(QueuedEventManager.class);
+    // Events handled in one drain task, before it is resubmitted so other listeners get a turn on the executor
+    private static final int DRAIN_BATCH = 64;
+
+    private final CopyOnWriteArrayList<ListenerQueue> queues = new CopyOnWriteArrayList<>();
+    private final Executor executor;
+    private final int capacity;
+    private final OverflowPolicy policy;
+    private final List<Class<? extends GenericEvent>> sheddableTypes;
+
+    /**
+     * Creates a new QueuedEventManager.
+     *
+     * @param  executor
+     *         The executor which runs the listeners
+     * @param  capacity
+     *         The maximum number of queued events per listener
+     * @param  policy
+     *         The {@link OverflowPolicy} used when a queue is full
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided or the capacity is not positive
+     */
+    public QueuedEventManager(@Nonnull Executor executor, int capacity, @Nonnull OverflowPolicy policy)
+    {
+        this(executor, capacity, policy, Collections.emptyList());
+    }
+
+    /**
+     * Creates a new QueuedEventManager.
+     *
+     * @param  executor
+     *         The executor which runs the listeners
+     * @param  capacity
+     *         The maximum number of queued events per listener
+     * @param  policy
+     *         The {@link OverflowPolicy} used when a queue is full
+     * @param  sheddableTypes
+     *         The event types which may be dropped by {@link OverflowPolicy#SHED_BY_TYPE}, including their subclasses
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided or the capacity is not positive
+     */
+    public QueuedEventManager(@Nonnull Executor executor, int capacity, @Nonnull OverflowPolicy policy, @Nonnull Collection<Class<? extends GenericEvent>> sheddableTypes)
+    {
+        Checks.notNull(executor, "Executor");
+        Checks.positive(capacity, "Capacity");
+        Checks.notNull(policy, "OverflowPolicy");
+        Checks.noneNull(sheddableTypes, "Sheddable types");
+        this.executor = executor;
+        this.capacity = capacity;
+        this.policy = policy;
+        this.sheddableTypes = new ArrayList<>(sheddableTypes);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalArgumentException
+     *         If the provided listener does not implement {@link net.dv8tion.jda.api.hooks.EventListener EventListener}
+     */
+    @Override
+    public void register(@Nonnull Object listener)
+    {
+        if (!(listener instanceof EventListener))
+            throw new IllegalArgumentException("Listener must implement EventListener");
+        queues.add(new ListenerQueue((EventListener) listener));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Events which are still queued for this listener are discarded.
+     */
+    @Override
+    public void unregister(@Nonnull Object listener)
+    {
+        for (ListenerQueue queue : queues)
+        {
+            if (queue.listener.equals(listener) && queues.remove(queue))
+            {
+                queue.close();
+                return;
+            }
+        }
+    }
+
+    @Nonnull
+    @Override
+    public List<Object> getRegisteredListeners()
+    {
+        return Collections.unmodifiableList(queues.stream().map(queue -> queue.listener).collect(Collectors.toList()));
+    }
+
+    @Override
+    public void handle(@Nonnull GenericEvent event)
+    {
+        for (ListenerQueue queue : queues)
+            queue.offer(event);
+    }
+
+    /**
+     * The metrics for every registered listener, in order of registration.
+     *
+     * @return Immutable list of {@link ListenerMetrics}
+     */
+    @Nonnull
+    public List<ListenerMetrics> getMetrics()
+    {
+        return Collections.unmodifiableList(new ArrayList<>(queues));
+    }
+
+    /**
+     * The metrics for the provided listener.
+     *
+     * @param  listener
+     *         The registered listener
+     *
+     * @return The {@link ListenerMetrics}, or null if the listener is not registered
+     */
+    @Nullable
+    public ListenerMetrics getMetrics(@Nonnull Object listener)
+    {
+        for (ListenerQueue queue : queues)
+        {
+            if (queue.listener.equals(listener))
+                return queue;
+        }
+        return null;
+    }
+
+    /**
+     * Waits until every listener has handled all of its queued events, including events fired while waiting.
+     * <br>The {@link ListenerMetrics} include every handled event once this returns true.
+     *
+     * @param  timeout
+     *         The maximum time to wait
+     * @param  unit
+     *         The time unit of the timeout
+     *
+     * @throws IllegalArgumentException
+     *         If the unit is null
+     * @throws InterruptedException
+     *         If the thread is interrupted while waiting
+     *
+     * @return True, if all queues were drained before the timeout
+     */
+    public boolean awaitIdle(long timeout, @Nonnull TimeUnit unit) throws InterruptedException
+    {
+        Checks.notNull(unit, "TimeUnit");
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (ListenerQueue queue : queues)
+        {
+            if (!queue.awaitIdle(deadline))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Decides what happens to new events, when the queue of a listener is full.
+     */
+    public enum OverflowPolicy
+    {
+        /**
+         * Wait until the listener has handled enough events to make space.
+         * <br>This applies back-pressure to the thread firing the event, usually the gateway reader.
+         */
+        BLOCK,
+        /**
+         * Drop the oldest queued event, to make space for the new event.
+         */
+        DROP_OLDEST,
+        /**
+         * Drop events of the sheddable types, and wait like {@link #BLOCK} if no such event can be dropped.
+         * <br>A new sheddable event is dropped right away. Otherwise, the oldest queued sheddable event makes space for it.
+         */
+        SHED_BY_TYPE
+    }
+
+    /**
+     * Live view of the queue and timings for one listener.
+     */
+    public interface ListenerMetrics
+    {
+        /**
+         * The listener these metrics belong to.
+         *
+         * @return The listener
+         */
+        @Nonnull
+        EventListener getListener();
+
+        /**
+         * The number of events currently waiting in the queue of this listener.
+         *
+         * @return The queue depth
+         */
+        int getQueueSize();
+
+        /**
+         * The maximum number of events waiting in the queue of this listener.
+         *
+         * @return The queue capacity
+         */
+        int getCapacity();
+
+        /**
+         * The total number of events handled by this listener.
+         *
+         * @return The number of handled events
+         */
+        long getProcessedEvents();
+
+        /**
+         * The total number of events dropped, because the queue of this listener was full.
+         *
+         * @return The number of dropped events
+         */
+        long getDroppedEvents();
+
+        /**
+         * The average time this listener took to handle an event.
+         *
+         * @return The average processing time
+         */
+        @Nonnull
+        Duration getAverageProcessingTime();
+
+        /**
+         * The longest time this listener took to handle an event.
+         *
+         * @return The maximum processing time
+         */
+        @Nonnull
+        Duration getMaxProcessingTime();
+
+        /**
+         * How long the most recently handled event waited in the queue, before the listener started handling it.
+         *
+         * @return The age of the last event
+         */
+        @Nonnull
+        Duration getLastEventAge();
+
+        /**
+         * How long the oldest queued event has been waiting, or zero if the queue is empty.
+         * <br>This is a good indicator of how far the listener is lagging behind.
+         *
+         * @return The age of the oldest queued event
+         */
+        @Nonnull
+        Duration getOldestEventAge();
+    }
+
+    private class ListenerQueue implements ListenerMetrics
+    {
+        private final EventListener listener;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notFull = lock.newCondition();
+        private final Condition idle = lock.newCondition();
+        private final ArrayDeque<QueuedEvent> queue = new ArrayDeque<>();
+        private boolean scheduled;
+        private boolean closed;
+
+        // Only written by the drain task, which never runs concurrently with itself
+        private volatile long processed;
+        private volatile long totalProcessingTime;
+        private volatile long maxProcessingTime;
+        private volatile long lastEventAge;
+        private final AtomicLong dropped = new AtomicLong();
+
+        private ListenerQueue(EventListener listener)
+        {
+            this.listener = listener;
+        }
+
+        private void offer(GenericEvent event)
+        {
+            lock.lock();
+            try
+            {
+                while (queue.size() >= capacity)
+                {
+                    if (closed)
+                        return;
+                    if (policy == OverflowPolicy.DROP_OLDEST)
+                    {
+                        queue.poll();
+                        dropped.incrementAndGet();
+                        break;
+                    }
+                    if (policy == OverflowPolicy.SHED_BY_TYPE)
+                    {
+                        if (isSheddable(event))
+                        {
+                            dropped.incrementAndGet();
+                            return;
+                        }
+                        if (shedQueued())
+                            break;
+                    }
+
+                    try
+                    {
+                        notFull.await();
+                    }
+                    catch (InterruptedException e)
+                    {
+                        Thread.currentThread().interrupt();
+                        dropped.incrementAndGet();
+                        LOG.warn("Interrupted while waiting for the queue of {}, dropping {}", listener, event.getClass().getSimpleName());
+                        return;
+                    }
+                }
+
+                if (closed)
+                    return;
+                queue.add(new QueuedEvent(event, System.nanoTime()));
+                if (scheduled)
+                    return;
+                scheduled = true;
+            }
+            finally
+            {
+                lock.unlock();
+            }
+            submit();
+        }
+
+        // Drops the oldest queued event of a sheddable type
+        private boolean shedQueued()
+        {
+            for (Iterator<QueuedEvent> it = queue.iterator(); it.hasNext();)
+            {
+                if (isSheddable(it.next().event))
+                {
+                    it.remove();
+                    dropped.incrementAndGet();
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean isSheddable(GenericEvent event)
+        {
+            for (Class<? extends GenericEvent> type : sheddableTypes)
+            {
+                if (type.isInstance(event))
+                    return true;
+            }
+            return false;
+        }
+
+        private void close()
+        {
+            lock.lock();
+            try
+            {
+                closed = true;
+                queue.clear();
+                notFull.signalAll();
+                idle.signalAll();
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        // A queue with events always has a scheduled drain task, which only finishes once the queue is empty
+        private boolean awaitIdle(long deadline) throws InterruptedException
+        {
+            lock.lock();
+            try
+            {
+                while (scheduled && !closed)
+                {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0)
+                        return false;
+                    idle.awaitNanos(remaining);
+                }
+                return true;
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        private void submit()
+        {
+            try
+            {
+                executor.execute(this::drain);
+            }
+            catch (RejectedExecutionException ex)
+            {
+                LOG.warn("Event executor rejected execution! Running on handling thread instead...");
+                drain();
+            }
+        }
+
+        private void drain()
+        {
+            for (int i = 0; i < DRAIN_BATCH; i++)
+            {
+                QueuedEvent next;
+                lock.lock();
+                try
+                {
+                    next = queue.poll();
+                    if (next == null)
+                    {
+                        scheduled = false;
+                        idle.signalAll();
+                        return;
+                    }
+                    notFull.signal();
+                }
+                finally
+                {
+                    lock.unlock();
+                }
+
+                long start = System.nanoTime();
+                lastEventAge = start - next.queuedAt;
+                Error error = null;
+                try
+                {
+                    listener.onEvent(next.event);
+                }
+                catch (Throwable throwable)
+                {
+                    LOG.error("One of the EventListeners had an uncaught exception", throwable);
+                    if (throwable instanceof Error)
+                        error = (Error) throwable;
+                }
+                finally
+                {
+                    long time = System.nanoTime() - start;
+                    processed++;
+                    totalProcessingTime += time;
+                    if (time > maxProcessingTime)
+                        maxProcessingTime = time;
+                }
+
+                if (error != null)
+                {
+                    // Keep handling the remaining events on a new task, only after this task is done with the metrics
+                    submit();
+                    throw error;
+                }
+            }
+            submit();
+        }
+
+        @Nonnull
+        @Override
+        public EventListener getListener()
+        {
+            return listener;
+        }
+
+        @Override
+        public int getQueueSize()
+        {
+            lock.lock();
+            try
+            {
+                return queue.size();
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public int getCapacity()
+        {
+            return capacity;
+        }
+
+        @Override
+        public long getProcessedEvents()
+        {
+            return processed;
+        }
+
+        @Override
+        public long getDroppedEvents()
+        {
+            return dropped.get();
+        }
+
+        @Nonnull
+        @Override
+        public Duration getAverageProcessingTime()
+        {
+            long processed = this.processed;
+            return processed == 0 ? Duration.ZERO : Duration.ofNanos(totalProcessingTime / processed);
+        }
+
+        @Nonnull
+        @Override
+        public Duration getMaxProcessingTime()
+        {
+            return Duration.ofNanos(maxProcessingTime);
+        }
+
+        @Nonnull
+        @Override
+        public Duration getLastEventAge()
+        {
+            return Duration.ofNanos(lastEventAge);
+        }
+
+        @Nonnull
+        @Override
+        public Duration getOldestEventAge()
+        {
+            lock.lock();
+            try
+            {
+                QueuedEvent oldest = queue.peek();
+                return oldest == null ? Duration.ZERO : Duration.ofNanos(System.nanoTime() - oldest.queuedAt);
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public String toString()
+        {
+            return "ListenerMetrics[" + listener + "](queued=" + getQueueSize() + ", processed=" + processed + ", dropped=" + getDroppedEvents() + ")";
+        }
+    }
+
+    private static class QueuedEvent
+    {
+        private final GenericEvent event;
+        private final long queuedAt;
+
+        private QueuedEvent(GenericEvent event, long queuedAt)
+        {
+            this.event = event;
+            this.queuedAt = queuedAt;
+        }
+    }
+}
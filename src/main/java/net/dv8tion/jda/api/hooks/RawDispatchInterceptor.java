@@ -0,0 +1,149 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.api.hooks;
+
+import net.dv8tion.jda.api.GatewayEncoding;
+import net.dv8tion.jda.api.JDA;
+
+import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+
+/**
+ * Interceptor which receives the raw bytes of gateway dispatches, before they are parsed by JDA.
+ * <br>This allows forwarding events to another system without parsing and serializing them again,
+ * unlike {@link net.dv8tion.jda.api.events.RawGatewayEvent RawGatewayEvent} which is fired after the event was handled.
+ *
+ * <p>Only the {@link RawDispatch#getType() type} and the {@link RawDispatch#getSequence() sequence number} are read from the payload up front.
+ * If the interceptor consumes a dispatch, JDA skips it entirely: the payload is not parsed, the cache is not updated, and no events are fired.
+ * The sequence number is still tracked to keep the session resumable. The {@code READY} and {@code RESUMED} dispatches are always handled by JDA.
+ *
+ * <p>Consuming dispatches that JDA uses to build its cache leaves the cache incomplete.
+ * For example, the {@link net.dv8tion.jda.api.events.session.ReadyEvent ReadyEvent} is only fired once the {@code GUILD_CREATE} of every guild
+ * in the {@code READY} payload was handled by JDA.
+ *
+ * <p>The interceptor is called on the gateway read thread and blocks the handling of all following frames, it should hand the payload off quickly.
+ *
+ * @see net.dv8tion.jda.api.JDABuilder#setRawDispatchInterceptor(RawDispatchInterceptor)
+ */
+@FunctionalInterface
+public interface RawDispatchInterceptor
+{
+    /**
+     * Called for every dispatch received from the gateway, after decompression.
+     *
+     * @param  dispatch
+     *         The {@link RawDispatch}
+     *
+     * @return True, if the dispatch was consumed and should be skipped by JDA
+     */
+    boolean onRawDispatch(@Nonnull RawDispatch dispatch);
+
+    /**
+     * The raw payload of a gateway dispatch, with the type and sequence number already extracted.
+     */
+    class RawDispatch
+    {
+        private final JDA api;
+        private final String type;
+        private final long sequence;
+        private final GatewayEncoding encoding;
+        private final byte[] payload;
+
+        public RawDispatch(JDA api, String type, long sequence, GatewayEncoding encoding, byte[] payload)
+        {
+            this.api = api;
+            this.type = type;
+            this.sequence = sequence;
+            this.encoding = encoding;
+            this.payload = payload;
+        }
+
+        /**
+         * The JDA instance which received this dispatch
+         *
+         * @return The JDA instance
+         */
+        @Nonnull
+        public JDA getJDA()
+        {
+            return api;
+        }
+
+        /**
+         * The event type, such as {@code MESSAGE_CREATE}
+         *
+         * @return The event type
+         */
+        @Nonnull
+        public String getType()
+        {
+            return type;
+        }
+
+        /**
+         * The sequence number of this dispatch
+         *
+         * @return The sequence number, or -1 if the payload has none
+         */
+        public long getSequence()
+        {
+            return sequence;
+        }
+
+        /**
+         * The encoding of the payload, which is either a JSON object or an ETF map term
+         *
+         * @return The {@link GatewayEncoding}
+         */
+        @Nonnull
+        public GatewayEncoding getEncoding()
+        {
+            return encoding;
+        }
+
+        /**
+         * Read-only view of the entire decompressed payload, including the {@code op}, {@code t}, {@code s}, and {@code d} fields.
+         *
+         * @return The payload buffer
+         */
+        @Nonnull
+        public ByteBuffer getBuffer()
+        {
+            return ByteBuffer.wrap(payload).asReadOnlyBuffer();
+        }
+
+        /**
+         * The entire decompressed payload, including the {@code op}, {@code t}, {@code s}, and {@code d} fields.
+         * <br>The array is not copied, and must not be modified.
+         * It is not reused for other frames, so it can be kept after this call returns.
+         *
+         * @return The payload bytes
+         */
+        @Nonnull
+        public byte[] getBytes()
+        {
+            return payload;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "RawDispatch[" + type + "](sequence=" + sequence + ", size=" + payload.length + ")";
+        }
+    }
+}
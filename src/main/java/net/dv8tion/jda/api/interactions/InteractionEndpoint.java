@@ -0,0 +1,482 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.interactions;
+
+import com.iwebpp.crypto.TweetNaclFast;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.exceptions.ParsingException;
+import net.dv8tion.jda.api.requests.Request;
+import net.dv8tion.jda.api.requests.Response;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.handle.InteractionCreateHandler;
+import net.dv8tion.jda.internal.interactions.HttpInteractionResponse;
+import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.IOUtil;
+import net.dv8tion.jda.internal.utils.JDALogger;
+import net.dv8tion.jda.internal.utils.concurrent.CountingThreadFactory;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Receives interactions over an HTTP endpoint, as an alternative to the gateway.
+ * <br>Discord sends interactions to the <b>Interactions Endpoint URL</b> configured for the application in the developer portal.
+ *
+ * <p>Received interactions are handled exactly like interactions received from the gateway, and fire the same events on the provided {@link JDA} instance.
+ * The initial callback, such as {@link net.dv8tion.jda.api.interactions.callbacks.IReplyCallback#reply(String) reply(...)}
+ * or {@link net.dv8tion.jda.api.interactions.callbacks.IReplyCallback#deferReply() deferReply()}, is not sent to the REST API.
+ * Instead, it is written into the body of the HTTP response, which saves a round trip to Discord.
+ * All followup requests, like the ones made through the {@link InteractionHook}, still use the REST API.
+ *
+ * <p>The initial callback has to be made within the {@link #setResponseTimeout(long, TimeUnit) response timeout}.
+ * If no callback is made in time, the endpoint responds with {@code 503 Service Unavailable}.
+ * Since Discord considers the interaction failed at that point, a later callback will fail as well.
+ *
+ * <p>The endpoint can either run its own HTTP server with {@link #start(InetSocketAddress, String)},
+ * or be embedded into an existing web server with {@link #handle(String, String, byte[])}.
+ *
+ * <p><b>Example</b><br>
+ * <pre>{@code
+ * InteractionEndpoint endpoint = new InteractionEndpoint(jda, publicKey);
+ * endpoint.start(new InetSocketAddress(8080), "/interactions");
+ * }</pre>
+ *
+ * <p>Note that the callback {@link net.dv8tion.jda.api.requests.RestAction RestAction} succeeds once the HTTP response was written,
+ * since there is no way to know if Discord accepted the response.
+ * When embedding the endpoint, this has to be signaled with {@link HttpResponse#complete()}.
+ */
+public class InteractionEndpoint implements Closeable
+{
+    public static final Logger LOG = JDALogger.getLog(InteractionEndpoint.class);
+
+    /** The header with the hex encoded Ed25519 signature of the request */
+    public static final String SIGNATURE_HEADER = "X-Signature-Ed25519";
+    /** The header with the timestamp of the request, which is part of the signed message */
+    public static final String TIMESTAMP_HEADER = "X-Signature-Timestamp";
+
+    private static final int PING = 1;
+    private static final byte[] PONG = "{\"type\":1}".getBytes(StandardCharsets.UTF_8);
+
+    private final JDAImpl api;
+    private final InteractionCreateHandler handler;
+    private final TweetNaclFast.Signature verifier;
+
+    private long responseTimeout = TimeUnit.MILLISECONDS.toNanos(2500);
+    private int maxBodySize = 1 << 20;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Creates a new endpoint, which handles the interactions with the provided JDA instance.
+     *
+     * @param  jda
+     *         The JDA instance, used to fire the events and for its entity cache
+     * @param  publicKey
+     *         The hex encoded public key of the application, as shown in the developer portal
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided or the public key is not a 64 character hex string
+     */
+    public InteractionEndpoint(@Nonnull JDA jda, @Nonnull String publicKey)
+    {
+        Checks.notNull(jda, "JDA");
+        Checks.notNull(publicKey, "Public Key");
+        Checks.check(publicKey.length() == 64 && isHex(publicKey), "Public Key must be a 64 character hex string");
+        this.api = (JDAImpl) jda;
+        this.handler = new InteractionCreateHandler(api);
+        this.verifier = new TweetNaclFast.Signature(TweetNaclFast.hexDecode(publicKey), null);
+    }
+
+    /**
+     * The maximum time to wait for the initial callback of an interaction.
+     * <br>Discord requires a response within 3 seconds. The default is 2.5 seconds, which leaves some room for network latency.
+     *
+     * @param  timeout
+     *         The timeout
+     * @param  unit
+     *         The time unit
+     *
+     * @throws IllegalArgumentException
+     *         If the timeout is not positive or the unit is null
+     *
+     * @return The same endpoint instance, for chaining convenience
+     */
+    @Nonnull
+    public InteractionEndpoint setResponseTimeout(long timeout, @Nonnull TimeUnit unit)
+    {
+        Checks.positive(timeout, "Timeout");
+        Checks.notNull(unit, "Unit");
+        this.responseTimeout = unit.toNanos(timeout);
+        return this;
+    }
+
+    /**
+     * The maximum size of a request body accepted by the HTTP server started with {@link #start(InetSocketAddress, String)}.
+     * <br>Larger requests are rejected with {@code 413 Payload Too Large}, before their signature is verified. The default is 1 MiB.
+     *
+     * @param  bytes
+     *         The maximum body size in bytes
+     *
+     * @throws IllegalArgumentException
+     *         If the size is not positive
+     *
+     * @return The same endpoint instance, for chaining convenience
+     */
+    @Nonnull
+    public InteractionEndpoint setMaxBodySize(int bytes)
+    {
+        Checks.positive(bytes, "Max body size");
+        this.maxBodySize = bytes;
+        return this;
+    }
+
+    /**
+     * Starts an HTTP server, which accepts interactions on the provided path.
+     *
+     * @param  address
+     *         The address to bind to, using port 0 picks a free port
+     * @param  path
+     *         The path of the endpoint, such as {@code "/interactions"}
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided or the path does not start with {@code /}
+     * @throws IllegalStateException
+     *         If the server is already running
+     * @throws IOException
+     *         If the server cannot bind to the address
+     *
+     * @return The same endpoint instance, for chaining convenience
+     */
+    @Nonnull
+    public synchronized InteractionEndpoint start(@Nonnull InetSocketAddress address, @Nonnull String path) throws IOException
+    {
+        Checks.notNull(address, "Address");
+        Checks.notNull(path, "Path");
+        Checks.check(path.startsWith("/"), "Path must start with /");
+        Checks.check(server == null, "Endpoint is already running");
+
+        HttpServer server = HttpServer.create(address, 0);
+        ExecutorService executor = Executors.newCachedThreadPool(new CountingThreadFactory(api::getIdentifierString, "Interactions"));
+        server.createContext(path, this::handleExchange);
+        server.setExecutor(executor);
+        server.start();
+        this.server = server;
+        this.executor = executor;
+        LOG.debug("Started interaction endpoint on {}{}", server.getAddress(), path);
+        return this;
+    }
+
+    /**
+     * The address of the running HTTP server.
+     *
+     * @return The bound address, or null if the server is not running
+     */
+    @Nullable
+    public synchronized InetSocketAddress getAddress()
+    {
+        return server == null ? null : server.getAddress();
+    }
+
+    /**
+     * Stops the HTTP server started by {@link #start(InetSocketAddress, String)}.
+     * <br>Does nothing if the server is not running.
+     */
+    @Override
+    public synchronized void close()
+    {
+        if (server == null)
+            return;
+        server.stop(0);
+        executor.shutdown();
+        server = null;
+        executor = null;
+    }
+
+    /**
+     * Handles a single request sent to the endpoint, for use with an existing web server.
+     * <br>This blocks until the initial callback was made, or the response timeout was reached.
+     *
+     * <p>The callback {@link net.dv8tion.jda.api.requests.RestAction RestAction} only completes once
+     * {@link HttpResponse#complete()} or {@link HttpResponse#fail(Throwable)} is called,
+     * which should happen after the response was written to the client.
+     * Until then, followup requests through the {@link InteractionHook} are held back, so they cannot reach Discord before the initial response.
+     *
+     * @param  signature
+     *         The value of the {@value #SIGNATURE_HEADER} header
+     * @param  timestamp
+     *         The value of the {@value #TIMESTAMP_HEADER} header
+     * @param  body
+     *         The raw request body
+     *
+     * @return The {@link HttpResponse} to send back
+     */
+    @Nonnull
+    public HttpResponse handle(@Nullable String signature, @Nullable String timestamp, @Nonnull byte[] body)
+    {
+        Checks.notNull(body, "Body");
+        if (!verify(signature, timestamp, body))
+            return HttpResponse.error(401, "Invalid request signature");
+
+        DataObject json;
+        try
+        {
+            json = DataObject.fromJson(body);
+        }
+        catch (ParsingException e)
+        {
+            return HttpResponse.error(400, "Invalid JSON");
+        }
+
+        if (json.getInt("type", 0) == PING)
+            return new HttpResponse(200, "application/json", PONG);
+
+        HttpInteractionResponse response = new HttpInteractionResponse();
+        HttpInteractionResponse.CURRENT.set(response);
+        try
+        {
+            handler.handle(api.getResponseTotal(), DataObject.empty()
+                .put("op", 0)
+                .put("t", "INTERACTION_CREATE")
+                .put("d", json));
+        }
+        catch (Exception e)
+        {
+            LOG.error("Got an unexpected error while handling interaction", e);
+            response.cancel();
+            return HttpResponse.error(500, "Failed to handle interaction");
+        }
+        finally
+        {
+            HttpInteractionResponse.CURRENT.remove();
+        }
+
+        Request<?> request;
+        try
+        {
+            request = response.await(responseTimeout, TimeUnit.NANOSECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            response.cancel();
+            Thread.currentThread().interrupt();
+            return HttpResponse.error(503, "Interrupted");
+        }
+
+        if (request == null)
+        {
+            LOG.warn("Interaction was not acknowledged within the response timeout. Interaction: {}", json.getString("id", null));
+            return HttpResponse.error(503, "Interaction was not acknowledged in time");
+        }
+
+        return respond(request);
+    }
+
+    private HttpResponse respond(Request<?> request)
+    {
+        RequestBody requestBody = request.getBody();
+        Buffer buffer = new Buffer();
+        String contentType = "application/json";
+        try
+        {
+            if (requestBody != null)
+            {
+                requestBody.writeTo(buffer);
+                if (requestBody.contentType() != null)
+                    contentType = requestBody.contentType().toString();
+            }
+        }
+        catch (Exception e)
+        {
+            request.onFailure(e);
+            return HttpResponse.error(500, "Failed to write callback");
+        }
+
+        return new HttpResponse(200, contentType, buffer.readByteArray(), request);
+    }
+
+    private boolean verify(String signature, String timestamp, byte[] body)
+    {
+        if (signature == null || timestamp == null || signature.length() != 128 || !isHex(signature))
+            return false;
+        byte[] time = timestamp.getBytes(StandardCharsets.UTF_8);
+        byte[] message = new byte[time.length + body.length];
+        System.arraycopy(time, 0, message, 0, time.length);
+        System.arraycopy(body, 0, message, time.length, body.length);
+        return verifier.detached_verify(message, TweetNaclFast.hexDecode(signature));
+    }
+
+    private void handleExchange(HttpExchange exchange) throws IOException
+    {
+        try
+        {
+            HttpResponse response;
+            if (!"POST".equals(exchange.getRequestMethod()))
+            {
+                response = HttpResponse.error(405, "Method not allowed");
+            }
+            else
+            {
+                byte[] body = IOUtil.readFully(exchange.getRequestBody(), maxBodySize);
+                if (body == null)
+                    response = HttpResponse.error(413, "Request body too large");
+                else
+                    response = handle(
+                        exchange.getRequestHeaders().getFirst(SIGNATURE_HEADER),
+                        exchange.getRequestHeaders().getFirst(TIMESTAMP_HEADER),
+                        body);
+            }
+
+            try
+            {
+                exchange.getResponseHeaders().set("Content-Type", response.getContentType());
+                exchange.sendResponseHeaders(response.getStatus(), response.getBody().length);
+                try (OutputStream out = exchange.getResponseBody())
+                {
+                    out.write(response.getBody());
+                }
+            }
+            catch (IOException | RuntimeException e)
+            {
+                response.fail(e);
+                throw e;
+            }
+            response.complete();
+        }
+        finally
+        {
+            exchange.close();
+        }
+    }
+
+    private static boolean isHex(String string)
+    {
+        for (int i = 0; i < string.length(); i++)
+        {
+            if (Character.digit(string.charAt(i), 16) < 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * The HTTP response for a request handled by {@link #handle(String, String, byte[])}.
+     */
+    public static class HttpResponse
+    {
+        private final int status;
+        private final String contentType;
+        private final byte[] body;
+        private final Request<?> request;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        public HttpResponse(int status, @Nonnull String contentType, @Nonnull byte[] body)
+        {
+            this(status, contentType, body, null);
+        }
+
+        private HttpResponse(int status, String contentType, byte[] body, Request<?> request)
+        {
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+            this.request = request;
+        }
+
+        private static HttpResponse error(int status, String message)
+        {
+            return new HttpResponse(status, "text/plain; charset=utf-8", message.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * The HTTP status code.
+         *
+         * @return The status code
+         */
+        public int getStatus()
+        {
+            return status;
+        }
+
+        /**
+         * The value for the {@code Content-Type} header.
+         * <br>This is {@code multipart/form-data} if the callback included files.
+         *
+         * @return The content type
+         */
+        @Nonnull
+        public String getContentType()
+        {
+            return contentType;
+        }
+
+        /**
+         * The response body.
+         *
+         * @return The body
+         */
+        @Nonnull
+        public byte[] getBody()
+        {
+            return body;
+        }
+
+        /**
+         * Completes the callback {@link net.dv8tion.jda.api.requests.RestAction RestAction} of the interaction.
+         * <br>This should be called once the response was written and flushed to the client.
+         * Subsequent calls, or calls after {@link #fail(Throwable)}, do nothing.
+         */
+        public void complete()
+        {
+            if (request != null && done.compareAndSet(false, true))
+                request.handleResponse(new Response(null, 204, "No Content", -1, Collections.emptySet()));
+        }
+
+        /**
+         * Fails the callback {@link net.dv8tion.jda.api.requests.RestAction RestAction} of the interaction.
+         * <br>This should be called if the response could not be written to the client.
+         * Subsequent calls, or calls after {@link #complete()}, do nothing.
+         *
+         * @param  error
+         *         The reason why the response could not be sent
+         *
+         * @throws IllegalArgumentException
+         *         If null is provided
+         */
+        public void fail(@Nonnull Throwable error)
+        {
+            Checks.notNull(error, "Error");
+            if (request != null && done.compareAndSet(false, true))
+                request.onFailure(error);
+        }
+    }
+}
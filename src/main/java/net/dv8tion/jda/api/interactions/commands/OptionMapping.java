@@ -50,7 +50,9 @@ public class OptionMapping
     private final OptionType type;
     private final String name;
     private final TLongObjectMap<Object> resolved;
-    private final Mentions mentions;
+    private final JDA jda;
+    private final Guild guild;
+    private Mentions mentions;
 
     public OptionMapping(DataObject data, TLongObjectMap<Object> resolved, JDA jda, Guild guild)
     {
@@ -58,10 +60,8 @@ public class OptionMapping
         this.type = OptionType.fromKey(data.getInt("type", -1));
         this.name = data.getString("name");
         this.resolved = resolved;
-        if (type == OptionType.STRING)
-            mentions = new InteractionMentions(getAsString(), resolved, (JDAImpl) jda, (GuildImpl) guild);
-        else
-            mentions = new InteractionMentions("", new TLongObjectHashMap<>(0), (JDAImpl) jda, (GuildImpl) guild);
+        this.jda = jda;
+        this.guild = guild;
     }
 
     /**
@@ -79,6 +79,13 @@ public class OptionMapping
     @Nonnull
     public Mentions getMentions()
     {
+        if (mentions == null)
+        {
+            if (type == OptionType.STRING)
+                mentions = new InteractionMentions(getAsString(), resolved, (JDAImpl) jda, (GuildImpl) guild);
+            else
+                mentions = new InteractionMentions("", new TLongObjectHashMap<>(0), (JDAImpl) jda, (GuildImpl) guild);
+        }
         return mentions;
     }
 
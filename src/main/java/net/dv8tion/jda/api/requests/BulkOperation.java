@@ -0,0 +1,578 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.requests;
+
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.ISnowflake;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.requests.RestActionImpl;
+import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.JDALogger;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * Executes the same kind of request for a large number of targets, such as adding a role to every member of a guild.
+ *
+ * <p>Queueing thousands of {@link RestAction RestActions} at once fills the rate-limiter with requests which cannot be paused or tracked.
+ * Instead, this operation groups the requests by their rate-limit bucket and only keeps {@link #setMaxInFlight(int) a few requests}
+ * per bucket in the rate-limiter. This is enough to use the full capacity of every bucket, without queueing more requests than the bucket can handle.
+ * While the global rate-limit is hit, no new requests are queued until it resets.
+ *
+ * <p>The operation tracks which targets completed successfully. A {@link #getCheckpoint() checkpoint} of these targets
+ * can be stored and used with {@link #resumeFrom(Checkpoint)} to continue an interrupted operation after a restart.
+ * Failed targets are not part of the checkpoint and are retried when resuming.
+ *
+ * <p><b>Example</b>
+ * <pre>{@code
+ * BulkOperation operation = new BulkOperation(jda, channel.getGuild().getRoles(),
+ *     roleId -> channel.upsertPermissionOverride(jda.getRoleById(roleId)).deny(Permission.MESSAGE_SEND))
+ *     .onProgress(op -> System.out.printf("%d/%d%n", op.getCompleted(), op.getTotal()));
+ * operation.start().thenAccept(op -> System.out.println("Failed: " + op.getFailures().keySet()));
+ * }</pre>
+ *
+ * @see net.dv8tion.jda.api.entities.Guild#addRoleToMembers(Collection, net.dv8tion.jda.api.entities.Role)
+ * @see net.dv8tion.jda.api.entities.Guild#removeRoleFromMembers(Collection, net.dv8tion.jda.api.entities.Role)
+ * @see net.dv8tion.jda.api.entities.Guild#banMembers(Collection, int, TimeUnit)
+ */
+public class BulkOperation
+{
+    public static final Logger LOG = JDALogger.getLog(BulkOperation.class);
+
+    /** The default number of requests per rate-limit bucket which are queued at the same time */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 2;
+
+    private final JDAImpl api;
+    private final long[] targets;
+    private final LongFunction<? extends RestAction<?>> action;
+    private final CompletableFuture<BulkOperation> future = new CompletableFuture<>();
+
+    // All of these are guarded by this
+    private final Map<String, Bucket> buckets = new LinkedHashMap<>();
+    private final TLongSet completed = new TLongHashSet();
+    private final Map<Long, Throwable> failures = new HashMap<>();
+    private Consumer<? super BulkOperation> progressCallback;
+    private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    private int inFlight;
+    private boolean started, paused, cancelled, rateLimited;
+    private boolean pumping, pumpAgain;
+
+    /**
+     * Creates a new operation, which runs the provided request for every target.
+     *
+     * @param  api
+     *         The JDA instance
+     * @param  targets
+     *         The targets, duplicates are only run once
+     * @param  action
+     *         Function creating the request for the id of a target.
+     *         If this throws an exception, the target is considered failed.
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     */
+    public BulkOperation(@Nonnull JDA api, @Nonnull Collection<? extends ISnowflake> targets, @Nonnull LongFunction<? extends RestAction<?>> action)
+    {
+        Checks.notNull(api, "JDA");
+        Checks.noneNull(targets, "Targets");
+        Checks.notNull(action, "Action");
+        this.api = (JDAImpl) api;
+        this.targets = targets.stream().mapToLong(ISnowflake::getIdLong).distinct().toArray();
+        this.action = action;
+    }
+
+    /**
+     * The number of requests per rate-limit bucket which are queued in the rate-limiter at the same time.
+     * <br>Higher values do not increase the throughput, since the rate-limiter executes the requests of a bucket in order.
+     * Default: {@value #DEFAULT_MAX_IN_FLIGHT}
+     *
+     * @param  maxInFlight
+     *         The maximum number of queued requests per bucket
+     *
+     * @throws IllegalArgumentException
+     *         If the provided value is not positive
+     *
+     * @return The same operation instance, for chaining convenience
+     */
+    @Nonnull
+    public synchronized BulkOperation setMaxInFlight(int maxInFlight)
+    {
+        Checks.positive(maxInFlight, "Max in flight");
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    /**
+     * Callback which is invoked every time a target completes, and when the operation is paused by a global rate-limit.
+     * <br>The callback runs on the thread which completed the request, and should not block.
+     *
+     * @param  callback
+     *         The callback, or null to remove it
+     *
+     * @return The same operation instance, for chaining convenience
+     */
+    @Nonnull
+    public synchronized BulkOperation onProgress(@Nullable Consumer<? super BulkOperation> callback)
+    {
+        this.progressCallback = callback;
+        return this;
+    }
+
+    /**
+     * Skips all targets which already completed in the provided checkpoint.
+     * <br>Skipped targets count as {@link #getCompleted() completed}.
+     *
+     * @param  checkpoint
+     *         The checkpoint of a previous operation
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     * @throws IllegalStateException
+     *         If the operation was already started
+     *
+     * @return The same operation instance, for chaining convenience
+     */
+    @Nonnull
+    public synchronized BulkOperation resumeFrom(@Nonnull Checkpoint checkpoint)
+    {
+        Checks.notNull(checkpoint, "Checkpoint");
+        Checks.check(!started, "Cannot resume from a checkpoint after the operation was started");
+        TLongSet targetSet = new TLongHashSet(targets);
+        for (long id : checkpoint.completed)
+        {
+            if (targetSet.contains(id))
+                completed.add(id);
+        }
+        return this;
+    }
+
+    /**
+     * Starts the operation.
+     * <br>The returned future completes once every target either completed or failed, even if some of them failed.
+     * If the operation is {@link #cancel() cancelled}, the future fails with a {@link CancellationException}.
+     *
+     * @throws IllegalStateException
+     *         If the operation was already started
+     *
+     * @return {@link CompletableFuture} completing with this operation
+     */
+    @Nonnull
+    public CompletableFuture<BulkOperation> start()
+    {
+        synchronized (this)
+        {
+            Checks.check(!started, "Operation was already started");
+            started = true;
+            for (long id : targets)
+            {
+                if (completed.contains(id))
+                    continue;
+                try
+                {
+                    RestAction<?> request = action.apply(id);
+                    Checks.notNull(request, "RestAction");
+                    buckets.computeIfAbsent(getBucket(request), k -> new Bucket()).queue.add(new Target(id, request));
+                }
+                catch (Exception e)
+                {
+                    failures.put(id, e);
+                }
+            }
+        }
+
+        pump();
+        return future;
+    }
+
+    /**
+     * Stops queueing new requests, until {@link #resume()} is called.
+     * <br>Requests which are already queued in the rate-limiter still complete.
+     */
+    public synchronized void pause()
+    {
+        paused = true;
+    }
+
+    /**
+     * Continues a {@link #pause() paused} operation.
+     */
+    public void resume()
+    {
+        synchronized (this)
+        {
+            if (!paused)
+                return;
+            paused = false;
+        }
+        pump();
+    }
+
+    /**
+     * Stops the operation, all targets which were not yet queued are dropped.
+     * <br>Requests which are already queued in the rate-limiter still complete, and are part of the {@link #getCheckpoint() checkpoint}.
+     */
+    public void cancel()
+    {
+        synchronized (this)
+        {
+            if (cancelled)
+                return;
+            cancelled = true;
+            buckets.clear();
+        }
+        future.completeExceptionally(new CancellationException("Bulk operation was cancelled"));
+    }
+
+    /**
+     * Whether the operation is {@link #pause() paused}.
+     *
+     * @return True, if paused
+     */
+    public synchronized boolean isPaused()
+    {
+        return paused;
+    }
+
+    /**
+     * Whether the operation is currently waiting for the global rate-limit to reset.
+     *
+     * @return True, if waiting for the global rate-limit
+     */
+    public synchronized boolean isRateLimited()
+    {
+        return rateLimited;
+    }
+
+    /**
+     * The total number of distinct targets.
+     *
+     * @return The number of targets
+     */
+    public int getTotal()
+    {
+        return targets.length;
+    }
+
+    /**
+     * The number of targets which completed successfully, including the ones skipped by {@link #resumeFrom(Checkpoint)}.
+     *
+     * @return The number of completed targets
+     */
+    public synchronized int getCompleted()
+    {
+        return completed.size();
+    }
+
+    /**
+     * The number of targets which failed.
+     *
+     * @return The number of failed targets
+     */
+    public synchronized int getFailed()
+    {
+        return failures.size();
+    }
+
+    /**
+     * The number of targets which are currently queued in the rate-limiter.
+     *
+     * @return The number of queued requests
+     */
+    public synchronized int getInFlight()
+    {
+        return inFlight;
+    }
+
+    /**
+     * The errors of all failed targets, by target id.
+     *
+     * @return Immutable copy of the failures
+     */
+    @Nonnull
+    public synchronized Map<Long, Throwable> getFailures()
+    {
+        return Collections.unmodifiableMap(new HashMap<>(failures));
+    }
+
+    /**
+     * A snapshot of the targets which completed successfully.
+     *
+     * @return The {@link Checkpoint}
+     */
+    @Nonnull
+    public synchronized Checkpoint getCheckpoint()
+    {
+        return new Checkpoint(completed.toArray());
+    }
+
+    private static String getBucket(RestAction<?> request)
+    {
+        if (!(request instanceof RestActionImpl))
+            return "";
+        Route.CompiledRoute route = ((RestActionImpl<?>) request).getRoute();
+        return route.getBaseRoute() + ":" + route.getMajorParameters();
+    }
+
+    private void pump()
+    {
+        // Requests can complete synchronously inside queue(...), which calls pump() again.
+        // Instead of recursing, the thread which is already pumping repeats the loop until there is nothing left to do.
+        synchronized (this)
+        {
+            if (pumping)
+            {
+                pumpAgain = true;
+                return;
+            }
+            pumping = true;
+        }
+
+        try
+        {
+            while (true)
+            {
+                synchronized (this)
+                {
+                    pumpAgain = false;
+                }
+                queueReady();
+                synchronized (this)
+                {
+                    if (!pumpAgain)
+                    {
+                        pumping = false;
+                        break;
+                    }
+                }
+            }
+        }
+        catch (Throwable t)
+        {
+            synchronized (this)
+            {
+                pumping = false;
+            }
+            throw t;
+        }
+
+        checkDone();
+    }
+
+    private void queueReady()
+    {
+        List<Target> ready = new ArrayList<>();
+        boolean limited;
+        synchronized (this)
+        {
+            if (paused || cancelled || future.isDone())
+                return;
+
+            RestRateLimiter.GlobalRateLimit global = api.getSessionController().getRateLimitHandle();
+            long delay = Math.max(global.getClassic(), global.getCloudflare()) - System.currentTimeMillis();
+            if (delay > 0)
+            {
+                if (rateLimited)
+                    return;
+                rateLimited = limited = true;
+                LOG.debug("Pausing bulk operation for {} ms due to global rate-limit", delay);
+                api.getRateLimitPool().schedule(this::resumeAfterRateLimit, delay, TimeUnit.MILLISECONDS);
+            }
+            else
+            {
+                rateLimited = limited = false;
+                for (Bucket bucket : buckets.values())
+                {
+                    while (bucket.inFlight < maxInFlight && !bucket.queue.isEmpty())
+                    {
+                        bucket.inFlight++;
+                        inFlight++;
+                        ready.add(bucket.queue.poll());
+                    }
+                }
+                buckets.values().removeIf(bucket -> bucket.inFlight == 0 && bucket.queue.isEmpty());
+            }
+        }
+
+        if (limited)
+        {
+            notifyProgress();
+            return;
+        }
+
+        for (Target target : ready)
+        {
+            try
+            {
+                target.request.queue(v -> complete(target, null), e -> complete(target, e));
+            }
+            catch (Exception e)
+            {
+                // For instance if the requester was already shutdown, the other targets can still complete
+                complete(target, e);
+            }
+        }
+    }
+
+    private void resumeAfterRateLimit()
+    {
+        synchronized (this)
+        {
+            rateLimited = false;
+        }
+        pump();
+    }
+
+    private void complete(Target target, Throwable error)
+    {
+        synchronized (this)
+        {
+            Bucket bucket = buckets.get(getBucket(target.request));
+            if (bucket != null)
+                bucket.inFlight--;
+            inFlight--;
+            if (error == null)
+                completed.add(target.id);
+            else
+                failures.put(target.id, error);
+        }
+
+        notifyProgress();
+        pump();
+    }
+
+    private void checkDone()
+    {
+        synchronized (this)
+        {
+            if (inFlight > 0 || !buckets.isEmpty())
+                return;
+        }
+        future.complete(this);
+    }
+
+    private void notifyProgress()
+    {
+        Consumer<? super BulkOperation> callback;
+        synchronized (this)
+        {
+            callback = progressCallback;
+        }
+        if (callback == null)
+            return;
+        try
+        {
+            callback.accept(this);
+        }
+        catch (Throwable t)
+        {
+            LOG.error("Progress callback of bulk operation threw an exception", t);
+        }
+    }
+
+    private static class Bucket
+    {
+        private final Deque<Target> queue = new ArrayDeque<>();
+        private int inFlight;
+    }
+
+    private static class Target
+    {
+        private final long id;
+        private final RestAction<?> request;
+
+        private Target(long id, RestAction<?> request)
+        {
+            this.id = id;
+            this.request = request;
+        }
+    }
+
+    /**
+     * The targets of a {@link BulkOperation} which completed successfully.
+     * <br>This can be stored with {@link #toData()} and loaded again with {@link #fromData(DataObject)}.
+     */
+    public static class Checkpoint
+    {
+        private final long[] completed;
+
+        private Checkpoint(long[] completed)
+        {
+            this.completed = completed;
+        }
+
+        /**
+         * Loads a checkpoint which was stored with {@link #toData()}.
+         *
+         * @param  data
+         *         The stored checkpoint
+         *
+         * @throws IllegalArgumentException
+         *         If null is provided
+         * @throws net.dv8tion.jda.api.exceptions.ParsingException
+         *         If the data is not a valid checkpoint
+         *
+         * @return The checkpoint
+         */
+        @Nonnull
+        public static Checkpoint fromData(@Nonnull DataObject data)
+        {
+            Checks.notNull(data, "Data");
+            DataArray array = data.getArray("completed");
+            long[] completed = new long[array.length()];
+            for (int i = 0; i < completed.length; i++)
+                completed[i] = array.getUnsignedLong(i);
+            return new Checkpoint(completed);
+        }
+
+        /**
+         * The ids of the completed targets.
+         *
+         * @return The target ids
+         */
+        @Nonnull
+        public long[] getCompleted()
+        {
+            return completed.clone();
+        }
+
+        /**
+         * Serializes this checkpoint, for example to store it in a file.
+         *
+         * @return {@link DataObject} of this checkpoint
+         */
+        @Nonnull
+        public DataObject toData()
+        {
+            DataArray array = DataArray.empty();
+            for (long id : completed)
+                array.add(Long.toUnsignedString(id));
+            return DataObject.empty().put("completed", array);
+        }
+    }
+}
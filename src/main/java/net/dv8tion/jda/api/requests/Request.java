@@ -26,6 +26,7 @@ import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.requests.CallbackContext;
 import net.dv8tion.jda.internal.requests.RestActionImpl;
 import net.dv8tion.jda.internal.utils.IOUtil;
+import net.dv8tion.jda.internal.utils.concurrent.HashedWheelTimer;
 import okhttp3.MultipartBody;
 import okhttp3.RequestBody;
 import org.apache.commons.collections4.map.CaseInsensitiveMap;
@@ -33,12 +34,18 @@ import org.apache.commons.collections4.map.CaseInsensitiveMap;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 
 public class Request<T>
 {
+    // The deadline timer can only fail requests which have not been sent yet
+    private static final int QUEUED = 0, STARTED = 1, EXPIRED = 2;
+
     private final JDAImpl api;
     private final RestActionImpl<T> restAction;
     private final Consumer<? super T> onSuccess;
@@ -54,7 +61,9 @@ public class Request<T>
 
     private final String localReason;
 
-    private boolean done = false;
+    private final AtomicBoolean done = new AtomicBoolean();
+    private final AtomicInteger state = new AtomicInteger(QUEUED);
+    private final HashedWheelTimer.Timeout timeoutHandle;
     private boolean isCancelled = false;
 
     public Request(
@@ -81,10 +90,16 @@ public class Request<T>
 
         this.api = (JDAImpl) restAction.getJDA();
         this.localReason = ThreadLocalReason.getCurrent();
+        // Fail the request once the deadline is reached, even if it is still waiting behind a rate-limit
+        this.timeoutHandle = deadline > 0
+            ? HashedWheelTimer.getShared().schedule(this::onDeadline, deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS)
+            : null;
     }
 
     private void cleanup()
     {
+        if (timeoutHandle != null)
+            timeoutHandle.cancel();
         // Try closing any open request bodies that were never read from
         if (body instanceof MultipartBody)
         {
@@ -104,9 +119,8 @@ public class Request<T>
 
     public void onSuccess(T successObj)
     {
-        if (done)
+        if (!done.compareAndSet(false, true))
             return;
-        done = true;
         cleanup();
         api.getCallbackPool().execute(() ->
         {
@@ -142,9 +156,8 @@ public class Request<T>
 
     public void onFailure(Throwable failException)
     {
-        if (done)
+        if (!done.compareAndSet(false, true))
             return;
-        done = true;
         cleanup();
         api.getCallbackPool().execute(() ->
         {
@@ -177,6 +190,23 @@ public class Request<T>
         onFailure(new TimeoutException("RestAction has timed out"));
     }
 
+    private void onDeadline()
+    {
+        // Once the request has been sent, it might already be processed by discord and must not be reported as failed
+        if (state.compareAndSet(QUEUED, EXPIRED))
+            onTimeout();
+    }
+
+    public boolean startExecution()
+    {
+        if (timeoutHandle == null || state.get() == STARTED)
+            return true;
+        if (!state.compareAndSet(QUEUED, STARTED))
+            return false; // The deadline timer was faster
+        timeoutHandle.cancel();
+        return true;
+    }
+
     @Nonnull
     public JDAImpl getJDA()
     {
@@ -208,6 +238,8 @@ public class Request<T>
 
     public boolean isSkipped()
     {
+        if (state.get() == EXPIRED)
+            return true;
         if (isTimeout())
         {
             onTimeout();
@@ -482,8 +482,8 @@ public interface RestAction<T>
      * <br>If the deadline is reached, the request will fail with a {@link java.util.concurrent.TimeoutException TimeoutException}.
      *
      * <p>This does not mean that the request will immediately timeout when the deadline is reached. JDA will check the deadline
-     * right before executing the request or within intervals in a worker thread. This only means the request will timeout
-     * if the deadline has passed.
+     * right before executing the request and on a timer with a resolution of 100 milliseconds. This only means the request will timeout
+     * if the deadline has passed. Once the request has been sent to discord, it will no longer timeout.
      *
      * <p><b>Example</b><br>
      * <pre>{@code
@@ -19,10 +19,12 @@ package net.dv8tion.jda.api.requests;
 import net.dv8tion.jda.api.JDAInfo;
 import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.Helpers;
+import okhttp3.ConnectionPool;
 import okhttp3.Request;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -31,6 +33,10 @@ import java.util.function.Function;
  *
  * <p>This can be used to replace the {@link #setRateLimiterFactory(Function) rate-limit handling}
  * or to use a different {@link #setBaseUrl(String) base url} for requests, e.g. for mocked HTTP responses or proxies.
+ *
+ * <p>The transport settings, like {@link #setHttp2(boolean) HTTP/2} or the {@link #setConnectionPool(int, long, TimeUnit) connection pool},
+ * are applied on top of the {@link okhttp3.OkHttpClient OkHttpClient} configured in the builder.
+ * The adjusted client still shares the dispatcher and, unless replaced, the connection pool with the original client.
  */
 public class RestConfig
 {
@@ -49,6 +55,10 @@ public class RestConfig
     private boolean relativeRateLimit = true;
     private Consumer<? super Request.Builder> customBuilder;
     private Function<? super RestRateLimiter.RateLimitConfig, ? extends RestRateLimiter> rateLimiter = SequentialRestRateLimiter::new;
+    private boolean http2 = true;
+    private ConnectionPool connectionPool;
+    private RestTimings timings;
+    private RestInstrumentation instrumentation = RestInstrumentation.NOOP;
 
     /**
      * Whether to use {@code X-RateLimit-Reset-After} to determine the rate-limit backoff.
@@ -160,6 +170,89 @@ public class RestConfig
         return this;
     }
 
+    /**
+     * Whether to use HTTP/2 for REST-api requests, if the server supports it.
+     * <br>With HTTP/2, all concurrent requests to the same host share a single connection, instead of opening one connection per request.
+     * This is enabled by default.
+     *
+     * <p>If this is disabled, all requests use HTTP/1.1, which requires a larger {@link #setConnectionPool(int, long, TimeUnit) connection pool}
+     * for many concurrent requests.
+     *
+     * @param  http2
+     *         False, to only use HTTP/1.1
+     *
+     * @return The current RestConfig for chaining convenience
+     */
+    @Nonnull
+    public RestConfig setHttp2(boolean http2)
+    {
+        this.http2 = http2;
+        return this;
+    }
+
+    /**
+     * Replaces the connection pool of the HTTP client for REST-api requests.
+     * <br>By default, the pool of the configured {@link okhttp3.OkHttpClient OkHttpClient} is used, which keeps 5 idle connections for 10 seconds.
+     *
+     * <p>The pool is created once, so all shards using the same RestConfig share the same pool.
+     * This is mostly useful with HTTP/1.1, where every concurrent request needs its own connection.
+     * Too small pools close connections which are needed again shortly after, see {@link RestTimings#getConnectionsOpened()}.
+     *
+     * @param  maxIdleConnections
+     *         The maximum number of idle connections to keep
+     * @param  keepAlive
+     *         How long to keep an idle connection
+     * @param  unit
+     *         The time unit
+     *
+     * @throws IllegalArgumentException
+     *         If the connection count or keep alive is not positive, or the unit is null
+     *
+     * @return The current RestConfig for chaining convenience
+     */
+    @Nonnull
+    public RestConfig setConnectionPool(int maxIdleConnections, long keepAlive, @Nonnull TimeUnit unit)
+    {
+        Checks.positive(maxIdleConnections, "Max idle connections");
+        Checks.positive(keepAlive, "Keep alive");
+        Checks.notNull(unit, "TimeUnit");
+        this.connectionPool = new ConnectionPool(maxIdleConnections, keepAlive, unit);
+        return this;
+    }
+
+    /**
+     * Collects the timings of all REST-api requests, like DNS lookup, connect, and time to first byte.
+     * <br>The same {@link RestTimings} instance can be used for multiple shards.
+     * This replaces any {@link okhttp3.EventListener EventListener} configured on the HTTP client.
+     *
+     * @param  timings
+     *         The timings to update, or null to disable
+     *
+     * @return The current RestConfig for chaining convenience
+     */
+    @Nonnull
+    public RestConfig setTimings(@Nullable RestTimings timings)
+    {
+        this.timings = timings;
+        return this;
+    }
+
+    /**
+     * Receives the lifecycle events of all REST-api requests, like enqueue, dispatch, response, and rate-limits.
+     * <br>Use {@link RestMetrics} to collect latency and queue time histograms.
+     *
+     * @param  instrumentation
+     *         The instrumentation, or null to disable
+     *
+     * @return The current RestConfig for chaining convenience
+     */
+    @Nonnull
+    public RestConfig setInstrumentation(@Nullable RestInstrumentation instrumentation)
+    {
+        this.instrumentation = instrumentation == null ? RestInstrumentation.NOOP : instrumentation;
+        return this;
+    }
+
     /**
      * The adapted user-agent with the custom {@link #setUserAgentSuffix(String) suffix}.
      *
@@ -214,4 +307,47 @@ public class RestConfig
     {
         return relativeRateLimit;
     }
+
+    /**
+     * Whether to use HTTP/2 for REST-api requests, if the server supports it.
+     *
+     * @return True, if HTTP/2 is enabled
+     */
+    public boolean isHttp2()
+    {
+        return http2;
+    }
+
+    /**
+     * The custom connection pool for REST-api requests.
+     *
+     * @return The connection pool, or null to use the pool of the HTTP client
+     */
+    @Nullable
+    public ConnectionPool getConnectionPool()
+    {
+        return connectionPool;
+    }
+
+    /**
+     * The timings collected for REST-api requests.
+     *
+     * @return The timings, or null if disabled
+     */
+    @Nullable
+    public RestTimings getTimings()
+    {
+        return timings;
+    }
+
+    /**
+     * The configured instrumentation for REST-api requests.
+     *
+     * @return The instrumentation, {@link RestInstrumentation#NOOP} by default
+     */
+    @Nonnull
+    public RestInstrumentation getInstrumentation()
+    {
+        return instrumentation;
+    }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.requests;
+
+import javax.annotation.Nonnull;
+
+/**
+ * Receives the lifecycle events of REST requests, to collect metrics about rate-limits and latency.
+ * <br>All methods do nothing by default, implementations only override the events they need.
+ *
+ * <p>All timestamps and durations use {@link System#nanoTime()}.
+ * The bucket is the rate-limit bucket hash provided by Discord, without the major parameters.
+ * Until the first response of a route was received, the bucket hash is unknown and an {@code uninit+<route>} placeholder is used instead.
+ *
+ * <p>The methods are called on the rate-limit threads while requests are processed, and must not block or throw.
+ * Custom {@link RestRateLimiter} implementations can access the configured instance with {@link RestRateLimiter.RateLimitConfig#getInstrumentation()}.
+ *
+ * @see RestConfig#setInstrumentation(RestInstrumentation)
+ * @see RestMetrics
+ */
+public interface RestInstrumentation
+{
+    /** Instrumentation which ignores all events */
+    RestInstrumentation NOOP = new RestInstrumentation() {};
+
+    /**
+     * Called when a request is added to the queue of its rate-limit bucket.
+     *
+     * @param route
+     *        The route of the request
+     * @param bucket
+     *        The rate-limit bucket
+     * @param timestamp
+     *        The current {@link System#nanoTime()}
+     */
+    default void onEnqueue(@Nonnull Route.CompiledRoute route, @Nonnull String bucket, long timestamp) {}
+
+    /**
+     * Called when a rate-limit bucket starts executing a request.
+     * <br>Requests which are retried after a rate-limit are dispatched again, with the queue time since they were first enqueued.
+     *
+     * @param route
+     *        The route of the request
+     * @param bucket
+     *        The rate-limit bucket
+     * @param queueTime
+     *        The time in nanoseconds since the request was enqueued, or 0 if unknown
+     * @param timestamp
+     *        The current {@link System#nanoTime()}
+     */
+    default void onDispatch(@Nonnull Route.CompiledRoute route, @Nonnull String bucket, long queueTime, long timestamp) {}
+
+    /**
+     * Called for every HTTP response, including the ones which are retried.
+     * <br>Server errors like {@code 502 Bad Gateway} are retried a few times, with an increasing attempt number.
+     *
+     * @param route
+     *        The route of the request
+     * @param code
+     *        The HTTP status code, or {@code -1} if the request failed without a response
+     * @param attempt
+     *        The attempt number, starting at 0 for the first try
+     * @param latency
+     *        The time in nanoseconds until the response was received
+     * @param timestamp
+     *        The current {@link System#nanoTime()}
+     */
+    default void onResponse(@Nonnull Route.CompiledRoute route, int code, int attempt, long latency, long timestamp) {}
+
+    /**
+     * Called when a request hit a rate-limit, and has to be retried later.
+     *
+     * @param route
+     *        The route of the request
+     * @param bucket
+     *        The rate-limit bucket
+     * @param retryAfter
+     *        The time in milliseconds until the request can be retried
+     * @param global
+     *        Whether this is a global or cloudflare rate-limit, which applies to all buckets
+     * @param timestamp
+     *        The current {@link System#nanoTime()}
+     */
+    default void onRateLimit(@Nonnull Route.CompiledRoute route, @Nonnull String bucket, long retryAfter, boolean global, long timestamp) {}
+}
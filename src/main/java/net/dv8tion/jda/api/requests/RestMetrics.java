@@ -0,0 +1,310 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.requests;
+
+import net.dv8tion.jda.api.utils.Histogram;
+import net.dv8tion.jda.internal.utils.Checks;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Default {@link RestInstrumentation}, which collects latency and queue time {@link Histogram histograms}.
+ *
+ * <p>Response latency, retries, and errors are tracked per {@link Route}.
+ * Queue time and rate-limits are tracked per rate-limit bucket, as described by {@link RestInstrumentation}.
+ * All durations are recorded in microseconds, up to one hour.
+ *
+ * <p>The same instance can be used for multiple shards, to collect the metrics of all shards together.
+ *
+ * <p><b>Example</b>
+ * <pre>{@code
+ * RestMetrics metrics = new RestMetrics();
+ * JDABuilder.createDefault(token)
+ *     .setRestConfig(new RestConfig().setInstrumentation(metrics))
+ *     .build();
+ *
+ * RestMetrics.RouteMetrics messages = metrics.getRouteMetrics(Route.Messages.SEND_MESSAGE);
+ * if (messages != null)
+ *     System.out.println("p99 latency: " + messages.getLatency().getValueAtPercentile(99) + "µs");
+ * }</pre>
+ */
+public class RestMetrics implements RestInstrumentation
+{
+    private static final long HIGHEST_TRACKABLE_VALUE = TimeUnit.HOURS.toMicros(1);
+
+    private final ConcurrentMap<Route, RouteMetrics> routes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, BucketMetrics> buckets = new ConcurrentHashMap<>();
+    private final LongAdder globalRateLimits = new LongAdder();
+
+    /**
+     * The metrics of all routes which received at least one response.
+     *
+     * @return Immutable collection of the route metrics
+     */
+    @Nonnull
+    public Collection<RouteMetrics> getRouteMetrics()
+    {
+        return Collections.unmodifiableCollection(routes.values());
+    }
+
+    /**
+     * The metrics of the provided route.
+     *
+     * @param  route
+     *         The route, for example {@link Route.Messages#SEND_MESSAGE}
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     *
+     * @return The route metrics, or null if no response was received for this route yet
+     */
+    @Nullable
+    public RouteMetrics getRouteMetrics(@Nonnull Route route)
+    {
+        Checks.notNull(route, "Route");
+        return routes.get(route);
+    }
+
+    /**
+     * The metrics of all rate-limit buckets which dispatched at least one request.
+     *
+     * @return Immutable collection of the bucket metrics
+     */
+    @Nonnull
+    public Collection<BucketMetrics> getBucketMetrics()
+    {
+        return Collections.unmodifiableCollection(buckets.values());
+    }
+
+    /**
+     * The metrics of the provided rate-limit bucket.
+     *
+     * @param  bucket
+     *         The bucket hash
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     *
+     * @return The bucket metrics, or null if no request was dispatched by this bucket yet
+     */
+    @Nullable
+    public BucketMetrics getBucketMetrics(@Nonnull String bucket)
+    {
+        Checks.notNull(bucket, "Bucket");
+        return buckets.get(bucket);
+    }
+
+    /**
+     * The number of global and cloudflare rate-limits, which apply to all buckets.
+     *
+     * @return The number of global rate-limits
+     */
+    public long getGlobalRateLimits()
+    {
+        return globalRateLimits.sum();
+    }
+
+    /**
+     * Removes all collected metrics.
+     */
+    public void reset()
+    {
+        routes.clear();
+        buckets.clear();
+        globalRateLimits.reset();
+    }
+
+    @Override
+    public void onDispatch(@Nonnull Route.CompiledRoute route, @Nonnull String bucket, long queueTime, long timestamp)
+    {
+        BucketMetrics metrics = getBucket(bucket);
+        metrics.dispatched.increment();
+        metrics.queueTime.record(TimeUnit.NANOSECONDS.toMicros(queueTime));
+    }
+
+    @Override
+    public void onResponse(@Nonnull Route.CompiledRoute route, int code, int attempt, long latency, long timestamp)
+    {
+        RouteMetrics metrics = routes.computeIfAbsent(route.getBaseRoute(), RouteMetrics::new);
+        metrics.responses.increment();
+        if (attempt > 0)
+            metrics.retries.increment();
+        if (code < 0 || code >= 500)
+            metrics.errors.increment();
+        metrics.latency.record(TimeUnit.NANOSECONDS.toMicros(latency));
+    }
+
+    @Override
+    public void onRateLimit(@Nonnull Route.CompiledRoute route, @Nonnull String bucket, long retryAfter, boolean global, long timestamp)
+    {
+        if (global)
+            globalRateLimits.increment();
+        else
+            getBucket(bucket).rateLimits.increment();
+    }
+
+    private BucketMetrics getBucket(String bucket)
+    {
+        return buckets.computeIfAbsent(bucket, BucketMetrics::new);
+    }
+
+    /**
+     * The metrics of a single {@link Route}.
+     */
+    public static class RouteMetrics
+    {
+        private final Route route;
+        private final Histogram latency = new Histogram(HIGHEST_TRACKABLE_VALUE);
+        private final LongAdder responses = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+
+        private RouteMetrics(Route route)
+        {
+            this.route = route;
+        }
+
+        /**
+         * The route of these metrics.
+         *
+         * @return The route
+         */
+        @Nonnull
+        public Route getRoute()
+        {
+            return route;
+        }
+
+        /**
+         * The time until a response was received, in microseconds.
+         *
+         * @return The latency histogram
+         */
+        @Nonnull
+        public Histogram getLatency()
+        {
+            return latency;
+        }
+
+        /**
+         * The number of received responses, including retried ones.
+         *
+         * @return The number of responses
+         */
+        public long getResponses()
+        {
+            return responses.sum();
+        }
+
+        /**
+         * The number of retries due to server errors.
+         *
+         * @return The number of retries
+         */
+        public long getRetries()
+        {
+            return retries.sum();
+        }
+
+        /**
+         * The number of server errors and failed requests without response.
+         *
+         * @return The number of errors
+         */
+        public long getErrors()
+        {
+            return errors.sum();
+        }
+
+        @Override
+        public String toString()
+        {
+            return "RouteMetrics[" + route + "](responses=" + getResponses() + ", latency=" + latency + ")";
+        }
+    }
+
+    /**
+     * The metrics of a single rate-limit bucket.
+     */
+    public static class BucketMetrics
+    {
+        private final String bucket;
+        private final Histogram queueTime = new Histogram(HIGHEST_TRACKABLE_VALUE);
+        private final LongAdder dispatched = new LongAdder();
+        private final LongAdder rateLimits = new LongAdder();
+
+        private BucketMetrics(String bucket)
+        {
+            this.bucket = bucket;
+        }
+
+        /**
+         * The bucket hash.
+         *
+         * @return The bucket
+         */
+        @Nonnull
+        public String getBucket()
+        {
+            return bucket;
+        }
+
+        /**
+         * The time requests waited in the queue of the bucket before they were dispatched, in microseconds.
+         *
+         * @return The queue time histogram
+         */
+        @Nonnull
+        public Histogram getQueueTime()
+        {
+            return queueTime;
+        }
+
+        /**
+         * The number of dispatched requests, including retries after a rate-limit.
+         *
+         * @return The number of dispatched requests
+         */
+        public long getDispatched()
+        {
+            return dispatched.sum();
+        }
+
+        /**
+         * The number of 429 responses for this bucket.
+         *
+         * @return The number of rate-limits
+         */
+        public long getRateLimits()
+        {
+            return rateLimits.sum();
+        }
+
+        @Override
+        public String toString()
+        {
+            return "BucketMetrics[" + bucket + "](dispatched=" + getDispatched() + ", queueTime=" + queueTime + ")";
+        }
+    }
+}
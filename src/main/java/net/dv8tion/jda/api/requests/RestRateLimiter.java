@@ -22,6 +22,8 @@ import org.jetbrains.annotations.Blocking;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.Map;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -83,6 +85,18 @@ public interface RestRateLimiter
      */
     int cancelRequests();
 
+    /**
+     * The number of queued requests per rate-limit bucket, used for {@link net.dv8tion.jda.api.utils.JDAMetrics metrics}.
+     * <br>Buckets without queued requests can be omitted.
+     *
+     * @return Map of bucket hash to the number of queued requests, empty by default
+     */
+    @Nonnull
+    default Map<String, Integer> getQueueSizes()
+    {
+        return Collections.emptyMap();
+    }
+
     /**
      * Type representing a pending request.
      *
@@ -155,6 +169,17 @@ public interface RestRateLimiter
          */
         boolean isCancelled();
 
+        /**
+         * The {@link System#nanoTime()} at which this request was handed to the rate-limiter.
+         * <br>This is used to report the queue time to the {@link RestInstrumentation}.
+         *
+         * @return The enqueue timestamp, or 0 if unknown
+         */
+        default long getEnqueueTime()
+        {
+            return 0;
+        }
+
         /**
          * Cancel the request.
          * <br>Primarily used for {@link JDA#cancelRequests()}.
@@ -251,12 +276,19 @@ public interface RestRateLimiter
         private final ScheduledExecutorService pool;
         private final GlobalRateLimit globalRateLimit;
         private final boolean isRelative;
+        private final RestInstrumentation instrumentation;
 
         public RateLimitConfig(@Nonnull ScheduledExecutorService pool, @Nonnull GlobalRateLimit globalRateLimit, boolean isRelative)
+        {
+            this(pool, globalRateLimit, isRelative, RestInstrumentation.NOOP);
+        }
+
+        public RateLimitConfig(@Nonnull ScheduledExecutorService pool, @Nonnull GlobalRateLimit globalRateLimit, boolean isRelative, @Nonnull RestInstrumentation instrumentation)
         {
             this.pool = pool;
             this.globalRateLimit = globalRateLimit;
             this.isRelative = isRelative;
+            this.instrumentation = instrumentation;
         }
 
         /**
@@ -291,5 +323,16 @@ public interface RestRateLimiter
         {
             return isRelative;
         }
+
+        /**
+         * The {@link RestInstrumentation} which should receive the rate-limit events.
+         *
+         * @return The instrumentation, {@link RestInstrumentation#NOOP} by default
+         */
+        @Nonnull
+        public RestInstrumentation getInstrumentation()
+        {
+            return instrumentation;
+        }
     }
 }
@@ -0,0 +1,300 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.requests;
+
+import net.dv8tion.jda.internal.utils.Checks;
+import okhttp3.*;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the timings of HTTP requests, such as the time spent on DNS lookups or waiting for the first byte of the response.
+ *
+ * <p>This is an OkHttp {@link EventListener.Factory}, which is installed on the HTTP client of the requester
+ * with {@link RestConfig#setTimings(RestTimings)}. The same instance can be shared by multiple shards,
+ * to collect the timings of all of them together.
+ *
+ * <p>Requests which reuse a pooled connection skip the {@link Phase#DNS DNS}, {@link Phase#CONNECT CONNECT}, and {@link Phase#TLS TLS} phases.
+ * A high number of {@link #getConnectionsOpened() opened connections} compared to the number of requests
+ * usually means the connection pool is too small, see {@link RestConfig#setConnectionPool(int, long, java.util.concurrent.TimeUnit)}.
+ */
+public class RestTimings implements EventListener.Factory
+{
+    private final EnumMap<Phase, Stats> stats = new EnumMap<>(Phase.class);
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failedRequests = new LongAdder();
+    private final LongAdder http2Requests = new LongAdder();
+    private final LongAdder connectionsOpened = new LongAdder();
+
+    public RestTimings()
+    {
+        for (Phase phase : Phase.values())
+            stats.put(phase, new Stats());
+    }
+
+    @Nonnull
+    @Override
+    public EventListener create(@Nonnull Call call)
+    {
+        return new CallListener();
+    }
+
+    /**
+     * The number of completed requests, including failed ones.
+     *
+     * @return The number of requests
+     */
+    public long getRequests()
+    {
+        return requests.sum();
+    }
+
+    /**
+     * The number of requests which failed without a response, for example due to a timeout.
+     *
+     * @return The number of failed requests
+     */
+    public long getFailedRequests()
+    {
+        return failedRequests.sum();
+    }
+
+    /**
+     * The number of requests which used an HTTP/2 connection.
+     *
+     * @return The number of HTTP/2 requests
+     */
+    public long getHttp2Requests()
+    {
+        return http2Requests.sum();
+    }
+
+    /**
+     * The number of new connections, which were not taken from the connection pool.
+     *
+     * @return The number of opened connections
+     */
+    public long getConnectionsOpened()
+    {
+        return connectionsOpened.sum();
+    }
+
+    /**
+     * The number of times the provided phase was measured.
+     *
+     * @param  phase
+     *         The phase
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     *
+     * @return The number of measurements
+     */
+    public long getCount(@Nonnull Phase phase)
+    {
+        Checks.notNull(phase, "Phase");
+        return stats.get(phase).count.sum();
+    }
+
+    /**
+     * The average duration of the provided phase.
+     *
+     * @param  phase
+     *         The phase
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     *
+     * @return The average duration, or {@link Duration#ZERO} if the phase was not measured yet
+     */
+    @Nonnull
+    public Duration getAverage(@Nonnull Phase phase)
+    {
+        Checks.notNull(phase, "Phase");
+        Stats stat = stats.get(phase);
+        long count = stat.count.sum();
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(stat.total.sum() / count);
+    }
+
+    /**
+     * The longest duration of the provided phase.
+     *
+     * @param  phase
+     *         The phase
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     *
+     * @return The longest duration, or {@link Duration#ZERO} if the phase was not measured yet
+     */
+    @Nonnull
+    public Duration getMax(@Nonnull Phase phase)
+    {
+        Checks.notNull(phase, "Phase");
+        return Duration.ofNanos(stats.get(phase).max.get());
+    }
+
+    /**
+     * Resets all counters.
+     */
+    public void reset()
+    {
+        requests.reset();
+        failedRequests.reset();
+        http2Requests.reset();
+        connectionsOpened.reset();
+        for (Stats stat : stats.values())
+        {
+            stat.count.reset();
+            stat.total.reset();
+            stat.max.reset();
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "RestTimings(requests=" + getRequests() + ", call=" + getAverage(Phase.CALL).toMillis() + "ms, ttfb=" + getAverage(Phase.TIME_TO_FIRST_BYTE).toMillis() + "ms)";
+    }
+
+    private void record(Phase phase, long start)
+    {
+        if (start == 0)
+            return;
+        long duration = System.nanoTime() - start;
+        Stats stat = stats.get(phase);
+        stat.count.increment();
+        stat.total.add(duration);
+        stat.max.accumulate(duration);
+    }
+
+    /**
+     * The measured phases of a request.
+     */
+    public enum Phase
+    {
+        /** The DNS lookup for a new connection */
+        DNS,
+        /** Opening a new connection, including the TLS handshake */
+        CONNECT,
+        /** The TLS handshake of a new connection */
+        TLS,
+        /** The time from sending the request until the response headers start to arrive */
+        TIME_TO_FIRST_BYTE,
+        /** The entire call, including retries and redirects handled by OkHttp */
+        CALL
+    }
+
+    private static class Stats
+    {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder total = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+    }
+
+    // Events of a single call are delivered sequentially, so no synchronization is needed
+    private class CallListener extends EventListener
+    {
+        private long callStart, dnsStart, connectStart, tlsStart, requestStart;
+
+        @Override
+        public void callStart(@Nonnull Call call)
+        {
+            callStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsStart(@Nonnull Call call, @Nonnull String domainName)
+        {
+            dnsStart = System.nanoTime();
+        }
+
+        @Override
+        public void dnsEnd(@Nonnull Call call, @Nonnull String domainName, @Nonnull List<InetAddress> inetAddressList)
+        {
+            record(Phase.DNS, dnsStart);
+        }
+
+        @Override
+        public void connectStart(@Nonnull Call call, @Nonnull InetSocketAddress inetSocketAddress, @Nonnull Proxy proxy)
+        {
+            connectStart = System.nanoTime();
+            connectionsOpened.increment();
+        }
+
+        @Override
+        public void secureConnectStart(@Nonnull Call call)
+        {
+            tlsStart = System.nanoTime();
+        }
+
+        @Override
+        public void secureConnectEnd(@Nonnull Call call, Handshake handshake)
+        {
+            record(Phase.TLS, tlsStart);
+        }
+
+        @Override
+        public void connectEnd(@Nonnull Call call, @Nonnull InetSocketAddress inetSocketAddress, @Nonnull Proxy proxy, Protocol protocol)
+        {
+            record(Phase.CONNECT, connectStart);
+        }
+
+        @Override
+        public void connectionAcquired(@Nonnull Call call, @Nonnull Connection connection)
+        {
+            if (connection.protocol() == Protocol.HTTP_2)
+                http2Requests.increment();
+        }
+
+        @Override
+        public void requestHeadersStart(@Nonnull Call call)
+        {
+            requestStart = System.nanoTime();
+        }
+
+        @Override
+        public void responseHeadersStart(@Nonnull Call call)
+        {
+            record(Phase.TIME_TO_FIRST_BYTE, requestStart);
+        }
+
+        @Override
+        public void callEnd(@Nonnull Call call)
+        {
+            requests.increment();
+            record(Phase.CALL, callStart);
+        }
+
+        @Override
+        public void callFailed(@Nonnull Call call, @Nonnull IOException ioe)
+        {
+            requests.increment();
+            failedRequests.increment();
+            record(Phase.CALL, callStart);
+        }
+    }
+}
@@ -97,6 +97,7 @@ public final class SequentialRestRateLimiter implements RestRateLimiter
     {
         MiscUtil.locked(lock, () -> {
             Bucket bucket = getBucket(task.getRoute());
+            config.getInstrumentation().onEnqueue(task.getRoute(), bucket.hash, System.nanoTime());
             bucket.enqueue(task);
             runBucket(bucket);
         });
@@ -154,6 +155,23 @@ public final class SequentialRestRateLimiter implements RestRateLimiter
         });
     }
 
+    @Nonnull
+    @Override
+    public Map<String, Integer> getQueueSizes()
+    {
+        return MiscUtil.locked(lock, () -> {
+            // Buckets with different major parameters share the same hash
+            Map<String, Integer> sizes = new HashMap<>();
+            for (Bucket bucket : buckets.values())
+            {
+                int size = bucket.getRequests().size();
+                if (size > 0)
+                    sizes.merge(bucket.hash, size, Integer::sum);
+            }
+            return sizes;
+        });
+    }
+
     private void shutdown()
     {
         isShutdown = true;
@@ -218,9 +236,9 @@ public final class SequentialRestRateLimiter implements RestRateLimiter
             return this.buckets.computeIfAbsent(bucketId, (id) ->
             {
                 if (route.getBaseRoute().isInteractionBucket())
-                    return new InteractionBucket(id);
+                    return new InteractionBucket(id, hash);
                 else
-                    return new ClassicBucket(id);
+                    return new ClassicBucket(id, hash);
             });
         });
     }
@@ -284,6 +302,7 @@ public final class SequentialRestRateLimiter implements RestRateLimiter
                 {
                     String retryAfterHeader = headers.get(RETRY_AFTER_HEADER);
                     long retryAfter = parseLong(retryAfterHeader) * 1000; // seconds precision
+                    config.getInstrumentation().onRateLimit(route, bucket.hash, retryAfter, global || cloudflare, System.nanoTime());
                     // Handle global rate limit if necessary
                     if (global)
                     {
@@ -345,14 +364,16 @@ public final class SequentialRestRateLimiter implements RestRateLimiter
     private abstract class Bucket implements Runnable
     {
         protected final String bucketId;
+        protected final String hash;
         protected final Deque<Work> requests = new ConcurrentLinkedDeque<>();
 
         protected long reset = 0;
         protected int remaining = 1;
 
-        public Bucket(String bucketId)
+        public Bucket(String bucketId, String hash)
         {
             this.bucketId = bucketId;
+            this.hash = hash;
         }
 
         public boolean isUninit()
@@ -443,6 +464,9 @@ public final class SequentialRestRateLimiter implements RestRateLimiter
         {
             try
             {
+                long now = System.nanoTime();
+                long enqueueTime = request.getEnqueueTime();
+                config.getInstrumentation().onDispatch(request.getRoute(), hash, enqueueTime == 0 ? 0 : now - enqueueTime, now);
                 Response response = request.execute();
                 if (response != null)
                     updateBucket(request.getRoute(), response);
@@ -518,9 +542,9 @@ public final class SequentialRestRateLimiter implements RestRateLimiter
 
     private class ClassicBucket extends Bucket
     {
-        public ClassicBucket(String bucketId)
+        public ClassicBucket(String bucketId, String hash)
         {
-            super(bucketId);
+            super(bucketId, hash);
         }
 
         @Override
@@ -534,9 +558,9 @@ public final class SequentialRestRateLimiter implements RestRateLimiter
 
     private class InteractionBucket extends Bucket
     {
-        public InteractionBucket(@Nonnull String bucketId)
+        public InteractionBucket(@Nonnull String bucketId, @Nonnull String hash)
         {
-            super(bucketId);
+            super(bucketId, hash);
         }
 
         @Override
@@ -26,6 +26,7 @@ import net.dv8tion.jda.api.requests.GatewayIntent;
 import net.dv8tion.jda.api.requests.RestConfig;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.api.utils.ChunkingFilter;
+import net.dv8tion.jda.api.utils.JDAMetrics;
 import net.dv8tion.jda.api.utils.MiscUtil;
 import net.dv8tion.jda.api.utils.SessionController;
 import net.dv8tion.jda.api.utils.cache.ShardCacheView;
@@ -36,6 +37,7 @@ import net.dv8tion.jda.internal.requests.RestActionImpl;
 import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.JDALogger;
 import net.dv8tion.jda.internal.utils.UnlockHook;
+import net.dv8tion.jda.internal.utils.cache.MessageCache;
 import net.dv8tion.jda.internal.utils.cache.ShardCacheViewImpl;
 import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
 import net.dv8tion.jda.internal.utils.config.MetaConfig;
@@ -245,6 +247,13 @@ public class DefaultShardManager implements ShardManager
         return shardingConfig.getShardsTotal();
     }
 
+    @Nullable
+    @Override
+    public JDAMetrics getMetrics()
+    {
+        return shardingConfig.getMetrics();
+    }
+
     @Override
     public Guild getGuildById(long id)
     {
@@ -515,13 +524,21 @@ public class DefaultShardManager implements ShardManager
         threadingConfig.setCallbackPool(callbackPool, shutdownCallbackPool);
         threadingConfig.setEventPool(eventPool, shutdownEventPool);
         threadingConfig.setAudioPool(audioPool, shutdownAudioPool);
+        threadingConfig.setVirtualThreads(this.threadingConfig.isVirtualThreads());
         MetaConfig metaConfig = new MetaConfig(this.metaConfig.getMaxBufferSize(), this.metaConfig.getContextMap(shardId), this.metaConfig.getCacheFlags(), this.sessionConfig.getFlags());
         RestConfig restConfig = this.restConfigProvider.apply(shardId);
         if (restConfig == null)
             restConfig = new RestConfig();
 
         JDAImpl jda = new JDAImpl(authConfig, sessionConfig, threadingConfig, metaConfig, restConfig);
+        jda.setStateless(shardingConfig.isStateless());
         jda.setMemberCachePolicy(shardingConfig.getMemberCachePolicy());
+        if (!shardingConfig.isStateless() && shardingConfig.getMessageCacheChannelBytes() > 0 && shardingConfig.getMessageCacheBytes() > 0)
+            jda.setMessageCache(new MessageCache(shardingConfig.getMessageCacheChannelBytes(), shardingConfig.getMessageCacheBytes()));
+        if (shardingConfig.getSessionSnapshotDirectory() != null)
+            jda.setSessionSnapshotFile(shardingConfig.getSessionSnapshotDirectory().resolve("session-" + shardId + ".bin"));
+        jda.setMetrics(shardingConfig.getMetrics());
+        jda.setRawDispatchInterceptor(shardingConfig.getRawDispatchInterceptor());
         threadingConfig.init(jda::getIdentifierString);
         jda.initRequester();
 
@@ -25,12 +25,14 @@ import net.dv8tion.jda.api.entities.Activity;
 import net.dv8tion.jda.api.events.Event;
 import net.dv8tion.jda.api.exceptions.InvalidTokenException;
 import net.dv8tion.jda.api.hooks.IEventManager;
+import net.dv8tion.jda.api.hooks.RawDispatchInterceptor;
 import net.dv8tion.jda.api.hooks.VoiceDispatchInterceptor;
 import net.dv8tion.jda.api.requests.GatewayIntent;
 import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.requests.RestConfig;
 import net.dv8tion.jda.api.utils.ChunkingFilter;
 import net.dv8tion.jda.api.utils.Compression;
+import net.dv8tion.jda.api.utils.JDAMetrics;
 import net.dv8tion.jda.api.utils.MemberCachePolicy;
 import net.dv8tion.jda.api.utils.SessionController;
 import net.dv8tion.jda.api.utils.cache.CacheFlag;
@@ -44,6 +46,7 @@ import okhttp3.OkHttpClient;
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.function.IntFunction;
@@ -87,6 +90,7 @@ public class  DefaultShardManagerBuilder
     protected ThreadPoolProvider<? extends ExecutorService> callbackPoolProvider = null;
     protected ThreadPoolProvider<? extends ExecutorService> eventPoolProvider = null;
     protected ThreadPoolProvider<? extends ScheduledExecutorService> audioPoolProvider = null;
+    protected boolean virtualThreads = false;
     protected IntFunction<? extends RestConfig> restConfigProvider = null;
     protected Collection<Integer> shards = null;
     protected OkHttpClient.Builder httpClientBuilder = null;
@@ -96,6 +100,12 @@ public class  DefaultShardManagerBuilder
     protected ThreadFactory threadFactory = null;
     protected ChunkingFilter chunkingFilter = ChunkingFilter.ALL;
     protected MemberCachePolicy memberCachePolicy = MemberCachePolicy.ALL;
+    protected int messageCacheChannelBytes = 0;
+    protected long messageCacheBytes = 0;
+    protected Path sessionSnapshotDirectory = null;
+    protected JDAMetrics metrics = null;
+    protected RawDispatchInterceptor rawDispatchInterceptor = null;
+    protected boolean stateless = false;
 
     protected DefaultShardManagerBuilder(@Nullable String token, int intents)
     {
@@ -756,6 +766,139 @@ public class  DefaultShardManagerBuilder
         return this;
     }
 
+    /**
+     * Enables the message cache, which keeps the content of recent messages to provide the previous state in
+     * {@link net.dv8tion.jda.api.events.message.MessageUpdateEvent#getPreviousMessage() MessageUpdateEvent} and
+     * {@link net.dv8tion.jda.api.events.message.MessageDeleteEvent#getCachedMessage() MessageDeleteEvent}.
+     * <br>The message cache is disabled by default.
+     *
+     * <p>Messages are not cached as {@link net.dv8tion.jda.api.entities.Message Message} instances,
+     * the cache only keeps the ids, the edit timestamp, and the UTF-8 encoded content of each message.
+     * When a channel exceeds its limit, its oldest messages are evicted first.
+     * When the total limit is exceeded, messages of the least recently used channels are evicted first.
+     * The limits count the content with a fixed overhead of 40 bytes per message.
+     * <br>Every shard has its own cache with these limits.
+     *
+     * <p>The content of messages is only available with the {@link GatewayIntent#MESSAGE_CONTENT MESSAGE_CONTENT} intent.
+     *
+     * @param  maxBytesPerChannel
+     *         The maximum number of bytes cached for each channel, or {@code 0} to disable the cache
+     * @param  maxBytes
+     *         The maximum number of bytes cached in total, or {@code 0} to disable the cache
+     *
+     * @throws IllegalArgumentException
+     *         If either limit is negative
+     *
+     * @return The DefaultShardManagerBuilder instance. Useful for chaining.
+     *
+     * @see    net.dv8tion.jda.api.utils.cache.CachedMessage CachedMessage
+     */
+    @Nonnull
+    public DefaultShardManagerBuilder setMessageCache(int maxBytesPerChannel, long maxBytes)
+    {
+        Checks.notNegative(maxBytesPerChannel, "Bytes per channel");
+        Checks.notNegative(maxBytes, "Bytes");
+        this.messageCacheChannelBytes = maxBytesPerChannel;
+        this.messageCacheBytes = maxBytes;
+        return this;
+    }
+
+    /**
+     * Sets the directory used to persist the gateway sessions of the shards across restarts.
+     * <br>On shutdown, every shard writes its session id, sequence number, and a compressed snapshot of its cache
+     * to a file named {@code session-<shard id>.bin} in this directory, without invalidating the session.
+     * When a shard is started again with the same directory, it restores its cache from the snapshot
+     * and resumes the session instead of identifying, which avoids waiting for the identify rate limit.
+     * Each file is deleted once it has been read.
+     *
+     * <p>The snapshot contains the self user, the guilds with their roles, channels, threads, emojis, members,
+     * voice states, and presences. Stickers, scheduled events, stage instances, private channels, and the details of rich presence activities
+     * are not included and are only loaded once they are updated by discord.
+     * The snapshot is only used if it was written for the same shard and the same intents.
+     * If discord rejects the resumed session, JDA falls back to a new session and rebuilds its cache from the {@code READY} event.
+     *
+     * <p>The sessions expire shortly after the connections are closed, so this is only useful for quick restarts.
+     * Snapshots older than 5 minutes are ignored.
+     * No snapshot is written while guilds are still being set up or are unavailable, since discord does not send these guilds again after resuming.
+     *
+     * @param  directory
+     *         The existing directory for the snapshot files, or null to disable snapshots (default)
+     *
+     * @return The DefaultShardManagerBuilder instance. Useful for chaining.
+     *
+     * @see    net.dv8tion.jda.api.JDABuilder#setSessionSnapshotFile(Path)
+     */
+    @Nonnull
+    public DefaultShardManagerBuilder setSessionSnapshotDirectory(@Nullable Path directory)
+    {
+        this.sessionSnapshotDirectory = directory;
+        return this;
+    }
+
+    /**
+     * Sets the {@link JDAMetrics} registry, which collects metrics about the gateway, the cache, event listeners, and REST queues.
+     * <br>The registry is shared by all shards, gauges are tagged with the shard id.
+     *
+     * <p>Counters and histograms, such as the dispatch time per event type and the event manager time per event class, are updated while events are handled.
+     * Gauges, such as cache sizes and queue depths, are only computed when the registry is {@link JDAMetrics#publish(net.dv8tion.jda.api.utils.MetricsPublisher) published}.
+     * Without a registry, no measurements are taken.
+     *
+     * @param  metrics
+     *         The metrics registry, or null to disable metrics (default)
+     *
+     * @return The DefaultShardManagerBuilder instance. Useful for chaining.
+     *
+     * @see    net.dv8tion.jda.api.JDABuilder#setMetrics(JDAMetrics)
+     */
+    @Nonnull
+    public DefaultShardManagerBuilder setMetrics(@Nullable JDAMetrics metrics)
+    {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /**
+     * Sets the {@link RawDispatchInterceptor}, which receives the decompressed bytes of every dispatch before they are parsed.
+     * <br>The interceptor is shared by all shards, the shard of a dispatch is available through {@link RawDispatchInterceptor.RawDispatch#getJDA()}.
+     *
+     * <p>Dispatches consumed by the interceptor are never parsed, do not update the cache, and fire no events.
+     *
+     * @param  interceptor
+     *         The interceptor, or null to parse all dispatches (default)
+     *
+     * @return The DefaultShardManagerBuilder instance. Useful for chaining.
+     *
+     * @see    net.dv8tion.jda.api.JDABuilder#setRawDispatchInterceptor(RawDispatchInterceptor)
+     */
+    @Nonnull
+    public DefaultShardManagerBuilder setRawDispatchInterceptor(@Nullable RawDispatchInterceptor interceptor)
+    {
+        this.rawDispatchInterceptor = interceptor;
+        return this;
+    }
+
+    /**
+     * Whether the shards should run without any cache, for workers which only react to messages and interactions.
+     *
+     * <p>Stateless shards skip the guild setup on startup and only fire
+     * {@link net.dv8tion.jda.api.events.message.MessageReceivedEvent MessageReceivedEvent} and the interaction events,
+     * with detached entities built from the event payload alone.
+     * This overrides the configured {@link CacheFlag CacheFlags}, {@link MemberCachePolicy}, and {@link ChunkingFilter}.
+     *
+     * @param  enabled
+     *         True, to run without a cache (default: false)
+     *
+     * @return The DefaultShardManagerBuilder instance. Useful for chaining.
+     *
+     * @see    net.dv8tion.jda.api.JDABuilder#setStateless(boolean)
+     */
+    @Nonnull
+    public DefaultShardManagerBuilder setStateless(boolean enabled)
+    {
+        this.stateless = enabled;
+        return this;
+    }
+
     /**
      * Sets the {@link net.dv8tion.jda.api.utils.SessionController SessionController}
      * for the resulting ShardManager instance. This can be used to sync behaviour and state between shards
@@ -1662,6 +1805,38 @@ public class  DefaultShardManagerBuilder
         return this;
     }
 
+    /**
+     * Whether JDA should use virtual threads for the pools that run blocking work, if they are supported by the runtime.
+     * <br>Virtual threads require Java 21 or newer. On older versions, this logs a warning and the default pools are used instead.
+     *
+     * <p>When enabled, JDA uses these pools, unless you configured your own:
+     * <ul>
+     *     <li>The callback pool starts a new virtual thread for each callback, instead of using {@link java.util.concurrent.ForkJoinPool#commonPool()}.</li>
+     *     <li>The event pool starts a new virtual thread for each event.
+     *         <b>This means events are no longer handled in order</b>, just like with any other multi-threaded event pool.</li>
+     *     <li>The rate-limit pool runs its tasks on virtual threads, and can execute up to 64 requests at the same time.</li>
+     * </ul>
+     * The gateway and audio pools keep using platform threads, since they only run short tasks.
+     *
+     * <p>This allows blocking calls like {@link net.dv8tion.jda.api.requests.RestAction#complete()} in event listeners,
+     * without exhausting the thread pools.
+     * However, a virtual thread which blocks while holding a monitor of a {@code synchronized} block stays pinned to its carrier thread until Java 24.
+     * Avoid blocking inside your own {@code synchronized} blocks and prefer a {@link java.util.concurrent.locks.ReentrantLock ReentrantLock} instead.
+     *
+     * <p>Default: <b>false</b>
+     *
+     * @param  enabled
+     *         True, to use virtual threads
+     *
+     * @return The DefaultShardManagerBuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public DefaultShardManagerBuilder setVirtualThreads(boolean enabled)
+    {
+        this.virtualThreads = enabled;
+        return this;
+    }
+
     /**
      * Sets the maximum amount of time that JDA will back off to wait when attempting to reconnect the MainWebsocket.
      * <br>Provided value must be 32 or greater.
@@ -1900,6 +2075,28 @@ public class  DefaultShardManagerBuilder
         return this;
     }
 
+    /**
+     * Whether member chunks should be converted to members as soon as they arrive during guild setup.
+     * <br>Default: {@code false}
+     *
+     * <p>By default, JDA keeps the raw member data of every chunk until the last chunk of a guild has arrived,
+     * and only then creates the members. For very large guilds, this temporarily holds all the raw member data in memory at once.
+     * With this enabled, each chunk is converted immediately and its raw data can be collected right away.
+     * The members are still only added to the cache, after the guild setup is complete.
+     *
+     * <p>Use {@link #setChunkingFilter(ChunkingFilter)} to configure which guilds use member chunking.
+     *
+     * @param  enable
+     *         True, if member chunks should be converted incrementally
+     *
+     * @return The DefaultShardManagerBuilder instance. Useful for chaining.
+     */
+    @Nonnull
+    public DefaultShardManagerBuilder setIncrementalChunking(boolean enable)
+    {
+        return setFlag(ConfigFlag.INCREMENTAL_CHUNKING, enable);
+    }
+
     /**
      * Configures which events will be disabled.
      * Bots which did not enable presence/member updates in the developer dashboard are required to disable {@link GatewayIntent#GUILD_PRESENCES} and {@link GatewayIntent#GUILD_MEMBERS}!
@@ -2229,9 +2426,14 @@ public class  DefaultShardManagerBuilder
     @Nonnull
     public ShardManager build(boolean login) throws IllegalArgumentException
     {
-        checkIntents();
+        // The cache configuration does not apply to stateless sessions
+        if (!stateless)
+            checkIntents();
         boolean useShutdownNow = shardingFlags.contains(ShardingConfigFlag.SHUTDOWN_NOW);
-        final ShardingConfig shardingConfig = new ShardingConfig(shardsTotal, useShutdownNow, intents, memberCachePolicy);
+        MemberCachePolicy memberCachePolicy = stateless ? MemberCachePolicy.NONE : this.memberCachePolicy;
+        EnumSet<CacheFlag> cacheFlags = stateless ? EnumSet.noneOf(CacheFlag.class) : this.cacheFlags;
+        ChunkingFilter chunkingFilter = stateless ? ChunkingFilter.NONE : this.chunkingFilter;
+        final ShardingConfig shardingConfig = new ShardingConfig(shardsTotal, useShutdownNow, intents, memberCachePolicy, messageCacheChannelBytes, messageCacheBytes, sessionSnapshotDirectory, metrics, rawDispatchInterceptor, stateless);
         final EventConfig eventConfig = new EventConfig(eventManagerProvider);
         listeners.forEach(eventConfig::addEventListener);
         listenerProviders.forEach(eventConfig::addEventListenerProvider);
@@ -2239,7 +2441,7 @@ public class  DefaultShardManagerBuilder
         presenceConfig.setActivityProvider(activityProvider);
         presenceConfig.setStatusProvider(statusProvider);
         presenceConfig.setIdleProvider(idleProvider);
-        final ThreadingProviderConfig threadingConfig = new ThreadingProviderConfig(rateLimitPoolProvider, gatewayPoolProvider, callbackPoolProvider, eventPoolProvider, audioPoolProvider, threadFactory);
+        final ThreadingProviderConfig threadingConfig = new ThreadingProviderConfig(rateLimitPoolProvider, gatewayPoolProvider, callbackPoolProvider, eventPoolProvider, audioPoolProvider, threadFactory, virtualThreads);
         final ShardingSessionConfig sessionConfig = new ShardingSessionConfig(sessionController, voiceDispatchInterceptor, httpClient, httpClientBuilder, wsFactory, audioSendFactory, flags, shardingFlags, maxReconnectDelay, largeThreshold);
         final ShardingMetaConfig metaConfig = new ShardingMetaConfig(maxBufferSize, contextProvider, cacheFlags, flags, compression, encoding);
         final DefaultShardManager manager = new DefaultShardManager(this.token, this.shards, shardingConfig, eventConfig, presenceConfig, threadingConfig, sessionConfig, metaConfig, restConfigProvider, chunkingFilter);
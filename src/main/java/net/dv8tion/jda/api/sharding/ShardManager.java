@@ -30,6 +30,7 @@ import net.dv8tion.jda.api.exceptions.InvalidTokenException;
 import net.dv8tion.jda.api.requests.GatewayIntent;
 import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.requests.Route;
+import net.dv8tion.jda.api.utils.JDAMetrics;
 import net.dv8tion.jda.api.utils.MiscUtil;
 import net.dv8tion.jda.api.utils.cache.CacheView;
 import net.dv8tion.jda.api.utils.cache.ShardCacheView;
@@ -213,6 +214,23 @@ public interface ShardManager extends IGuildChannelContainer
                 .retrieveApplicationInfo();
     }
 
+    /**
+     * The metrics registry shared by all shards of this ShardManager.
+     * <br>Metrics are only collected if a registry was configured with
+     * {@link DefaultShardManagerBuilder#setMetrics(JDAMetrics) DefaultShardManagerBuilder.setMetrics(JDAMetrics)}.
+     *
+     * @return The {@link JDAMetrics}, or null if metrics are disabled
+     */
+    @Nullable
+    default JDAMetrics getMetrics()
+    {
+        return this.getShardCache().stream()
+                .map(JDA::getMetrics)
+                .filter(Objects::nonNull)
+                .findAny()
+                .orElse(null);
+    }
+
     /**
      * The average time in milliseconds between all shards that discord took to respond to our last heartbeat.
      * This roughly represents the WebSocket ping of this session. If there are no shards running, this will return {@code -1}.
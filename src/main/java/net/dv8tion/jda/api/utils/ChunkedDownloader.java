@@ -0,0 +1,656 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.utils;
+
+import net.dv8tion.jda.api.exceptions.HttpException;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.requests.FunctionalCallback;
+import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.IOUtil;
+import net.dv8tion.jda.internal.utils.JDALogger;
+import okhttp3.*;
+import okio.BufferedSource;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Download engine used by {@link FileProxy} to download large files with multiple parallel HTTP Range requests.
+ *
+ * <p>Files are split into chunks of {@link #setChunkSize(long) a fixed size}, which are written into a preallocated
+ * {@code <file>.part} file next to the target. The completed chunks are tracked in a {@code <file>.part.progress} file,
+ * which allows a failed download to be resumed by downloading to the same path again.
+ * Once all chunks are complete, the part file is moved to the target path.
+ *
+ * <p>If the server does not support range requests, the file is downloaded with a single request instead.
+ *
+ * <p>The number of parallel requests is limited {@link #setMaxConnectionsPerHost(int) per host}
+ * and shared between all downloads using this instance.
+ *
+ * <p><b>Example</b>
+ * <pre>{@code
+ * ChunkedDownloader downloader = new ChunkedDownloader()
+ *     .setChunkSize(8 * 1024 * 1024)
+ *     .setMaxConnectionsPerHost(8);
+ * FileProxy.setDefaultDownloader(downloader);
+ * }</pre>
+ *
+ * @see FileProxy#setDefaultDownloader(ChunkedDownloader)
+ * @see FileProxy#withDownloader(ChunkedDownloader)
+ */
+public class ChunkedDownloader
+{
+    /** The default size of a chunk, 4 MiB */
+    public static final long DEFAULT_CHUNK_SIZE = 4L * 1024 * 1024;
+    /** The default number of parallel requests per host */
+    public static final int DEFAULT_MAX_CONNECTIONS_PER_HOST = 4;
+    /** The default number of attempts for each chunk */
+    public static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    private static final Logger LOG = JDALogger.getLog(ChunkedDownloader.class);
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+)");
+    private static final Pattern UNSATISFIED_RANGE = Pattern.compile("bytes \\*/(\\d+)");
+
+    private final ConcurrentMap<String, HostLimiter> hosts = new ConcurrentHashMap<>();
+
+    private final LongAdder downloadedBytes = new LongAdder();
+    private final LongAdder completedBytes = new LongAdder();
+    private final LongAdder transferNanos = new LongAdder();
+    private final LongAdder completedDownloads = new LongAdder();
+    private final LongAdder failedDownloads = new LongAdder();
+    private final LongAdder retriedChunks = new LongAdder();
+    private final AtomicInteger activeDownloads = new AtomicInteger();
+
+    private volatile long chunkSize = DEFAULT_CHUNK_SIZE;
+    private volatile int maxConnectionsPerHost = DEFAULT_MAX_CONNECTIONS_PER_HOST;
+    private volatile int maxAttempts = DEFAULT_MAX_ATTEMPTS;
+
+    /**
+     * The size of each chunk, which is downloaded with a separate range request.
+     * <br>Files smaller than this size are downloaded with a single request.
+     *
+     * <p>Changing the chunk size invalidates the progress of previously failed downloads.
+     *
+     * @param  chunkSize
+     *         The chunk size in bytes (at least 64 KiB)
+     *
+     * @throws IllegalArgumentException
+     *         If the chunk size is less than 64 KiB
+     *
+     * @return The current ChunkedDownloader for chaining convenience
+     */
+    @Nonnull
+    public ChunkedDownloader setChunkSize(long chunkSize)
+    {
+        Checks.check(chunkSize >= 64 * 1024, "Chunk size must be at least 64 KiB");
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * The maximum number of parallel requests to the same host, shared between all downloads of this instance.
+     *
+     * <p>Note that the {@link Dispatcher} of the {@link OkHttpClient} applies its own limit as well.
+     *
+     * @param  maxConnectionsPerHost
+     *         The maximum number of parallel requests per host
+     *
+     * @throws IllegalArgumentException
+     *         If the provided number is not positive
+     *
+     * @return The current ChunkedDownloader for chaining convenience
+     */
+    @Nonnull
+    public ChunkedDownloader setMaxConnectionsPerHost(int maxConnectionsPerHost)
+    {
+        Checks.positive(maxConnectionsPerHost, "Max connections per host");
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        return this;
+    }
+
+    /**
+     * The maximum number of attempts for each chunk, before the download fails.
+     * <br>Failed attempts continue at the last written byte of the chunk.
+     *
+     * @param  maxAttempts
+     *         The maximum number of attempts
+     *
+     * @throws IllegalArgumentException
+     *         If the provided number is not positive
+     *
+     * @return The current ChunkedDownloader for chaining convenience
+     */
+    @Nonnull
+    public ChunkedDownloader setMaxAttempts(int maxAttempts)
+    {
+        Checks.positive(maxAttempts, "Max attempts");
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * The configured chunk size in bytes.
+     *
+     * @return The chunk size
+     */
+    public long getChunkSize()
+    {
+        return chunkSize;
+    }
+
+    /**
+     * The configured maximum number of parallel requests per host.
+     *
+     * @return The maximum number of parallel requests per host
+     */
+    public int getMaxConnectionsPerHost()
+    {
+        return maxConnectionsPerHost;
+    }
+
+    /**
+     * The configured maximum number of attempts per chunk.
+     *
+     * @return The maximum number of attempts
+     */
+    public int getMaxAttempts()
+    {
+        return maxAttempts;
+    }
+
+    /**
+     * The total number of bytes written by all downloads of this instance.
+     *
+     * @return The total number of bytes
+     */
+    public long getDownloadedBytes()
+    {
+        return downloadedBytes.sum();
+    }
+
+    /**
+     * The number of downloads which are currently in progress.
+     *
+     * @return The number of active downloads
+     */
+    public int getActiveDownloads()
+    {
+        return activeDownloads.get();
+    }
+
+    /**
+     * The number of downloads which completed successfully.
+     *
+     * @return The number of completed downloads
+     */
+    public long getCompletedDownloads()
+    {
+        return completedDownloads.sum();
+    }
+
+    /**
+     * The number of downloads which failed, and can be resumed.
+     *
+     * @return The number of failed downloads
+     */
+    public long getFailedDownloads()
+    {
+        return failedDownloads.sum();
+    }
+
+    /**
+     * The number of chunk requests which had to be retried.
+     *
+     * @return The number of retried chunks
+     */
+    public long getRetriedChunks()
+    {
+        return retriedChunks.sum();
+    }
+
+    /**
+     * The average throughput of completed downloads, in bytes per second.
+     *
+     * @return The average throughput, or {@code 0} if no download has completed yet
+     */
+    public double getAverageThroughput()
+    {
+        long nanos = transferNanos.sum();
+        if (nanos == 0)
+            return 0;
+        return completedBytes.sum() * 1e9 / nanos;
+    }
+
+    @Nonnull
+    protected CompletableFuture<Path> download(@Nonnull OkHttpClient client, @Nonnull Request request, @Nonnull Path target)
+    {
+        Task task = new Task(client, request, target.toAbsolutePath());
+        task.start();
+        return task.future;
+    }
+
+    private HostLimiter getLimiter(HttpUrl url)
+    {
+        return hosts.computeIfAbsent(url.host() + ":" + url.port(), k -> new HostLimiter());
+    }
+
+    private final class HostLimiter
+    {
+        private final Deque<Runnable> queue = new ArrayDeque<>();
+        private int active;
+
+        private void submit(Executor executor, Runnable task)
+        {
+            synchronized (this)
+            {
+                if (active >= maxConnectionsPerHost)
+                {
+                    // Queued tasks are started by release(), which must not run them on its own stack
+                    queue.add(() -> executor.execute(task));
+                    return;
+                }
+                active++;
+            }
+            task.run();
+        }
+
+        private void release()
+        {
+            Runnable next;
+            synchronized (this)
+            {
+                next = queue.poll();
+                if (next == null)
+                {
+                    active--;
+                    return;
+                }
+            }
+            next.run();
+        }
+    }
+
+    private static final class Chunk
+    {
+        private final int index;
+        private final long start, end;
+        private long written;
+        private int attempts;
+
+        private Chunk(int index, long start, long end)
+        {
+            this.index = index;
+            this.start = start;
+            this.end = end;
+        }
+
+        private long position()
+        {
+            return start + written;
+        }
+
+        private boolean isDone()
+        {
+            return position() > end;
+        }
+    }
+
+    private final class Task
+    {
+        private final CompletableFuture<Path> future = new CompletableFuture<>();
+        private final Set<Call> calls = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger remaining = new AtomicInteger();
+        private final OkHttpClient client;
+        private final Request request;
+        private final HostLimiter limiter;
+        private final Executor executor;
+        private final Path target, part, progressFile;
+        private final long chunkSize = ChunkedDownloader.this.chunkSize;
+        private final int maxAttempts = ChunkedDownloader.this.maxAttempts;
+        private final long startTime = System.nanoTime();
+
+        private FileChannel channel;
+        private BitSet completed;
+        private long length;
+        private String validator;
+
+        private Task(OkHttpClient client, Request request, Path target)
+        {
+            this.client = client;
+            this.request = request.newBuilder().header("accept-encoding", "identity").build();
+            this.limiter = getLimiter(request.url());
+            this.executor = client.dispatcher().executorService();
+            this.target = target;
+            this.part = target.resolveSibling(target.getFileName() + ".part");
+            this.progressFile = target.resolveSibling(target.getFileName() + ".part.progress");
+        }
+
+        private void start()
+        {
+            activeDownloads.incrementAndGet();
+            future.whenComplete((path, error) ->
+            {
+                activeDownloads.decrementAndGet();
+                if (future.isCancelled())
+                    cancel();
+            });
+
+            // The first chunk is also used to determine the size of the file and if ranges are supported
+            Chunk first = new Chunk(0, 0, chunkSize - 1);
+            limiter.submit(executor, () -> execute(first, this::handleProbe));
+        }
+
+        private void execute(Chunk chunk, IOBiConsumer<Chunk, Response> handler)
+        {
+            if (future.isDone())
+            {
+                limiter.release();
+                return;
+            }
+
+            Request.Builder builder = request.newBuilder()
+                    .header("range", "bytes=" + chunk.position() + "-" + chunk.end);
+            if (validator != null)
+                builder.header("if-range", validator);
+
+            Call call = client.newCall(builder.build());
+            calls.add(call);
+            call.enqueue(FunctionalCallback
+                .onFailure((c, e) ->
+                {
+                    calls.remove(c);
+                    limiter.release();
+                    retry(chunk, handler, e);
+                })
+                .onSuccess((c, response) ->
+                {
+                    try
+                    {
+                        handler.accept(chunk, response);
+                    }
+                    catch (IOException | RuntimeException e)
+                    {
+                        retry(chunk, handler, e);
+                    }
+                    finally
+                    {
+                        IOUtil.silentClose(response);
+                        calls.remove(c);
+                        limiter.release();
+                    }
+                }).build());
+        }
+
+        private void retry(Chunk chunk, IOBiConsumer<Chunk, Response> handler, Throwable error)
+        {
+            if (future.isDone())
+                return;
+            if (++chunk.attempts >= maxAttempts || error instanceof HttpException)
+            {
+                fail(error);
+                return;
+            }
+
+            LOG.debug("Retrying chunk {} of {} after failure", chunk.index, request.url(), error);
+            retriedChunks.increment();
+            limiter.submit(executor, () -> execute(chunk, handler));
+        }
+
+        private void handleProbe(Chunk chunk, Response response) throws IOException
+        {
+            if (response.code() == 200)
+            {
+                // Ranges are not supported, stream the entire file instead
+                prepare(-1, false);
+                transfer(new Chunk(0, 0, Long.MAX_VALUE), response.body(), Long.MAX_VALUE);
+                finish();
+                return;
+            }
+            if (response.code() == 416)
+            {
+                handleUnsatisfiable(response);
+                return;
+            }
+            if (response.code() != 206)
+                throw responseError(response);
+
+            Matcher matcher = CONTENT_RANGE.matcher(response.header("content-range", ""));
+            if (!matcher.matches())
+                throw new HttpException("Received invalid content-range header: " + response.header("content-range"));
+
+            validator = response.header("etag", response.header("last-modified"));
+            boolean resumed = prepare(Long.parseLong(matcher.group(3)), true);
+
+            if (length == 0)
+            {
+                finish();
+                return;
+            }
+
+            int chunks = (int) ((length + chunkSize - 1) / chunkSize);
+            remaining.set(chunks - completed.cardinality());
+            if (!completed.get(0))
+            {
+                Chunk first = new Chunk(0, 0, Math.min(chunkSize, length) - 1);
+                transfer(first, response.body(), first.end);
+                complete(first);
+            }
+            else if (resumed)
+            {
+                LOG.debug("Resuming download of {} with {}/{} chunks remaining", request.url(), remaining.get(), chunks);
+            }
+
+            if (remaining.get() == 0)
+            {
+                finish();
+                return;
+            }
+
+            for (int i = completed.nextClearBit(1); i < chunks; i = completed.nextClearBit(i + 1))
+            {
+                long start = i * chunkSize;
+                Chunk next = new Chunk(i, start, Math.min(start + chunkSize, length) - 1);
+                limiter.submit(executor, () -> execute(next, this::handleChunk));
+            }
+        }
+
+        private void handleUnsatisfiable(Response response) throws IOException
+        {
+            // Empty files cannot satisfy any range, the server answers with the total length instead
+            Matcher matcher = UNSATISFIED_RANGE.matcher(response.header("content-range", ""));
+            if (!matcher.matches() || Long.parseLong(matcher.group(1)) != 0)
+                throw responseError(response);
+            prepare(0, false);
+            finish();
+        }
+
+        private void handleChunk(Chunk chunk, Response response) throws IOException
+        {
+            if (response.code() == 200)
+                throw new HttpException("File has been modified during download");
+            if (response.code() != 206)
+                throw responseError(response);
+            transfer(chunk, response.body(), chunk.end);
+            complete(chunk);
+        }
+
+        private HttpException responseError(Response response) throws IOException
+        {
+            // Server errors are retried, other errors fail the download immediately
+            if (response.code() >= 500)
+                throw new IOException("Server error " + response.code() + ": " + response.message());
+            return new HttpException(response.code() + ": " + response.message());
+        }
+
+        private synchronized boolean prepare(long length, boolean resumable) throws IOException
+        {
+            this.length = length;
+            this.completed = new BitSet();
+            // A retried probe prepares the file again
+            if (channel != null)
+                IOUtil.silentClose(channel);
+            boolean resumed = resumable && loadProgress();
+            if (!resumed)
+                Files.deleteIfExists(progressFile);
+
+            channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (!resumed)
+                channel.truncate(0);
+            // Preallocate the file, so chunks can be written at any position
+            if (length > 0 && channel.size() < length)
+                channel.write(ByteBuffer.allocate(1), length - 1);
+            return resumed;
+        }
+
+        private boolean loadProgress()
+        {
+            if (!Files.exists(progressFile) || !Files.exists(part))
+                return false;
+            try
+            {
+                DataObject progress = DataObject.fromJson(new String(Files.readAllBytes(progressFile), StandardCharsets.UTF_8));
+                if (progress.getLong("length", -1) != length
+                        || progress.getLong("chunk_size", -1) != chunkSize
+                        || validator == null || !validator.equals(progress.getString("validator", null)))
+                    return false;
+
+                DataArray chunks = progress.getArray("completed");
+                for (int i = 0; i < chunks.length(); i++)
+                    completed.set(chunks.getInt(i));
+                return true;
+            }
+            catch (Exception e)
+            {
+                LOG.debug("Could not read download progress from {}", progressFile, e);
+                return false;
+            }
+        }
+
+        private void saveProgress() throws IOException
+        {
+            if (validator == null)
+                return; // Cannot safely resume without knowing if the file changed
+            DataArray chunks = DataArray.empty();
+            completed.stream().forEach(chunks::add);
+            DataObject progress = DataObject.empty()
+                    .put("length", length)
+                    .put("chunk_size", chunkSize)
+                    .put("validator", validator)
+                    .put("completed", chunks);
+            Files.write(progressFile, progress.toJson());
+        }
+
+        private void transfer(Chunk chunk, ResponseBody body, long end) throws IOException
+        {
+            ByteBuffer buffer = ByteBuffer.allocate(8192);
+            BufferedSource source = body.source();
+            while (chunk.position() <= end)
+            {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity() - 1, end - chunk.position()) + 1);
+                int read = source.read(buffer);
+                if (read == -1)
+                {
+                    if (end == Long.MAX_VALUE)
+                        return;
+                    throw new EOFException("Unexpected end of stream at position " + chunk.position() + " of " + request.url());
+                }
+                buffer.flip();
+                while (buffer.hasRemaining())
+                    chunk.written += channel.write(buffer, chunk.position());
+                downloadedBytes.add(read);
+            }
+        }
+
+        private void complete(Chunk chunk) throws IOException
+        {
+            synchronized (this)
+            {
+                // Make sure the data is on disk before marking the chunk as completed
+                channel.force(false);
+                completed.set(chunk.index);
+                saveProgress();
+            }
+            if (remaining.decrementAndGet() == 0)
+                finish();
+        }
+
+        private synchronized void finish()
+        {
+            if (future.isDone())
+                return;
+            try
+            {
+                channel.force(true);
+                channel.close();
+                Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+                Files.deleteIfExists(progressFile);
+                transferNanos.add(System.nanoTime() - startTime);
+                completedBytes.add(Files.size(target));
+                completedDownloads.increment();
+                future.complete(target);
+            }
+            catch (IOException e)
+            {
+                fail(e);
+            }
+        }
+
+        private synchronized void cancel()
+        {
+            calls.forEach(Call::cancel);
+            if (channel != null)
+                IOUtil.silentClose(channel);
+        }
+
+        private synchronized void fail(Throwable error)
+        {
+            if (future.isDone())
+                return;
+            failedDownloads.increment();
+            calls.forEach(Call::cancel);
+            if (channel != null)
+                IOUtil.silentClose(channel);
+            if (error instanceof IOException)
+                error = new UncheckedIOException((IOException) error);
+            future.completeExceptionally(error);
+        }
+    }
+}
@@ -27,6 +27,7 @@ import okhttp3.OkHttpClient;
 import okhttp3.Request;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -42,9 +43,13 @@ import java.util.function.Function;
 public class FileProxy
 {
     private static volatile OkHttpClient defaultHttpClient;
+    private static volatile ChunkedDownloader defaultDownloader;
+    private static volatile ProxyCache defaultCache;
 
     private final String url;
     private OkHttpClient customHttpClient;
+    private ChunkedDownloader customDownloader;
+    private ProxyCache customCache;
 
     /**
      * Constructs a new {@link FileProxy} for the provided URL.
@@ -77,6 +82,35 @@ public class FileProxy
         FileProxy.defaultHttpClient = httpClient;
     }
 
+    /**
+     * Sets the default {@link ChunkedDownloader} used by {@link FileProxy} and its subclasses to download files to a path.
+     * <br>This can still be overridden on a per-instance basis with {@link #withDownloader(ChunkedDownloader)}.
+     *
+     * <p>By default, no downloader is configured and files are downloaded with a single sequential request.
+     * Downloads with {@link #download()} always use a single request, as they provide a sequential stream.
+     *
+     * @param  downloader
+     *         The default {@link ChunkedDownloader}, or null to download files with a single request
+     */
+    public static void setDefaultDownloader(@Nullable ChunkedDownloader downloader)
+    {
+        FileProxy.defaultDownloader = downloader;
+    }
+
+    /**
+     * Sets the default {@link ProxyCache} used by {@link FileProxy} and its subclasses for {@link #download()}.
+     * <br>This can still be overridden on a per-instance basis with {@link #withCache(ProxyCache)}.
+     *
+     * <p>By default, no cache is configured and every download is sent to the network.
+     *
+     * @param  cache
+     *         The default {@link ProxyCache}, or null to disable caching
+     */
+    public static void setDefaultCache(@Nullable ProxyCache cache)
+    {
+        FileProxy.defaultCache = cache;
+    }
+
     /**
      * Returns the URL that has been passed to this proxy.
      * <br>This URL is always from Discord.
@@ -108,6 +142,46 @@ public class FileProxy
         return this;
     }
 
+    /**
+     * Sets the {@link ChunkedDownloader} used by this instance to download files to a path,
+     * regardless of if {@link #setDefaultDownloader(ChunkedDownloader)} has been used or not.
+     *
+     * @param  downloader
+     *         The custom {@link ChunkedDownloader} to use for downloads to a path
+     *
+     * @throws IllegalArgumentException
+     *         If the provided {@link ChunkedDownloader} is null
+     *
+     * @return This proxy for chaining convenience.
+     */
+    @Nonnull
+    public FileProxy withDownloader(@Nonnull ChunkedDownloader downloader)
+    {
+        Checks.notNull(downloader, "Downloader");
+        this.customDownloader = downloader;
+        return this;
+    }
+
+    /**
+     * Sets the {@link ProxyCache} used by this instance for {@link #download()},
+     * regardless of if {@link #setDefaultCache(ProxyCache)} has been used or not.
+     *
+     * @param  cache
+     *         The custom {@link ProxyCache} to use for downloads
+     *
+     * @throws IllegalArgumentException
+     *         If the provided {@link ProxyCache} is null
+     *
+     * @return This proxy for chaining convenience.
+     */
+    @Nonnull
+    public FileProxy withCache(@Nonnull ProxyCache cache)
+    {
+        Checks.notNull(cache, "Cache");
+        this.customCache = cache;
+        return this;
+    }
+
 
     // INTERNAL DOWNLOAD METHODS
 
@@ -131,6 +205,18 @@ public class FileProxy
         return defaultHttpClient;
     }
 
+    @Nullable
+    protected ChunkedDownloader getDownloader()
+    {
+        return customDownloader != null ? customDownloader : defaultDownloader;
+    }
+
+    @Nullable
+    protected ProxyCache getCache()
+    {
+        return customCache != null ? customCache : defaultCache;
+    }
+
     protected Request getRequest(String url)
     {
         return new Request.Builder()
@@ -142,6 +228,10 @@ public class FileProxy
 
     protected CompletableFuture<InputStream> download(String url)
     {
+        final ProxyCache cache = getCache();
+        if (cache != null)
+            return cache.download(getHttpClient(), getRequest(url));
+
         // We need to apply a pattern of CompletableFuture as shown here https://discord.com/channels/125227483518861312/942488867167146005/942492134446088203
         // This CompletableFuture is going to be passed to the user / other proxy methods and must not be overridden with other "completion stages" (see CF#exceptionally return type)
         // This is done in order to make cancelling these downloads actually cancel all the tasks that depends on the previous ones.
@@ -206,6 +296,11 @@ public class FileProxy
             Checks.check(Files.isWritable(absolute), "File at '%s' is not writable.", absolute);
         }
 
+        // Chunked downloads require random access, which is not supported by every file system (e.g. ZIP)
+        final ChunkedDownloader downloader = getDownloader();
+        if (downloader != null && absolute.getFileSystem() == FileSystems.getDefault())
+            return downloader.download(getHttpClient(), getRequest(url), absolute);
+
         final DownloadTask downloadTask = downloadInternal(url);
 
         return FutureUtil.thenApplyCancellable(downloadTask.getFuture(), stream -> {
@@ -238,6 +333,7 @@ public class FileProxy
 
     /**
      * Retrieves the {@link InputStream} of this file
+     * <br>If a {@link ProxyCache} is configured, the data may be served from the cache.
      *
      * @return {@link CompletableFuture} which holds an {@link InputStream}, the {@link InputStream} must be closed manually
      */
@@ -252,6 +348,7 @@ public class FileProxy
      *
      * <p><b>Implementation note:</b>
      *       The file is first downloaded into a temporary file, the file is then moved to its real destination when the download is complete.
+     *       <br>If a {@link ChunkedDownloader} is configured, large files are downloaded with parallel range requests instead.
      *
      * @return {@link CompletableFuture} which holds a {@link Path} which corresponds to the location the file has been downloaded.
      */
@@ -266,6 +363,7 @@ public class FileProxy
      *
      * <p><b>Implementation note:</b>
      *       The file is first downloaded into a temporary file, the file is then moved to its real destination when the download is complete.
+     *       <br>If a {@link ChunkedDownloader} is configured, large files are downloaded with parallel range requests instead.
      *
      * @param  file
      *         The file in which to download the data
@@ -295,6 +393,7 @@ public class FileProxy
      *
      * <p><b>Implementation note:</b>
      *       The file is first downloaded into a temporary file, the file is then moved to its real destination when the download is complete.
+     *       <br>If a {@link ChunkedDownloader} is configured, large files are downloaded with parallel range requests instead.
      *       <br>The given path can also target filesystems such as a ZIP filesystem.
      *
      * @param  path
@@ -39,10 +39,16 @@ import java.nio.file.Path;
  *
  * <p>The {@link InputStream} will be closed on consumption by the request.
  * You can use {@link #close()} to close the stream manually.
+ *
+ * <p>Uploads created from a {@link File} or {@link Path} are streamed directly from the file system,
+ * and are never fully loaded into memory. Other data is buffered in memory, to allow retrying failed requests.
+ * Large streams are temporarily written to disk instead.
  */
 public class FileUpload implements Closeable, AttachedFile
 {
-    private final InputStream resource;
+    private final Path path;
+    private final OpenOption[] options;
+    private InputStream resource;
     private String name;
     private BufferedRequestBody body;
     private String description;
@@ -51,6 +57,15 @@ public class FileUpload implements Closeable, AttachedFile
     {
         this.resource = resource;
         this.name = name;
+        this.path = null;
+        this.options = null;
+    }
+
+    protected FileUpload(Path path, String name, OpenOption... options)
+    {
+        this.path = path;
+        this.options = options;
+        this.name = name;
     }
 
     /**
@@ -106,8 +121,7 @@ public class FileUpload implements Closeable, AttachedFile
      * Create a new {@link FileUpload} for a local file.
      * <br>This is used to upload data to discord for various purposes.
      *
-     * <p>This opens a {@link FileInputStream}, which will be closed on consumption by the request.
-     * You can use {@link FileUpload#close()} to close the stream manually.
+     * <p>The file is streamed from disk for every attempt of the request, and never fully loaded into memory.
      *
      * @param  file
      *         The {@link File} to upload
@@ -117,32 +131,25 @@ public class FileUpload implements Closeable, AttachedFile
      * @throws IllegalArgumentException
      *         If null is provided or the name is empty
      * @throws UncheckedIOException
-     *         If an IOException is thrown while opening the file
+     *         If the file does not exist or cannot be read
      *
      * @return {@link FileUpload}
-     *
-     * @see    java.io.FileInputStream FileInputStream
      */
     @Nonnull
     public static FileUpload fromData(@Nonnull File file, @Nonnull String name)
     {
         Checks.notNull(file, "File");
-        try
-        {
-            return fromData(new FileInputStream(file), name);
-        }
-        catch (FileNotFoundException e)
-        {
-            throw new UncheckedIOException(e);
-        }
+        Checks.notBlank(name, "Name");
+        if (!file.isFile() || !file.canRead())
+            throw new UncheckedIOException(new FileNotFoundException(file.getPath() + " (File does not exist or cannot be read)"));
+        return new FileUpload(file.toPath(), name);
     }
 
     /**
      * Create a new {@link FileUpload} for a local file.
      * <br>This is used to upload data to discord for various purposes.
      *
-     * <p>This opens a {@link FileInputStream}, which will be closed on consumption by the request.
-     * You can use {@link FileUpload#close()} to close the stream manually.
+     * <p>The file is streamed from disk for every attempt of the request, and never fully loaded into memory.
      *
      * @param  file
      *         The {@link File} to upload
@@ -150,33 +157,27 @@ public class FileUpload implements Closeable, AttachedFile
      * @throws IllegalArgumentException
      *         If null is provided
      * @throws UncheckedIOException
-     *         If an IOException is thrown while opening the file
+     *         If the file does not exist or cannot be read
      *
      * @return {@link FileUpload}
      *
-     * @see    java.io.FileInputStream FileInputStream
      * @see    #fromData(File, String)
      */
     @Nonnull
     public static FileUpload fromData(@Nonnull File file)
     {
         Checks.notNull(file, "File");
-        try
-        {
-            return fromData(new FileInputStream(file), file.getName());
-        }
-        catch (FileNotFoundException e)
-        {
-            throw new UncheckedIOException(e);
-        }
+        return fromData(file, file.getName());
     }
 
     /**
      * Create a new {@link FileUpload} for a local file.
      * <br>This is used to upload data to discord for various purposes.
      *
-     * <p>This opens the path using {@link Files#newInputStream(Path, OpenOption...)}, which will be closed on consumption by the request.
-     * You can use {@link FileUpload#close()} to close the stream manually.
+     * <p>The file is streamed from disk for every attempt of the request, and never fully loaded into memory.
+     * The provided options are used every time the file is opened.
+     * With {@link java.nio.file.StandardOpenOption#DELETE_ON_CLOSE DELETE_ON_CLOSE}, the file is deleted once the request is done,
+     * or once the upload is {@link #close() closed}.
      *
      * @param  path
      *         The {@link Path} of the file to upload
@@ -187,9 +188,6 @@ public class FileUpload implements Closeable, AttachedFile
      *
      * @throws IllegalArgumentException
      *         If null is provided or the name is empty
-     * @throws UncheckedIOException
-     *         If an IOException is thrown while opening the file
-     *
      * @return {@link FileUpload}
      */
     @Nonnull
@@ -197,15 +195,10 @@ public class FileUpload implements Closeable, AttachedFile
     {
         Checks.notNull(path, "Path");
         Checks.noneNull(options, "Options");
+        Checks.notBlank(name, "Name");
         Checks.check(Files.isReadable(path), "File for specified path cannot be read. Path: %s", path);
-        try
-        {
-            return fromData(Files.newInputStream(path, options), name);
-        }
-        catch (IOException e)
-        {
-            throw new UncheckedIOException("Could not open file for specified path. Path: " + path, e);
-        }
+        Checks.check(!Files.isDirectory(path), "Path must not be a directory. Path: %s", path);
+        return new FileUpload(path, name, options);
     }
 
     /**
@@ -213,8 +206,10 @@ public class FileUpload implements Closeable, AttachedFile
      * <br>This is used to upload data to discord for various purposes.
      * Uses {@link Path#getFileName()} to specify the name of the file, to customize the filename use {@link #fromData(Path, String, OpenOption...)}.
      *
-     * <p>This opens the path using {@link Files#newInputStream(Path, OpenOption...)}, which will be closed on consumption by the request.
-     * You can use {@link FileUpload#close()} to close the stream manually.
+     * <p>The file is streamed from disk for every attempt of the request, and never fully loaded into memory.
+     * The provided options are used every time the file is opened.
+     * With {@link java.nio.file.StandardOpenOption#DELETE_ON_CLOSE DELETE_ON_CLOSE}, the file is deleted once the request is done,
+     * or once the upload is {@link #close() closed}.
      *
      * @param  path
      *         The {@link Path} of the file to upload
@@ -222,9 +217,7 @@ public class FileUpload implements Closeable, AttachedFile
      *         The {@link OpenOption OpenOptions} specifying how the file is opened
      *
      * @throws IllegalArgumentException
-     *         If null is provided
-     * @throws UncheckedIOException
-     *         If an IOException is thrown while opening the file
+     *         If null is provided or the file cannot be read
      *
      * @return {@link FileUpload}
      */
@@ -315,11 +308,27 @@ public class FileUpload implements Closeable, AttachedFile
     /**
      * The {@link InputStream} representing the data to upload as a file.
      *
+     * <p>For uploads created from a file, this opens a new stream on the first call.
+     *
+     * @throws UncheckedIOException
+     *         If the file could not be opened
+     *
      * @return The {@link InputStream}
      */
     @Nonnull
-    public InputStream getData()
+    public synchronized InputStream getData()
     {
+        if (resource == null && path != null)
+        {
+            try
+            {
+                resource = Files.newInputStream(path, options);
+            }
+            catch (IOException e)
+            {
+                throw new UncheckedIOException("Could not open file for specified path. Path: " + path, e);
+            }
+        }
         return resource;
     }
 
@@ -327,7 +336,9 @@ public class FileUpload implements Closeable, AttachedFile
      * Creates a re-usable instance of {@link RequestBody} with the specified content-type.
      *
      * <p>This body will automatically close the {@link #getData() resource} when the request is done.
-     * However, since the body buffers the data, it can be used multiple times regardless.
+     * However, since the body either buffers the data or reads it from the file system, it can be used multiple times regardless.
+     * Streams larger than {@link BufferedRequestBody#MEMORY_THRESHOLD} are the exception,
+     * they are written to a temporary file which is deleted once the request is done.
      *
      * @param  type
      *         The content-type to use for the body (e.g. {@code "application/octet-stream"})
@@ -343,6 +354,8 @@ public class FileUpload implements Closeable, AttachedFile
         Checks.notNull(type, "Type");
         if (body != null) // This allows FileUpload to be used more than once!
             return body.withType(type);
+        if (path != null && resource == null) // Stream directly from the file, unless the data was already accessed
+            return body = IOUtil.createRequestBody(type, path, options);
         return body = IOUtil.createRequestBody(type, resource);
     }
 
@@ -368,11 +381,15 @@ public class FileUpload implements Closeable, AttachedFile
     {
         if (body == null)
             forceClose();
+        else
+            body.close();
     }
 
     @Override
-    public void forceClose() throws IOException
+    public synchronized void forceClose() throws IOException
     {
+        if (body != null)
+            body.close();
         if (resource != null)
             resource.close();
     }
@@ -381,7 +398,7 @@ public class FileUpload implements Closeable, AttachedFile
     @SuppressWarnings("deprecation")
     protected void finalize()
     {
-        if (body == null) // Only close if the resource was never used
+        if (body == null && resource != null) // Only close if the resource was never used
             IOUtil.silentClose(resource);
     }
 
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.utils;
+
+import net.dv8tion.jda.internal.utils.Checks;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative values, such as latencies.
+ *
+ * <p>Values are counted in buckets of exponentially increasing size, each split into 64 linear sub-buckets,
+ * similar to an <a href="https://hdrhistogram.github.io/HdrHistogram/" target="_blank">HdrHistogram</a>.
+ * This keeps the relative error of {@link #getValueAtPercentile(double) percentiles} below 1.6%,
+ * while using a fixed amount of memory. Values below 128 are counted exactly.
+ *
+ * <p>Recording is wait-free and can happen concurrently with queries.
+ * Queries which run concurrently with recording might not include the most recent values.
+ */
+public class Histogram
+{
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_BITS = SUB_BUCKET_BITS - 1;
+    private static final int SUB_BUCKET_HALF = 1 << SUB_BUCKET_HALF_BITS;
+
+    private final long highestTrackableValue;
+    private final AtomicLongArray counts;
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Creates a new histogram.
+     * <br>Larger values are recorded as the highest trackable value.
+     *
+     * @param  highestTrackableValue
+     *         The highest value to track
+     *
+     * @throws IllegalArgumentException
+     *         If the value is not positive
+     */
+    public Histogram(long highestTrackableValue)
+    {
+        Checks.positive(highestTrackableValue, "Highest trackable value");
+        this.highestTrackableValue = highestTrackableValue;
+        this.counts = new AtomicLongArray(indexOf(highestTrackableValue) + 1);
+    }
+
+    /**
+     * Records a value.
+     * <br>Negative values are recorded as 0.
+     *
+     * @param value
+     *        The value
+     */
+    public void record(long value)
+    {
+        value = Math.min(Math.max(0, value), highestTrackableValue);
+        counts.incrementAndGet(indexOf(value));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * The number of recorded values.
+     *
+     * @return The count
+     */
+    public long getCount()
+    {
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++)
+            count += counts.get(i);
+        return count;
+    }
+
+    /**
+     * The largest recorded value.
+     *
+     * @return The maximum, or 0 if nothing was recorded
+     */
+    public long getMax()
+    {
+        return max.get();
+    }
+
+    /**
+     * The average of all recorded values.
+     *
+     * @return The mean, or 0 if nothing was recorded
+     */
+    public double getMean()
+    {
+        long count = getCount();
+        return count == 0 ? 0 : (double) sum.sum() / count;
+    }
+
+    /**
+     * The value below which the provided percentage of recorded values fall.
+     * <br>The result is the upper bound of the bucket containing the percentile, but never larger than {@link #getMax()}.
+     *
+     * @param  percentile
+     *         The percentile, between 0 and 100
+     *
+     * @throws IllegalArgumentException
+     *         If the percentile is not between 0 and 100
+     *
+     * @return The value at the percentile, or 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile)
+    {
+        Checks.check(percentile >= 0 && percentile <= 100, "Percentile must be between 0 and 100");
+        long[] snapshot = new long[counts.length()];
+        long total = 0;
+        for (int i = 0; i < snapshot.length; i++)
+            total += snapshot[i] = counts.get(i);
+        if (total == 0)
+            return 0;
+
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < snapshot.length; i++)
+        {
+            seen += snapshot[i];
+            if (seen >= target)
+                return Math.min(highestValueOf(i), getMax());
+        }
+        return getMax();
+    }
+
+    /**
+     * Removes all recorded values.
+     * <br>Values which are recorded concurrently might be partially removed.
+     */
+    public void reset()
+    {
+        for (int i = 0; i < counts.length(); i++)
+            counts.set(i, 0);
+        sum.reset();
+        max.reset();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Histogram(count=" + getCount() + ", p50=" + getValueAtPercentile(50) + ", p99=" + getValueAtPercentile(99) + ", max=" + getMax() + ")";
+    }
+
+    // Values below SUB_BUCKET_COUNT map to themselves,
+    // larger values keep their SUB_BUCKET_BITS highest bits and are grouped by the number of dropped bits
+    private static int indexOf(long value)
+    {
+        if (value < SUB_BUCKET_COUNT)
+            return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_HALF_BITS;
+        return (shift << SUB_BUCKET_HALF_BITS) + (int) (value >>> shift);
+    }
+
+    private static long highestValueOf(int index)
+    {
+        if (index < SUB_BUCKET_COUNT)
+            return index;
+        int shift = (index >>> SUB_BUCKET_HALF_BITS) - 1;
+        long subBucket = (index & (SUB_BUCKET_HALF - 1)) + SUB_BUCKET_HALF;
+        long highest = ((subBucket + 1) << shift) - 1;
+        return highest < 0 ? Long.MAX_VALUE : highest;
+    }
+}
@@ -0,0 +1,440 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.api.utils;
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.utils.cache.CacheView;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.handle.EventCache;
+import net.dv8tion.jda.internal.requests.Requester;
+import net.dv8tion.jda.internal.requests.WebSocketClient;
+import net.dv8tion.jda.internal.utils.Checks;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registry of runtime metrics about the gateway, the entity cache, event listeners, and REST requests.
+ *
+ * <p>Metrics are only collected for JDA instances configured with
+ * {@link net.dv8tion.jda.api.JDABuilder#setMetrics(JDAMetrics) JDABuilder.setMetrics(JDAMetrics)} or
+ * {@link net.dv8tion.jda.api.sharding.DefaultShardManagerBuilder#setMetrics(JDAMetrics) DefaultShardManagerBuilder.setMetrics(JDAMetrics)}.
+ * Without a registry, JDA skips all measurements. Counters and {@link Histogram histograms} are lock-free
+ * and updated while events are handled, while gauges, such as cache sizes, are only computed when the metrics are {@link #publish(MetricsPublisher) published}.
+ * All durations are recorded in microseconds, up to one minute.
+ *
+ * <p>The same instance is shared by all shards of a shard manager, gauges are tagged with the shard id.
+ *
+ * <p><b>Published Metrics</b>
+ * <ul>
+ *     <li>{@code gateway.dispatch} (counter) and {@code gateway.dispatch.time} (histogram), tagged with the event {@code type},
+ *         the time to update the cache and fire the events of a dispatch. This includes the listeners of a synchronous event manager.</li>
+ *     <li>{@code gateway.decode.time} (histogram), the time to decompress and parse a gateway frame</li>
+ *     <li>{@code gateway.bytes.compressed} and {@code gateway.bytes.decompressed} (counters), the size of compressed frames before and after decompression</li>
+ *     <li>{@code gateway.send_queue.time} (histogram), the time messages waited in the send queue due to the gateway rate-limit</li>
+ *     <li>{@code event.dispatch.time} (histogram), tagged with the {@code event} class, the time {@link net.dv8tion.jda.api.hooks.IEventManager#handle(GenericEvent) IEventManager.handle(...)} took to return.
+ *         For a synchronous event manager, this includes the listeners. For an asynchronous event manager, such as the
+ *         {@link net.dv8tion.jda.api.hooks.QueuedEventManager QueuedEventManager}, this is only the time to hand off the event.
+ *         The processing time of each listener is provided by {@link net.dv8tion.jda.api.hooks.QueuedEventManager#getMetrics() QueuedEventManager.getMetrics()} instead.</li>
+ *     <li>{@code gateway.send_queue.size}, {@code gateway.ping}, {@code event_cache.size}, and {@code event_cache.bytes} (gauges), tagged with the {@code shard}</li>
+ *     <li>{@code event_cache.cached}, {@code event_cache.replayed}, and {@code event_cache.dropped} (counters), tagged with the {@code shard},
+ *         the events deferred until an unknown entity is created, and whether they were replayed or dropped due to a timeout or the size limits</li>
+ *     <li>{@code cache.size} (gauge), tagged with the {@code shard} and the {@code cache}, such as {@code guilds} or {@code members}</li>
+ *     <li>{@code rest.queue.size} (gauge), tagged with the {@code shard} and the rate-limit {@code bucket}</li>
+ * </ul>
+ *
+ * <p>Latencies of REST requests are collected by {@link net.dv8tion.jda.api.requests.RestMetrics RestMetrics}.
+ *
+ * <p><b>Example</b>
+ * <pre>{@code
+ * JDAMetrics metrics = new JDAMetrics();
+ * JDA jda = JDABuilder.createDefault(token)
+ *     .setMetrics(metrics)
+ *     .build();
+ *
+ * ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+ * scheduler.scheduleAtFixedRate(() -> metrics.publish(new MyPrometheusPublisher()), 1, 1, TimeUnit.MINUTES);
+ * }</pre>
+ */
+public class JDAMetrics
+{
+    private static final long HIGHEST_TRACKABLE_VALUE = TimeUnit.MINUTES.toMicros(1);
+
+    private final ConcurrentMap<String, DispatchMetrics> dispatches = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Class<?>, Histogram> eventDispatches = new ConcurrentHashMap<>();
+    private final Histogram decodeTime = new Histogram(HIGHEST_TRACKABLE_VALUE);
+    private final Histogram sendQueueTime = new Histogram(HIGHEST_TRACKABLE_VALUE);
+    private final LongAdder compressedBytes = new LongAdder();
+    private final LongAdder decompressedBytes = new LongAdder();
+    private final Set<JDA> shards = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Adds a JDA instance, whose gauges are published by this registry.
+     * <br>This is done automatically for instances configured with this registry.
+     *
+     * @param  jda
+     *         The JDA instance
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     */
+    public void register(@Nonnull JDA jda)
+    {
+        Checks.notNull(jda, "JDA");
+        shards.add(jda);
+    }
+
+    /**
+     * Removes a JDA instance, whose gauges are no longer published by this registry.
+     * <br>This is done automatically once an instance configured with this registry shuts down.
+     *
+     * @param  jda
+     *         The JDA instance
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     */
+    public void unregister(@Nonnull JDA jda)
+    {
+        Checks.notNull(jda, "JDA");
+        shards.remove(jda);
+    }
+
+    /**
+     * Records a handled dispatch.
+     *
+     * @param type
+     *        The event type, such as {@code MESSAGE_CREATE}
+     * @param duration
+     *        The time in nanoseconds to handle the dispatch
+     */
+    public void recordDispatch(@Nonnull String type, long duration)
+    {
+        DispatchMetrics metrics = dispatches.get(type);
+        if (metrics == null)
+            metrics = dispatches.computeIfAbsent(type, DispatchMetrics::new);
+        metrics.count.increment();
+        metrics.time.record(TimeUnit.NANOSECONDS.toMicros(duration));
+    }
+
+    /**
+     * Records a decoded gateway frame.
+     *
+     * @param duration
+     *        The time in nanoseconds to decompress and parse the frame
+     */
+    public void recordDecode(long duration)
+    {
+        decodeTime.record(TimeUnit.NANOSECONDS.toMicros(duration));
+    }
+
+    /**
+     * Records a decompressed gateway frame.
+     *
+     * @param compressed
+     *        The number of compressed bytes
+     * @param decompressed
+     *        The number of decompressed bytes
+     */
+    public void recordDecompression(int compressed, int decompressed)
+    {
+        compressedBytes.add(compressed);
+        decompressedBytes.add(decompressed);
+    }
+
+    /**
+     * Records the time a message waited in the gateway send queue.
+     *
+     * @param duration
+     *        The time in nanoseconds until the message was sent
+     */
+    public void recordSendQueueTime(long duration)
+    {
+        sendQueueTime.record(TimeUnit.NANOSECONDS.toMicros(duration));
+    }
+
+    /**
+     * Records the time the event manager took to return from {@link net.dv8tion.jda.api.hooks.IEventManager#handle(GenericEvent) handle(...)}.
+     *
+     * @param event
+     *        The event
+     * @param duration
+     *        The time in nanoseconds to dispatch the event
+     */
+    public void recordEventDispatchTime(@Nonnull GenericEvent event, long duration)
+    {
+        Class<?> type = event.getClass();
+        Histogram histogram = eventDispatches.get(type);
+        if (histogram == null)
+            histogram = eventDispatches.computeIfAbsent(type, k -> new Histogram(HIGHEST_TRACKABLE_VALUE));
+        histogram.record(TimeUnit.NANOSECONDS.toMicros(duration));
+    }
+
+    /**
+     * The metrics of all dispatch types which have been handled at least once.
+     *
+     * @return Immutable collection of the dispatch metrics
+     */
+    @Nonnull
+    public Collection<DispatchMetrics> getDispatchMetrics()
+    {
+        return Collections.unmodifiableCollection(dispatches.values());
+    }
+
+    /**
+     * The metrics of the provided dispatch type.
+     *
+     * @param  type
+     *         The event type, such as {@code MESSAGE_CREATE}
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     *
+     * @return The dispatch metrics, or null if this type has not been handled yet
+     */
+    @Nullable
+    public DispatchMetrics getDispatchMetrics(@Nonnull String type)
+    {
+        Checks.notNull(type, "Type");
+        return dispatches.get(type);
+    }
+
+    /**
+     * The time the event manager took to dispatch the provided event type, in microseconds.
+     * <br>With an asynchronous event manager, such as the {@link net.dv8tion.jda.api.hooks.QueuedEventManager QueuedEventManager},
+     * this does not include the time spent in the listeners.
+     *
+     * @param  type
+     *         The event class
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     *
+     * @return The event dispatch time histogram, or null if no event of this type has been handled yet
+     */
+    @Nullable
+    public Histogram getEventDispatchTime(@Nonnull Class<? extends GenericEvent> type)
+    {
+        Checks.notNull(type, "Type");
+        return eventDispatches.get(type);
+    }
+
+    /**
+     * The time to decompress and parse a gateway frame, in microseconds.
+     *
+     * @return The decode time histogram
+     */
+    @Nonnull
+    public Histogram getDecodeTime()
+    {
+        return decodeTime;
+    }
+
+    /**
+     * The time messages waited in the gateway send queue, in microseconds.
+     *
+     * @return The send queue time histogram
+     */
+    @Nonnull
+    public Histogram getSendQueueTime()
+    {
+        return sendQueueTime;
+    }
+
+    /**
+     * The total size of compressed gateway frames.
+     *
+     * @return The number of compressed bytes
+     */
+    public long getCompressedBytes()
+    {
+        return compressedBytes.sum();
+    }
+
+    /**
+     * The total size of compressed gateway frames after decompression.
+     *
+     * @return The number of decompressed bytes
+     */
+    public long getDecompressedBytes()
+    {
+        return decompressedBytes.sum();
+    }
+
+    /**
+     * Removes all collected counters and histograms.
+     */
+    public void reset()
+    {
+        dispatches.clear();
+        eventDispatches.clear();
+        decodeTime.reset();
+        sendQueueTime.reset();
+        compressedBytes.reset();
+        decompressedBytes.reset();
+    }
+
+    /**
+     * Publishes the current value of every metric, and computes the gauges of all registered JDA instances.
+     * <br>Computing the cache sizes iterates all guilds, this should be called periodically rather than for every event.
+     *
+     * @param  publisher
+     *         The publisher
+     *
+     * @throws IllegalArgumentException
+     *         If null is provided
+     */
+    public void publish(@Nonnull MetricsPublisher publisher)
+    {
+        Checks.notNull(publisher, "Publisher");
+        Map<String, String> none = Collections.emptyMap();
+        for (DispatchMetrics metrics : dispatches.values())
+        {
+            Map<String, String> tags = Collections.singletonMap("type", metrics.type);
+            publisher.counter("gateway.dispatch", tags, metrics.getCount());
+            publisher.histogram("gateway.dispatch.time", tags, metrics.time);
+        }
+        publisher.histogram("gateway.decode.time", none, decodeTime);
+        publisher.counter("gateway.bytes.compressed", none, getCompressedBytes());
+        publisher.counter("gateway.bytes.decompressed", none, getDecompressedBytes());
+        publisher.histogram("gateway.send_queue.time", none, sendQueueTime);
+        eventDispatches.forEach((type, histogram) ->
+            publisher.histogram("event.dispatch.time", Collections.singletonMap("event", type.getSimpleName()), histogram));
+
+        for (JDA jda : shards)
+            publishGauges(publisher, (JDAImpl) jda);
+    }
+
+    private void publishGauges(MetricsPublisher publisher, JDAImpl jda)
+    {
+        String shard = String.valueOf(jda.getShardInfo().getShardId());
+        Map<String, String> tags = Collections.singletonMap("shard", shard);
+        publisher.gauge("gateway.ping", tags, jda.getGatewayPing());
+        EventCache eventCache = jda.getEventCache();
+        publisher.gauge("event_cache.size", tags, eventCache.size());
+        publisher.gauge("event_cache.bytes", tags, eventCache.getTotalBytes());
+        publisher.counter("event_cache.cached", tags, eventCache.getCachedCount());
+        publisher.counter("event_cache.replayed", tags, eventCache.getReplayedCount());
+        publisher.counter("event_cache.dropped", tags, eventCache.getDroppedCount());
+        WebSocketClient client = jda.getClient();
+        if (client != null)
+            publisher.gauge("gateway.send_queue.size", tags, client.getSendQueueSize());
+
+        long members = 0;
+        for (Guild guild : jda.getGuildCache())
+            members += guild.getMemberCache().size();
+        publishCacheSize(publisher, shard, "guilds", jda.getGuildCache());
+        publishCacheSize(publisher, shard, "users", jda.getUserCache());
+        publisher.gauge("cache.size", cacheTags(shard, "members"), members);
+        publishCacheSize(publisher, shard, "roles", jda.getRoleCache());
+        publishCacheSize(publisher, shard, "emojis", jda.getEmojiCache());
+        publishCacheSize(publisher, shard, "scheduled_events", jda.getScheduledEventCache());
+        publishCacheSize(publisher, shard, "categories", jda.getCategoryCache());
+        publishCacheSize(publisher, shard, "text_channels", jda.getTextChannelCache());
+        publishCacheSize(publisher, shard, "news_channels", jda.getNewsChannelCache());
+        publishCacheSize(publisher, shard, "voice_channels", jda.getVoiceChannelCache());
+        publishCacheSize(publisher, shard, "stage_channels", jda.getStageChannelCache());
+        publishCacheSize(publisher, shard, "forum_channels", jda.getForumChannelCache());
+        publishCacheSize(publisher, shard, "thread_channels", jda.getThreadChannelCache());
+        publishCacheSize(publisher, shard, "private_channels", jda.getPrivateChannelCache());
+        publishCacheSize(publisher, shard, "audio_managers", jda.getAudioManagerCache());
+
+        Requester requester = jda.getRequester();
+        if (requester == null)
+            return;
+        requester.getRateLimiter().getQueueSizes().forEach((bucket, size) -> {
+            Map<String, String> bucketTags = new HashMap<>(2);
+            bucketTags.put("shard", shard);
+            bucketTags.put("bucket", bucket);
+            publisher.gauge("rest.queue.size", Collections.unmodifiableMap(bucketTags), size);
+        });
+    }
+
+    private static void publishCacheSize(MetricsPublisher publisher, String shard, String cache, CacheView<?> view)
+    {
+        publisher.gauge("cache.size", cacheTags(shard, cache), view.size());
+    }
+
+    private static Map<String, String> cacheTags(String shard, String cache)
+    {
+        Map<String, String> tags = new HashMap<>(2);
+        tags.put("shard", shard);
+        tags.put("cache", cache);
+        return Collections.unmodifiableMap(tags);
+    }
+
+    /**
+     * The metrics of a single dispatch type.
+     */
+    public static class DispatchMetrics
+    {
+        private final String type;
+        private final Histogram time = new Histogram(HIGHEST_TRACKABLE_VALUE);
+        private final LongAdder count = new LongAdder();
+
+        private DispatchMetrics(String type)
+        {
+            this.type = type;
+        }
+
+        /**
+         * The event type, such as {@code MESSAGE_CREATE}.
+         *
+         * @return The type
+         */
+        @Nonnull
+        public String getType()
+        {
+            return type;
+        }
+
+        /**
+         * The time to handle a dispatch of this type, in microseconds.
+         *
+         * @return The dispatch time histogram
+         */
+        @Nonnull
+        public Histogram getTime()
+        {
+            return time;
+        }
+
+        /**
+         * The number of handled dispatches.
+         *
+         * @return The count
+         */
+        public long getCount()
+        {
+            return count.sum();
+        }
+
+        @Override
+        public String toString()
+        {
+            return "DispatchMetrics[" + type + "](count=" + getCount() + ", time=" + time + ")";
+        }
+    }
+}
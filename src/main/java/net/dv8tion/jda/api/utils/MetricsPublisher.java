@@ -0,0 +1,70 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.api.utils;
+
+import javax.annotation.Nonnull;
+import java.util.Map;
+
+/**
+ * Receives the current values of a {@link JDAMetrics} registry, to forward them to a monitoring system.
+ *
+ * <p>Metric names are lower case and dot separated, such as {@code gateway.dispatch.time}.
+ * Tags identify the different series of a metric, for example the event type or the shard id.
+ * See {@link JDAMetrics} for the list of published metrics.
+ *
+ * @see JDAMetrics#publish(MetricsPublisher)
+ */
+public interface MetricsPublisher
+{
+    /**
+     * Publishes a monotonic counter.
+     *
+     * @param name
+     *        The metric name
+     * @param tags
+     *        Immutable tags of this series
+     * @param value
+     *        The total count
+     */
+    void counter(@Nonnull String name, @Nonnull Map<String, String> tags, long value);
+
+    /**
+     * Publishes a gauge, which is a value that can go up and down.
+     *
+     * @param name
+     *        The metric name
+     * @param tags
+     *        Immutable tags of this series
+     * @param value
+     *        The current value
+     */
+    void gauge(@Nonnull String name, @Nonnull Map<String, String> tags, long value);
+
+    /**
+     * Publishes a histogram of durations in microseconds.
+     * <br>The histogram is live and keeps recording, implementations should read the values they need right away.
+     *
+     * @param name
+     *        The metric name
+     * @param tags
+     *        Immutable tags of this series
+     * @param histogram
+     *        The histogram
+     */
+    void histogram(@Nonnull String name, @Nonnull Map<String, String> tags, @Nonnull Histogram histogram);
+}
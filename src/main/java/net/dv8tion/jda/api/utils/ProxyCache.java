@@ -0,0 +1,587 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.api.utils;
+
+import net.dv8tion.jda.api.exceptions.HttpException;
+import net.dv8tion.jda.internal.requests.FunctionalCallback;
+import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.IOUtil;
+import net.dv8tion.jda.internal.utils.JDALogger;
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Two-tier cache for downloads with {@link FileProxy#download()}, such as {@link ImageProxy#download(int)} and {@link AttachmentProxy#downloadAsIcon()}.
+ *
+ * <p>Responses are stored in a size-bounded in-memory LRU, and optionally in a size-bounded directory on disk.
+ * Entries are keyed by their full URL, which includes the size parameters of the proxy.
+ * Once an entry is older than {@link #setMaxAge(long, TimeUnit) the max age}, it is revalidated with the server
+ * using the {@code ETag} or {@code Last-Modified} headers of the cached response.
+ * Concurrent downloads of the same URL share a single request, which is cancelled once all of them have been cancelled.
+ *
+ * <p><b>Example</b>
+ * <pre>{@code
+ * // 64 MiB in memory, 1 GiB on disk
+ * ProxyCache cache = new ProxyCache(64 << 20, Paths.get("avatar-cache"), 1L << 30);
+ * FileProxy.setDefaultCache(cache);
+ * }</pre>
+ *
+ * @see FileProxy#setDefaultCache(ProxyCache)
+ * @see FileProxy#withCache(ProxyCache)
+ */
+public class ProxyCache
+{
+    private static final Logger LOG = JDALogger.getLog(ProxyCache.class);
+    private static final String FILE_EXTENSION = ".cache";
+
+    private final Map<String, Entry> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Long> disk = new LinkedHashMap<>(16, 0.75f, true);
+    private final ConcurrentMap<String, Fetch> pending = new ConcurrentHashMap<>();
+    private final long memoryLimit, diskLimit;
+    private final Path directory;
+    private long memorySize, diskSize;
+    private volatile long maxAge = TimeUnit.MINUTES.toMillis(10);
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a new cache which only stores entries in memory.
+     *
+     * @param  memoryLimit
+     *         The maximum number of bytes stored in memory
+     *
+     * @throws IllegalArgumentException
+     *         If the limit is not positive
+     */
+    public ProxyCache(long memoryLimit)
+    {
+        this(memoryLimit, null, 0);
+    }
+
+    /**
+     * Creates a new cache which stores entries in memory and in the provided directory.
+     * <br>Existing entries in the directory are reused, which allows the cache to survive restarts.
+     *
+     * @param  memoryLimit
+     *         The maximum number of bytes stored in memory
+     * @param  directory
+     *         The directory used to store entries on disk, or null to only use memory
+     * @param  diskLimit
+     *         The maximum number of bytes stored on disk
+     *
+     * @throws IllegalArgumentException
+     *         If the memory limit is not positive, or the disk limit is not positive while a directory is provided
+     * @throws UncheckedIOException
+     *         If the directory could not be created or read
+     */
+    public ProxyCache(long memoryLimit, @Nullable Path directory, long diskLimit)
+    {
+        Checks.positive(memoryLimit, "Memory limit");
+        if (directory != null)
+            Checks.positive(diskLimit, "Disk limit");
+        this.memoryLimit = memoryLimit;
+        this.diskLimit = diskLimit;
+        this.directory = directory;
+        if (directory != null)
+            loadIndex();
+    }
+
+    /**
+     * The duration after which cached entries are revalidated with the server.
+     * <br>The default is 10 minutes.
+     *
+     * @param  maxAge
+     *         The max age, 0 to revalidate on every access
+     * @param  unit
+     *         The time unit
+     *
+     * @throws IllegalArgumentException
+     *         If the provided unit is null or the max age is negative
+     *
+     * @return The current ProxyCache for chaining convenience
+     */
+    @Nonnull
+    public ProxyCache setMaxAge(long maxAge, @Nonnull TimeUnit unit)
+    {
+        Checks.notNegative(maxAge, "Max age");
+        Checks.notNull(unit, "TimeUnit");
+        this.maxAge = unit.toMillis(maxAge);
+        return this;
+    }
+
+    /**
+     * The number of requests answered from memory.
+     *
+     * @return The number of memory hits
+     */
+    public long getMemoryHits()
+    {
+        return memoryHits.sum();
+    }
+
+    /**
+     * The number of requests answered from disk.
+     *
+     * @return The number of disk hits
+     */
+    public long getDiskHits()
+    {
+        return diskHits.sum();
+    }
+
+    /**
+     * The number of stale entries which were confirmed by the server to be unchanged.
+     *
+     * @return The number of revalidated entries
+     */
+    public long getRevalidations()
+    {
+        return revalidations.sum();
+    }
+
+    /**
+     * The number of requests which had to download the full response.
+     *
+     * @return The number of misses
+     */
+    public long getMisses()
+    {
+        return misses.sum();
+    }
+
+    /**
+     * The number of entries removed from memory or disk to stay within the limits.
+     *
+     * @return The number of evictions
+     */
+    public long getEvictions()
+    {
+        return evictions.sum();
+    }
+
+    /**
+     * The ratio of requests which did not require downloading the full response, between 0 and 1.
+     *
+     * @return The hit rate
+     */
+    public double getHitRate()
+    {
+        long hits = memoryHits.sum() + diskHits.sum() + revalidations.sum();
+        long total = hits + misses.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * The number of bytes currently stored in memory.
+     *
+     * @return The memory usage in bytes
+     */
+    public synchronized long getMemorySize()
+    {
+        return memorySize;
+    }
+
+    /**
+     * The number of bytes currently stored on disk.
+     *
+     * @return The disk usage in bytes
+     */
+    public synchronized long getDiskSize()
+    {
+        return diskSize;
+    }
+
+    /**
+     * Removes all entries from memory and disk.
+     */
+    public synchronized void clear()
+    {
+        memory.clear();
+        memorySize = 0;
+        for (String name : disk.keySet())
+            delete(name);
+        disk.clear();
+        diskSize = 0;
+    }
+
+    @Nonnull
+    protected CompletableFuture<InputStream> download(@Nonnull OkHttpClient client, @Nonnull Request request)
+    {
+        String key = request.url().toString();
+        Entry entry = lookupMemory(key);
+        boolean fromDisk = false;
+        if (entry == null && directory != null)
+            fromDisk = (entry = lookupDisk(key)) != null;
+
+        if (entry != null && System.currentTimeMillis() - entry.validatedAt < maxAge)
+        {
+            (fromDisk ? diskHits : memoryHits).increment();
+            return CompletableFuture.completedFuture(entry.stream());
+        }
+
+        // Concurrent downloads of the same url share a request
+        while (true)
+        {
+            // The request is only started once the fetch is registered, since it might complete immediately
+            Fetch fetch = new Fetch(key);
+            Fetch shared = pending.putIfAbsent(key, fetch);
+            if (shared == null)
+            {
+                shared = fetch;
+                fetch.start(client, request, entry);
+            }
+
+            CompletableFuture<InputStream> result = shared.join();
+            if (result != null)
+                return result;
+            // The shared request has just failed or been cancelled, start a new one instead
+            pending.remove(key, shared);
+        }
+    }
+
+    private Entry handle(String key, Entry cached, Response response) throws IOException
+    {
+        if (response.code() == 304 && cached != null)
+        {
+            revalidations.increment();
+            cached.validatedAt = System.currentTimeMillis();
+            // Write the entry again, so the new validation time survives restarts
+            store(cached);
+            return cached;
+        }
+
+        if (!response.isSuccessful())
+            throw new HttpException(response.code() + ": " + response.message());
+
+        InputStream body = IOUtil.getBody(response);
+        if (body == null)
+            throw new IOException("Failed to decode response body of " + key);
+
+        Entry entry = new Entry(key, IOUtil.readFully(body), response.header("etag"), response.header("last-modified"), System.currentTimeMillis());
+        misses.increment();
+        store(entry);
+        return entry;
+    }
+
+    private synchronized Entry lookupMemory(String key)
+    {
+        return memory.get(key);
+    }
+
+    private Entry lookupDisk(String key)
+    {
+        String name = fileName(key);
+        synchronized (this)
+        {
+            if (disk.get(name) == null)
+                return null;
+        }
+
+        Path file = directory.resolve(name);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
+        {
+            String url = in.readUTF();
+            String etag = in.readUTF();
+            String lastModified = in.readUTF();
+            long validatedAt = in.readLong();
+            byte[] data = new byte[in.readInt()];
+            in.readFully(data);
+            if (!url.equals(key))
+                return null; // Hash collision, treat as miss
+
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            Entry entry = new Entry(key, data, etag.isEmpty() ? null : etag, lastModified.isEmpty() ? null : lastModified, validatedAt);
+            synchronized (this)
+            {
+                putMemory(entry);
+            }
+            return entry;
+        }
+        catch (IOException e)
+        {
+            LOG.debug("Failed to read cache entry {} for {}", name, key, e);
+            synchronized (this)
+            {
+                removeDisk(name);
+            }
+            return null;
+        }
+    }
+
+    private void store(Entry entry)
+    {
+        synchronized (this)
+        {
+            putMemory(entry);
+        }
+
+        if (directory == null || entry.data.length > diskLimit)
+            return;
+
+        String name = fileName(entry.key);
+        Path file = directory.resolve(name);
+        try
+        {
+            Path tmp = Files.createTempFile(directory, name, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp))))
+            {
+                out.writeUTF(entry.key);
+                out.writeUTF(entry.etag == null ? "" : entry.etag);
+                out.writeUTF(entry.lastModified == null ? "" : entry.lastModified);
+                out.writeLong(entry.validatedAt);
+                out.writeInt(entry.data.length);
+                out.write(entry.data);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+
+            synchronized (this)
+            {
+                Long previous = disk.put(name, Files.size(file));
+                diskSize += disk.get(name) - (previous == null ? 0 : previous);
+                trimDisk();
+            }
+        }
+        catch (IOException e)
+        {
+            LOG.warn("Failed to write cache entry for {}", entry.key, e);
+        }
+    }
+
+    private void putMemory(Entry entry)
+    {
+        if (entry.data.length > memoryLimit)
+            return;
+        Entry previous = memory.put(entry.key, entry);
+        memorySize += entry.data.length - (previous == null ? 0 : previous.data.length);
+
+        Iterator<Entry> iterator = memory.values().iterator();
+        while (memorySize > memoryLimit && iterator.hasNext())
+        {
+            Entry eldest = iterator.next();
+            iterator.remove();
+            memorySize -= eldest.data.length;
+            evictions.increment();
+        }
+    }
+
+    private void trimDisk()
+    {
+        Iterator<Map.Entry<String, Long>> iterator = disk.entrySet().iterator();
+        while (diskSize > diskLimit && iterator.hasNext())
+        {
+            Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            diskSize -= eldest.getValue();
+            delete(eldest.getKey());
+            evictions.increment();
+        }
+    }
+
+    private void removeDisk(String name)
+    {
+        Long size = disk.remove(name);
+        if (size != null)
+            diskSize -= size;
+        delete(name);
+    }
+
+    private void delete(String name)
+    {
+        try
+        {
+            Files.deleteIfExists(directory.resolve(name));
+        }
+        catch (IOException e)
+        {
+            LOG.debug("Failed to delete cache entry {}", name, e);
+        }
+    }
+
+    private void loadIndex()
+    {
+        try
+        {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory))
+            {
+                // Oldest access first, which restores the LRU order from the previous run
+                files.filter(file -> file.getFileName().toString().endsWith(FILE_EXTENSION))
+                     .sorted((a, b) -> lastModified(a).compareTo(lastModified(b)))
+                     .forEach(file -> {
+                         long size = file.toFile().length();
+                         disk.put(file.getFileName().toString(), size);
+                         diskSize += size;
+                     });
+            }
+            trimDisk();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException("Failed to load cache directory " + directory, e);
+        }
+    }
+
+    private static FileTime lastModified(Path file)
+    {
+        try
+        {
+            return Files.getLastModifiedTime(file);
+        }
+        catch (IOException e)
+        {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static String fileName(String key)
+    {
+        try
+        {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder(hash.length * 2 + FILE_EXTENSION.length());
+            for (byte b : hash)
+                builder.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            return builder.append(FILE_EXTENSION).toString();
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e); // SHA-256 is required to be supported by every JVM
+        }
+    }
+
+    private final class Fetch
+    {
+        private final CompletableFuture<Entry> future = new CompletableFuture<>();
+        private final String key;
+        private volatile Call call;
+        private int waiters;
+
+        private Fetch(String key)
+        {
+            this.key = key;
+        }
+
+        private void start(OkHttpClient client, Request request, Entry cached)
+        {
+            future.whenComplete((entry, error) -> pending.remove(key, this));
+
+            Request.Builder builder = request.newBuilder();
+            if (cached != null && cached.etag != null)
+                builder.header("if-none-match", cached.etag);
+            else if (cached != null && cached.lastModified != null)
+                builder.header("if-modified-since", cached.lastModified);
+
+            call = client.newCall(builder.build());
+            if (future.isCancelled())
+                return;
+            call.enqueue(FunctionalCallback
+                .onFailure((c, e) -> future.completeExceptionally(new UncheckedIOException(e)))
+                .onSuccess((c, response) ->
+                {
+                    try
+                    {
+                        future.complete(handle(key, cached, response));
+                    }
+                    catch (IOException e)
+                    {
+                        future.completeExceptionally(new UncheckedIOException(e));
+                    }
+                    catch (RuntimeException e)
+                    {
+                        future.completeExceptionally(e);
+                    }
+                    finally
+                    {
+                        IOUtil.silentClose(response);
+                    }
+                }).build());
+        }
+
+        private synchronized CompletableFuture<InputStream> join()
+        {
+            // Failed requests can still be pending for a moment, they should never be shared with new downloads
+            if (future.isCompletedExceptionally())
+                return null;
+            waiters++;
+            CompletableFuture<InputStream> result = future.thenApply(Entry::stream);
+            result.whenComplete((stream, error) ->
+            {
+                if (result.isCancelled())
+                    leave();
+            });
+            return result;
+        }
+
+        private synchronized void leave()
+        {
+            // The request is only cancelled once nobody is waiting for it anymore
+            if (--waiters > 0 || !future.cancel(false))
+                return;
+            Call call = this.call;
+            if (call != null)
+                call.cancel();
+        }
+    }
+
+    private static final class Entry
+    {
+        private final String key;
+        private final byte[] data;
+        private final String etag, lastModified;
+        private volatile long validatedAt;
+
+        private Entry(String key, byte[] data, String etag, String lastModified, long validatedAt)
+        {
+            this.key = key;
+            this.data = data;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.validatedAt = validatedAt;
+        }
+
+        private InputStream stream()
+        {
+            return new ByteArrayInputStream(data);
+        }
+    }
+}
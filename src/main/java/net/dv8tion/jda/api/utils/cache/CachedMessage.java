@@ -0,0 +1,152 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.api.utils.cache;
+
+import net.dv8tion.jda.api.entities.ISnowflake;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.internal.utils.EntityString;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * The state of a message as it was last seen by the message cache.
+ * <br>This only keeps the ids and the raw content of the message, since the cache stores messages in a compact form
+ * instead of full {@link Message} instances.
+ *
+ * <p>The message cache is disabled by default and can be enabled with
+ * {@link net.dv8tion.jda.api.JDABuilder#setMessageCache(int, long) JDABuilder.setMessageCache(int, long)}.
+ *
+ * @see net.dv8tion.jda.api.events.message.MessageUpdateEvent#getPreviousMessage()
+ * @see net.dv8tion.jda.api.events.message.MessageDeleteEvent#getCachedMessage()
+ */
+public class CachedMessage implements ISnowflake
+{
+    private final long id;
+    private final long channelId;
+    private final long authorId;
+    private final long timeEdited;
+    private final String content;
+
+    public CachedMessage(long id, long channelId, long authorId, long timeEdited, @Nonnull String content)
+    {
+        this.id = id;
+        this.channelId = channelId;
+        this.authorId = authorId;
+        this.timeEdited = timeEdited;
+        this.content = content;
+    }
+
+    @Override
+    public long getIdLong()
+    {
+        return id;
+    }
+
+    /**
+     * The id of the channel this message was sent in.
+     *
+     * @return The channel id
+     */
+    public long getChannelIdLong()
+    {
+        return channelId;
+    }
+
+    /**
+     * The id of the channel this message was sent in.
+     *
+     * @return The channel id
+     */
+    @Nonnull
+    public String getChannelId()
+    {
+        return Long.toUnsignedString(channelId);
+    }
+
+    /**
+     * The id of the author of this message.
+     *
+     * @return The author id
+     */
+    public long getAuthorIdLong()
+    {
+        return authorId;
+    }
+
+    /**
+     * The id of the author of this message.
+     *
+     * @return The author id
+     */
+    @Nonnull
+    public String getAuthorId()
+    {
+        return Long.toUnsignedString(authorId);
+    }
+
+    /**
+     * The raw content of this message, as it was returned by {@link Message#getContentRaw()}.
+     * <br>This is empty if the {@link net.dv8tion.jda.api.requests.GatewayIntent#MESSAGE_CONTENT MESSAGE_CONTENT} intent is disabled.
+     *
+     * @return The raw content
+     */
+    @Nonnull
+    public String getContentRaw()
+    {
+        return content;
+    }
+
+    /**
+     * The time this message was last edited, or {@code null} if it was never edited.
+     *
+     * @return The time of the last edit, or null
+     */
+    @Nullable
+    public OffsetDateTime getTimeEdited()
+    {
+        return timeEdited == 0 ? null : OffsetDateTime.ofInstant(Instant.ofEpochMilli(timeEdited), ZoneOffset.UTC);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Long.hashCode(id);
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (obj == this)
+            return true;
+        if (!(obj instanceof CachedMessage))
+            return false;
+        return ((CachedMessage) obj).id == id;
+    }
+
+    @Override
+    public String toString()
+    {
+        return new EntityString(this)
+                .addMetadata("channel", getChannelId())
+                .toString();
+    }
+}
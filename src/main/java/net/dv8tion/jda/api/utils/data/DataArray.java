@@ -27,6 +27,8 @@ import net.dv8tion.jda.api.utils.data.etf.ExTermDecoder;
 import net.dv8tion.jda.api.utils.data.etf.ExTermEncoder;
 import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.Helpers;
+import net.dv8tion.jda.internal.utils.etf.LazyTermList;
+import net.dv8tion.jda.internal.utils.etf.TermReader;
 import org.jetbrains.annotations.Contract;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -180,6 +182,9 @@ public class DataArray implements Iterable<Object>, SerializableArray
      * Parses using {@link ExTermDecoder}.
      * The provided data must start with the correct version header (131).
      *
+     * <p>The payload is decoded lazily with {@link ExTermDecoder#unpackListLazy(ByteBuffer)},
+     * which only decodes the elements that are accessed.
+     *
      * @param  data
      *         The data to decode
      *
@@ -198,7 +203,7 @@ public class DataArray implements Iterable<Object>, SerializableArray
         Checks.notNull(data, "Data");
         try
         {
-            List<Object> list = ExTermDecoder.unpackList(ByteBuffer.wrap(data));
+            List<Object> list = ExTermDecoder.unpackListLazy(ByteBuffer.wrap(data));
             return new DataArray(list);
         }
         catch (Exception ex)
@@ -480,6 +485,8 @@ public class DataArray implements Iterable<Object>, SerializableArray
      */
     public long getLong(int index)
     {
+        if (isLazyLong(index))
+            return ((LazyTermList) data).getLong(index, TermReader.SIGNED);
         Long value = get(Long.class, index, Long::parseLong, Number::longValue);
         if (value == null)
             throw valueError(index, "long");
@@ -501,6 +508,8 @@ public class DataArray implements Iterable<Object>, SerializableArray
      */
     public long getLong(int index, long defaultValue)
     {
+        if (isLazyLong(index))
+            return ((LazyTermList) data).getLong(index, TermReader.SIGNED);
         Long value = get(Long.class, index, Long::parseLong, Number::longValue);
         return value == null ? defaultValue : value;
     }
@@ -518,6 +527,8 @@ public class DataArray implements Iterable<Object>, SerializableArray
      */
     public long getUnsignedLong(int index)
     {
+        if (isLazyLong(index))
+            return ((LazyTermList) data).getLong(index, TermReader.UNSIGNED);
         Long value = get(Long.class, index, Long::parseUnsignedLong, Number::longValue);
         if (value == null)
             throw valueError(index, "unsigned long");
@@ -589,6 +600,8 @@ public class DataArray implements Iterable<Object>, SerializableArray
      */
     public long getUnsignedLong(int index, long defaultValue)
     {
+        if (isLazyLong(index))
+            return ((LazyTermList) data).getLong(index, TermReader.UNSIGNED);
         Long value = get(Long.class, index, Long::parseUnsignedLong, Number::longValue);
         return value == null ? defaultValue : value;
     }
@@ -742,9 +755,8 @@ public class DataArray implements Iterable<Object>, SerializableArray
     {
         try
         {
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            mapper.writeValue(outputStream, data);
-            return outputStream.toByteArray();
+            // Uses the recycled buffers of the json factory, instead of growing a new stream for every call
+            return mapper.writeValueAsBytes(data);
         }
         catch (IOException e)
         {
@@ -763,7 +775,11 @@ public class DataArray implements Iterable<Object>, SerializableArray
     public byte[] toETF()
     {
         ByteBuffer buffer = ExTermEncoder.pack(data);
-        return Arrays.copyOfRange(buffer.array(), buffer.arrayOffset(), buffer.arrayOffset() + buffer.limit());
+        byte[] array = buffer.array();
+        // The encoder sizes the buffer up front, so this usually doesn't need a copy
+        if (buffer.arrayOffset() == 0 && buffer.limit() == array.length)
+            return array;
+        return Arrays.copyOfRange(array, buffer.arrayOffset(), buffer.arrayOffset() + buffer.limit());
     }
 
     @Override
@@ -806,6 +822,12 @@ public class DataArray implements Iterable<Object>, SerializableArray
         return data;
     }
 
+    private boolean isLazyLong(int index)
+    {
+        // Lazy ETF payloads can read numbers directly from the buffer, without boxing or allocating strings
+        return data instanceof LazyTermList && ((LazyTermList) data).isLong(index);
+    }
+
     private ParsingException valueError(int index, String expectedType)
     {
         return new ParsingException("Unable to resolve value at " + index + " to type " + expectedType + ": " + data.get(index));
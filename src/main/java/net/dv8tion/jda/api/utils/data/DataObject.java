@@ -28,6 +28,8 @@ import net.dv8tion.jda.api.utils.data.etf.ExTermDecoder;
 import net.dv8tion.jda.api.utils.data.etf.ExTermEncoder;
 import net.dv8tion.jda.internal.utils.Checks;
 import net.dv8tion.jda.internal.utils.Helpers;
+import net.dv8tion.jda.internal.utils.etf.LazyTermMap;
+import net.dv8tion.jda.internal.utils.etf.TermReader;
 import org.jetbrains.annotations.Contract;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -191,6 +193,10 @@ public class DataObject implements SerializableData
      * Parses using {@link ExTermDecoder}.
      * The provided data must start with the correct version header (131).
      *
+     * <p>The payload is decoded lazily with {@link ExTermDecoder#unpackMapLazy(ByteBuffer)},
+     * which only decodes the values that are accessed. Numeric values, such as snowflakes,
+     * are read directly from the payload without decoding them to a String first.
+     *
      * @param  data
      *         The data to decode
      *
@@ -209,7 +215,7 @@ public class DataObject implements SerializableData
         Checks.notNull(data, "Data");
         try
         {
-            Map<String, Object> map = ExTermDecoder.unpackMap(ByteBuffer.wrap(data));
+            Map<String, Object> map = ExTermDecoder.unpackMapLazy(ByteBuffer.wrap(data));
             return new DataObject(map);
         }
         catch (Exception ex)
@@ -471,6 +477,9 @@ public class DataObject implements SerializableData
      */
     public long getLong(@Nonnull String key)
     {
+        int index = indexOfLazyLong(key);
+        if (index >= 0)
+            return ((LazyTermMap) data).getLong(index, TermReader.SNOWFLAKE);
         Long value = get(Long.class, key, MiscUtil::parseLong, Number::longValue);
         if (value == null)
             throw valueError(key, "long");
@@ -492,6 +501,9 @@ public class DataObject implements SerializableData
      */
     public long getLong(@Nonnull String key, long defaultValue)
     {
+        int index = indexOfLazyLong(key);
+        if (index >= 0)
+            return ((LazyTermMap) data).getLong(index, TermReader.SIGNED);
         Long value = get(Long.class, key, Long::parseLong, Number::longValue);
         return value == null ? defaultValue : value;
     }
@@ -509,6 +521,9 @@ public class DataObject implements SerializableData
      */
     public long getUnsignedLong(@Nonnull String key)
     {
+        int index = indexOfLazyLong(key);
+        if (index >= 0)
+            return ((LazyTermMap) data).getLong(index, TermReader.UNSIGNED);
         Long value = get(Long.class, key, Long::parseUnsignedLong, Number::longValue);
         if (value == null)
             throw valueError(key, "unsigned long");
@@ -530,6 +545,9 @@ public class DataObject implements SerializableData
      */
     public long getUnsignedLong(@Nonnull String key, long defaultValue)
     {
+        int index = indexOfLazyLong(key);
+        if (index >= 0)
+            return ((LazyTermMap) data).getLong(index, TermReader.UNSIGNED);
         Long value = get(Long.class, key, Long::parseUnsignedLong, Number::longValue);
         return value == null ? defaultValue : value;
     }
@@ -810,9 +828,8 @@ public class DataObject implements SerializableData
     {
         try
         {
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            mapper.writeValue(outputStream, data);
-            return outputStream.toByteArray();
+            // Uses the recycled buffers of the json factory, instead of growing a new stream for every call
+            return mapper.writeValueAsBytes(data);
         }
         catch (IOException e)
         {
@@ -831,7 +848,11 @@ public class DataObject implements SerializableData
     public byte[] toETF()
     {
         ByteBuffer buffer = ExTermEncoder.pack(data);
-        return Arrays.copyOfRange(buffer.array(), buffer.arrayOffset(), buffer.arrayOffset() + buffer.limit());
+        byte[] array = buffer.array();
+        // The encoder sizes the buffer up front, so this usually doesn't need a copy
+        if (buffer.arrayOffset() == 0 && buffer.limit() == array.length)
+            return array;
+        return Arrays.copyOfRange(array, buffer.arrayOffset(), buffer.arrayOffset() + buffer.limit());
     }
 
     @Override
@@ -881,6 +902,12 @@ public class DataObject implements SerializableData
         return this;
     }
 
+    private int indexOfLazyLong(String key)
+    {
+        // Lazy ETF payloads can read numbers directly from the buffer, without boxing or allocating strings
+        return data instanceof LazyTermMap ? ((LazyTermMap) data).indexOfLong(key) : -1;
+    }
+
     private ParsingException valueError(String key, String expectedType)
     {
         return new ParsingException("Unable to resolve value with key " + key + " to type " + expectedType + ": " + data.get(key));
@@ -16,14 +16,13 @@
 
 package net.dv8tion.jda.api.utils.data.etf;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.UncheckedIOException;
+import net.dv8tion.jda.internal.utils.etf.TermReader;
+
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
-import java.util.zip.InflaterOutputStream;
 
 import static net.dv8tion.jda.api.utils.data.etf.ExTermTag.*;
 
@@ -33,6 +32,7 @@ import static net.dv8tion.jda.api.utils.data.etf.ExTermTag.*;
  * @see #unpack(ByteBuffer)
  * @see #unpackMap(ByteBuffer)
  * @see #unpackList(ByteBuffer)
+ * @see #unpackMapLazy(ByteBuffer)
  *
  * @since  4.2.1
  */
@@ -131,6 +131,58 @@ public class ExTermDecoder
         return (List<Object>) unpack(buffer);
     }
 
+    /**
+     * Unpacks the provided term into a lazy java {@link Map} view.
+     *
+     * <p>Unlike {@link #unpackMap(ByteBuffer)}, this only indexes the offsets of the keys and values in a single pass.
+     * Values are decoded on first access, nested maps and lists are lazy views as well.
+     * The returned map keeps a reference to the provided buffer, which must not be modified afterwards.
+     * The map can be modified, which copies the map into a regular {@link HashMap} first.
+     *
+     * <p>Numeric values, including snowflakes encoded as binaries, can be read without allocation
+     * through {@link net.dv8tion.jda.api.utils.data.DataObject DataObject}.
+     *
+     * @param  buffer
+     *         The {@link ByteBuffer} containing the encoded term
+     *
+     * @throws IllegalArgumentException
+     *         If the buffer does not start with a Map term, does not have the right version byte, or the format includes an unsupported tag
+     *
+     * @return The lazy {@link Map} view
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> unpackMapLazy(ByteBuffer buffer)
+    {
+        Object term = TermReader.readRoot(buffer.slice());
+        if (!(term instanceof Map))
+            throw new IllegalArgumentException("Cannot unpack map from tag " + buffer.get(buffer.position() + 1));
+        return (Map<String, Object>) term;
+    }
+
+    /**
+     * Unpacks the provided term into a lazy java {@link List} view.
+     *
+     * <p>Unlike {@link #unpackList(ByteBuffer)}, this only indexes the offsets of the elements in a single pass.
+     * Elements are decoded on first access, nested maps and lists are lazy views as well.
+     * The returned list keeps a reference to the provided buffer, which must not be modified afterwards.
+     *
+     * @param  buffer
+     *         The {@link ByteBuffer} containing the encoded term
+     *
+     * @throws IllegalArgumentException
+     *         If the buffer does not start with a List or NIL term, does not have the right version byte, or the format includes an unsupported tag
+     *
+     * @return The lazy {@link List} view
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Object> unpackListLazy(ByteBuffer buffer)
+    {
+        Object term = TermReader.readRoot(buffer.slice());
+        if (!(term instanceof List))
+            throw new IllegalArgumentException("Cannot unpack list from tag " + buffer.get(buffer.position() + 1));
+        return (List<Object>) term;
+    }
+
     private static Object unpack0(ByteBuffer buffer)
     {
         int tag = buffer.get();
@@ -162,18 +214,10 @@ public class ExTermDecoder
     private static Object unpackCompressed(ByteBuffer buffer)
     {
         int size = buffer.getInt();
-        ByteArrayOutputStream decompressed = new ByteArrayOutputStream(size);
-        try (InflaterOutputStream inflater = new InflaterOutputStream(decompressed))
-        {
-            inflater.write(buffer.array(), buffer.position(), buffer.remaining());
-        }
-        catch (IOException e)
-        {
-            throw new UncheckedIOException(e);
-        }
-
-        buffer = ByteBuffer.wrap(decompressed.toByteArray());
-        return unpack0(buffer);
+        // Inflate directly into an array of the known size, instead of growing a stream buffer
+        byte[] decompressed = TermReader.inflate(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), size);
+        ((Buffer) buffer).position(buffer.limit());
+        return unpack0(ByteBuffer.wrap(decompressed));
     }
 
     private static double unpackOldFloat(ByteBuffer buffer)
@@ -21,7 +21,6 @@ import net.dv8tion.jda.api.utils.data.SerializableData;
 
 import java.nio.Buffer;
 import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Map;
@@ -63,7 +62,8 @@ public class ExTermEncoder
      */
     public static ByteBuffer pack(Object data)
     {
-        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        // Size the term first, so we never have to grow the buffer while packing
+        ByteBuffer buffer = ByteBuffer.allocate(sizeOf(data));
         buffer.put((byte) 131);
 
         ByteBuffer packed = pack(buffer, data);
@@ -72,6 +72,136 @@ public class ExTermEncoder
         return packed;
     }
 
+    /**
+     * Computes the exact number of bytes {@link #pack(Object)} will produce for the provided object,
+     * including the version header.
+     *
+     * <p>This does not allocate any memory for the encoded term.
+     *
+     * @param  data
+     *         The object to measure
+     *
+     * @throws UnsupportedOperationException
+     *         If there is no type mapping for the provided object
+     *
+     * @return The size of the encoded ETF term in bytes
+     */
+    public static int sizeOf(Object data)
+    {
+        return 1 + size(data);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static int size(Object value)
+    {
+        if (value instanceof String)
+            return 5 + utf8Length((String) value);
+        if (value instanceof Map)
+            return sizeMap((Map<String, Object>) value);
+        if (value instanceof SerializableData)
+            return sizeMap(((SerializableData) value).toData().toMap());
+        if (value instanceof Collection)
+            return sizeList((Collection<Object>) value);
+        if (value instanceof DataArray)
+            return sizeList(((DataArray) value).toList());
+        if (value instanceof Byte)
+            return 2;
+        if (value instanceof Integer || value instanceof Short)
+            return sizeLong(((Number) value).intValue());
+        if (value instanceof Long)
+            return sizeLong((long) value);
+        if (value instanceof Float || value instanceof Double)
+            return 9;
+        if (value instanceof Boolean)
+            return (boolean) value ? 7 : 8; // atom "true" or "false"
+        if (value == null)
+            return 6; // atom "nil"
+        if (value instanceof long[])
+        {
+            long[] array = (long[]) value;
+            int size = array.length == 0 ? 1 : 6;
+            for (long it : array)
+                size += sizeLong(it);
+            return size;
+        }
+        if (value instanceof int[])
+        {
+            int[] array = (int[]) value;
+            int size = array.length == 0 ? 1 : 6;
+            for (int it : array)
+                size += sizeLong(it);
+            return size;
+        }
+        if (value instanceof short[])
+        {
+            short[] array = (short[]) value;
+            int size = array.length == 0 ? 1 : 6;
+            for (short it : array)
+                size += sizeLong(it);
+            return size;
+        }
+        if (value instanceof byte[])
+        {
+            byte[] array = (byte[]) value;
+            return array.length == 0 ? 1 : 6 + array.length * 2;
+        }
+        if (value instanceof Object[])
+            return sizeList(Arrays.asList((Object[]) value));
+
+        throw new UnsupportedOperationException("Cannot pack value of type " + value.getClass().getName());
+    }
+
+    private static int sizeMap(Map<String, Object> data)
+    {
+        int size = 5;
+        for (Map.Entry<String, Object> entry : data.entrySet())
+            size += 5 + utf8Length(entry.getKey()) + size(entry.getValue());
+        return size;
+    }
+
+    private static int sizeList(Collection<Object> data)
+    {
+        if (data.isEmpty())
+            return 1;
+        int size = 6;
+        for (Object element : data)
+            size += size(element);
+        return size;
+    }
+
+    private static int sizeLong(long value)
+    {
+        if (value >= 0 && value <= 0xFF)
+            return 2;
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE)
+            return 5;
+        return 3 + countBytes(value < 0 ? -value : value);
+    }
+
+    private static int utf8Length(String value)
+    {
+        int length = value.length();
+        int size = length;
+        for (int i = 0; i < length; i++)
+        {
+            char c = value.charAt(i);
+            if (c < 0x80)
+                continue;
+            if (c < 0x800)
+                size += 1;
+            else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1)))
+            {
+                // 4 bytes for the surrogate pair
+                size += 2;
+                i++;
+            }
+            else if (!Character.isSurrogate(c))
+                size += 2;
+            // Unpaired surrogates are replaced with '?' like String#getBytes would
+        }
+        return size;
+    }
+
     @SuppressWarnings("unchecked")
     private static ByteBuffer pack(ByteBuffer buffer, Object value)
     {
@@ -127,7 +257,7 @@ public class ExTermEncoder
 
     private static ByteBuffer packMap(ByteBuffer buffer, Map<String, Object> data)
     {
-        buffer = realloc(buffer, data.size() + 5);
+        buffer = realloc(buffer, 5);
         buffer.put(MAP);
         buffer.putInt(data.size());
 
@@ -148,7 +278,7 @@ public class ExTermEncoder
             return packNil(buffer);
         }
 
-        buffer = realloc(buffer, data.size() + 6);
+        buffer = realloc(buffer, 5);
         buffer.put(LIST);
         buffer.putInt(data.size());
         for (Object element : data)
@@ -158,11 +288,43 @@ public class ExTermEncoder
 
     private static ByteBuffer packBinary(ByteBuffer buffer, String value)
     {
-        byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
-        buffer = realloc(buffer, encoded.length * 4 + 5);
+        int length = utf8Length(value);
+        buffer = realloc(buffer, length + 5);
         buffer.put(BINARY);
-        buffer.putInt(encoded.length);
-        buffer.put(encoded);
+        buffer.putInt(length);
+        // Encode directly into the buffer instead of allocating an intermediate array with String#getBytes
+        int chars = value.length();
+        for (int i = 0; i < chars; i++)
+        {
+            char c = value.charAt(i);
+            if (c < 0x80)
+            {
+                buffer.put((byte) c);
+            }
+            else if (c < 0x800)
+            {
+                buffer.put((byte) (0xC0 | c >> 6));
+                buffer.put((byte) (0x80 | c & 0x3F));
+            }
+            else if (Character.isHighSurrogate(c) && i + 1 < chars && Character.isLowSurrogate(value.charAt(i + 1)))
+            {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | codePoint >> 18));
+                buffer.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+                buffer.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+                buffer.put((byte) (0x80 | codePoint & 0x3F));
+            }
+            else if (Character.isSurrogate(c))
+            {
+                buffer.put((byte) '?');
+            }
+            else
+            {
+                buffer.put((byte) (0xE0 | c >> 12));
+                buffer.put((byte) (0x80 | c >> 6 & 0x3F));
+                buffer.put((byte) (0x80 | c & 0x3F));
+            }
+        }
         return buffer;
     }
 
@@ -186,10 +348,9 @@ public class ExTermEncoder
 
     private static ByteBuffer packLong(ByteBuffer buffer, long value)
     {
-        byte bytes = countBytes(value);
-        if (bytes <= 1) // Use optimized small int encoding
+        if (value >= 0 && value <= 0xFF) // Use optimized small int encoding
             return packSmallInt(buffer, (byte) value);
-        if (bytes <= 4 && value >= 0)
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE)
         {
             // Use int to encode it
             buffer = realloc(buffer, 5);
@@ -198,15 +359,17 @@ public class ExTermEncoder
             return buffer;
         }
 
+        // The magnitude is treated as unsigned, which also covers Long.MIN_VALUE
+        long magnitude = value < 0 ? -value : value;
+        byte bytes = countBytes(magnitude);
         buffer = realloc(buffer, 3 + bytes);
         buffer.put(SMALL_BIGINT);
         buffer.put(bytes);
-        // We only use "unsigned" value so the sign is always positive
-        buffer.put((byte) 0);
-        while (value > 0)
+        buffer.put((byte) (value < 0 ? 1 : 0));
+        for (int i = 0; i < bytes; i++)
         {
-            buffer.put((byte) value);
-            value >>>= 8;
+            buffer.put((byte) magnitude);
+            magnitude >>>= 8;
         }
 
         return buffer;
@@ -222,11 +385,12 @@ public class ExTermEncoder
 
     private static ByteBuffer packAtom(ByteBuffer buffer, String value)
     {
-        byte[] array = value.getBytes(StandardCharsets.ISO_8859_1);
-        buffer = realloc(buffer, array.length + 3);
+        // Atoms are always latin-1, so each char is written as a single byte
+        buffer = realloc(buffer, value.length() + 3);
         buffer.put(ATOM);
-        buffer.putShort((short) array.length);
-        buffer.put(array);
+        buffer.putShort((short) value.length());
+        for (int i = 0; i < value.length(); i++)
+            buffer.put((byte) value.charAt(i));
         return buffer;
     }
 
@@ -235,7 +399,7 @@ public class ExTermEncoder
         if (array.length == 0)
             return packNil(buffer);
 
-        buffer = realloc(buffer, array.length * 8 + 6);
+        buffer = realloc(buffer, 5);
         buffer.put(LIST);
         buffer.putInt(array.length);
         for (long it : array)
@@ -248,7 +412,7 @@ public class ExTermEncoder
         if (array.length == 0)
             return packNil(buffer);
 
-        buffer = realloc(buffer, array.length * 4 + 6);
+        buffer = realloc(buffer, 5);
         buffer.put(LIST);
         buffer.putInt(array.length);
         for (int it : array)
@@ -261,7 +425,7 @@ public class ExTermEncoder
         if (array.length == 0)
             return packNil(buffer);
 
-        buffer = realloc(buffer, array.length * 2 + 6);
+        buffer = realloc(buffer, 5);
         buffer.put(LIST);
         buffer.putInt(array.length);
         for (short it : array)
@@ -274,7 +438,7 @@ public class ExTermEncoder
         if (array.length == 0)
             return packNil(buffer);
 
-        buffer = realloc(buffer, array.length + 6);
+        buffer = realloc(buffer, 5);
         buffer.put(LIST);
         buffer.putInt(array.length);
         for (byte it : array)
@@ -40,6 +40,7 @@ import net.dv8tion.jda.api.exceptions.ParsingException;
 import net.dv8tion.jda.api.exceptions.RateLimitedException;
 import net.dv8tion.jda.api.hooks.IEventManager;
 import net.dv8tion.jda.api.hooks.InterfacedEventManager;
+import net.dv8tion.jda.api.hooks.RawDispatchInterceptor;
 import net.dv8tion.jda.api.hooks.VoiceDispatchInterceptor;
 import net.dv8tion.jda.api.interactions.commands.Command;
 import net.dv8tion.jda.api.interactions.commands.build.CommandData;
@@ -75,6 +76,7 @@ import net.dv8tion.jda.internal.requests.restaction.GuildActionImpl;
 import net.dv8tion.jda.internal.utils.Helpers;
 import net.dv8tion.jda.internal.utils.*;
 import net.dv8tion.jda.internal.utils.cache.AbstractCacheView;
+import net.dv8tion.jda.internal.utils.cache.MessageCache;
 import net.dv8tion.jda.internal.utils.cache.SnowflakeCacheViewImpl;
 import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
 import net.dv8tion.jda.internal.utils.config.MetaConfig;
@@ -86,6 +88,9 @@ import org.slf4j.Logger;
 import org.slf4j.MDC;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.OffsetDateTime;
 import java.util.*;
 import java.util.concurrent.*;
@@ -142,6 +147,12 @@ public class JDAImpl implements JDA
     protected String clientId = null,  requiredScopes = "bot";
     protected ShardManager shardManager = null;
     protected MemberCachePolicy memberCachePolicy = MemberCachePolicy.ALL;
+    protected MessageCache messageCache = null;
+    protected Path sessionSnapshotFile = null;
+    protected Path gatewayRecordingFile = null;
+    protected JDAMetrics metrics = null;
+    protected RawDispatchInterceptor rawDispatchInterceptor = null;
+    protected boolean stateless = false;
 
     protected final AtomicReference<Status> status = new AtomicReference<>(Status.INITIALIZING);
     protected final ReentrantLock statusLock = new ReentrantLock();
@@ -173,7 +184,16 @@ public class JDAImpl implements JDA
 
     public void handleEvent(@Nonnull GenericEvent event)
     {
+        JDAMetrics metrics = this.metrics;
+        if (metrics == null)
+        {
+            eventManager.handle(event);
+            return;
+        }
+        // With an asynchronous event manager, this only measures the hand-off and not the listeners
+        long start = System.nanoTime();
         eventManager.handle(event);
+        metrics.recordEventDispatchTime(event, System.nanoTime() - start);
     }
 
     public boolean isRawEvents()
@@ -186,6 +206,11 @@ public class JDAImpl implements JDA
         return sessionConfig.isEventPassthrough();
     }
 
+    public boolean isIncrementalChunking()
+    {
+        return sessionConfig.isIncrementalChunking();
+    }
+
     public boolean isCacheFlagSet(CacheFlag flag)
     {
         return metaConfig.getCacheFlags().contains(flag);
@@ -244,6 +269,76 @@ public class JDAImpl implements JDA
         this.memberCachePolicy = policy;
     }
 
+    @Nullable
+    public MessageCache getMessageCache()
+    {
+        return messageCache;
+    }
+
+    public void setMessageCache(@Nullable MessageCache messageCache)
+    {
+        this.messageCache = messageCache;
+    }
+
+    @Nullable
+    public Path getSessionSnapshotFile()
+    {
+        return sessionSnapshotFile;
+    }
+
+    public void setSessionSnapshotFile(@Nullable Path sessionSnapshotFile)
+    {
+        this.sessionSnapshotFile = sessionSnapshotFile;
+    }
+
+    @Nullable
+    public Path getGatewayRecordingFile()
+    {
+        return gatewayRecordingFile;
+    }
+
+    public void setGatewayRecordingFile(@Nullable Path gatewayRecordingFile)
+    {
+        this.gatewayRecordingFile = gatewayRecordingFile;
+    }
+
+    @Nullable
+    @Override
+    public JDAMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    public void setMetrics(@Nullable JDAMetrics metrics)
+    {
+        if (this.metrics != null)
+            this.metrics.unregister(this);
+        this.metrics = metrics;
+        if (metrics != null)
+            metrics.register(this);
+    }
+
+    @Nullable
+    public RawDispatchInterceptor getRawDispatchInterceptor()
+    {
+        return rawDispatchInterceptor;
+    }
+
+    public void setRawDispatchInterceptor(@Nullable RawDispatchInterceptor rawDispatchInterceptor)
+    {
+        this.rawDispatchInterceptor = rawDispatchInterceptor;
+    }
+
+    public boolean isStateless()
+    {
+        return stateless;
+    }
+
+    public void setStateless(boolean stateless)
+    {
+        this.stateless = stateless;
+    }
+
     public SessionController getSessionController()
     {
         return sessionConfig.getSessionController();
@@ -281,7 +376,8 @@ public class JDAImpl implements JDA
                 new RestRateLimiter.RateLimitConfig(
                         this.threadConfig.getRateLimitPool(),
                         getSessionController().getRateLimitHandle(),
-                        this.sessionConfig.isRelativeRateLimit() && this.restConfig.isRelativeRateLimit()
+                        this.sessionConfig.isRelativeRateLimit() && this.restConfig.isRelativeRateLimit(),
+                        this.restConfig.getInstrumentation()
                 ));
         this.requester = new Requester(this, this.authConfig, this.restConfig, rateLimiter);
         this.requester.setRetryOnTimeout(this.sessionConfig.isRetryOnTimeout());
@@ -343,6 +439,21 @@ public class JDAImpl implements JDA
         return shardInfo == null ? -1 : shardInfo.getShardTotal();
     }
 
+    public void replay(Path file, boolean recordedSpeed, boolean sendRequests, ShardInfo shardInfo, int intents) throws IOException
+    {
+        this.shardInfo = shardInfo;
+        this.threadConfig.init(this::getIdentifierString);
+        initRequester();
+        // Listeners reacting to the recorded events would otherwise send real requests with the configured token
+        this.requester.setEnabled(sendRequests);
+
+        setStatus(Status.LOGGING_IN);
+        client = GatewayReplayClient.start(this, file, intents, recordedSpeed);
+
+        if (shutdownHook != null)
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
     public String getGateway()
     {
         return getSessionController().getGateway();
@@ -873,6 +984,8 @@ public class JDAImpl implements JDA
         //so we can shutdown from WebSocketClient properly
         closeAudioConnections();
         guildSetupController.close();
+        if (metrics != null)
+            metrics.unregister(this);
 
         // stop accepting new requests
         requester.stop(false, this::shutdownRequester);
@@ -77,10 +77,7 @@ import org.slf4j.Logger;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
-import java.time.Instant;
 import java.time.OffsetDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.temporal.TemporalAccessor;
 import java.util.*;
 import java.util.function.Function;
 import java.util.function.UnaryOperator;
@@ -249,8 +246,33 @@ public class EntityBuilder
     }
 
     public GuildImpl createGuild(long guildId, DataObject guildJson, TLongObjectMap<DataObject> members, int memberCount)
+    {
+        return createGuild(new GuildImpl(getJDA(), guildId), guildJson, members, null, memberCount);
+    }
+
+    // Creates a guild which only has its roles, this is used to create members from chunks before the guild setup is completed
+    // The guild is not added to the cache, this is done by passing it to createGuild later
+    public GuildImpl createChunkingGuild(long guildId, DataObject guildJson)
     {
         final GuildImpl guildObj = new GuildImpl(getJDA(), guildId);
+        final DataArray roleArray = guildJson.getArray("roles");
+        SnowflakeCacheViewImpl<Role> roleView = guildObj.getRolesView();
+        try (UnlockHook hook = roleView.writeLock())
+        {
+            // The roles are loaded by createGuild, we only need the instances for the role sets of the members
+            TLongObjectMap<Role> map = roleView.getMap();
+            for (int i = 0; i < roleArray.length(); i++)
+            {
+                long roleId = roleArray.getObject(i).getUnsignedLong("id");
+                map.put(roleId, new RoleImpl(roleId, guildObj));
+            }
+        }
+        return guildObj;
+    }
+
+    public GuildImpl createGuild(GuildImpl guildObj, DataObject guildJson, TLongObjectMap<DataObject> members, @Nullable TLongObjectMap<MemberImpl> chunkedMembers, int memberCount)
+    {
+        final long guildId = guildObj.getIdLong();
         final String name = guildJson.getString("name", "");
         final String iconId = guildJson.getString("icon", null);
         final String splashId = guildJson.getString("splash", null);
@@ -328,6 +350,9 @@ public class EntityBuilder
                 map.put(role.getIdLong(), role);
                 if (role.getIdLong() == guildObj.getIdLong())
                     guildObj.setPublicRole(role);
+                // Roles from createChunkingGuild already existed, so createRole did not replay their cached events
+                if (chunkedMembers != null)
+                    getJDA().getEventCache().playbackCache(EventCache.Type.ROLE, role.getIdLong());
             }
         }
 
@@ -344,6 +369,26 @@ public class EntityBuilder
         {
             //Add members to cache when subscriptions are disabled when they appear here
             // this is done because we can still keep track of members in voice channels
+            if (chunkedMembers != null)
+            {
+                // These members were created while chunking, we only have to load their voice states and presences
+                TLongObjectMap<User> users = getJDA().getUsersView().getMap();
+                for (MemberImpl member : chunkedMembers.valueCollection())
+                {
+                    // Guilds which were chunked at the same time each created their own user for a shared member,
+                    // use the one another guild already cached so updates of the user reach all of its members
+                    User cachedUser = users.get(member.getIdLong());
+                    if (cachedUser != null)
+                        member.setUser(cachedUser);
+                    DataObject voiceState = voiceStates.get(member.getIdLong());
+                    DataObject presence = presences.get(member.getIdLong());
+                    if (voiceState != null && member.getVoiceState() != null)
+                        createVoiceState(guildObj, voiceState, member.getUser(), member);
+                    if (presence != null)
+                        createPresence(member, presence);
+                    updateMemberCache(member);
+                }
+            }
             for (DataObject memberJson : members.valueCollection())
             {
                 long userId = memberJson.getObject("user").getUnsignedLong("id");
@@ -760,10 +805,7 @@ public class EntityBuilder
 
         if (!content.isNull("joined_at") && !member.hasTimeJoined())
         {
-            String joinedAtRaw = content.getString("joined_at");
-            TemporalAccessor joinedAt = DateTimeFormatter.ISO_OFFSET_DATE_TIME.parse(joinedAtRaw);
-            long joinEpoch = Instant.from(joinedAt).toEpochMilli();
-            member.setJoinDate(joinEpoch);
+            member.setJoinDate(Helpers.toTimestamp(content.getString("joined_at")));
         }
 
         if (!content.isNull("pending"))
@@ -1605,6 +1647,8 @@ public class EntityBuilder
     {
         //Private channels may be partial in our cache and missing recipient information
         // we can try and derive the user from the message here
+        if (guild == null && getJDA().isStateless())
+            return createDetachedMessage(json);
         if (guild == null)
             return createMessage0(json, createPrivateChannelByMessage(json), modifyCache);
         //If we know that the message was sent in a guild, we can use the guild to resolve the channel directly
@@ -1649,6 +1693,114 @@ public class EntityBuilder
         return channel;
     }
 
+    // Detached entities are built by stateless sessions from a single payload and never added to the cache
+
+    public GuildImpl createDetachedGuild(long id)
+    {
+        GuildImpl guild = new GuildImpl(getJDA(), id)
+                .setName("")
+                .setFeatures(Collections.emptySet())
+                .setDetached(true);
+
+        // The public role shares the id of the guild, its permissions are unknown without the role list
+        RoleImpl publicRole = new RoleImpl(id, guild)
+                .setName("@everyone")
+                .setRawPosition(0)
+                .setRawPermissions(0)
+                .setManaged(false)
+                .setHoisted(false)
+                .setMentionable(false)
+                .setColor(Role.DEFAULT_COLOR_RAW)
+                .setTags(DataObject.empty());
+        SnowflakeCacheViewImpl<Role> roleView = guild.getRolesView();
+        try (UnlockHook hook = roleView.writeLock())
+        {
+            roleView.getMap().put(id, publicRole);
+        }
+        return guild.setPublicRole(publicRole);
+    }
+
+    // Used to give the self member its permissions in the channel of an interaction, from the app_permissions field
+    public MemberImpl createDetachedSelfMember(GuildImpl guild, long channelId, long permissions)
+    {
+        MemberImpl member = new MemberImpl(guild, getJDA().getSelfUser())
+                .setInteractionPermissions(channelId, permissions);
+        MemberCacheViewImpl memberView = guild.getMembersView();
+        try (UnlockHook hook = memberView.writeLock())
+        {
+            memberView.getMap().put(member.getIdLong(), member);
+        }
+        return member;
+    }
+
+    @Nullable
+    public GuildChannel createDetachedGuildChannel(GuildImpl guild, long id, ChannelType type, String name)
+    {
+        switch (type)
+        {
+        case TEXT:
+            return new TextChannelImpl(id, guild).setName(name);
+        case NEWS:
+            return new NewsChannelImpl(id, guild).setName(name);
+        case VOICE:
+            return new VoiceChannelImpl(id, guild).setName(name);
+        case STAGE:
+            return new StageChannelImpl(id, guild).setName(name);
+        case GUILD_NEWS_THREAD:
+        case GUILD_PUBLIC_THREAD:
+        case GUILD_PRIVATE_THREAD:
+            return new ThreadChannelImpl(id, guild, type).setName(name);
+        case FORUM:
+            return new ForumChannelImpl(id, guild).setName(name);
+        case CATEGORY:
+            return new CategoryImpl(id, guild).setName(name);
+        default:
+            return null;
+        }
+    }
+
+    public PrivateChannelImpl createDetachedPrivateChannel(long id, @Nullable DataObject recipientJson)
+    {
+        PrivateChannelImpl channel = new PrivateChannelImpl(getJDA(), id, null);
+        if (recipientJson != null)
+        {
+            UserImpl user = createUser(recipientJson);
+            channel.setUser(user);
+            user.setPrivateChannel(channel);
+        }
+        return channel;
+    }
+
+    public ReceivedMessage createDetachedMessage(DataObject json)
+    {
+        final long channelId = json.getUnsignedLong("channel_id");
+        MessageChannel channel;
+        if (json.isNull("guild_id"))
+        {
+            // If the author is us, we learn nothing about the user at the other end
+            DataObject author = json.getObject("author");
+            boolean isAuthorSelfUser = author.getUnsignedLong("id") == getJDA().getSelfUser().getIdLong();
+            channel = createDetachedPrivateChannel(channelId, isAuthorSelfUser ? null : author);
+        }
+        else
+        {
+            // Messages rarely include the type of their channel, only messages in threads can be told apart by their position
+            // Any other message without a channel type is assumed to be in a text channel
+            ChannelType type;
+            if (json.hasKey("channel_type"))
+                type = ChannelType.fromId(json.getInt("channel_type"));
+            else if (json.hasKey("position"))
+                type = ChannelType.GUILD_PUBLIC_THREAD;
+            else
+                type = ChannelType.TEXT;
+            if (!type.isGuild() || !type.isMessage() && !type.isThread())
+                type = ChannelType.TEXT;
+            GuildImpl guild = createDetachedGuild(json.getUnsignedLong("guild_id"));
+            channel = (GuildMessageChannel) createDetachedGuildChannel(guild, channelId, type, "");
+        }
+        return createMessage0(json, channel, false);
+    }
+
     private ReceivedMessage createMessage0(DataObject jsonObject, @Nonnull MessageChannel channel, boolean modifyCache)
     {
         MessageType type = MessageType.fromId(jsonObject.getInt("type"));
@@ -1793,7 +1945,7 @@ public class EntityBuilder
         );
 
         ThreadChannel startedThread = null;
-        if (guild != null && !jsonObject.isNull("thread"))
+        if (guild != null && !guild.isDetached() && !jsonObject.isNull("thread"))
             startedThread = createThreadChannel(guild, jsonObject.getObject("thread"), guild.getIdLong());
 
         int position = jsonObject.getInt("position", -1);
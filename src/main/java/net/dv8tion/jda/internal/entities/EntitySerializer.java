@@ -0,0 +1,367 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.internal.entities;
+
+import net.dv8tion.jda.api.OnlineStatus;
+import net.dv8tion.jda.api.entities.*;
+import net.dv8tion.jda.api.entities.channel.attribute.*;
+import net.dv8tion.jda.api.entities.channel.concrete.ForumChannel;
+import net.dv8tion.jda.api.entities.channel.concrete.ThreadChannel;
+import net.dv8tion.jda.api.entities.channel.forums.ForumTag;
+import net.dv8tion.jda.api.entities.channel.forums.ForumTagData;
+import net.dv8tion.jda.api.entities.channel.middleman.AudioChannel;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
+import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
+import net.dv8tion.jda.api.entities.channel.middleman.StandardGuildMessageChannel;
+import net.dv8tion.jda.api.entities.emoji.CustomEmoji;
+import net.dv8tion.jda.api.entities.emoji.EmojiUnion;
+import net.dv8tion.jda.api.entities.emoji.RichCustomEmoji;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.entities.channel.concrete.ThreadChannelImpl;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.EnumSet;
+
+/**
+ * Serializes cached entities into the shape of their gateway payloads, which can be loaded again by the {@link EntityBuilder}.
+ *
+ * <p>This is used for session snapshots, which restore the cache of a previous session.
+ * Stickers, scheduled events, stage instances, and the details of rich presence activities are not serialized.
+ */
+public class EntitySerializer
+{
+    private EntitySerializer() {}
+
+    public static DataObject serializeSelfUser(SelfUser self)
+    {
+        return serializeUser(self)
+                .put("application_id", self.getApplicationId())
+                .put("verified", self.isVerified())
+                .put("mfa_enabled", self.isMfaEnabled());
+    }
+
+    public static DataObject serializeGuild(GuildImpl guild)
+    {
+        DataObject json = DataObject.empty()
+                .put("id", guild.getId())
+                .put("name", guild.getName())
+                .put("icon", guild.getIconId())
+                .put("splash", guild.getSplashId())
+                .put("description", guild.getDescription())
+                .put("vanity_url_code", guild.getVanityCode())
+                .put("banner", guild.getBannerId())
+                .put("preferred_locale", guild.getLocale().getLocale())
+                .put("owner_id", Long.toUnsignedString(guild.getOwnerIdLong()))
+                .put("afk_channel_id", idOf(guild.getAfkChannel()))
+                .put("system_channel_id", idOf(guild.getSystemChannel()))
+                .put("rules_channel_id", idOf(guild.getRulesChannel()))
+                .put("public_updates_channel_id", idOf(guild.getCommunityUpdatesChannel()))
+                .put("premium_subscription_count", guild.getBoostCount())
+                .put("premium_tier", guild.getBoostTier().getKey())
+                .put("max_members", guild.getMaxMembers())
+                .put("max_presences", guild.getMaxPresences())
+                .put("mfa_level", guild.getRequiredMFALevel().getKey())
+                .put("afk_timeout", guild.getAfkTimeout().getSeconds())
+                .put("verification_level", guild.getVerificationLevel().getKey())
+                .put("default_message_notifications", guild.getDefaultNotificationLevel().getKey())
+                .put("explicit_content_filter", guild.getExplicitContentLevel().getKey())
+                .put("nsfw_level", guild.getNSFWLevel().getKey())
+                .put("premium_progress_bar_enabled", guild.isBoostProgressBarEnabled())
+                .put("member_count", guild.getMemberCount())
+                .put("features", DataArray.fromCollection(guild.getFeatures()));
+
+        DataArray roles = DataArray.empty();
+        guild.getRolesView().forEach(role -> roles.add(serializeRole(role)));
+        json.put("roles", roles);
+
+        DataArray channels = DataArray.empty();
+        DataArray threads = DataArray.empty();
+        guild.getChannels(true).forEach(channel -> channels.add(serializeChannel(channel)));
+        guild.getThreadChannelsView().forEach(thread -> threads.add(serializeThread((ThreadChannelImpl) thread)));
+        json.put("channels", channels).put("threads", threads);
+
+        DataArray members = DataArray.empty();
+        DataArray voiceStates = DataArray.empty();
+        DataArray presences = DataArray.empty();
+        guild.getMembersView().forEach(member ->
+        {
+            members.add(serializeMember((MemberImpl) member));
+            GuildVoiceState voiceState = member.getVoiceState();
+            if (voiceState != null && voiceState.getChannel() != null)
+                voiceStates.add(serializeVoiceState(voiceState));
+            if (((MemberImpl) member).getPresence() != null)
+                presences.add(serializePresence(member));
+        });
+        json.put("members", members)
+            .put("voice_states", voiceStates)
+            .put("presences", presences);
+
+        DataArray emojis = DataArray.empty();
+        guild.getEmojisView().forEach(emoji -> emojis.add(serializeEmoji(emoji)));
+        return json.put("emojis", emojis)
+                   .put("stickers", DataArray.empty())
+                   .put("guild_scheduled_events", DataArray.empty());
+    }
+
+    @SuppressWarnings("deprecation")
+    public static DataObject serializeUser(User user)
+    {
+        DataObject json = DataObject.empty()
+                .put("id", user.getId())
+                .put("username", user.getName())
+                .put("global_name", user.getGlobalName())
+                .put("discriminator", user.getDiscriminator())
+                .put("avatar", user.getAvatarId())
+                .put("bot", user.isBot())
+                .put("system", user.isSystem())
+                .put("public_flags", user.getFlagsRaw());
+        User.Profile profile = ((UserImpl) user).getProfile();
+        if (profile != null)
+        {
+            json.put("banner", profile.getBannerId())
+                .put("accent_color", profile.getAccentColorRaw());
+        }
+        return json;
+    }
+
+    public static DataObject serializeMember(MemberImpl member)
+    {
+        DataArray roles = DataArray.empty();
+        member.getRoleSet().forEach(role -> roles.add(role.getId()));
+        return DataObject.empty()
+                .put("user", serializeUser(member.getUser()))
+                .put("nick", member.getNickname())
+                .put("avatar", member.getAvatarId())
+                .put("flags", member.getFlagsRaw())
+                .put("premium_since", toIso(member.getBoostDateRaw()))
+                .put("communication_disabled_until", toIso(member.getTimeOutEndRaw()))
+                .put("pending", member.isPending())
+                .put("joined_at", member.hasTimeJoined() ? member.getTimeJoined().toString() : null)
+                .put("roles", roles);
+    }
+
+    private static DataObject serializeRole(Role role)
+    {
+        DataObject json = DataObject.empty()
+                .put("id", role.getId())
+                .put("name", role.getName())
+                .put("color", role.getColorRaw() == Role.DEFAULT_COLOR_RAW ? 0 : role.getColorRaw())
+                .put("position", role.getPositionRaw())
+                .put("permissions", role.getPermissionsRaw())
+                .put("managed", role.isManaged())
+                .put("hoist", role.isHoisted())
+                .put("mentionable", role.isMentionable());
+
+        RoleIcon icon = role.getIcon();
+        if (icon != null)
+        {
+            json.put("icon", icon.getIconId())
+                .put("unicode_emoji", icon.getEmoji());
+        }
+
+        Role.RoleTags tags = role.getTags();
+        DataObject tagsJson = DataObject.empty();
+        if (tags.getBotIdLong() != 0)
+            tagsJson.put("bot_id", tags.getBotId());
+        if (tags.getIntegrationIdLong() != 0)
+            tagsJson.put("integration_id", tags.getIntegrationId());
+        if (tags.getSubscriptionIdLong() != 0)
+            tagsJson.put("subscription_listing_id", tags.getSubscriptionId());
+        if (tags.isBoost())
+            tagsJson.put("premium_subscriber", null);
+        if (tags.isAvailableForPurchase())
+            tagsJson.put("available_for_purchase", null);
+        if (tags.isLinkedRole())
+            tagsJson.put("guild_connections", null);
+        return json.put("tags", tagsJson);
+    }
+
+    private static DataObject serializeChannel(GuildChannel channel)
+    {
+        DataObject json = DataObject.empty()
+                .put("id", channel.getId())
+                .put("type", channel.getType().getId())
+                .put("name", channel.getName());
+
+        if (channel instanceof IPositionableChannel)
+            json.put("position", ((IPositionableChannel) channel).getPositionRaw());
+        if (channel instanceof ICategorizableChannel)
+        {
+            long parentId = ((ICategorizableChannel) channel).getParentCategoryIdLong();
+            json.put("parent_id", parentId == 0 ? null : Long.toUnsignedString(parentId));
+        }
+        if (channel instanceof IAgeRestrictedChannel)
+            json.put("nsfw", ((IAgeRestrictedChannel) channel).isNSFW());
+        if (channel instanceof ISlowmodeChannel)
+            json.put("rate_limit_per_user", ((ISlowmodeChannel) channel).getSlowmode());
+        if (channel instanceof IThreadContainer)
+            json.put("default_thread_rate_limit_per_user", ((IThreadContainer) channel).getDefaultThreadSlowmode());
+        if (channel instanceof MessageChannel)
+            json.put("last_message_id", Long.toUnsignedString(((MessageChannel) channel).getLatestMessageIdLong()));
+        if (channel instanceof StandardGuildMessageChannel)
+            json.put("topic", ((StandardGuildMessageChannel) channel).getTopic());
+        if (channel instanceof AudioChannel)
+        {
+            AudioChannel audio = (AudioChannel) channel;
+            json.put("bitrate", audio.getBitrate())
+                .put("user_limit", audio.getUserLimit())
+                .put("rtc_region", audio.getRegionRaw());
+        }
+        if (channel instanceof ForumChannel)
+        {
+            ForumChannel forum = (ForumChannel) channel;
+            DataArray tags = DataArray.empty();
+            forum.getAvailableTagCache().forEach(tag -> tags.add(serializeForumTag(tag)));
+            json.put("topic", forum.getTopic())
+                .put("flags", ((ForumChannelImpl) forum).getRawFlags())
+                .put("default_forum_layout", ((ForumChannelImpl) forum).getRawLayout())
+                .put("default_reaction_emoji", serializeDefaultReaction(forum.getDefaultReaction()))
+                .put("available_tags", tags);
+        }
+
+        DataArray overrides = DataArray.empty();
+        if (channel instanceof IPermissionContainer)
+        {
+            for (PermissionOverride override : ((IPermissionContainer) channel).getPermissionOverrides())
+            {
+                overrides.add(DataObject.empty()
+                        .put("id", override.getId())
+                        .put("type", override.isRoleOverride() ? 0 : 1)
+                        .put("allow", override.getAllowedRaw())
+                        .put("deny", override.getDeniedRaw()));
+            }
+        }
+        return json.put("permission_overwrites", overrides);
+    }
+
+    private static DataObject serializeThread(ThreadChannelImpl thread)
+    {
+        DataArray appliedTags = DataArray.empty();
+        thread.getAppliedTagsSet().forEach(id -> {
+            appliedTags.add(Long.toUnsignedString(id));
+            return true;
+        });
+
+        DataObject json = DataObject.empty()
+                .put("id", thread.getId())
+                .put("type", thread.getType().getId())
+                .put("parent_id", thread.getParentChannel().getId())
+                .put("name", thread.getName())
+                .put("flags", thread.getRawFlags())
+                .put("owner_id", Long.toUnsignedString(thread.getOwnerIdLong()))
+                .put("member_count", thread.getMemberCount())
+                .put("message_count", thread.getMessageCount())
+                .put("total_message_count", thread.getTotalMessageCount())
+                .put("last_message_id", Long.toUnsignedString(thread.getLatestMessageIdLong()))
+                .put("rate_limit_per_user", thread.getSlowmode())
+                .put("applied_tags", appliedTags)
+                .put("thread_metadata", DataObject.empty()
+                    .put("locked", thread.isLocked())
+                    .put("archived", thread.isArchived())
+                    .put("invitable", thread.isInvitable())
+                    .put("archive_timestamp", Instant.ofEpochMilli(thread.getArchiveTimestamp()).toString())
+                    .put("create_timestamp", thread.getTimeCreated().toString())
+                    .put("auto_archive_duration", thread.getAutoArchiveDuration().getMinutes()));
+
+        ThreadMember self = thread.getThreadMemberById(thread.getJDA().getSelfUser().getIdLong());
+        if (self != null)
+            json.put("member", DataObject.empty().put("join_timestamp", self.getTimeJoined().toString()));
+        return json;
+    }
+
+    private static DataObject serializeVoiceState(GuildVoiceState voiceState)
+    {
+        OffsetDateTime requestToSpeak = voiceState.getRequestToSpeakTimestamp();
+        return DataObject.empty()
+                .put("user_id", voiceState.getMember().getId())
+                .put("channel_id", voiceState.getChannel().getId())
+                .put("self_mute", voiceState.isSelfMuted())
+                .put("self_deaf", voiceState.isSelfDeafened())
+                .put("mute", voiceState.isGuildMuted())
+                .put("deaf", voiceState.isGuildDeafened())
+                .put("suppress", voiceState.isSuppressed())
+                .put("session_id", voiceState.getSessionId())
+                .put("self_stream", voiceState.isStream())
+                .put("request_to_speak_timestamp", requestToSpeak == null ? null : requestToSpeak.toString());
+    }
+
+    private static DataObject serializePresence(Member member)
+    {
+        DataObject clientStatus = DataObject.empty();
+        for (ClientType type : EnumSet.complementOf(EnumSet.of(ClientType.UNKNOWN)))
+        {
+            OnlineStatus status = member.getOnlineStatus(type);
+            if (status != OnlineStatus.OFFLINE)
+                clientStatus.put(type.getKey(), status.getKey());
+        }
+
+        DataArray activities = DataArray.empty();
+        for (Activity activity : member.getActivities())
+        {
+            activities.add(DataObject.empty()
+                    .put("name", activity.getName())
+                    .put("type", activity.getType().getKey())
+                    .put("url", activity.getUrl()));
+        }
+
+        return DataObject.empty()
+                .put("user", DataObject.empty().put("id", member.getId()))
+                .put("status", member.getOnlineStatus().getKey())
+                .put("client_status", clientStatus)
+                .put("activities", activities);
+    }
+
+    private static DataObject serializeEmoji(RichCustomEmoji emoji)
+    {
+        DataArray roles = DataArray.empty();
+        emoji.getRoles().forEach(role -> roles.add(role.getId()));
+        return DataObject.empty()
+                .put("id", emoji.getId())
+                .put("name", emoji.getName())
+                .put("animated", emoji.isAnimated())
+                .put("managed", emoji.isManaged())
+                .put("available", emoji.isAvailable())
+                .put("roles", roles);
+    }
+
+    private static DataObject serializeForumTag(ForumTag tag)
+    {
+        return ForumTagData.from(tag).toData();
+    }
+
+    private static DataObject serializeDefaultReaction(EmojiUnion emoji)
+    {
+        if (emoji == null)
+            return null;
+        if (emoji instanceof CustomEmoji)
+            return DataObject.empty().put("emoji_id", ((CustomEmoji) emoji).getId());
+        return DataObject.empty().put("emoji_name", emoji.getName());
+    }
+
+    private static String idOf(ISnowflake entity)
+    {
+        return entity == null ? null : entity.getId();
+    }
+
+    private static String toIso(long epochMillis)
+    {
+        return epochMillis == 0 ? null : Instant.ofEpochMilli(epochMillis).toString();
+    }
+}
@@ -142,6 +142,7 @@ public class GuildImpl implements Guild
     private DiscordLocale preferredLocale = DiscordLocale.ENGLISH_US;
     private int memberCount;
     private boolean boostProgressBarEnabled;
+    private boolean detached;
 
     public GuildImpl(JDAImpl api, long id)
     {
@@ -711,6 +712,8 @@ public class GuildImpl implements Guild
     public Member getSelfMember()
     {
         Member member = getMember(getJDA().getSelfUser());
+        if (member == null && detached)
+            throw new IllegalStateException("The self member of a detached guild is only known for interactions");
         if (member == null)
             throw new IllegalStateException("Guild does not have a self member");
         return member;
@@ -1957,6 +1960,9 @@ public class GuildImpl implements Guild
 
     protected void checkPermission(Permission perm)
     {
+        // Detached guilds do not know the guild permissions of the self member, they are checked by discord instead
+        if (detached)
+            return;
         if (!getSelfMember().hasPermission(perm))
             throw new InsufficientPermissionException(this, perm);
     }
@@ -2061,6 +2067,12 @@ public class GuildImpl implements Guild
         return this;
     }
 
+    public GuildImpl setDetached(boolean detached)
+    {
+        this.detached = detached;
+        return this;
+    }
+
     public GuildImpl setIconId(String iconId)
     {
         this.iconId = iconId;
@@ -2286,6 +2298,12 @@ public class GuildImpl implements Guild
         return memberPresences;
     }
 
+    // Detached guilds are built by stateless sessions for a single event and are not part of the cache
+    public boolean isDetached()
+    {
+        return detached;
+    }
+
     // -- Member Tracking --
 
     public void onMemberAdd()
@@ -56,6 +56,8 @@ public class MemberImpl implements Member
     private long joinDate, boostDate, timeOutEnd;
     private boolean pending = false;
     private int flags;
+    private long interactionChannelId;
+    private long interactionPermissions = -1;
 
     public MemberImpl(GuildImpl guild, User user)
     {
@@ -247,6 +249,8 @@ public class MemberImpl implements Member
         if (!getGuild().equals(channel.getGuild()))
             throw new IllegalArgumentException("Provided channel is not in the same guild as this member!");
 
+        if (guild.isDetached())
+            return Permission.getPermissions(getInteractionPermissions(channel));
         return Permission.getPermissions(PermissionUtil.getEffectivePermission(channel.getPermissionContainer(), this));
     }
 
@@ -281,6 +285,14 @@ public class MemberImpl implements Member
     @Override
     public boolean hasPermission(@Nonnull GuildChannel channel, @Nonnull Permission... permissions)
     {
+        if (guild.isDetached())
+        {
+            Checks.notNull(channel, "Channel");
+            Checks.notNull(permissions, "Permissions");
+            long effective = getInteractionPermissions(channel);
+            long raw = Permission.getRaw(permissions);
+            return (effective & Permission.ADMINISTRATOR.getRawValue()) != 0 || (effective & raw) == raw;
+        }
         return PermissionUtil.checkPermission(channel.getPermissionContainer(), this, permissions);
     }
 
@@ -401,6 +413,12 @@ public class MemberImpl implements Member
         return user.getDefaultAvatarId();
     }
 
+    public MemberImpl setUser(User user)
+    {
+        this.user = user;
+        return this;
+    }
+
     public MemberImpl setNickname(String nickname)
     {
         this.nickname = nickname;
@@ -443,6 +461,26 @@ public class MemberImpl implements Member
         return this;
     }
 
+    // Members of detached guilds only know their permissions in the channel of the interaction they were received with
+    public MemberImpl setInteractionPermissions(long channelId, long permissions)
+    {
+        this.interactionChannelId = channelId;
+        this.interactionPermissions = permissions;
+        return this;
+    }
+
+    public boolean hasInteractionPermissions(GuildChannel channel)
+    {
+        return interactionPermissions != -1 && channel.getIdLong() == interactionChannelId;
+    }
+
+    private long getInteractionPermissions(GuildChannel channel)
+    {
+        if (!hasInteractionPermissions(channel))
+            throw new IllegalStateException("Permissions of members in a detached guild are only known in the channel of an interaction");
+        return interactionPermissions;
+    }
+
     public Set<Role> getRoleSet()
     {
         return roles;
@@ -49,6 +49,7 @@ import net.dv8tion.jda.api.utils.MarkdownSanitizer;
 import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.api.utils.messages.MessageEditData;
 import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.entities.mentions.MentionRenderer;
 import net.dv8tion.jda.internal.requests.CompletedRestAction;
 import net.dv8tion.jda.internal.requests.restaction.AuditableRestActionImpl;
 import net.dv8tion.jda.internal.utils.Checks;
@@ -60,7 +61,6 @@ import javax.annotation.Nullable;
 import java.time.OffsetDateTime;
 import java.util.*;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 public class ReceivedMessage extends AbstractMessage
 {
@@ -91,8 +91,8 @@ public class ReceivedMessage extends AbstractMessage
     protected final int position;
 
     // LAZY EVALUATED
-    protected String altContent = null;
-    protected String strippedContent = null;
+    protected volatile String altContent = null;
+    protected volatile String strippedContent = null;
 
     protected List<String> invites = null;
 
@@ -347,51 +347,21 @@ public class ReceivedMessage extends AbstractMessage
     @Override
     public String getContentStripped()
     {
-        if (strippedContent != null)
-            return strippedContent;
-        synchronized (mutex)
-        {
-            if (strippedContent != null)
-                return strippedContent;
-            return strippedContent = MarkdownSanitizer.sanitize(getContentDisplay());
-        }
+        // Computing this twice in a race is harmless, so we avoid locking
+        String stripped = strippedContent;
+        if (stripped == null)
+            strippedContent = stripped = MarkdownSanitizer.sanitize(getContentDisplay());
+        return stripped;
     }
 
     @Nonnull
     @Override
     public String getContentDisplay()
     {
-        if (altContent != null)
-            return altContent;
-
-        synchronized (mutex)
-        {
-            if (altContent != null)
-                return altContent;
-            String tmp = getContentRaw();
-            for (User user : mentions.getUsers())
-            {
-                String name;
-                if (isFromGuild() && getGuild().isMember(user))
-                    name = getGuild().getMember(user).getEffectiveName();
-                else
-                    name = user.getName();
-                tmp = tmp.replaceAll("<@!?" + Pattern.quote(user.getId()) + '>', '@' + Matcher.quoteReplacement(name));
-            }
-            for (CustomEmoji emoji : mentions.getCustomEmojis())
-            {
-                tmp = tmp.replace(emoji.getAsMention(), ":" + emoji.getName() + ":");
-            }
-            for (GuildChannel mentionedChannel : mentions.getChannels())
-            {
-                tmp = tmp.replace(mentionedChannel.getAsMention(), '#' + mentionedChannel.getName());
-            }
-            for (Role mentionedRole : mentions.getRoles())
-            {
-                tmp = tmp.replace(mentionedRole.getAsMention(), '@' + mentionedRole.getName());
-            }
-            return altContent = tmp;
-        }
+        String display = altContent;
+        if (display == null)
+            altContent = display = MentionRenderer.render(getContentRaw(), mentions, isFromGuild() ? getGuild() : null);
+        return display;
     }
 
     @Nonnull
@@ -45,7 +45,7 @@ public interface IThreadContainerMixin<T extends IThreadContainerMixin<T>> exten
         Checks.notEmpty(name, "Name");
         Checks.notLonger(name, 100, "Name");
 
-        Checks.checkAccess(getGuild().getSelfMember(), this);
+        checkCanAccess();
         if (isPrivate)
             checkPermission(Permission.CREATE_PRIVATE_THREADS);
         else
@@ -69,7 +69,7 @@ public interface IThreadContainerMixin<T extends IThreadContainerMixin<T>> exten
         Checks.notEmpty(name, "Name");
         Checks.notLonger(name, 100, "Name");
 
-        Checks.checkAccess(getGuild().getSelfMember(), this);
+        checkCanAccess();
         checkPermission(Permission.CREATE_PUBLIC_THREADS);
 
         return new ThreadChannelActionImpl(this, name, Long.toUnsignedString(messageId));
@@ -79,7 +79,7 @@ public interface IThreadContainerMixin<T extends IThreadContainerMixin<T>> exten
     @Override
     default ThreadChannelPaginationAction retrieveArchivedPublicThreadChannels()
     {
-        Checks.checkAccess(getGuild().getSelfMember(), this);
+        checkCanAccess();
         checkPermission(Permission.MESSAGE_HISTORY);
 
         Route.CompiledRoute route = Route.Channels.LIST_PUBLIC_ARCHIVED_THREADS.compile(getId());
@@ -90,7 +90,7 @@ public interface IThreadContainerMixin<T extends IThreadContainerMixin<T>> exten
     @Override
     default ThreadChannelPaginationAction retrieveArchivedPrivateThreadChannels()
     {
-        Checks.checkAccess(getGuild().getSelfMember(), this);
+        checkCanAccess();
         checkPermission(Permission.MESSAGE_HISTORY);
         checkPermission(Permission.MANAGE_THREADS);
 
@@ -102,7 +102,7 @@ public interface IThreadContainerMixin<T extends IThreadContainerMixin<T>> exten
     @Override
     default ThreadChannelPaginationAction retrieveArchivedPrivateJoinedThreadChannels()
     {
-        Checks.checkAccess(getGuild().getSelfMember(), this);
+        checkCanAccess();
         checkPermission(Permission.MESSAGE_HISTORY);
 
         Route.CompiledRoute route = Route.Channels.LIST_JOINED_PRIVATE_ARCHIVED_THREADS.compile(getId());
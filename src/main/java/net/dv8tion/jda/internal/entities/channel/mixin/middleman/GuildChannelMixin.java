@@ -21,10 +21,14 @@ import net.dv8tion.jda.api.entities.channel.attribute.IPermissionContainer;
 import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
 import net.dv8tion.jda.api.entities.channel.unions.GuildChannelUnion;
 import net.dv8tion.jda.api.exceptions.InsufficientPermissionException;
+import net.dv8tion.jda.api.exceptions.MissingAccessException;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.api.requests.restaction.AuditableRestAction;
+import net.dv8tion.jda.internal.entities.GuildImpl;
+import net.dv8tion.jda.internal.entities.MemberImpl;
 import net.dv8tion.jda.internal.entities.channel.mixin.ChannelMixin;
 import net.dv8tion.jda.internal.requests.restaction.AuditableRestActionImpl;
+import net.dv8tion.jda.internal.utils.Checks;
 
 import javax.annotation.CheckReturnValue;
 import javax.annotation.Nonnull;
@@ -49,10 +53,28 @@ public interface GuildChannelMixin<T extends GuildChannelMixin<T>> extends
     // ---- Helpers ---
     default boolean hasPermission(Permission permission)
     {
+        GuildImpl guild = (GuildImpl) getGuild();
+        if (guild.isDetached())
+        {
+            // Detached guilds only know the permissions in the channel of an interaction, everything else is checked by discord instead
+            MemberImpl selfMember = (MemberImpl) guild.getMemberById(getJDA().getSelfUser().getIdLong());
+            return selfMember == null || !selfMember.hasInteractionPermissions(this) || selfMember.hasPermission(this, permission);
+        }
         IPermissionContainer permChannel = getPermissionContainer();
         return getGuild().getSelfMember().hasPermission(permChannel, permission);
     }
 
+    default void checkCanAccess()
+    {
+        if (((GuildImpl) getGuild()).isDetached())
+        {
+            if (!hasPermission(Permission.VIEW_CHANNEL))
+                throw new MissingAccessException(this, Permission.VIEW_CHANNEL);
+            return;
+        }
+        Checks.checkAccess(getGuild().getSelfMember(), this);
+    }
+
     default void checkPermission(Permission permission) { checkPermission(permission, null); }
     default void checkPermission(Permission permission, String message)
     {
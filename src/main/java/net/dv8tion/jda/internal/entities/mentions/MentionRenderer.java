@@ -0,0 +1,220 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.entities.mentions;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import net.dv8tion.jda.api.entities.*;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
+import net.dv8tion.jda.api.entities.emoji.CustomEmoji;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Replaces the mentions in a message content with the names of the mentioned entities, as shown in the Discord client.
+ *
+ * <p>The content is scanned once for {@code <@id>}, {@code <@!id>}, {@code <@&id>}, {@code <#id>}, and {@code <:name:id>} tokens.
+ * Only entities which are part of the {@link Mentions} are replaced, all other tokens are kept as they are.
+ * The mentioned entities are only looked up for the token types which appear in the content.
+ */
+public class MentionRenderer
+{
+    // Longest possible token is <a:name:id> with a 32 character name and a 20 digit id
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    private final String content;
+    private final Mentions mentions;
+    private final Guild guild;
+
+    private TLongObjectMap<String> users, roles, channels;
+    private TLongObjectMap<CustomEmoji> emojis;
+
+    private MentionRenderer(String content, Mentions mentions, Guild guild)
+    {
+        this.content = content;
+        this.mentions = mentions;
+        this.guild = guild;
+    }
+
+    /**
+     * Renders the provided content.
+     *
+     * @param  content
+     *         The raw message content
+     * @param  mentions
+     *         The mentions of the message
+     * @param  guild
+     *         The guild of the message, used for member nicknames, or null
+     *
+     * @return The rendered content, or the same string if nothing was replaced
+     */
+    @Nonnull
+    public static String render(@Nonnull String content, @Nonnull Mentions mentions, @Nullable Guild guild)
+    {
+        return new MentionRenderer(content, mentions, guild).render();
+    }
+
+    private String render()
+    {
+        int length = content.length();
+        int start = content.indexOf('<');
+        if (start < 0)
+            return content;
+
+        StringBuilder out = null;
+        int copied = 0;
+        while (start >= 0)
+        {
+            int end = findEnd(start);
+            String replacement = end < 0 ? null : resolve(start + 1, end);
+            if (replacement == null)
+            {
+                start = content.indexOf('<', start + 1);
+                continue;
+            }
+
+            if (out == null)
+                out = new StringBuilder(length);
+            out.append(content, copied, start).append(replacement);
+            copied = end + 1;
+            start = content.indexOf('<', copied);
+        }
+
+        if (out == null)
+            return content;
+        return out.append(content, copied, length).toString();
+    }
+
+    private int findEnd(int start)
+    {
+        int limit = Math.min(content.length(), start + MAX_TOKEN_LENGTH);
+        for (int i = start + 2; i < limit; i++)
+        {
+            char c = content.charAt(i);
+            if (c == '>')
+                return i;
+            if (c == '<' || Character.isWhitespace(c))
+                return -1;
+        }
+        return -1;
+    }
+
+    // Resolves the token between the angle brackets, from (inclusive) to (exclusive)
+    private String resolve(int from, int to)
+    {
+        switch (content.charAt(from))
+        {
+        case '@':
+            if (content.charAt(from + 1) == '&')
+                return resolve(getRoles(), from + 2, to);
+            if (content.charAt(from + 1) == '!')
+                return resolve(getUsers(), from + 2, to);
+            return resolve(getUsers(), from + 1, to);
+        case '#':
+            return resolve(getChannels(), from + 1, to);
+        case 'a':
+        case ':':
+            return resolveEmoji(from, to);
+        default:
+            return null;
+        }
+    }
+
+    private String resolve(TLongObjectMap<String> names, int from, int to)
+    {
+        long id = parseId(from, to);
+        return id < 0 ? null : names.get(id);
+    }
+
+    private String resolveEmoji(int from, int to)
+    {
+        int separator = content.lastIndexOf(':', to - 1);
+        if (separator <= from)
+            return null;
+        long id = parseId(separator + 1, to);
+        if (id < 0)
+            return null;
+        CustomEmoji emoji = getEmojis().get(id);
+        if (emoji == null)
+            return null;
+
+        // Only replace the exact mention, with the same name and animated flag
+        String mention = emoji.getAsMention();
+        if (mention.length() != to - from + 2 || !content.regionMatches(from - 1, mention, 0, mention.length()))
+            return null;
+        return ":" + emoji.getName() + ":";
+    }
+
+    private long parseId(int from, int to)
+    {
+        if (from >= to || to - from > 19)
+            return -1;
+        long id = 0;
+        for (int i = from; i < to; i++)
+        {
+            char c = content.charAt(i);
+            if (c < '0' || c > '9')
+                return -1;
+            id = id * 10 + (c - '0');
+        }
+        return id;
+    }
+
+    private TLongObjectMap<String> getUsers()
+    {
+        if (users != null)
+            return users;
+        users = new TLongObjectHashMap<>();
+        for (User user : mentions.getUsers())
+        {
+            Member member = guild == null ? null : guild.getMember(user);
+            users.put(user.getIdLong(), "@" + (member != null ? member.getEffectiveName() : user.getName()));
+        }
+        return users;
+    }
+
+    private TLongObjectMap<String> getRoles()
+    {
+        if (roles != null)
+            return roles;
+        roles = new TLongObjectHashMap<>();
+        for (Role role : mentions.getRoles())
+            roles.put(role.getIdLong(), "@" + role.getName());
+        return roles;
+    }
+
+    private TLongObjectMap<String> getChannels()
+    {
+        if (channels != null)
+            return channels;
+        channels = new TLongObjectHashMap<>();
+        for (GuildChannel channel : mentions.getChannels())
+            channels.put(channel.getIdLong(), "#" + channel.getName());
+        return channels;
+    }
+
+    private TLongObjectMap<CustomEmoji> getEmojis()
+    {
+        if (emojis != null)
+            return emojis;
+        emojis = new TLongObjectHashMap<>();
+        for (CustomEmoji emoji : mentions.getCustomEmojis())
+            emojis.put(emoji.getIdLong(), emoji);
+        return emojis;
+    }
+}
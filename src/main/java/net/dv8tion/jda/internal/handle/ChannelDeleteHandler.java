@@ -24,6 +24,7 @@ import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.entities.GuildImpl;
 import net.dv8tion.jda.internal.requests.WebSocketClient;
+import net.dv8tion.jda.internal.utils.cache.MessageCache;
 import net.dv8tion.jda.internal.utils.cache.SnowflakeCacheViewImpl;
 
 public class ChannelDeleteHandler extends SocketHandler
@@ -187,6 +188,9 @@ public class ChannelDeleteHandler extends SocketHandler
                     .forEach(scheduledEvent -> guild.getScheduledEventsView().remove(scheduledEvent.getIdLong()));
         }
 
+        MessageCache messageCache = getJDA().getMessageCache();
+        if (messageCache != null)
+            messageCache.removeChannel(channelId);
         getJDA().getEventCache().clear(EventCache.Type.CHANNEL, channelId);
         return null;
     }
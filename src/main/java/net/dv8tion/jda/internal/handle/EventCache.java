@@ -15,116 +15,250 @@
  */
 package net.dv8tion.jda.internal.handle;
 
-import gnu.trove.iterator.TLongObjectIterator;
 import gnu.trove.map.TLongObjectMap;
 import gnu.trove.map.hash.TLongObjectHashMap;
+import net.dv8tion.jda.api.utils.data.DataArray;
 import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.utils.CacheConsumer;
 import net.dv8tion.jda.internal.utils.JDALogger;
+import net.dv8tion.jda.internal.utils.etf.LazyTermList;
+import net.dv8tion.jda.internal.utils.etf.LazyTermMap;
 import org.slf4j.Logger;
 
-import java.util.EnumMap;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.*;
 
+/**
+ * Defers events which reference entities that are not cached yet, until the entity is created or the events time out.
+ *
+ * <p>The events of each entity are kept in a ring of at most {@link #MAX_EVENTS_PER_ENTITY}, which drops the oldest event when full.
+ * All events are also kept in an expiry queue in the order they were cached. Timeouts only inspect the head of this queue,
+ * and the oldest events are dropped first once the estimated size of all events exceeds the byte limit.
+ * Events which are replayed or cleared stay in the expiry queue, and are skipped once they reach its head.
+ */
 public class EventCache
 {
     public static final Logger LOG = JDALogger.getLog(EventCache.class);
     /** Sequence difference after which events will be removed from cache */
     public static final long TIMEOUT_AMOUNT = 100;
-    private final EnumMap<Type, TLongObjectMap<List<CacheNode>>> eventCache = new EnumMap<>(Type.class);
+    /** Maximum number of events cached for a single entity */
+    public static final int MAX_EVENTS_PER_ENTITY = 50;
+    /** Default limit for the estimated size of all cached events */
+    public static final long DEFAULT_MAX_BYTES = 32L << 20;
+
+    // Rough estimates of the memory used by the objects of a parsed payload
+    private static final int OBJECT_OVERHEAD = 16;
+    private static final int ENTRY_OVERHEAD = 32;
+    private static final int STRING_OVERHEAD = 40;
+
+    private final EnumMap<Type, TLongObjectMap<ArrayDeque<CacheNode>>> eventCache = new EnumMap<>(Type.class);
+    private final ArrayDeque<CacheNode> expiryQueue = new ArrayDeque<>();
+    private final int maxEventsPerEntity;
+    private final long maxBytes;
+
+    private int size;
+    private long totalBytes;
+    private long cachedCount, replayedCount, droppedCount;
+
+    public EventCache()
+    {
+        this(MAX_EVENTS_PER_ENTITY, DEFAULT_MAX_BYTES);
+    }
 
-    public EventCache() {}
+    public EventCache(int maxEventsPerEntity, long maxBytes)
+    {
+        this.maxEventsPerEntity = maxEventsPerEntity;
+        this.maxBytes = maxBytes;
+    }
 
     public synchronized void timeout(final long responseTotal)
     {
-        if (eventCache.isEmpty())
-            return;
-        AtomicInteger count = new AtomicInteger();
-        eventCache.forEach((type, map) ->
+        int count = 0;
+        CacheNode node;
+        //Remove when this node is more than 100 events ago
+        while ((node = expiryQueue.peekFirst()) != null && responseTotal - node.responseTotal > TIMEOUT_AMOUNT)
         {
-            if (map.isEmpty())
-                return;
-            TLongObjectIterator<List<CacheNode>> iterator = map.iterator();
-            while (iterator.hasNext())
-            {
-                iterator.advance();
-                long triggerId = iterator.key();
-                List<CacheNode> cache = iterator.value();
-                //Remove when this node is more than 100 events ago
-                cache.removeIf(node ->
-                {
-                    boolean remove = responseTotal - node.responseTotal > TIMEOUT_AMOUNT;
-                    if (remove)
-                    {
-                        count.incrementAndGet();
-                        LOG.trace("Removing type {}/{} from event cache with payload {}", type, triggerId, node.event);
-                    }
-                    return remove;
-                });
-                if (cache.isEmpty())
-                    iterator.remove();
-            }
-        });
-        int amount = count.get();
-        if (amount > 0)
-            LOG.debug("Removed {} events from cache that were too old to be recycled", amount);
+            expiryQueue.pollFirst();
+            if (node.removed)
+                continue;
+            LOG.trace("Removing type {}/{} from event cache with payload {}", node.type, node.triggerId, node.event);
+            removeFromRing(node);
+            drop(node);
+            count++;
+        }
+        if (count > 0)
+            LOG.debug("Removed {} events from cache that were too old to be recycled", count);
     }
 
     public synchronized void cache(Type type, long triggerId, long responseTotal, DataObject event, CacheConsumer handler)
     {
-        TLongObjectMap<List<CacheNode>> triggerCache =
+        TLongObjectMap<ArrayDeque<CacheNode>> triggerCache =
                 eventCache.computeIfAbsent(type, k -> new TLongObjectHashMap<>());
 
-        List<CacheNode> items = triggerCache.get(triggerId);
+        ArrayDeque<CacheNode> items = triggerCache.get(triggerId);
         if (items == null)
         {
-            items = new LinkedList<>();
+            items = new ArrayDeque<>();
             triggerCache.put(triggerId, items);
         }
+        else if (items.size() >= maxEventsPerEntity)
+        {
+            CacheNode eldest = items.pollFirst();
+            LOG.debug("Dropping event for type {}/{} from event cache, too many events are cached for this entity", type, triggerId);
+            drop(eldest);
+        }
 
-        items.add(new CacheNode(responseTotal, event, handler));
+        CacheNode node = new CacheNode(type, triggerId, responseTotal, event, handler, estimateSize(event));
+        items.addLast(node);
+        expiryQueue.addLast(node);
+        size++;
+        totalBytes += node.bytes;
+        cachedCount++;
+
+        int shed = 0;
+        while (totalBytes > maxBytes)
+        {
+            CacheNode eldest = expiryQueue.pollFirst();
+            if (eldest == null)
+                break;
+            if (eldest.removed)
+                continue;
+            removeFromRing(eldest);
+            drop(eldest);
+            shed++;
+        }
+        if (shed > 0)
+            LOG.warn("Dropped {} events from the event cache, which exceeded its size limit of {} bytes", shed, maxBytes);
     }
 
     public synchronized void playbackCache(Type type, long triggerId)
     {
-        TLongObjectMap<List<CacheNode>> typeCache = this.eventCache.get(type);
+        TLongObjectMap<ArrayDeque<CacheNode>> typeCache = this.eventCache.get(type);
         if (typeCache == null)
             return;
 
-        List<CacheNode> items = typeCache.remove(triggerId);
+        ArrayDeque<CacheNode> items = typeCache.remove(triggerId);
         if (items != null && !items.isEmpty())
         {
             EventCache.LOG.debug("Replaying {} events from the EventCache for type {} with id: {}",
                 items.size(), type, triggerId);
             for (CacheNode item : items)
+            {
+                remove(item);
+                replayedCount++;
                 item.execute();
+            }
         }
     }
 
     public synchronized int size()
     {
-        return (int) eventCache.values().stream()
-                .mapToLong(typeMap ->
-                    typeMap.valueCollection().stream().mapToLong(List::size).sum())
-                .sum();
+        return size;
+    }
+
+    public synchronized long getTotalBytes()
+    {
+        return totalBytes;
+    }
+
+    public synchronized long getCachedCount()
+    {
+        return cachedCount;
+    }
+
+    public synchronized long getReplayedCount()
+    {
+        return replayedCount;
+    }
+
+    public synchronized long getDroppedCount()
+    {
+        return droppedCount;
     }
 
     public synchronized void clear()
     {
         eventCache.clear();
+        expiryQueue.clear();
+        droppedCount += size;
+        size = 0;
+        totalBytes = 0;
     }
 
     public synchronized void clear(Type type, long id)
     {
-        TLongObjectMap<List<CacheNode>> typeCache = this.eventCache.get(type);
+        TLongObjectMap<ArrayDeque<CacheNode>> typeCache = this.eventCache.get(type);
         if (typeCache == null)
             return;
 
-        List<CacheNode> events = typeCache.remove(id);
+        ArrayDeque<CacheNode> events = typeCache.remove(id);
         if (events != null)
+        {
             LOG.debug("Clearing cache for type {} with ID {} (Size: {})", type, id, events.size());
+            for (CacheNode node : events)
+                drop(node);
+        }
+    }
+
+    private void removeFromRing(CacheNode node)
+    {
+        TLongObjectMap<ArrayDeque<CacheNode>> typeCache = eventCache.get(node.type);
+        ArrayDeque<CacheNode> items = typeCache == null ? null : typeCache.get(node.triggerId);
+        if (items == null)
+            return;
+        // The oldest event of the ring is usually the one to remove
+        items.remove(node);
+        if (items.isEmpty())
+            typeCache.remove(node.triggerId);
+    }
+
+    private void remove(CacheNode node)
+    {
+        node.removed = true;
+        size--;
+        totalBytes -= node.bytes;
+    }
+
+    private void drop(CacheNode node)
+    {
+        remove(node);
+        droppedCount++;
+        // The node might stay in the expiry queue for a while
+        node.event = null;
+    }
+
+    private static long estimateSize(DataObject event)
+    {
+        return estimateSize(event.toMap(), Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    private static long estimateSize(Object value, Set<Object> buffers)
+    {
+        // Lazy ETF views retain the buffer of the entire payload, which is shared by all nested views
+        if (value instanceof LazyTermMap)
+            return buffers.add(((LazyTermMap) value).getBuffer()) ? ((LazyTermMap) value).getBuffer().capacity() : OBJECT_OVERHEAD;
+        if (value instanceof LazyTermList)
+            return buffers.add(((LazyTermList) value).getBuffer()) ? ((LazyTermList) value).getBuffer().capacity() : OBJECT_OVERHEAD;
+        if (value instanceof DataObject)
+            return estimateSize(((DataObject) value).toMap(), buffers);
+        if (value instanceof DataArray)
+            return estimateSize(((DataArray) value).toList(), buffers);
+        if (value instanceof Map)
+        {
+            long size = OBJECT_OVERHEAD;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet())
+                size += ENTRY_OVERHEAD + estimateSize(entry.getKey(), buffers) + estimateSize(entry.getValue(), buffers);
+            return size;
+        }
+        if (value instanceof List)
+        {
+            long size = OBJECT_OVERHEAD;
+            for (Object element : (List<?>) value)
+                size += 8 + estimateSize(element, buffers);
+            return size;
+        }
+        if (value instanceof String)
+            return STRING_OVERHEAD + ((String) value).length();
+        return OBJECT_OVERHEAD;
     }
 
     public enum Type
@@ -132,21 +266,30 @@ public class EventCache
         USER, MEMBER, GUILD, CHANNEL, ROLE, RELATIONSHIP, CALL, SCHEDULED_EVENT
     }
 
-    private class CacheNode
+    private static class CacheNode
     {
+        private final Type type;
+        private final long triggerId;
         private final long responseTotal;
-        private final DataObject event;
         private final CacheConsumer callback;
+        private final long bytes;
+        private DataObject event;
+        private boolean removed;
 
-        public CacheNode(long responseTotal, DataObject event, CacheConsumer callback)
+        public CacheNode(Type type, long triggerId, long responseTotal, DataObject event, CacheConsumer callback, long bytes)
         {
+            this.type = type;
+            this.triggerId = triggerId;
             this.responseTotal = responseTotal;
             this.event = event;
             this.callback = callback;
+            this.bytes = bytes;
         }
 
         void execute()
         {
+            DataObject event = this.event;
+            this.event = null;
             callback.execute(responseTotal, event);
         }
     }
@@ -221,9 +221,11 @@ public class GuildSetupController
         int index = chunk.getInt("chunk_index");
         int count = chunk.getInt("chunk_count");
         log.debug("Received member chunk for guild id: {} size: {} index: {}/{}", id, members.length(), index, count);
+        boolean last = MemberChunkManager.isLastChunk(chunk);
+        getJDA().getClient().getChunkRequestScheduler().onChunk(id, members.length(), last);
         GuildSetupNode node = setupNodes.get(id);
         if (node != null)
-            node.handleMemberChunk(MemberChunkManager.isLastChunk(chunk), members);
+            node.handleMemberChunk(last, members);
     }
 
     public boolean onAddMember(long id, DataObject member)
@@ -348,13 +350,17 @@ public class GuildSetupController
         return chunkingGuilds.size();
     }
 
-    void sendChunkRequest(Object obj)
+    void sendChunkRequest(long id)
     {
-        log.debug("Sending chunking requests for {} guilds", obj instanceof DataArray ? ((DataArray) obj).length() : 1);
+        GuildSetupNode node = setupNodes.get(id);
+        int memberCount = node == null ? 0 : node.getExpectedMemberCount();
+        // Guilds outside of the initial setup are prioritized by the scheduler
+        boolean join = incompleteCount <= 0 || node == null || node.isJoin();
+        log.debug("Queueing chunking request for guild {} with {} members", id, memberCount);
 
-        getJDA().getClient().sendChunkRequest(
+        getJDA().getClient().sendChunkRequest(id, memberCount, join,
             DataObject.empty()
-                .put("guild_id", obj)
+                .put("guild_id", id)
                 .put("query", "")
                 .put("limit", 0)
         );
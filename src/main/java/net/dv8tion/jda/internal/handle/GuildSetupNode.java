@@ -33,7 +33,9 @@ import net.dv8tion.jda.api.managers.AudioManager;
 import net.dv8tion.jda.api.utils.data.DataArray;
 import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.entities.EntityBuilder;
 import net.dv8tion.jda.internal.entities.GuildImpl;
+import net.dv8tion.jda.internal.entities.MemberImpl;
 import net.dv8tion.jda.internal.managers.AudioManagerImpl;
 import net.dv8tion.jda.internal.utils.EntityString;
 import net.dv8tion.jda.internal.utils.UnlockHook;
@@ -51,6 +53,9 @@ public class GuildSetupNode
     private final List<DataObject> cachedEvents = new LinkedList<>();
     private TLongObjectMap<DataObject> members;
     private TLongSet removedMembers;
+    // Used for incremental chunking, members are created as soon as their chunk arrives
+    private GuildImpl chunkingGuild;
+    private TLongObjectMap<MemberImpl> chunkedMembers;
     private DataObject partialGuild;
     private int expectedMemberCount = 1;
     boolean requestedChunk;
@@ -96,6 +101,8 @@ public class GuildSetupNode
     public int getCurrentMemberCount()
     {
         TLongHashSet knownMembers = new TLongHashSet(members.keySet());
+        if (chunkedMembers != null)
+            knownMembers.addAll(chunkedMembers.keySet());
         knownMembers.removeAll(removedMembers);
         return knownMembers.size();
     }
@@ -122,6 +129,8 @@ public class GuildSetupNode
 
     public boolean containsMember(long userId)
     {
+        if (chunkedMembers != null && chunkedMembers.containsKey(userId))
+            return true;
         if (members == null || members.isEmpty())
             return false;
         return members.containsKey(userId);
@@ -185,6 +194,8 @@ public class GuildSetupNode
             members.clear();
         if (removedMembers != null)
             removedMembers.clear();
+        chunkingGuild = null;
+        chunkedMembers = null;
         cachedEvents.clear();
     }
 
@@ -248,14 +259,36 @@ public class GuildSetupNode
             GuildSetupController.log.debug("Dropping member chunk due to unavailable guild");
             return true;
         }
-        for (int index = 0; index < arr.length(); index++)
+        JDAImpl api = getController().getJDA();
+        if (requestedChunk && api.isIncrementalChunking())
         {
-            DataObject obj = arr.getObject(index);
-            long id = obj.getObject("user").getLong("id");
-            members.put(id, obj);
+            // Create the members right away, so the raw chunk can be collected instead of keeping it until the last chunk
+            if (chunkingGuild == null)
+            {
+                chunkingGuild = api.getEntityBuilder().createChunkingGuild(id, partialGuild);
+                chunkedMembers = new TLongObjectHashMap<>(expectedMemberCount);
+            }
+            EntityBuilder builder = api.getEntityBuilder();
+            for (int index = 0; index < arr.length(); index++)
+            {
+                DataObject obj = arr.getObject(index);
+                long id = obj.getObject("user").getLong("id");
+                // A member from GUILD_MEMBER_ADD might be replaced by a newer chunk
+                members.remove(id);
+                chunkedMembers.put(id, builder.createMember(chunkingGuild, obj, null, null));
+            }
+        }
+        else
+        {
+            for (int index = 0; index < arr.length(); index++)
+            {
+                DataObject obj = arr.getObject(index);
+                long id = obj.getObject("user").getLong("id");
+                members.put(id, obj);
+            }
         }
 
-        if (last || members.size() >= expectedMemberCount || !getController().getJDA().chunkGuild(id))
+        if (last || getMemberCount() >= expectedMemberCount || !api.chunkGuild(id))
         {
             completeSetup();
             return false;
@@ -270,6 +303,8 @@ public class GuildSetupNode
         expectedMemberCount++;
         long userId = member.getObject("user").getLong("id");
         members.put(userId, member);
+        if (chunkedMembers != null)
+            chunkedMembers.remove(userId);
         removedMembers.remove(userId);
     }
 
@@ -280,6 +315,8 @@ public class GuildSetupNode
         expectedMemberCount--;
         long userId = member.getObject("user").getLong("id");
         members.remove(userId);
+        if (chunkedMembers != null)
+            chunkedMembers.remove(userId);
         removedMembers.add(userId);
         EventCache eventCache = getController().getJDA().getEventCache();
         if (!getController().containsMember(userId, this)) // if no other setup node contains this userId we clear it here
@@ -348,6 +385,16 @@ public class GuildSetupNode
                     eventCache.clear(EventCache.Type.USER, userId);
             }
         }
+
+        if (chunkedMembers != null)
+        {
+            for (TLongIterator it = chunkedMembers.keySet().iterator(); it.hasNext();)
+            {
+                long userId = it.next();
+                if (!getController().containsMember(userId, this))
+                    eventCache.clear(EventCache.Type.USER, userId);
+            }
+        }
     }
 
     private void completeSetup()
@@ -355,9 +402,18 @@ public class GuildSetupNode
         updateStatus(GuildSetupController.Status.BUILDING);
         JDAImpl api = getController().getJDA();
         for (TLongIterator it = removedMembers.iterator(); it.hasNext(); )
-            members.remove(it.next());
+        {
+            long userId = it.next();
+            members.remove(userId);
+            if (chunkedMembers != null)
+                chunkedMembers.remove(userId);
+        }
         removedMembers.clear();
-        GuildImpl guild = api.getEntityBuilder().createGuild(id, partialGuild, members, expectedMemberCount);
+        GuildImpl guild = chunkingGuild != null
+            ? api.getEntityBuilder().createGuild(chunkingGuild, partialGuild, members, chunkedMembers, expectedMemberCount)
+            : api.getEntityBuilder().createGuild(id, partialGuild, members, expectedMemberCount);
+        chunkingGuild = null;
+        chunkedMembers = null;
         updateAudioManagerReference(guild);
         switch (type)
         {
@@ -386,8 +442,11 @@ public class GuildSetupNode
     private void ensureMembers()
     {
         expectedMemberCount = partialGuild.getInt("member_count");
-        members = new TLongObjectHashMap<>(expectedMemberCount);
+        // With incremental chunking, the chunked members are stored separately
+        members = getController().getJDA().isIncrementalChunking() ? new TLongObjectHashMap<>() : new TLongObjectHashMap<>(expectedMemberCount);
         removedMembers = new TLongHashSet();
+        chunkingGuild = null;
+        chunkedMembers = null;
         DataArray memberArray = partialGuild.getArray("members");
         if (!getController().getJDA().chunkGuild(id))
         {
@@ -416,6 +475,11 @@ public class GuildSetupNode
         }
     }
 
+    private int getMemberCount()
+    {
+        return chunkedMembers == null ? members.size() : members.size() + chunkedMembers.size();
+    }
+
     private void updateAudioManagerReference(GuildImpl guild)
     {
         JDAImpl api = getController().getJDA();
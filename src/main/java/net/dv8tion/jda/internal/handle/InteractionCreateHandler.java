@@ -63,11 +63,16 @@ public class InteractionCreateHandler extends SocketHandler
         }
 
         long guildId = content.getUnsignedLong("guild_id", 0);
-        Guild guild = api.getGuildById(guildId);
-        if (api.getGuildSetupController().isLocked(guildId))
-            return guildId;
-        if (guildId != 0 && guild == null)
-            return null; // discard event if it is not from a guild we are currently in
+        Guild guild = null;
+        // Stateless sessions have no guild cache, the interaction builds detached entities from the payload instead
+        if (!api.isStateless())
+        {
+            guild = api.getGuildById(guildId);
+            if (api.getGuildSetupController().isLocked(guildId))
+                return guildId;
+            if (guildId != 0 && guild == null)
+                return null; // discard event if it is not from a guild we are currently in
+        }
 
         // Check channel type
         DataObject channelJson = content.getObject("channel");
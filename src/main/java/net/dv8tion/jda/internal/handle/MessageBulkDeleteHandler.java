@@ -20,10 +20,12 @@ import net.dv8tion.jda.api.entities.Guild;
 import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
 import net.dv8tion.jda.api.entities.channel.middleman.GuildMessageChannel;
 import net.dv8tion.jda.api.events.message.MessageBulkDeleteEvent;
+import net.dv8tion.jda.api.utils.MiscUtil;
 import net.dv8tion.jda.api.utils.data.DataArray;
 import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.requests.WebSocketClient;
+import net.dv8tion.jda.internal.utils.cache.MessageCache;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -92,6 +94,9 @@ public class MessageBulkDeleteHandler extends SocketHandler
 
             DataArray array = content.getArray("ids");
             List<String> messages = array.stream(DataArray::getString).collect(Collectors.toList());
+            MessageCache messageCache = getJDA().getMessageCache();
+            if (messageCache != null)
+                messages.forEach(id -> messageCache.remove(channelId, MiscUtil.parseSnowflake(id)));
             getJDA().handleEvent(
                 new MessageBulkDeleteEvent(
                     getJDA(), responseNumber,
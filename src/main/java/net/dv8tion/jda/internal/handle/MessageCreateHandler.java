@@ -28,6 +28,7 @@ import net.dv8tion.jda.internal.entities.EntityBuilder;
 import net.dv8tion.jda.internal.entities.channel.concrete.ThreadChannelImpl;
 import net.dv8tion.jda.internal.entities.channel.mixin.middleman.MessageChannelMixin;
 import net.dv8tion.jda.internal.requests.WebSocketClient;
+import net.dv8tion.jda.internal.utils.cache.MessageCache;
 
 public class MessageCreateHandler extends SocketHandler
 {
@@ -51,6 +52,13 @@ public class MessageCreateHandler extends SocketHandler
             return null;
 
         JDAImpl jda = getJDA();
+        // Stateless sessions build the message from the payload alone, without any cache lookups
+        if (jda.isStateless())
+        {
+            jda.handleEvent(new MessageReceivedEvent(jda, responseNumber, jda.getEntityBuilder().createDetachedMessage(content)));
+            return null;
+        }
+
         Guild guild = null;
         if (!content.isNull("guild_id"))
         {
@@ -133,6 +141,10 @@ public class MessageCreateHandler extends SocketHandler
             api.usedPrivateChannel(channel.getIdLong());
         }
 
+        MessageCache messageCache = jda.getMessageCache();
+        if (messageCache != null)
+            messageCache.put(message);
+
         jda.handleEvent(new MessageReceivedEvent( jda, responseNumber, message));
         return null;
     }
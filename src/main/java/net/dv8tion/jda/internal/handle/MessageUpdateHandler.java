@@ -24,11 +24,13 @@ import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
 import net.dv8tion.jda.api.entities.channel.middleman.MessageChannel;
 import net.dv8tion.jda.api.events.message.MessageEmbedEvent;
 import net.dv8tion.jda.api.events.message.MessageUpdateEvent;
+import net.dv8tion.jda.api.utils.cache.CachedMessage;
 import net.dv8tion.jda.api.utils.data.DataArray;
 import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.entities.EntityBuilder;
 import net.dv8tion.jda.internal.requests.WebSocketClient;
+import net.dv8tion.jda.internal.utils.cache.MessageCache;
 
 import java.util.LinkedList;
 
@@ -129,10 +131,13 @@ public class MessageUpdateHandler extends SocketHandler
         if (message.getChannelType() == ChannelType.PRIVATE)
             getJDA().usedPrivateChannel(message.getChannel().getIdLong());
 
+        MessageCache messageCache = getJDA().getMessageCache();
+        CachedMessage previous = messageCache == null ? null : messageCache.update(message);
+
         getJDA().handleEvent(
                 new MessageUpdateEvent(
                         getJDA(), responseNumber,
-                        message));
+                        message, previous));
         return null;
     }
 
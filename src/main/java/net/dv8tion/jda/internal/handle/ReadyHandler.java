@@ -38,6 +38,14 @@ public class ReadyHandler extends SocketHandler
     {
         EntityBuilder builder = getJDA().getEntityBuilder();
 
+        // Stateless sessions never set up guilds or private channels, they are ready right away
+        if (getJDA().isStateless())
+        {
+            builder.createSelfUser(injectApplicationId(content));
+            getJDA().getGuildSetupController().setIncompleteCount(0);
+            return null;
+        }
+
         DataArray guilds = content.getArray("guilds");
         //Make sure we don't have any duplicates here!
         TLongObjectMap<DataObject> distinctGuilds = new TLongObjectHashMap<>();
@@ -50,15 +58,8 @@ public class ReadyHandler extends SocketHandler
                 WebSocketClient.LOG.warn("Found duplicate guild for id {} in ready payload", id);
         }
 
-        DataObject selfJson = content.getObject("user");
-        // Inject the application id which isn't added to the self user by default
-        selfJson.put("application_id", // Used to update SelfUser#getApplicationId
-            content.optObject("application")
-                .map(obj -> obj.getUnsignedLong("id"))
-                .orElse(selfJson.getUnsignedLong("id"))
-        );
         // SelfUser is already created in login(...) but this just updates it to the current state from the api, and injects the application id
-        builder.createSelfUser(selfJson);
+        builder.createSelfUser(injectApplicationId(content));
 
         if (getJDA().getGuildSetupController().setIncompleteCount(distinctGuilds.size()))
         {
@@ -73,6 +74,18 @@ public class ReadyHandler extends SocketHandler
         return null;
     }
 
+    private static DataObject injectApplicationId(DataObject content)
+    {
+        DataObject selfJson = content.getObject("user");
+        // Inject the application id which isn't added to the self user by default
+        selfJson.put("application_id", // Used to update SelfUser#getApplicationId
+            content.optObject("application")
+                .map(obj -> obj.getUnsignedLong("id"))
+                .orElse(selfJson.getUnsignedLong("id"))
+        );
+        return selfJson;
+    }
+
     public void handleReady(DataObject content)
     {
         EntityBuilder builder = getJDA().getEntityBuilder();
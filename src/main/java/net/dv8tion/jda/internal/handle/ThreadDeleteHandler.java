@@ -22,6 +22,7 @@ import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.JDAImpl;
 import net.dv8tion.jda.internal.entities.GuildImpl;
 import net.dv8tion.jda.internal.requests.WebSocketClient;
+import net.dv8tion.jda.internal.utils.cache.MessageCache;
 
 public class ThreadDeleteHandler extends SocketHandler
 {
@@ -54,6 +55,9 @@ public class ThreadDeleteHandler extends SocketHandler
                 getJDA(), responseNumber,
                 thread));
 
+        MessageCache messageCache = getJDA().getMessageCache();
+        if (messageCache != null)
+            messageCache.removeChannel(threadId);
         getJDA().getEventCache().clear(EventCache.Type.CHANNEL, threadId);
         return null;
     }
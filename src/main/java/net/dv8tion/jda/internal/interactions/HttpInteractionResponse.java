@@ -0,0 +1,92 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.interactions;
+
+import net.dv8tion.jda.api.requests.Request;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The pending HTTP response of an interaction which was received by an {@link net.dv8tion.jda.api.interactions.InteractionEndpoint InteractionEndpoint}.
+ *
+ * <p>The initial callback of such an interaction is not sent to the REST API,
+ * instead its request is handed to the endpoint which writes the body into the HTTP response.
+ * Once the endpoint gave up on waiting, all callbacks are sent over REST again.
+ */
+public class HttpInteractionResponse
+{
+    // Set by the endpoint while the interaction is parsed, to associate the interaction with its HTTP exchange
+    public static final ThreadLocal<HttpInteractionResponse> CURRENT = new ThreadLocal<>();
+
+    private final CompletableFuture<Request<?>> callback = new CompletableFuture<>();
+
+    /**
+     * Hands the callback request to the endpoint.
+     *
+     * @param  request
+     *         The callback request
+     *
+     * @return True, if the endpoint will respond with this request, false if it already stopped waiting
+     */
+    public boolean complete(Request<?> request)
+    {
+        return callback.complete(request);
+    }
+
+    /**
+     * Waits for the callback request.
+     *
+     * @param  timeout
+     *         The maximum time to wait
+     * @param  unit
+     *         The time unit
+     *
+     * @throws InterruptedException
+     *         If the thread is interrupted while waiting
+     *
+     * @return The callback request, or null if no callback was made in time
+     */
+    public Request<?> await(long timeout, TimeUnit unit) throws InterruptedException
+    {
+        try
+        {
+            return callback.get(timeout, unit);
+        }
+        catch (TimeoutException e)
+        {
+            // A callback might have been made right after the timeout, in which case we use it anyway
+            if (callback.completeExceptionally(e) || callback.isCompletedExceptionally())
+                return null;
+            return callback.getNow(null);
+        }
+        catch (ExecutionException e)
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Stops waiting for a callback, all future callbacks are sent over REST instead.
+     */
+    public void cancel()
+    {
+        callback.cancel(false);
+    }
+}
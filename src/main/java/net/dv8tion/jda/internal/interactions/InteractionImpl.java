@@ -46,6 +46,7 @@ public class InteractionImpl implements Interaction
     protected final Channel channel;
     protected final DiscordLocale userLocale;
     protected final JDAImpl api;
+    protected final HttpInteractionResponse httpResponse;
 
     //This is used to give a proper error when an interaction is ack'd twice
     // By default, discord only responds with "unknown interaction" which is horrible UX so we add a check manually here
@@ -54,19 +55,39 @@ public class InteractionImpl implements Interaction
     public InteractionImpl(JDAImpl jda, DataObject data)
     {
         this.api = jda;
+        this.httpResponse = HttpInteractionResponse.CURRENT.get();
         this.id = data.getUnsignedLong("id");
         this.token = data.getString("token");
         this.type = data.getInt("type");
-        this.guild = jda.getGuildById(data.getUnsignedLong("guild_id", 0L));
+        long guildId = data.getUnsignedLong("guild_id", 0L);
+        if (jda.isStateless())
+            this.guild = guildId == 0 ? null : jda.getEntityBuilder().createDetachedGuild(guildId);
+        else
+            this.guild = jda.getGuildById(guildId);
         this.userLocale = DiscordLocale.from(data.getString("locale", "en-US"));
 
         DataObject channelJson = data.getObject("channel");
         if (guild != null)
         {
             member = jda.getEntityBuilder().createMember((GuildImpl) guild, data.getObject("member"));
-            jda.getEntityBuilder().updateMemberCache((MemberImpl) member);
             user = member.getUser();
-            channel = guild.getGuildChannelById(channelJson.getUnsignedLong("id"));
+            if (jda.isStateless())
+            {
+                ChannelType type = ChannelType.fromId(channelJson.getInt("type"));
+                long channelId = channelJson.getUnsignedLong("id");
+                channel = jda.getEntityBuilder().createDetachedGuildChannel((GuildImpl) guild, channelId, type, channelJson.getString("name", ""));
+                // Permissions in detached guilds are only known for the channel of this interaction
+                DataObject memberJson = data.getObject("member");
+                if (!memberJson.isNull("permissions"))
+                    ((MemberImpl) member).setInteractionPermissions(channelId, memberJson.getLong("permissions"));
+                if (!data.isNull("app_permissions"))
+                    jda.getEntityBuilder().createDetachedSelfMember((GuildImpl) guild, channelId, data.getLong("app_permissions"));
+            }
+            else
+            {
+                jda.getEntityBuilder().updateMemberCache((MemberImpl) member);
+                channel = guild.getGuildChannelById(channelJson.getUnsignedLong("id"));
+            }
         }
         else
         {
@@ -75,14 +96,22 @@ public class InteractionImpl implements Interaction
             ChannelType type = ChannelType.fromId(channelJson.getInt("type"));
             if (type != ChannelType.PRIVATE)
                 throw new IllegalArgumentException("Received interaction in unexpected channel type! Type " + type + " is not supported yet!");
-            PrivateChannel channel = jda.getPrivateChannelById(channelId);
-            if (channel == null)
+            PrivateChannel channel;
+            if (jda.isStateless())
+            {
+                channel = jda.getEntityBuilder().createDetachedPrivateChannel(channelId, data.getObject("user"));
+            }
+            else
             {
-                channel = jda.getEntityBuilder().createPrivateChannel(
-                    DataObject.empty()
-                        .put("id", channelId)
-                        .put("recipient", data.getObject("user"))
-                );
+                channel = jda.getPrivateChannelById(channelId);
+                if (channel == null)
+                {
+                    channel = jda.getEntityBuilder().createPrivateChannel(
+                        DataObject.empty()
+                            .put("id", channelId)
+                            .put("recipient", data.getObject("user"))
+                    );
+                }
             }
             this.channel = channel;
 
@@ -97,6 +126,28 @@ public class InteractionImpl implements Interaction
         }
     }
 
+    // Shares the entities of an interaction which was already parsed, to avoid building the same member twice
+    protected InteractionImpl(InteractionImpl interaction)
+    {
+        this.api = interaction.api;
+        this.httpResponse = interaction.httpResponse;
+        this.id = interaction.id;
+        this.token = interaction.token;
+        this.type = interaction.type;
+        this.guild = interaction.guild;
+        this.userLocale = interaction.userLocale;
+        this.member = interaction.member;
+        this.user = interaction.user;
+        this.channel = interaction.channel;
+    }
+
+    // Only present for interactions received by an InteractionEndpoint, which responds to the initial callback in its HTTP response
+    @Nullable
+    public HttpInteractionResponse getHttpResponse()
+    {
+        return httpResponse;
+    }
+
     // Used to allow interaction hook to send messages after acknowledgements
     // This is implemented only in DeferrableInteractionImpl where a hook is present!
     public synchronized void releaseHook(boolean success) {}
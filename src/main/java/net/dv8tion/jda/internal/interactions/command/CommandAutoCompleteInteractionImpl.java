@@ -31,13 +31,13 @@ import java.util.Collection;
 
 public class CommandAutoCompleteInteractionImpl extends InteractionImpl implements CommandInteractionPayloadMixin, CommandAutoCompleteInteraction
 {
-    private final CommandInteractionPayload payload;
+    private final CommandInteractionPayloadImpl payload;
     private AutoCompleteQuery focused;
 
     public CommandAutoCompleteInteractionImpl(JDAImpl jda, DataObject data)
     {
         super(jda, data);
-        this.payload = new CommandInteractionPayloadImpl(jda, data);
+        this.payload = new CommandInteractionPayloadImpl(this, data);
 
         DataArray options = data.getObject("data").getArray("options");
         findFocused(options);
@@ -60,9 +60,9 @@ public class CommandAutoCompleteInteractionImpl extends InteractionImpl implemen
             default:
                 if (option.getBoolean("focused"))
                 {
-                    OptionMapping opt = getOption(option.getString("name"));
-                    focused = new AutoCompleteQuery(opt);
-                    break;
+                    // Only build the focused option, the other options are built on demand
+                    focused = new AutoCompleteQuery(payload.createOption(option));
+                    return;
                 }
             }
         }
@@ -37,7 +37,7 @@ public class CommandInteractionImpl extends DeferrableInteractionImpl implements
     public CommandInteractionImpl(JDAImpl jda, DataObject data)
     {
         super(jda, data);
-        this.payload = new CommandInteractionPayloadImpl(jda, data);
+        this.payload = new CommandInteractionPayloadImpl(this, data);
     }
 
     @Override
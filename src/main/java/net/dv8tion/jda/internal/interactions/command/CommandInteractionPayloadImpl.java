@@ -16,10 +16,6 @@
 
 package net.dv8tion.jda.internal.interactions.command;
 
-import gnu.trove.map.TLongObjectMap;
-import gnu.trove.map.hash.TLongObjectHashMap;
-import net.dv8tion.jda.api.entities.ISnowflake;
-import net.dv8tion.jda.api.entities.Message;
 import net.dv8tion.jda.api.entities.channel.unions.MessageChannelUnion;
 import net.dv8tion.jda.api.interactions.commands.Command;
 import net.dv8tion.jda.api.interactions.commands.CommandInteractionPayload;
@@ -27,32 +23,28 @@ import net.dv8tion.jda.api.interactions.commands.OptionMapping;
 import net.dv8tion.jda.api.interactions.commands.OptionType;
 import net.dv8tion.jda.api.utils.data.DataArray;
 import net.dv8tion.jda.api.utils.data.DataObject;
-import net.dv8tion.jda.internal.JDAImpl;
-import net.dv8tion.jda.internal.entities.EntityBuilder;
 import net.dv8tion.jda.internal.entities.GuildImpl;
-import net.dv8tion.jda.internal.entities.MemberImpl;
-import net.dv8tion.jda.internal.entities.UserImpl;
 import net.dv8tion.jda.internal.interactions.InteractionImpl;
 
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Objects;
 
 public class CommandInteractionPayloadImpl extends InteractionImpl implements CommandInteractionPayload
 {
     private final long commandId;
-    private final List<OptionMapping> options = new ArrayList<>();
-    private final TLongObjectMap<Object> resolved = new TLongObjectHashMap<>();
+    private final DataArray optionsJson;
+    private final ResolvedEntityMap resolved;
+    private volatile List<OptionMapping> options;
     private final String name;
     private final boolean isGuildCommand;
     private String subcommand;
     private String group;
     private final Command.Type type;
 
-    public CommandInteractionPayloadImpl(JDAImpl jda, DataObject data)
+    public CommandInteractionPayloadImpl(InteractionImpl interaction, DataObject data)
     {
-        super(jda, data);
+        super(interaction);
         DataObject commandData = data.getObject("data");
         this.commandId = commandData.getUnsignedLong("id");
         this.name = commandData.getString("name");
@@ -78,67 +70,15 @@ public class CommandInteractionPayloadImpl extends InteractionImpl implements Co
             }
         }
 
-        parseResolved(jda, resolveJson);
-        parseOptions(options);
+        // Resolved entities and options are only built on access, most handlers only need a few string options
+        this.resolved = new ResolvedEntityMap(api, (GuildImpl) guild, resolveJson);
+        this.optionsJson = options;
     }
 
-    private void parseOptions(DataArray options)
+    @Nonnull
+    public OptionMapping createOption(@Nonnull DataObject json)
     {
-        options.stream(DataArray::getObject)
-                .map(json -> new OptionMapping(json, resolved, getJDA(), getGuild()))
-                .forEach(this.options::add);
-    }
-
-    private void parseResolved(JDAImpl jda, DataObject resolveJson)
-    {
-        EntityBuilder entityBuilder = jda.getEntityBuilder();
-
-        resolveJson.optObject("users").ifPresent(users ->
-            users.keys().forEach(userId -> {
-                DataObject userJson = users.getObject(userId);
-                UserImpl userArg = entityBuilder.createUser(userJson);
-                resolved.put(userArg.getIdLong(), userArg);
-            })
-        );
-
-        resolveJson.optObject("attachments").ifPresent(attachments ->
-            attachments.keys().forEach(id -> {
-                DataObject json = attachments.getObject(id);
-                Message.Attachment file = entityBuilder.createMessageAttachment(json);
-                resolved.put(file.getIdLong(), file);
-            })
-        );
-
-        if (this.guild != null)
-        {
-            GuildImpl guild = (GuildImpl) this.guild;
-            resolveJson.optObject("members").ifPresent(members ->
-            {
-                DataObject users = resolveJson.getObject("users");
-                members.keys().forEach(memberId ->
-                {
-                    DataObject memberJson = members.getObject(memberId);
-                    memberJson.put("user", users.getObject(memberId)); // Add user json as well for parsing
-                    MemberImpl optionMember = entityBuilder.createMember(guild, memberJson);
-                    entityBuilder.updateMemberCache(optionMember);
-                    resolved.put(optionMember.getIdLong(), optionMember); // This basically upgrades user to member
-                });
-            });
-            resolveJson.optObject("roles").ifPresent(roles ->
-                roles.keys()
-                    .stream()
-                    .map(this.guild::getRoleById)
-                    .filter(Objects::nonNull)
-                    .forEach(role -> resolved.put(role.getIdLong(), role))
-            );
-            resolveJson.optObject("channels").ifPresent(channels ->
-                channels.keys().forEach(id -> {
-                    ISnowflake channelObj = jda.getGuildChannelById(id);
-                    if (channelObj != null)
-                        resolved.put(channelObj.getIdLong(), channelObj);
-                })
-            );
-        }
+        return new OptionMapping(json, resolved, getJDA(), getGuild());
     }
 
     @Nonnull
@@ -191,6 +131,14 @@ public class CommandInteractionPayloadImpl extends InteractionImpl implements Co
     @Override
     public List<OptionMapping> getOptions()
     {
+        List<OptionMapping> options = this.options;
+        if (options == null)
+        {
+            options = new ArrayList<>(optionsJson.length());
+            for (int i = 0; i < optionsJson.length(); i++)
+                options.add(createOption(optionsJson.getObject(i)));
+            this.options = options;
+        }
         return options;
     }
 }
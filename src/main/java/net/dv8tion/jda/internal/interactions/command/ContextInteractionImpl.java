@@ -16,7 +16,6 @@
 
 package net.dv8tion.jda.internal.interactions.command;
 
-import net.dv8tion.jda.api.interactions.commands.CommandInteractionPayload;
 import net.dv8tion.jda.api.interactions.commands.context.ContextInteraction;
 import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.JDAImpl;
@@ -26,23 +25,15 @@ import javax.annotation.Nonnull;
 public abstract class ContextInteractionImpl<T> extends CommandInteractionImpl implements ContextInteraction<T>, CommandInteractionPayloadMixin
 {
     private final T target;
-    private final CommandInteractionPayloadImpl payload;
 
     public ContextInteractionImpl(JDAImpl jda, DataObject data)
     {
         super(jda, data);
-        this.payload = new CommandInteractionPayloadImpl(jda, data);
         this.target = parse(data, data.getObject("data").getObject("resolved"));
     }
 
     protected abstract T parse(DataObject interactionData, DataObject resolved);
 
-    @Override
-    public CommandInteractionPayload getCommandPayload()
-    {
-        return payload;
-    }
-
     @Nonnull
     @Override
     public T getTarget()
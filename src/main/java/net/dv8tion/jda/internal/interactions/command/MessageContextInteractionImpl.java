@@ -36,6 +36,10 @@ public class MessageContextInteractionImpl extends ContextInteractionImpl<Messag
         DataObject messages = resolved.getObject("messages");
         DataObject message = messages.getObject(messages.keys().iterator().next());
 
+        // Stateless sessions use the detached channel of the interaction, the message is always from the same channel
+        if (api.isStateless())
+            return api.getEntityBuilder().createMessageWithChannel(message, getMessageChannel(), false);
+
         Guild guild = null;
         if (!interaction.isNull("guild_id"))
         {
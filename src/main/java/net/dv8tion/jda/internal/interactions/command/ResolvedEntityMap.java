@@ -0,0 +1,290 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.interactions.command;
+
+import gnu.trove.function.TObjectFunction;
+import gnu.trove.iterator.TLongObjectIterator;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.procedure.TLongObjectProcedure;
+import gnu.trove.procedure.TLongProcedure;
+import gnu.trove.procedure.TObjectProcedure;
+import gnu.trove.set.TLongSet;
+import net.dv8tion.jda.api.entities.channel.ChannelType;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.entities.EntityBuilder;
+import net.dv8tion.jda.internal.entities.GuildImpl;
+import net.dv8tion.jda.internal.entities.MemberImpl;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * The resolved entities of a command interaction, which are only built once they are looked up by id.
+ *
+ * <p>Most commands only access a few of their options, so building every resolved user, role, channel, and attachment up front is wasted work.
+ * Members are the exception, they update the member cache and are therefore built right away on the thread handling the interaction.
+ *
+ * <p>{@link #get(long)} and {@link #containsKey(long)} only resolve the requested entity,
+ * which are the only methods used by {@link net.dv8tion.jda.api.interactions.commands.OptionMapping OptionMapping}
+ * and {@link net.dv8tion.jda.internal.entities.InteractionMentions InteractionMentions}.
+ * Every other method resolves all remaining entities first, so it is consistent with {@link #get(long)}.
+ */
+public class ResolvedEntityMap implements TLongObjectMap<Object>
+{
+    private final TLongObjectMap<Object> resolved = new TLongObjectHashMap<>(4);
+    private final JDAImpl api;
+    private final GuildImpl guild;
+    private final DataObject users, attachments, roles, channels;
+    private boolean complete;
+
+    public ResolvedEntityMap(JDAImpl api, GuildImpl guild, DataObject resolveJson)
+    {
+        this.api = api;
+        this.guild = guild;
+        this.users = resolveJson.optObject("users").orElse(null);
+        this.attachments = resolveJson.optObject("attachments").orElse(null);
+        this.roles = guild == null ? null : resolveJson.optObject("roles").orElse(null);
+        this.channels = guild == null ? null : resolveJson.optObject("channels").orElse(null);
+
+        DataObject members = guild == null ? null : resolveJson.optObject("members").orElse(null);
+        if (members != null && users != null)
+        {
+            EntityBuilder entityBuilder = api.getEntityBuilder();
+            for (String key : members.keys())
+            {
+                DataObject memberJson = members.getObject(key);
+                memberJson.put("user", users.getObject(key)); // Add user json as well for parsing
+                MemberImpl member = entityBuilder.createMember(guild, memberJson);
+                entityBuilder.updateMemberCache(member);
+                resolved.put(member.getIdLong(), member); // This basically upgrades user to member
+            }
+        }
+    }
+
+    @Override
+    public synchronized Object get(long id)
+    {
+        Object entity = resolved.get(id);
+        if (entity == null && !complete)
+        {
+            entity = resolve(id);
+            if (entity != null)
+                resolved.put(id, entity);
+        }
+        return entity;
+    }
+
+    @Override
+    public boolean containsKey(long id)
+    {
+        return get(id) != null;
+    }
+
+    @Override
+    public long getNoEntryKey()
+    {
+        return resolved.getNoEntryKey();
+    }
+
+    @Override
+    public synchronized int size()
+    {
+        return resolveAll().size();
+    }
+
+    @Override
+    public synchronized boolean isEmpty()
+    {
+        return resolveAll().isEmpty();
+    }
+
+    @Override
+    public synchronized boolean containsValue(Object value)
+    {
+        return resolveAll().containsValue(value);
+    }
+
+    @Override
+    public synchronized Object put(long id, Object value)
+    {
+        return resolveAll().put(id, value);
+    }
+
+    @Override
+    public synchronized Object putIfAbsent(long id, Object value)
+    {
+        return resolveAll().putIfAbsent(id, value);
+    }
+
+    @Override
+    public synchronized Object remove(long id)
+    {
+        return resolveAll().remove(id);
+    }
+
+    @Override
+    public synchronized void putAll(Map<? extends Long, ?> map)
+    {
+        resolveAll().putAll(map);
+    }
+
+    @Override
+    public synchronized void putAll(TLongObjectMap<?> map)
+    {
+        resolveAll().putAll(map);
+    }
+
+    @Override
+    public synchronized void clear()
+    {
+        resolveAll().clear();
+    }
+
+    @Override
+    public synchronized TLongSet keySet()
+    {
+        return resolveAll().keySet();
+    }
+
+    @Override
+    public synchronized long[] keys()
+    {
+        return resolveAll().keys();
+    }
+
+    @Override
+    public synchronized long[] keys(long[] array)
+    {
+        return resolveAll().keys(array);
+    }
+
+    @Override
+    public synchronized Collection<Object> valueCollection()
+    {
+        return resolveAll().valueCollection();
+    }
+
+    @Override
+    public synchronized Object[] values()
+    {
+        return resolveAll().values();
+    }
+
+    @Override
+    public synchronized Object[] values(Object[] array)
+    {
+        return resolveAll().values(array);
+    }
+
+    @Override
+    public synchronized TLongObjectIterator<Object> iterator()
+    {
+        return resolveAll().iterator();
+    }
+
+    @Override
+    public synchronized boolean forEachKey(TLongProcedure procedure)
+    {
+        return resolveAll().forEachKey(procedure);
+    }
+
+    @Override
+    public synchronized boolean forEachValue(TObjectProcedure<? super Object> procedure)
+    {
+        return resolveAll().forEachValue(procedure);
+    }
+
+    @Override
+    public synchronized boolean forEachEntry(TLongObjectProcedure<? super Object> procedure)
+    {
+        return resolveAll().forEachEntry(procedure);
+    }
+
+    @Override
+    public synchronized void transformValues(TObjectFunction<Object, Object> function)
+    {
+        resolveAll().transformValues(function);
+    }
+
+    @Override
+    public synchronized boolean retainEntries(TLongObjectProcedure<? super Object> procedure)
+    {
+        return resolveAll().retainEntries(procedure);
+    }
+
+    @Override
+    public synchronized boolean equals(Object obj)
+    {
+        return obj == this || resolveAll().equals(obj);
+    }
+
+    @Override
+    public synchronized int hashCode()
+    {
+        return resolveAll().hashCode();
+    }
+
+    @Override
+    public synchronized String toString()
+    {
+        return resolveAll().toString();
+    }
+
+    private TLongObjectMap<Object> resolveAll()
+    {
+        if (complete)
+            return resolved;
+        resolveAll(users);
+        resolveAll(attachments);
+        resolveAll(roles);
+        resolveAll(channels);
+        complete = true;
+        return resolved;
+    }
+
+    private void resolveAll(DataObject entities)
+    {
+        if (entities == null)
+            return;
+        for (String key : entities.keys())
+            get(Long.parseUnsignedLong(key));
+    }
+
+    private Object resolve(long id)
+    {
+        String key = Long.toUnsignedString(id);
+        EntityBuilder entityBuilder = api.getEntityBuilder();
+
+        if (users != null && users.hasKey(key))
+            return entityBuilder.createUser(users.getObject(key));
+        if (attachments != null && attachments.hasKey(key))
+            return entityBuilder.createMessageAttachment(attachments.getObject(key));
+        // Stateless sessions have no cache to look up roles and channels, they are built from the resolved data instead
+        if (roles != null && roles.hasKey(key))
+            return guild.isDetached() ? entityBuilder.createRole(guild, roles.getObject(key), guild.getIdLong()) : guild.getRoleById(id);
+        if (channels != null && channels.hasKey(key))
+        {
+            if (!guild.isDetached())
+                return api.getGuildChannelById(id);
+            DataObject channelJson = channels.getObject(key);
+            return entityBuilder.createDetachedGuildChannel(guild, id, ChannelType.fromId(channelJson.getInt("type")), channelJson.getString("name", ""));
+        }
+        return null;
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.requests;
+
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import org.slf4j.Logger;
+
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Orders the pending {@code REQUEST_GUILD_MEMBERS} payloads of one gateway connection,
+ * and decides when they have to give way to other gateway messages.
+ *
+ * <p>Requests made by the user, for instance through {@link net.dv8tion.jda.api.entities.Guild#loadMembers()}, are sent first.
+ * Then follow guilds which were joined at runtime, and finally the guilds of the initial guild setup.
+ * Within the same priority, larger guilds are requested first, since their chunks take the longest to arrive
+ * and can be received while the requests for the smaller guilds are still being sent.
+ *
+ * <p>Chunk requests share the gateway rate-limit with presence and voice state updates.
+ * While other messages are waiting, only {@value #CHUNK_BURST} chunk requests are sent in a row.
+ * Heartbeats are not affected, since they bypass the queues entirely.
+ */
+public class ChunkRequestScheduler
+{
+    private static final Logger LOG = WebSocketClient.LOG;
+
+    // The amount of chunk requests in a row, before other waiting messages get a turn
+    public static final int CHUNK_BURST = 3;
+    private static final long PROGRESS_LOG_INTERVAL = TimeUnit.SECONDS.toMillis(10);
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>();
+    // The guilds of the current setup which have not received their last chunk yet
+    private final TLongSet trackedGuilds = new TLongHashSet();
+    private long sequence;
+    private int burst;
+
+    private long sentRequests;
+    private long completedGuilds;
+    private long expectedMembers;
+    private long receivedMembers;
+    private long startTime;
+    private long lastProgressLog;
+
+    public synchronized void add(DataObject request)
+    {
+        queue.add(new Entry(request, Priority.ON_DEMAND, 0, sequence++));
+    }
+
+    public synchronized void add(long guildId, int memberCount, boolean join, DataObject request)
+    {
+        queue.add(new Entry(request, join ? Priority.JOIN : Priority.SETUP, memberCount, sequence++));
+        if (trackedGuilds.contains(guildId))
+            return;
+        if (trackedGuilds.isEmpty())
+            startTime = System.currentTimeMillis();
+        trackedGuilds.add(guildId);
+        expectedMembers += memberCount;
+    }
+
+    public synchronized DataObject peek()
+    {
+        Entry entry = queue.peek();
+        return entry == null ? null : entry.request;
+    }
+
+    // Called after the head of the queue was sent successfully
+    public synchronized void remove()
+    {
+        if (queue.poll() == null)
+            return;
+        sentRequests++;
+        burst++;
+    }
+
+    public synchronized boolean remove(DataObject request)
+    {
+        return removeIf(it -> it == request);
+    }
+
+    public synchronized boolean removeIf(Predicate<DataObject> filter)
+    {
+        boolean removed = false;
+        for (Iterator<Entry> it = queue.iterator(); it.hasNext();)
+        {
+            if (filter.test(it.next().request))
+            {
+                it.remove();
+                removed = true;
+            }
+        }
+        return removed;
+    }
+
+    public synchronized void clear()
+    {
+        queue.clear();
+        trackedGuilds.clear();
+        burst = 0;
+        expectedMembers = 0;
+        receivedMembers = 0;
+    }
+
+    /**
+     * Whether the next chunk request should wait, so other pending messages can be sent first.
+     *
+     * @param  othersPending
+     *         Whether any other messages are waiting to be sent
+     *
+     * @return True, if the chunk request should give way to the other messages
+     */
+    public synchronized boolean shouldYield(boolean othersPending)
+    {
+        if (othersPending && burst >= CHUNK_BURST)
+        {
+            burst = 0;
+            return true;
+        }
+        if (!othersPending)
+            burst = 0;
+        return false;
+    }
+
+    public synchronized void onChunk(long guildId, int members, boolean last)
+    {
+        if (!trackedGuilds.contains(guildId))
+            return;
+        receivedMembers += members;
+        if (last)
+        {
+            trackedGuilds.remove(guildId);
+            completedGuilds++;
+        }
+
+        long now = System.currentTimeMillis();
+        if (trackedGuilds.isEmpty())
+        {
+            LOG.debug("Finished chunking {} members in {} ms", receivedMembers, now - startTime);
+            expectedMembers = 0;
+            receivedMembers = 0;
+        }
+        else if (now - lastProgressLog >= PROGRESS_LOG_INTERVAL)
+        {
+            lastProgressLog = now;
+            LOG.debug("Chunking progress: {}/{} members, {} guilds remaining, {} requests queued, ETA {} seconds",
+                      receivedMembers, expectedMembers, trackedGuilds.size(), queue.size(), TimeUnit.MILLISECONDS.toSeconds(getEstimatedTimeRemaining()));
+        }
+    }
+
+    public synchronized int size()
+    {
+        return queue.size();
+    }
+
+    public synchronized long getSentRequests()
+    {
+        return sentRequests;
+    }
+
+    public synchronized long getCompletedGuilds()
+    {
+        return completedGuilds;
+    }
+
+    public synchronized int getChunkingGuilds()
+    {
+        return trackedGuilds.size();
+    }
+
+    public synchronized long getExpectedMembers()
+    {
+        return expectedMembers;
+    }
+
+    public synchronized long getReceivedMembers()
+    {
+        return receivedMembers;
+    }
+
+    // The fraction of expected members that have been received, 1 if nothing is being chunked
+    public synchronized double getProgress()
+    {
+        if (expectedMembers <= 0)
+            return 1;
+        return Math.min(1, (double) receivedMembers / expectedMembers);
+    }
+
+    // Estimated milliseconds until all tracked guilds are chunked, based on the member throughput so far, or -1 if unknown
+    public synchronized long getEstimatedTimeRemaining()
+    {
+        if (trackedGuilds.isEmpty())
+            return 0;
+        long elapsed = System.currentTimeMillis() - startTime;
+        if (receivedMembers <= 0 || elapsed <= 0)
+            return -1;
+        long remaining = Math.max(0, expectedMembers - receivedMembers);
+        return (long) (remaining * ((double) elapsed / receivedMembers));
+    }
+
+    private enum Priority
+    {
+        ON_DEMAND, JOIN, SETUP
+    }
+
+    private static class Entry implements Comparable<Entry>
+    {
+        private final DataObject request;
+        private final Priority priority;
+        private final int memberCount;
+        private final long sequence;
+
+        private Entry(DataObject request, Priority priority, int memberCount, long sequence)
+        {
+            this.request = request;
+            this.priority = priority;
+            this.memberCount = memberCount;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(Entry other)
+        {
+            if (priority != other.priority)
+                return priority.compareTo(other.priority);
+            if (memberCount != other.memberCount)
+                return Integer.compare(other.memberCount, memberCount);
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
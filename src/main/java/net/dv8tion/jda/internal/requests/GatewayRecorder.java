@@ -0,0 +1,140 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.internal.requests;
+
+import net.dv8tion.jda.api.GatewayEncoding;
+import net.dv8tion.jda.api.utils.Compression;
+import net.dv8tion.jda.internal.utils.IOUtil;
+import net.dv8tion.jda.internal.utils.JDALogger;
+import org.slf4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes the raw frames received by a {@link WebSocketClient} to a file, which can be replayed offline by a {@link GatewayReplayClient}.
+ *
+ * <p>The file starts with a header of the {@link #MAGIC magic number}, the {@link #VERSION version}, and the names of the
+ * {@link GatewayEncoding} and {@link Compression} of the connection. Every frame is stored as the nanoseconds since the recording started,
+ * the frame type, and the length prefixed frame bytes. The bytes are stored exactly as received, so compressed frames
+ * can only be decoded in order, starting from the last {@link #CONNECT} frame.
+ */
+public class GatewayRecorder implements AutoCloseable
+{
+    public static final Logger LOG = JDALogger.getLog(GatewayRecorder.class);
+
+    public static final int MAGIC = 0x4A444147; // JDAG
+    public static final int VERSION = 1;
+
+    public static final byte TEXT = 0;
+    public static final byte BINARY = 1;
+    public static final byte CONNECT = 2;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private final Path file;
+    private final DataOutputStream output;
+    private final long start;
+    private boolean closed;
+
+    private GatewayRecorder(Path file, DataOutputStream output)
+    {
+        this.file = file;
+        this.output = output;
+        this.start = System.nanoTime();
+    }
+
+    public static GatewayRecorder create(Path file, Compression compression, GatewayEncoding encoding)
+    {
+        if (file == null)
+            return null;
+
+        DataOutputStream output = null;
+        try
+        {
+            output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 0x10000));
+            output.writeInt(MAGIC);
+            output.writeByte(VERSION);
+            output.writeUTF(encoding.name());
+            output.writeUTF(compression.name());
+            LOG.info("Recording gateway frames to {}", file);
+            return new GatewayRecorder(file, output);
+        }
+        catch (IOException e)
+        {
+            if (output != null)
+                IOUtil.silentClose(output);
+            LOG.error("Failed to open gateway recording {}, frames are not recorded", file, e);
+            return null;
+        }
+    }
+
+    public void recordConnect()
+    {
+        record(CONNECT, EMPTY);
+    }
+
+    public void recordText(byte[] data)
+    {
+        record(TEXT, data);
+    }
+
+    public void recordBinary(byte[] data)
+    {
+        record(BINARY, data);
+    }
+
+    private synchronized void record(byte type, byte[] data)
+    {
+        if (closed)
+            return;
+        try
+        {
+            output.writeLong(System.nanoTime() - start);
+            output.writeByte(type);
+            output.writeInt(data.length);
+            output.write(data);
+        }
+        catch (IOException e)
+        {
+            // Recording is a diagnostic tool and should never interrupt the connection
+            LOG.error("Failed to write to gateway recording {}, stopping recording", file, e);
+            closed = true;
+            IOUtil.silentClose(output);
+        }
+    }
+
+    @Override
+    public synchronized void close()
+    {
+        if (closed)
+            return;
+        closed = true;
+        try
+        {
+            output.close();
+        }
+        catch (IOException e)
+        {
+            LOG.error("Failed to close gateway recording {}", file, e);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.internal.requests;
+
+import net.dv8tion.jda.api.GatewayEncoding;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.utils.Compression;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.utils.IOUtil;
+import net.dv8tion.jda.internal.utils.compress.ZlibDecompressor;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+
+/**
+ * Feeds the frames of a {@link GatewayRecorder gateway recording} through the normal decoding and dispatch pipeline, without a network connection.
+ *
+ * <p>Only dispatch events are handled, control opcodes such as {@code HELLO} or {@code RECONNECT} require a live connection and are skipped.
+ * Nothing is sent to the gateway, member chunk requests are never answered unless the responses are part of the recording.
+ * Once the end of the recording is reached, the JDA instance is shut down.
+ */
+public class GatewayReplayClient extends WebSocketClient
+{
+    protected final Path file;
+    protected final DataInputStream input;
+    protected final boolean recordedSpeed;
+
+    protected GatewayReplayClient(JDAImpl api, Path file, DataInputStream input, Compression compression, int gatewayIntents, GatewayEncoding encoding, boolean recordedSpeed)
+    {
+        super(api, compression, gatewayIntents, encoding, false);
+        this.file = file;
+        this.input = input;
+        this.recordedSpeed = recordedSpeed;
+        if (compression == Compression.ZLIB)
+            this.decompressor = new ZlibDecompressor(api.getMaxBufferSize());
+        this.initiating = true;
+    }
+
+    public static GatewayReplayClient start(JDAImpl api, Path file, int gatewayIntents, boolean recordedSpeed) throws IOException
+    {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 0x10000));
+        try
+        {
+            if (input.readInt() != GatewayRecorder.MAGIC)
+                throw new IOException("File " + file + " is not a gateway recording");
+            int version = input.readUnsignedByte();
+            if (version != GatewayRecorder.VERSION)
+                throw new IOException("Unsupported gateway recording version " + version);
+            GatewayEncoding encoding = GatewayEncoding.valueOf(input.readUTF());
+            Compression compression = Compression.valueOf(input.readUTF());
+
+            GatewayReplayClient client = new GatewayReplayClient(api, file, input, compression, gatewayIntents, encoding, recordedSpeed);
+            api.setStatus(JDA.Status.AWAITING_LOGIN_CONFIRMATION);
+            Thread thread = new Thread(client::replay, api.getIdentifierString() + " Gateway-Replay");
+            thread.start();
+            return client;
+        }
+        catch (IOException | RuntimeException e)
+        {
+            IOUtil.silentClose(input);
+            throw e;
+        }
+    }
+
+    @Override
+    protected void onEvent(DataObject content)
+    {
+        if (content.getInt("op") == WebSocketCode.DISPATCH)
+            super.onEvent(content);
+        else
+            LOG.trace("Skipping replayed op-code {}", content.getInt("op"));
+    }
+
+    protected void replay()
+    {
+        api.setContext();
+        LOG.info("Replaying gateway recording {}", file);
+        long start = System.nanoTime();
+        int frames = 0;
+        try (DataInputStream input = this.input)
+        {
+            while (!shutdown)
+            {
+                long timestamp;
+                try
+                {
+                    timestamp = input.readLong();
+                }
+                catch (EOFException e)
+                {
+                    break;
+                }
+                byte type = input.readByte();
+                byte[] data = new byte[input.readInt()];
+                input.readFully(data);
+
+                if (recordedSpeed)
+                {
+                    long delay = start + timestamp - System.nanoTime();
+                    if (delay > 0)
+                        TimeUnit.NANOSECONDS.sleep(delay);
+                }
+
+                switch (type)
+                {
+                    case GatewayRecorder.CONNECT:
+                        // Every connection starts a new compression context
+                        synchronized (readLock)
+                        {
+                            if (decompressor != null)
+                                decompressor.reset();
+                        }
+                        break;
+                    case GatewayRecorder.TEXT:
+                        onTextMessage(null, data);
+                        break;
+                    case GatewayRecorder.BINARY:
+                        onBinaryMessage(null, data);
+                        break;
+                    default:
+                        throw new IOException("Unknown frame type " + type + " in gateway recording");
+                }
+                frames++;
+            }
+            LOG.info("Replayed {} frames in {} ms", frames, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        catch (InterruptedException e)
+        {
+            LOG.debug("Replay of {} was interrupted after {} frames", file, frames);
+        }
+        catch (IOException | DataFormatException | RuntimeException e)
+        {
+            LOG.error("Failed to replay gateway recording {} after {} frames", file, frames, e);
+        }
+        api.shutdown();
+    }
+}
@@ -26,6 +26,7 @@ import net.dv8tion.jda.internal.entities.EntityBuilder;
 import net.dv8tion.jda.internal.entities.GuildImpl;
 import net.dv8tion.jda.internal.entities.MemberImpl;
 import net.dv8tion.jda.internal.utils.Helpers;
+import net.dv8tion.jda.internal.utils.concurrent.HashedWheelTimer;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -39,7 +40,6 @@ public class MemberChunkManager
     private final WebSocketClient client;
     private final ReentrantLock lock = new ReentrantLock();
     private final TLongObjectMap<ChunkRequest> requests = new TLongObjectHashMap<>();
-    private Future<?> timeoutHandle;
 
     public MemberChunkManager(WebSocketClient client)
     {
@@ -52,27 +52,28 @@ public class MemberChunkManager
     }
 
     public void clear()
-    {
-        MiscUtil.locked(lock, requests::clear);
-    }
-
-    private void init()
     {
         MiscUtil.locked(lock, () -> {
-            if (timeoutHandle == null)
-                timeoutHandle = client.getJDA().getGatewayPool().scheduleAtFixedRate(new TimeoutHandler(), 5, 5, TimeUnit.SECONDS);
+            cancelTimeouts();
+            requests.clear();
         });
     }
 
     public void shutdown()
     {
-        if (timeoutHandle != null)
-            timeoutHandle.cancel(false);
+        MiscUtil.locked(lock, this::cancelTimeouts);
+    }
+
+    private void cancelTimeouts()
+    {
+        requests.forEachValue(request -> {
+            request.cancelTimeout();
+            return true;
+        });
     }
 
     public ChunkRequest chunkGuild(GuildImpl guild, boolean presence, BiConsumer<Boolean, List<Member>> handler)
     {
-        init();
         DataObject request = DataObject.empty()
                 .put("guild_id", guild.getId())
                 .put("presences", presence)
@@ -86,7 +87,6 @@ public class MemberChunkManager
 
     public ChunkRequest chunkGuild(GuildImpl guild, String query, int limit, BiConsumer<Boolean, List<Member>> handler)
     {
-        init();
         DataObject request = DataObject.empty()
                 .put("guild_id", guild.getId())
                 .put("limit", Math.min(100, Math.max(1, limit)))
@@ -99,7 +99,6 @@ public class MemberChunkManager
 
     public ChunkRequest chunkGuild(GuildImpl guild, boolean presence, long[] userIds, BiConsumer<Boolean, List<Member>> handler)
     {
-        init();
         DataObject request = DataObject.empty()
                 .put("guild_id", guild.getId())
                 .put("presences", presence)
@@ -136,6 +135,7 @@ public class MemberChunkManager
     {
         MiscUtil.locked(lock, () -> {
             requests.remove(request.nonce);
+            request.cancelTimeout();
         });
     }
 
@@ -144,6 +144,7 @@ public class MemberChunkManager
         MiscUtil.locked(lock, () -> {
             requests.put(request.nonce, request);
             sendChunkRequest(request.getRequest());
+            request.scheduleTimeout();
         });
     }
 
@@ -160,6 +161,7 @@ public class MemberChunkManager
         private final long nonce;
         private long startTime;
         private long timeout = MAX_CHUNK_AGE;
+        private HashedWheelTimer.Timeout timeoutHandle;
 
         public ChunkRequest(BiConsumer<Boolean, List<Member>> handler, GuildImpl guild, DataObject request)
         {
@@ -171,7 +173,12 @@ public class MemberChunkManager
 
         public ChunkRequest setTimeout(long timeout)
         {
-            this.timeout = timeout;
+            MiscUtil.locked(lock, () -> {
+                this.timeout = timeout;
+                // The timeout is usually changed after the request was made, so the pending timeout has to be replaced
+                if (requests.get(nonce) == this)
+                    scheduleTimeout();
+            });
             return this;
         }
 
@@ -201,6 +208,38 @@ public class MemberChunkManager
             return request;
         }
 
+        private void scheduleTimeout()
+        {
+            cancelTimeout();
+            long remaining = Math.max(0, timeout - getAge());
+            timeoutHandle = HashedWheelTimer.getShared().schedule(this::onTimeout, remaining, TimeUnit.MILLISECONDS);
+        }
+
+        private void cancelTimeout()
+        {
+            if (timeoutHandle != null)
+                timeoutHandle.cancel();
+        }
+
+        private void onTimeout()
+        {
+            // Only remove the request if it is still the one we scheduled for, it might have been completed in the meantime
+            boolean removed = MiscUtil.locked(lock, () -> {
+                if (requests.get(nonce) != this)
+                    return false;
+                // The timeout might have been extended while this was already expiring
+                if (getAge() < timeout)
+                {
+                    scheduleTimeout();
+                    return false;
+                }
+                requests.remove(nonce);
+                return true;
+            });
+            if (removed)
+                client.getJDA().getGatewayPool().execute(() -> completeExceptionally(new TimeoutException()));
+        }
+
         private List<Member> toMembers(DataObject chunk)
         {
             EntityBuilder builder = guild.getJDA().getEntityBuilder();
@@ -244,21 +283,4 @@ public class MemberChunkManager
             return super.cancel(mayInterruptIfRunning);
         }
     }
-
-    private class TimeoutHandler implements Runnable
-    {
-        @Override
-        public void run()
-        {
-            MiscUtil.locked(lock, () ->
-            {
-                requests.forEachValue(request -> {
-                    if (request.isExpired())
-                        request.completeExceptionally(new TimeoutException());
-                    return true;
-                });
-                requests.valueCollection().removeIf(ChunkRequest::isDone);
-            });
-        }
-    }
 }
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.internal.requests;
+
+import net.dv8tion.jda.api.GatewayEncoding;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.hooks.RawDispatchInterceptor.RawDispatch;
+import net.dv8tion.jda.api.utils.data.DataObject;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads the {@code op}, {@code t}, and {@code s} fields of a raw gateway payload, without parsing the {@code d} field.
+ *
+ * <p>JSON payloads are scanned byte by byte, skipping over all other values.
+ * ETF payloads are already decoded lazily by {@link DataObject#fromETF(byte[])}, which only indexes the keys of the top-level map.
+ */
+public class RawDispatchReader
+{
+    private RawDispatchReader() {}
+
+    /**
+     * Reads the header of a dispatch payload.
+     *
+     * @return The {@link RawDispatch}, or null if the payload is not a dispatch or could not be read
+     */
+    public static RawDispatch read(JDA api, byte[] data, GatewayEncoding encoding)
+    {
+        if (encoding == GatewayEncoding.ETF)
+        {
+            DataObject payload = DataObject.fromETF(data);
+            if (payload.getInt("op", -1) != WebSocketCode.DISPATCH || payload.isNull("t"))
+                return null;
+            return new RawDispatch(api, payload.getString("t"), payload.getLong("s", -1), encoding, data);
+        }
+        return readJson(api, data);
+    }
+
+    private static RawDispatch readJson(JDA api, byte[] data)
+    {
+        int i = skipWhitespace(data, 0);
+        if (i >= data.length || data[i] != '{')
+            return null;
+        i++;
+
+        String type = null;
+        long sequence = -1;
+        int op = -1;
+        while (true)
+        {
+            i = skipWhitespace(data, i);
+            if (i >= data.length)
+                return null;
+            if (data[i] == '}')
+                break;
+            if (data[i] != '"')
+                return null;
+
+            int keyStart = i + 1;
+            i = skipString(data, i);
+            if (i < 0)
+                return null;
+            int keyLength = i - keyStart - 1;
+            i = skipWhitespace(data, i);
+            if (i >= data.length || data[i] != ':')
+                return null;
+            i = skipWhitespace(data, i + 1);
+            if (i >= data.length)
+                return null;
+
+            int valueEnd = skipValue(data, i);
+            if (valueEnd < 0)
+                return null;
+            if (keyLength == 1 && data[keyStart] == 't')
+            {
+                if (data[i] == '"')
+                {
+                    // Event names never contain escapes
+                    type = new String(data, i + 1, valueEnd - i - 2, StandardCharsets.US_ASCII);
+                    if (type.indexOf('\\') >= 0)
+                        return null;
+                }
+            }
+            else if (keyLength == 1 && data[keyStart] == 's')
+            {
+                sequence = readLong(data, i, valueEnd, -1);
+            }
+            else if (keyLength == 2 && data[keyStart] == 'o' && data[keyStart + 1] == 'p')
+            {
+                op = (int) readLong(data, i, valueEnd, -1);
+            }
+            i = skipWhitespace(data, valueEnd);
+            if (i >= data.length)
+                return null;
+            if (data[i] == ',')
+                i++;
+            else if (data[i] != '}')
+                return null;
+        }
+
+        if (op != WebSocketCode.DISPATCH || type == null)
+            return null;
+        return new RawDispatch(api, type, sequence, GatewayEncoding.JSON, data);
+    }
+
+    private static int skipWhitespace(byte[] data, int i)
+    {
+        while (i < data.length && (data[i] == ' ' || data[i] == '\n' || data[i] == '\r' || data[i] == '\t'))
+            i++;
+        return i;
+    }
+
+    // Returns the index after the closing quote of the string starting at i
+    private static int skipString(byte[] data, int i)
+    {
+        for (i++; i < data.length; i++)
+        {
+            if (data[i] == '\\')
+                i++;
+            else if (data[i] == '"')
+                return i + 1;
+        }
+        return -1;
+    }
+
+    // Returns the index after the value starting at i
+    private static int skipValue(byte[] data, int i)
+    {
+        byte first = data[i];
+        if (first == '"')
+            return skipString(data, i);
+        if (first != '{' && first != '[')
+        {
+            // Numbers and literals end at the next delimiter
+            while (i < data.length && data[i] != ',' && data[i] != '}' && data[i] != ']' && data[i] != ' ' && data[i] != '\n' && data[i] != '\r' && data[i] != '\t')
+                i++;
+            return i;
+        }
+
+        int depth = 0;
+        while (i < data.length)
+        {
+            byte b = data[i];
+            if (b == '"')
+            {
+                i = skipString(data, i);
+                if (i < 0)
+                    return -1;
+                continue;
+            }
+            if (b == '{' || b == '[')
+                depth++;
+            else if ((b == '}' || b == ']') && --depth == 0)
+                return i + 1;
+            i++;
+        }
+        return -1;
+    }
+
+    private static long readLong(byte[] data, int start, int end, long defaultValue)
+    {
+        if (start >= end || data[start] < '0' || data[start] > '9')
+            return defaultValue;
+        long value = 0;
+        for (int i = start; i < end; i++)
+        {
+            byte b = data[i];
+            if (b < '0' || b > '9')
+                return defaultValue;
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+}
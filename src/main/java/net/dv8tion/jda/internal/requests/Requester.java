@@ -20,12 +20,14 @@ import net.dv8tion.jda.api.JDA;
 import net.dv8tion.jda.api.requests.*;
 import net.dv8tion.jda.api.utils.data.DataObject;
 import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.requests.restaction.interactions.InteractionCallbackImpl;
 import net.dv8tion.jda.internal.utils.IOUtil;
 import net.dv8tion.jda.internal.utils.JDALogger;
 import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
 import okhttp3.Call;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import okhttp3.RequestBody;
 import okhttp3.internal.http.HttpMethod;
 import org.slf4j.Logger;
@@ -39,6 +41,7 @@ import java.io.InputStream;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Locale;
 import java.util.Map.Entry;
@@ -63,6 +66,7 @@ public class Requester
     private final String baseUrl;
     private final String userAgent;
     private final Consumer<? super okhttp3.Request.Builder> customBuilder;
+    private final RestInstrumentation instrumentation;
 
     private final OkHttpClient httpClient;
 
@@ -71,6 +75,7 @@ public class Requester
     private ConcurrentMap<String, String> contextMap = null;
 
     private volatile boolean retryOnTimeout = false;
+    private volatile boolean enabled = true;
 
     public Requester(JDA api, AuthorizationConfig authConfig, RestConfig config, RestRateLimiter rateLimiter)
     {
@@ -83,7 +88,24 @@ public class Requester
         this.baseUrl = config.getBaseUrl();
         this.userAgent = config.getUserAgent();
         this.customBuilder = config.getCustomBuilder();
-        this.httpClient = this.api.getHttpClient();
+        this.instrumentation = config.getInstrumentation();
+        this.httpClient = configureClient(this.api.getHttpClient(), config);
+    }
+
+    // Applies the transport settings of the RestConfig, the derived client shares the dispatcher with the original
+    private static OkHttpClient configureClient(OkHttpClient client, RestConfig config)
+    {
+        if (config.isHttp2() && config.getConnectionPool() == null && config.getTimings() == null)
+            return client;
+
+        OkHttpClient.Builder builder = client.newBuilder();
+        if (!config.isHttp2())
+            builder.protocols(Collections.singletonList(Protocol.HTTP_1_1));
+        if (config.getConnectionPool() != null)
+            builder.connectionPool(config.getConnectionPool());
+        if (config.getTimings() != null)
+            builder.eventListenerFactory(config.getTimings());
+        return builder.build();
     }
 
     public void setContextReady(boolean ready)
@@ -110,6 +132,16 @@ public class Requester
         if (rateLimiter.isStopped())
             throw new RejectedExecutionException("The Requester has been stopped! No new requests can be requested!");
 
+        if (!enabled)
+        {
+            apiRequest.onFailure(new IllegalStateException("REST requests are disabled for this session"));
+            return;
+        }
+
+        RestAction<T> action = apiRequest.getRestAction();
+        if (action instanceof InteractionCallbackImpl && ((InteractionCallbackImpl<T>) action).respondOverHttp(apiRequest))
+            return;
+
         if (apiRequest.shouldQueue())
             rateLimiter.enqueue(new WorkTask(apiRequest));
         else
@@ -183,12 +215,24 @@ public class Requester
             int code = 0;
             for (int attempt = 0; attempt < responses.length; attempt++)
             {
-                if (apiRequest.isSkipped())
+                if (apiRequest.isSkipped() || !apiRequest.startExecution())
                     return null;
 
                 Call call = httpClient.newCall(request);
-                lastResponse = call.execute();
+                long start = System.nanoTime();
+                try
+                {
+                    lastResponse = call.execute();
+                }
+                catch (IOException e)
+                {
+                    long now = System.nanoTime();
+                    instrumentation.onResponse(route, -1, attempt, now - start, now);
+                    throw e;
+                }
                 code = lastResponse.code();
+                long now = System.nanoTime();
+                instrumentation.onResponse(route, code, attempt, now - start, now);
                 responses[attempt] = lastResponse;
                 String cfRay = lastResponse.header("CF-RAY");
                 if (cfRay != null)
@@ -320,6 +364,12 @@ public class Requester
         return rateLimiter;
     }
 
+    // Disabled requesters fail every request instead of sending it, this is used by replays which should not affect the real session
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
     public void setRetryOnTimeout(boolean retryOnTimeout)
     {
         this.retryOnTimeout = retryOnTimeout;
@@ -350,6 +400,7 @@ public class Requester
     private class WorkTask implements RestRateLimiter.Work
     {
         private final Request<?> request;
+        private final long enqueueTime = System.nanoTime();
         private boolean done;
 
         private WorkTask(Request<?> request)
@@ -357,6 +408,12 @@ public class Requester
             this.request = request;
         }
 
+        @Override
+        public long getEnqueueTime()
+        {
+            return enqueueTime;
+        }
+
         @Nonnull
         @Override
         public Route.CompiledRoute getRoute()
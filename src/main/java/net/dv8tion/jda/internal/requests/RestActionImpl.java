@@ -236,6 +236,12 @@ public class RestActionImpl<T> implements RestAction<T>
         }
     }
 
+    // The route before finalization, which is enough to determine the rate-limit bucket
+    public Route.CompiledRoute getRoute()
+    {
+        return route;
+    }
+
     protected RequestBody finalizeData() { return data; }
     protected Route.CompiledRoute finalizeRoute() { return route; }
     protected CaseInsensitiveMap<String, String> finalizeHeaders() { return null; }
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.internal.requests;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.entities.EntityBuilder;
+import net.dv8tion.jda.internal.entities.EntitySerializer;
+import net.dv8tion.jda.internal.entities.GuildImpl;
+import net.dv8tion.jda.internal.handle.GuildSetupController;
+import net.dv8tion.jda.internal.utils.IOUtil;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The resumable state of a gateway session, together with a snapshot of the entity cache.
+ *
+ * <p>This is written when JDA shuts down with warm restarts enabled, and read by the next {@link WebSocketClient},
+ * which restores the cache and sends a RESUME instead of an IDENTIFY.
+ * The snapshot is stored as gzip compressed ETF, with guilds in the shape of their {@code GUILD_CREATE} payload.
+ *
+ * <p>Only guilds which are fully set up are part of the cache. Discord does not send the other guilds again after resuming,
+ * so no snapshot can be created while guilds are still being set up, chunked, or are unavailable.
+ */
+public class SessionSnapshot
+{
+    public static final int VERSION = 1;
+    /** Snapshots older than this are not restored, since discord has most likely expired the session already */
+    public static final long MAX_AGE = TimeUnit.MINUTES.toMillis(5);
+
+    private final DataObject data;
+
+    private SessionSnapshot(DataObject data)
+    {
+        this.data = data;
+    }
+
+    public static boolean canCreate(JDAImpl api)
+    {
+        GuildSetupController setupController = api.getGuildSetupController();
+        return setupController.getSetupNodes().isEmpty() && setupController.getUnavailableGuilds().isEmpty();
+    }
+
+    public static SessionSnapshot create(JDAImpl api, String sessionId, String resumeUrl, int intents)
+    {
+        JDA.ShardInfo shardInfo = api.getShardInfo();
+        DataArray guilds = DataArray.empty();
+        api.getGuildsView().forEach(guild -> guilds.add(EntitySerializer.serializeGuild((GuildImpl) guild)));
+
+        return new SessionSnapshot(DataObject.empty()
+                .put("v", VERSION)
+                .put("session_id", sessionId)
+                .put("resume_url", resumeUrl)
+                .put("seq", api.getResponseTotal())
+                .put("shard", DataArray.empty().add(shardInfo.getShardId()).add(shardInfo.getShardTotal()))
+                .put("intents", intents)
+                .put("created_at", System.currentTimeMillis())
+                .put("user", EntitySerializer.serializeSelfUser(api.getSelfUser()))
+                .put("guilds", guilds));
+    }
+
+    public static SessionSnapshot read(Path file) throws IOException
+    {
+        byte[] bytes;
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(file)))
+        {
+            bytes = IOUtil.readFully(input);
+        }
+
+        DataObject data = DataObject.fromETF(bytes);
+        if (data.getInt("v", 0) != VERSION)
+            throw new IOException("Unsupported session snapshot version " + data.getInt("v", 0));
+        return new SessionSnapshot(data);
+    }
+
+    public void write(Path file) throws IOException
+    {
+        // Write to a temporary file first, so a crash during shutdown never leaves a truncated snapshot behind
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream output = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temp))))
+        {
+            output.write(data.toETF());
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public String getSessionId()
+    {
+        return data.getString("session_id");
+    }
+
+    public String getResumeUrl()
+    {
+        return data.getString("resume_url", null);
+    }
+
+    public int getSequence()
+    {
+        return data.getInt("seq");
+    }
+
+    public long getTimeCreated()
+    {
+        return data.getLong("created_at");
+    }
+
+    public boolean isExpired()
+    {
+        return System.currentTimeMillis() - getTimeCreated() > MAX_AGE;
+    }
+
+    public int getGuildCount()
+    {
+        return data.getArray("guilds").length();
+    }
+
+    public boolean isCompatible(JDA.ShardInfo shardInfo, int intents)
+    {
+        DataArray shard = data.getArray("shard");
+        return data.getInt("intents") == intents
+            && shard.getInt(0) == shardInfo.getShardId()
+            && shard.getInt(1) == shardInfo.getShardTotal();
+    }
+
+    /**
+     * Loads the self user and guilds of this snapshot into the cache.
+     *
+     * @param api
+     *        The JDA instance to restore
+     */
+    public void restore(JDAImpl api)
+    {
+        EntityBuilder builder = api.getEntityBuilder();
+        builder.createSelfUser(data.getObject("user"));
+
+        DataArray guilds = data.getArray("guilds");
+        for (int i = 0; i < guilds.length(); i++)
+        {
+            DataObject guildJson = guilds.getObject(i);
+            DataArray memberArray = guildJson.getArray("members");
+            TLongObjectMap<DataObject> members = new TLongObjectHashMap<>(memberArray.length());
+            for (int j = 0; j < memberArray.length(); j++)
+            {
+                DataObject member = memberArray.getObject(j);
+                members.put(member.getObject("user").getUnsignedLong("id"), member);
+            }
+
+            Guild guild = builder.createGuild(guildJson.getUnsignedLong("id"), guildJson, members, guildJson.getInt("member_count"));
+            WebSocketClient.LOG.trace("Restored guild {} from session snapshot", guild);
+        }
+    }
+}
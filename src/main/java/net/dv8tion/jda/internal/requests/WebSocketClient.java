@@ -31,9 +31,12 @@ import net.dv8tion.jda.api.events.ExceptionEvent;
 import net.dv8tion.jda.api.events.RawGatewayEvent;
 import net.dv8tion.jda.api.events.session.*;
 import net.dv8tion.jda.api.exceptions.ParsingException;
+import net.dv8tion.jda.api.hooks.RawDispatchInterceptor;
+import net.dv8tion.jda.api.hooks.RawDispatchInterceptor.RawDispatch;
 import net.dv8tion.jda.api.managers.AudioManager;
 import net.dv8tion.jda.api.requests.CloseCode;
 import net.dv8tion.jda.api.utils.Compression;
+import net.dv8tion.jda.api.utils.JDAMetrics;
 import net.dv8tion.jda.api.utils.MiscUtil;
 import net.dv8tion.jda.api.utils.SessionController;
 import net.dv8tion.jda.api.utils.data.DataArray;
@@ -64,6 +67,8 @@ import java.net.Socket;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.OffsetDateTime;
 import java.util.*;
 import java.util.concurrent.*;
@@ -83,6 +88,8 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     public static final int ZLIB_SUFFIX = 0x0000FFFF;
 
     protected static final String INVALIDATE_REASON = "INVALIDATE_SESSION";
+    // Any close code other than 1000 and 1001 keeps the session resumable
+    protected static final int RESUMABLE_CLOSE_CODE = 4900;
     protected static final long IDENTIFY_BACKOFF = TimeUnit.SECONDS.toMillis(SessionController.IDENTIFY_DELAY); // same as 1000 * IDENTIFY_DELAY
 
     protected final JDAImpl api;
@@ -92,6 +99,8 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     protected final int gatewayIntents;
     protected final MemberChunkManager chunkManager;
     protected final GatewayEncoding encoding;
+    protected final GatewayRecorder recorder;
+    protected final JDAMetrics metrics;
 
     public WebSocket socket;
     protected volatile String sessionId = null;
@@ -115,13 +124,16 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     protected long identifyTime = 0;
 
     protected final TLongObjectMap<ConnectionRequest> queuedAudioConnections = MiscUtil.newLongMap();
-    protected final Queue<DataObject> chunkSyncQueue = new ConcurrentLinkedQueue<>();
+    protected final ChunkRequestScheduler chunkSyncQueue = new ChunkRequestScheduler();
     protected final Queue<DataObject> ratelimitQueue = new ConcurrentLinkedQueue<>();
+    // Enqueue timestamps of the messages in ratelimitQueue, only used with metrics
+    protected final Queue<Long> ratelimitQueueTimes = new ConcurrentLinkedQueue<>();
 
     protected volatile long ratelimitResetTime;
     protected final AtomicInteger messagesSent = new AtomicInteger(0);
 
     protected volatile boolean shutdown = false;
+    protected volatile boolean writeSnapshot = false;
     protected boolean shouldReconnect;
     protected boolean handleIdentifyRateLimit = false;
     protected boolean connected = false;
@@ -134,6 +146,11 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     protected volatile ConnectNode connectNode;
 
     public WebSocketClient(JDAImpl api, Compression compression, int gatewayIntents, GatewayEncoding encoding)
+    {
+        this(api, compression, gatewayIntents, encoding, true);
+    }
+
+    protected WebSocketClient(JDAImpl api, Compression compression, int gatewayIntents, GatewayEncoding encoding, boolean connect)
     {
         this.api = api;
         this.executor = api.getGatewayPool();
@@ -142,9 +159,20 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         this.gatewayIntents = gatewayIntents;
         this.chunkManager = new MemberChunkManager(this);
         this.encoding = encoding;
+        this.metrics = api.getMetrics();
         this.shouldReconnect = api.isAutoReconnect();
         this.connectNode = new StartingNode();
         setupHandlers();
+        this.recorder = connect ? GatewayRecorder.create(api.getGatewayRecordingFile(), compression, encoding) : null;
+        if (!connect)
+            return;
+        if (restoreSnapshot())
+        {
+            // Resuming does not count towards the identify rate limit, so the session does not wait in the session controller queue
+            executor.execute(this::resumeRestoredSession);
+            return;
+        }
+
         try
         {
             api.getSessionController().appendSession(connectNode);
@@ -187,6 +215,11 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         return chunkManager;
     }
 
+    public ChunkRequestScheduler getChunkRequestScheduler()
+    {
+        return chunkSyncQueue;
+    }
+
     public void ready()
     {
         if (initiating)
@@ -243,7 +276,16 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
 
     public void send(DataObject message)
     {
-        locked("Interrupted while trying to add request to queue", () -> ratelimitQueue.add(message));
+        locked("Interrupted while trying to add request to queue", () -> {
+            ratelimitQueue.add(message);
+            if (metrics != null)
+                ratelimitQueueTimes.add(System.nanoTime());
+        });
+    }
+
+    public int getSendQueueSize()
+    {
+        return ratelimitQueue.size() + chunkSyncQueue.size();
     }
 
     public void cancelChunkRequest(String nonce)
@@ -257,6 +299,11 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         locked("Interrupted while trying to add chunk request", () -> chunkSyncQueue.add(request));
     }
 
+    public void sendChunkRequest(long guildId, int memberCount, boolean join, DataObject request)
+    {
+        locked("Interrupted while trying to add chunk request", () -> chunkSyncQueue.add(guildId, memberCount, join, request));
+    }
+
     protected boolean send(DataObject message, boolean skipQueue)
     {
         if (!connected)
@@ -277,8 +324,8 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
             LOG.trace("<- {}", message);
             if (encoding == GatewayEncoding.ETF)
                 socket.sendBinary(message.toETF());
-            else
-                socket.sendText(message.toString());
+            else // Send the utf-8 bytes directly, instead of building a String that has to be encoded again
+                socket.sendFrame(new WebSocketFrame().setFin(true).setOpcode(WebSocketOpcode.TEXT).setPayload(message.toJson()));
             this.messagesSent.getAndIncrement();
             return true;
         }
@@ -345,7 +392,16 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
             if (connectNode != null)
                 api.getSessionController().removeSession(connectNode);
             boolean wasConnected = connected;
-            close(1000, "Shutting down");
+            if (api.getSessionSnapshotFile() != null && sessionId != null)
+            {
+                // The snapshot is written once the connection is closed, so it includes every event that was handled
+                writeSnapshot = true;
+                close(RESUMABLE_CLOSE_CODE, "Shutting down for restart");
+            }
+            else
+            {
+                close(1000, "Shutting down");
+            }
             reconnectCondvar.signalAll(); // signal reconnect attempts to stop
             return !wasConnected;
         });
@@ -361,9 +417,110 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
 
     protected void onShutdown(int rawCloseCode)
     {
+        if (writeSnapshot)
+            writeSnapshot();
+        if (recorder != null)
+            recorder.close();
         api.shutdownInternals(new ShutdownEvent(api, OffsetDateTime.now(), rawCloseCode));
     }
 
+    protected void writeSnapshot()
+    {
+        writeSnapshot = false;
+        String sessionId = this.sessionId;
+        if (sessionId == null)
+            return;
+
+        Path file = api.getSessionSnapshotFile();
+        if (!SessionSnapshot.canCreate(api))
+        {
+            LOG.info("Not writing session snapshot to {}, some guilds are still being set up or are unavailable", file);
+            return;
+        }
+
+        try
+        {
+            long start = System.currentTimeMillis();
+            SessionSnapshot.create(api, sessionId, resumeUrl, gatewayIntents).write(file);
+            LOG.info("Wrote session snapshot to {} in {} ms", file, System.currentTimeMillis() - start);
+        }
+        catch (IOException | RuntimeException e)
+        {
+            LOG.error("Failed to write session snapshot to {}", file, e);
+        }
+    }
+
+    protected boolean restoreSnapshot()
+    {
+        Path file = api.getSessionSnapshotFile();
+        if (file == null || !Files.exists(file))
+            return false;
+
+        try
+        {
+            long start = System.currentTimeMillis();
+            SessionSnapshot snapshot = SessionSnapshot.read(file);
+            if (!snapshot.isCompatible(shardInfo, gatewayIntents))
+            {
+                LOG.info("Ignoring session snapshot {} which was written for a different shard or different intents", file);
+                return false;
+            }
+            if (snapshot.isExpired())
+            {
+                LOG.info("Ignoring session snapshot {} which was written {} seconds ago, the session has most likely expired",
+                    file, TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() - snapshot.getTimeCreated()));
+                return false;
+            }
+
+            snapshot.restore(api);
+            sessionId = snapshot.getSessionId();
+            resumeUrl = snapshot.getResumeUrl();
+            api.setResponseTotal(snapshot.getSequence());
+            // There is no READY to process, the RESUMED event completes the startup
+            processingReady = false;
+            LOG.info("Restored {} guilds from session snapshot in {} ms", snapshot.getGuildCount(), System.currentTimeMillis() - start);
+            return true;
+        }
+        catch (IOException | RuntimeException e)
+        {
+            LOG.error("Failed to restore session snapshot from {}, falling back to identify", file, e);
+            clearCache();
+            return false;
+        }
+        finally
+        {
+            // A session can only be resumed once, the next shutdown writes a new snapshot
+            try
+            {
+                Files.deleteIfExists(file);
+            }
+            catch (IOException e)
+            {
+                LOG.warn("Failed to delete session snapshot {}", file, e);
+            }
+        }
+    }
+
+    protected void resumeRestoredSession()
+    {
+        api.setContext();
+        if (shutdown)
+            return;
+        setupSendingThread();
+        try
+        {
+            connect();
+        }
+        catch (RuntimeException e)
+        {
+            if (shutdown)
+                return;
+            LOG.warn("Failed to connect with restored session, falling back to identify", e);
+            invalidate();
+            queueReconnect();
+        }
+    }
+
     protected synchronized void connect()
     {
         if (api.getStatus() != JDA.Status.ATTEMPTING_TO_RECONNECT)
@@ -438,6 +595,8 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
             LOG.debug("Connected to WebSocket");
         }
         connected = true;
+        if (recorder != null)
+            recorder.recordConnect();
         //reconnectTimeoutS = 2; We will reset this when the session was started successfully (ready/resume)
         messagesSent.set(0);
         ratelimitResetTime = System.currentTimeMillis() + 60000;
@@ -801,6 +960,12 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
 
         locked("Interrupted while trying to invalidate chunk/sync queue", chunkSyncQueue::clear);
 
+        clearCache();
+        api.handleEvent(new SessionInvalidateEvent(api));
+    }
+
+    protected void clearCache()
+    {
         api.getTextChannelsView().clear();
         api.getVoiceChannelsView().clear();
         api.getCategoriesView().clear();
@@ -816,8 +981,6 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         api.getEventCache().clear();
         api.getGuildSetupController().clearCache();
         chunkManager.clear();
-
-        api.handleEvent(new SessionInvalidateEvent(api));
     }
 
     protected void updateAudioManagerReferences()
@@ -942,6 +1105,7 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
     {
         String type = raw.getString("t");
         long responseTotal = api.getResponseTotal();
+        long start = metrics == null ? 0 : System.nanoTime();
 
         if (!raw.isType("d", DataType.OBJECT))
         {
@@ -954,7 +1118,9 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
                 LOG.trace("{} -> {}", type, payload);
                 for (DataObject o : converted)
                 {
-                    handler.handle(responseTotal, o);
+                    // Stateless sessions have no presence handler
+                    if (handler != null)
+                        handler.handle(responseTotal, o);
                     // Send raw event after cache has been updated - including comment
                     if (api.isRawEvents())
                         api.handleEvent(new RawGatewayEvent(api, responseTotal, o));
@@ -993,7 +1159,9 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
                     sentAuthInfo = true;
                     if (!processingReady)
                     {
-                        initiating = false;
+                        // A session restored from a snapshot still has to fire the ReadyEvent
+                        if (!firstInit)
+                            initiating = false;
                         ready();
                     }
                     else
@@ -1012,7 +1180,7 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
                     SocketHandler handler = handlers.get(type);
                     if (handler != null)
                         handler.handle(responseTotal, raw);
-                    else
+                    else if (!api.isStateless())
                         LOG.debug("Unrecognized event:\n{}", raw);
             }
             // Send raw event after cache has been updated
@@ -1032,12 +1200,68 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
 
         if (responseTotal % EventCache.TIMEOUT_AMOUNT == 0)
             jda.getEventCache().timeout(responseTotal);
+        if (metrics != null)
+            metrics.recordDispatch(type, System.nanoTime() - start);
+    }
+
+    protected boolean interceptRaw(byte[] data)
+    {
+        RawDispatchInterceptor interceptor = api.getRawDispatchInterceptor();
+        // Stateless sessions drop dispatches without a handler before parsing them, unless they are needed for raw events
+        boolean dropUnhandled = api.isStateless() && !api.isRawEvents();
+        if (interceptor == null && !dropUnhandled)
+            return false;
+
+        RawDispatch dispatch;
+        try
+        {
+            dispatch = RawDispatchReader.read(api, data, encoding);
+        }
+        catch (Exception e)
+        {
+            LOG.debug("Failed to read raw dispatch header, falling back to full parsing", e);
+            return false;
+        }
+        // READY and RESUMED are needed to maintain the session
+        if (dispatch == null || dispatch.getType().equals("READY") || dispatch.getType().equals("RESUMED"))
+            return false;
+
+        boolean consumed = false;
+        try
+        {
+            if (interceptor != null)
+                consumed = interceptor.onRawDispatch(dispatch);
+        }
+        catch (Throwable t)
+        {
+            LOG.error("RawDispatchInterceptor had an uncaught exception for {}", dispatch.getType(), t);
+            if (t instanceof Error)
+                throw (Error) t;
+        }
+        if (!consumed && dropUnhandled)
+            consumed = !handlers.containsKey(dispatch.getType());
+
+        if (consumed && dispatch.getSequence() >= 0)
+            api.setResponseTotal((int) dispatch.getSequence());
+        return consumed;
     }
 
     @Override
     public void onTextMessage(WebSocket websocket, byte[] data)
     {
-        handleEvent(DataObject.fromJson(data));
+        if (recorder != null)
+            recorder.recordText(data);
+        if (interceptRaw(data))
+            return;
+        if (metrics == null)
+        {
+            handleEvent(DataObject.fromJson(data));
+            return;
+        }
+        long start = System.nanoTime();
+        DataObject message = DataObject.fromJson(data);
+        metrics.recordDecode(System.nanoTime() - start);
+        handleEvent(message);
     }
 
     @Override
@@ -1047,7 +1271,12 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         // Only acquire lock for decompression and unlock for event handling
         synchronized (readLock)
         {
+            if (recorder != null)
+                recorder.recordBinary(binary);
+            long start = metrics == null ? 0 : System.nanoTime();
             message = handleBinary(binary);
+            if (metrics != null && message != null)
+                metrics.recordDecode(System.nanoTime() - start);
         }
         if (message != null)
             handleEvent(message);
@@ -1058,7 +1287,7 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         if (decompressor == null)
         {
             if (encoding == GatewayEncoding.ETF)
-                return DataObject.fromETF(binary);
+                return interceptRaw(binary) ? null : DataObject.fromETF(binary);
             throw new IllegalStateException("Cannot decompress binary message due to unknown compression algorithm: " + compression);
         }
         // Scoping allows us to print the json that possibly failed parsing
@@ -1066,6 +1295,9 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
         try
         {
             data = decompressor.decompress(binary);
+            // Incomplete frames are buffered by the decompressor and return null
+            if (metrics != null)
+                metrics.recordDecompression(binary.length, data == null ? 0 : data.length);
             if (data == null)
                 return null;
         }
@@ -1075,6 +1307,9 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
             throw e;
         }
 
+        if (interceptRaw(data))
+            return null;
+
         try
         {
             if (encoding == GatewayEncoding.ETF)
@@ -1360,6 +1595,15 @@ public class WebSocketClient extends WebSocketAdapter implements WebSocketListen
 
     protected void setupHandlers()
     {
+        // Stateless sessions only handle the events which can be built without a cache, everything else is dropped
+        if (api.isStateless())
+        {
+            handlers.put("INTERACTION_CREATE", new InteractionCreateHandler(api));
+            handlers.put("MESSAGE_CREATE",     new MessageCreateHandler(api));
+            handlers.put("READY",              new ReadyHandler(api));
+            return;
+        }
+
         final SocketHandler.NOPHandler nopHandler =            new SocketHandler.NOPHandler(api);
         handlers.put("APPLICATION_COMMAND_PERMISSIONS_UPDATE", new ApplicationCommandPermissionsUpdateHandler(api));
         handlers.put("AUTO_MODERATION_RULE_CREATE",            new AutoModRuleHandler(api, "CREATE"));
@@ -42,8 +42,9 @@ class WebSocketSendingThread implements Runnable
     private final WebSocketClient client;
     private final JDAImpl api;
     private final ReentrantLock queueLock;
-    private final Queue<DataObject> chunkQueue;
+    private final ChunkRequestScheduler chunkQueue;
     private final Queue<DataObject> ratelimitQueue;
+    private final Queue<Long> ratelimitQueueTimes;
     private final TLongObjectMap<ConnectionRequest> queuedAudioConnections;
     private final ScheduledExecutorService executor;
     private Future<?> handle;
@@ -59,6 +60,7 @@ class WebSocketSendingThread implements Runnable
         this.queueLock = client.queueLock;
         this.chunkQueue = client.chunkSyncQueue;
         this.ratelimitQueue = client.ratelimitQueue;
+        this.ratelimitQueueTimes = client.ratelimitQueueTimes;
         this.queuedAudioConnections = client.queuedAudioConnections;
         this.executor = client.executor;
     }
@@ -127,7 +129,10 @@ class WebSocketSendingThread implements Runnable
                 return;
             }
 
+            // Chunk requests take turns with other messages, so they can't use up the entire rate-limit
             chunkRequest = chunkQueue.peek();
+            if (chunkRequest != null && chunkQueue.shouldYield(audioRequest != null || !ratelimitQueue.isEmpty()))
+                chunkRequest = null;
             if (chunkRequest != null)
                 handleChunkSync(chunkRequest);
             else if (audioRequest != null)
@@ -247,7 +252,12 @@ class WebSocketSendingThread implements Runnable
         {
             LOG.debug("Sending normal message {}", message);
             if (send(message))
+            {
                 ratelimitQueue.remove();
+                Long enqueueTime = ratelimitQueueTimes.poll();
+                if (enqueueTime != null)
+                    api.getMetrics().recordSendQueueTime(System.nanoTime() - enqueueTime);
+            }
         }
     }
 
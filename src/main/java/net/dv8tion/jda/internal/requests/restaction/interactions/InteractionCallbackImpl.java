@@ -21,6 +21,7 @@ import net.dv8tion.jda.api.requests.Response;
 import net.dv8tion.jda.api.requests.RestAction;
 import net.dv8tion.jda.api.requests.Route;
 import net.dv8tion.jda.api.requests.restaction.interactions.InteractionCallbackAction;
+import net.dv8tion.jda.internal.interactions.HttpInteractionResponse;
 import net.dv8tion.jda.internal.interactions.InteractionImpl;
 import net.dv8tion.jda.internal.requests.RestActionImpl;
 
@@ -45,6 +46,13 @@ public abstract class InteractionCallbackImpl<T> extends RestActionImpl<T> imple
         return this;
     }
 
+    // Interactions received by an InteractionEndpoint respond with the body of the initial callback instead of making a REST request
+    public boolean respondOverHttp(Request<T> request)
+    {
+        HttpInteractionResponse httpResponse = interaction.getHttpResponse();
+        return httpResponse != null && httpResponse.complete(request);
+    }
+
     //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     // Here we intercept calls to queue/submit/complete to prevent double ack/reply scenarios with a better error message than discord provides //
     //////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
@@ -18,24 +18,61 @@ package net.dv8tion.jda.internal.utils;
 
 import okhttp3.MediaType;
 import okhttp3.RequestBody;
-import okio.BufferedSink;
-import okio.BufferedSource;
-import okio.Okio;
-import okio.Source;
+import okio.*;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
 
-public class BufferedRequestBody extends RequestBody
+/**
+ * Replayable request body, which allows retrying requests with the same data.
+ *
+ * <p>Bodies backed by a {@link Path} are streamed from the file on every write and never held in memory.
+ * Bodies backed by a {@link Source} are buffered in memory on the first write,
+ * unless they exceed {@link #MEMORY_THRESHOLD}, in which case they are spilled to a temporary file instead.
+ *
+ * <p>{@link #close() Closing} the body deletes the temporary file, which happens once the request using it is done.
+ */
+public class BufferedRequestBody extends RequestBody implements Closeable
 {
-    private final Source source;
+    /**
+     * Maximum amount of bytes buffered in memory for non-seekable sources.
+     * <br>Can be configured with the {@code jda.upload.memory-threshold} system property.
+     */
+    public static final long MEMORY_THRESHOLD = Long.getLong("jda.upload.memory-threshold", 8L * 1024 * 1024);
+
+    private final Content content;
     private final MediaType type;
-    private byte[] data;
 
     public BufferedRequestBody(Source source, MediaType type)
     {
-        this.source = source;
+        this(source, type, MEMORY_THRESHOLD);
+    }
+
+    public BufferedRequestBody(Source source, MediaType type, long memoryThreshold)
+    {
+        this(new Content(source, null, memoryThreshold, new OpenOption[0]), type);
+    }
+
+    public BufferedRequestBody(Path file, MediaType type, OpenOption... options)
+    {
+        this(new Content(null, file, MEMORY_THRESHOLD, options), type);
+    }
+
+    private BufferedRequestBody(Content content, MediaType type)
+    {
+        this.content = content;
         this.type = type;
     }
 
@@ -44,12 +81,8 @@ public class BufferedRequestBody extends RequestBody
     {
         if (type.equals(this.type))
             return this;
-        synchronized (source)
-        {
-            BufferedRequestBody copy = new BufferedRequestBody(source, type);
-            copy.data = data;
-            return copy;
-        }
+        // The content is shared, so the data is only read once for all copies
+        return new BufferedRequestBody(content, type);
     }
 
     @Nullable
@@ -59,29 +92,199 @@ public class BufferedRequestBody extends RequestBody
         return type;
     }
 
+    @Override
+    public long contentLength() throws IOException
+    {
+        return content.length();
+    }
+
     @Override
     public void writeTo(@Nonnull BufferedSink sink) throws IOException
     {
-        synchronized (source)
+        content.writeTo(sink);
+    }
+
+    /**
+     * The temporary file this body was spilled to.
+     *
+     * @return The temporary file, or null if the body is not spilled to disk or was already closed
+     */
+    @Nullable
+    public Path getTemporaryFile()
+    {
+        return content.getTemporaryFile();
+    }
+
+    /**
+     * Closes the source if it was never read, and deletes the temporary file.
+     * <br>Bodies held in memory or streamed from a file of the user can still be written afterwards, spilled bodies cannot.
+     * Copies created by {@link #withType(MediaType)} share the same content and are closed as well.
+     */
+    @Override
+    public void close()
+    {
+        content.close();
+    }
+
+    private static final class Content
+    {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final long memoryThreshold;
+        private final Set<OpenOption> options;
+        private Source source;
+        private byte[] data;
+        private Path file;
+        private boolean temporary;
+        private boolean closed;
+
+        private Content(Source source, Path file, long memoryThreshold, OpenOption[] options)
+        {
+            this.source = source;
+            this.file = file;
+            this.memoryThreshold = memoryThreshold;
+            this.options = new HashSet<>(Arrays.asList(options));
+            this.options.add(StandardOpenOption.READ);
+            // The file is opened again for every retry, so it can only be deleted once the body is closed
+            this.temporary = this.options.remove(StandardOpenOption.DELETE_ON_CLOSE);
+        }
+
+        private Path getTemporaryFile()
+        {
+            lock.lock();
+            try
+            {
+                return temporary && !closed ? file : null;
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        private long length() throws IOException
+        {
+            lock.lock();
+            try
+            {
+                if (data != null)
+                    return data.length;
+                if (file != null)
+                    return Files.size(file);
+                return -1; // Unknown until the source has been consumed
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        private void writeTo(BufferedSink sink) throws IOException
         {
+            // Not synchronized, since this can block on I/O and would pin a virtual thread to its carrier
+            byte[] data;
+            Path file;
+            lock.lock();
+            try
+            {
+                if (this.data == null && this.file == null)
+                    consume();
+                else if (this.data == null && closed && temporary)
+                    throw new IOException("Failed to read request body, the body has already been closed");
+                data = this.data;
+                file = this.file;
+            }
+            finally
+            {
+                lock.unlock();
+            }
+
+            // The content never changes once it has been consumed, so it can be written without holding the lock
             if (data != null)
             {
                 sink.write(data);
                 return;
             }
 
+            try (FileChannel channel = FileChannel.open(file, options))
+            {
+                IOUtil.transferTo(channel, sink);
+            }
+        }
+
+        private void consume() throws IOException
+        {
+            if (source == null)
+                throw new IOException("Failed to read request body, the source has already been consumed");
             try (BufferedSource s = Okio.buffer(source))
             {
-                data = s.readByteArray();
-                sink.write(data);
+                Buffer buffer = new Buffer();
+                boolean exhausted = false;
+                while (!exhausted && buffer.size() <= memoryThreshold)
+                    exhausted = s.read(buffer, 8192) == -1;
+
+                if (exhausted)
+                {
+                    data = buffer.readByteArray();
+                    return;
+                }
+
+                // Too large to keep in memory, spill everything to disk instead
+                Path tmp = Files.createTempFile("jda-upload-", ".tmp");
+                try (OutputStream out = Files.newOutputStream(tmp); BufferedSink fileSink = Okio.buffer(Okio.sink(out)))
+                {
+                    fileSink.writeAll(buffer);
+                    fileSink.writeAll(s);
+                }
+                catch (IOException | RuntimeException e)
+                {
+                    Files.deleteIfExists(tmp);
+                    throw e;
+                }
+
+                file = tmp;
+                temporary = true;
+            }
+            finally
+            {
+                source = null;
             }
         }
-    }
 
-    @Override
-    @SuppressWarnings("deprecation")
-    protected void finalize()
-    {
-        IOUtil.silentClose(source);
+        private void close()
+        {
+            lock.lock();
+            try
+            {
+                if (closed)
+                    return;
+                closed = true;
+                if (source != null)
+                    IOUtil.silentClose(source);
+                source = null;
+                if (temporary)
+                {
+                    try
+                    {
+                        Files.deleteIfExists(file);
+                    }
+                    catch (IOException e)
+                    {
+                        JDALogger.getLog(BufferedRequestBody.class).warn("Failed to delete temporary upload file {}", file, e);
+                    }
+                }
+            }
+            finally
+            {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        @SuppressWarnings("deprecation")
+        protected void finalize()
+        {
+            // Only a fallback, the request closes the body once it is done
+            close();
+        }
     }
 }
@@ -40,6 +40,8 @@ import java.util.stream.Collectors;
 public final class Helpers
 {
     private static final ZoneOffset OFFSET = ZoneOffset.of("+00:00");
+    private static final long DAYS_0000_TO_1970 = 719528L;
+    private static final long INVALID_TIMESTAMP = Long.MIN_VALUE;
     @SuppressWarnings("rawtypes")
     private static final Consumer EMPTY_CONSUMER = (v) -> {};
 
@@ -65,10 +67,100 @@ public final class Helpers
 
     public static long toTimestamp(String iso8601String)
     {
+        long timestamp = parseTimestamp(iso8601String);
+        if (timestamp != INVALID_TIMESTAMP)
+            return timestamp;
+        // Anything unexpected, including invalid input, is handled by the JDK parser
         TemporalAccessor joinedAt = DateTimeFormatter.ISO_OFFSET_DATE_TIME.parse(iso8601String);
         return Instant.from(joinedAt).toEpochMilli();
     }
 
+    // Parses the fixed format used by discord, yyyy-MM-ddTHH:mm:ss[.SSSSSS](Z|+HH:mm|-HH:mm), without allocating
+    private static long parseTimestamp(String input)
+    {
+        int length = input.length();
+        if (length < 20 || input.charAt(4) != '-' || input.charAt(7) != '-' || input.charAt(10) != 'T'
+                || input.charAt(13) != ':' || input.charAt(16) != ':')
+            return INVALID_TIMESTAMP;
+
+        int year = parseDigits(input, 0, 4);
+        int month = parseDigits(input, 5, 2);
+        int day = parseDigits(input, 8, 2);
+        int hour = parseDigits(input, 11, 2);
+        int minute = parseDigits(input, 14, 2);
+        int second = parseDigits(input, 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59)
+            return INVALID_TIMESTAMP;
+        boolean leapYear = (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+        if (day > 28 && day > (month == 2 ? (leapYear ? 29 : 28) : (month == 4 || month == 6 || month == 9 || month == 11) ? 30 : 31))
+            return INVALID_TIMESTAMP;
+
+        int index = 19;
+        int millis = 0;
+        if (input.charAt(index) == '.')
+        {
+            int start = ++index;
+            while (index < length && index - start < 9)
+            {
+                int digit = input.charAt(index) - '0';
+                if (digit < 0 || digit > 9)
+                    break;
+                if (index - start < 3)
+                    millis = millis * 10 + digit;
+                index++;
+            }
+            int digits = index - start;
+            if (digits == 0)
+                return INVALID_TIMESTAMP;
+            for (int i = digits; i < 3; i++)
+                millis *= 10;
+        }
+
+        int offsetSeconds;
+        if (index == length - 1 && input.charAt(index) == 'Z')
+        {
+            offsetSeconds = 0;
+        }
+        else if (index == length - 6 && input.charAt(index + 3) == ':')
+        {
+            char sign = input.charAt(index);
+            int offsetHours = parseDigits(input, index + 1, 2);
+            int offsetMinutes = parseDigits(input, index + 4, 2);
+            if (sign != '+' && sign != '-' || offsetHours < 0 || offsetHours > 17 || offsetMinutes < 0 || offsetMinutes > 59)
+                return INVALID_TIMESTAMP;
+            offsetSeconds = offsetHours * 3600 + offsetMinutes * 60;
+            if (sign == '-')
+                offsetSeconds = -offsetSeconds;
+        }
+        else
+        {
+            return INVALID_TIMESTAMP;
+        }
+
+        // Same as LocalDate#toEpochDay for non-negative years
+        long days = 365L * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400
+                  + (367 * month - 362) / 12 + day - 1;
+        if (month > 2)
+            days -= leapYear ? 1 : 2;
+        days -= DAYS_0000_TO_1970;
+
+        long epochSecond = days * 86400 + hour * 3600 + minute * 60 + second - offsetSeconds;
+        return epochSecond * 1000 + millis;
+    }
+
+    private static int parseDigits(String input, int start, int count)
+    {
+        int value = 0;
+        for (int i = start; i < start + count; i++)
+        {
+            int digit = input.charAt(i) - '0';
+            if (digit < 0 || digit > 9)
+                return -1;
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
     public static OffsetDateTime toOffsetDateTime(@Nullable TemporalAccessor temporal)
     {
         if (temporal == null)
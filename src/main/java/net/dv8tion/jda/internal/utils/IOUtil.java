@@ -21,14 +21,19 @@ import okhttp3.ConnectionPool;
 import okhttp3.Dispatcher;
 import okhttp3.MediaType;
 import okhttp3.OkHttpClient;
+import okio.BufferedSink;
 import okio.Okio;
 import org.slf4j.Logger;
 
+import javax.annotation.Nullable;
 import java.io.*;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URLEncoder;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
 import java.util.concurrent.TimeUnit;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.Inflater;
@@ -203,6 +208,42 @@ public class IOUtil
         }
     }
 
+    /**
+     * Fully reads an InputStream into a byte[], unless it exceeds the provided limit.
+     *
+     * <p>This stops reading as soon as the limit is exceeded, so the stream is not guaranteed to be consumed fully.
+     *
+     * @param  stream
+     *         The Stream to be read.
+     * @param  limit
+     *         The maximum amount of bytes to read
+     *
+     * @throws IOException
+     *         If the first byte cannot be read for any reason other than the end of the file,
+     *         if the input stream has been closed, or if some other I/O error occurs.
+     *
+     * @return A byte[] containing all of the data provided by the InputStream, or null if it has more than {@code limit} bytes
+     */
+    @Nullable
+    public static byte[] readFully(InputStream stream, int limit) throws IOException
+    {
+        Checks.notNull(stream, "InputStream");
+        Checks.notNegative(limit, "Limit");
+
+        byte[] buffer = new byte[1024];
+        try (ByteArrayOutputStream bos = new ByteArrayOutputStream())
+        {
+            int readAmount = 0;
+            while ((readAmount = stream.read(buffer)) != -1)
+            {
+                if (bos.size() + readAmount > limit)
+                    return null;
+                bos.write(buffer, 0, readAmount);
+            }
+            return bos.toByteArray();
+        }
+    }
+
     /**
      * Creates a new request body that transmits the provided {@link java.io.InputStream InputStream}.
      *
@@ -218,6 +259,49 @@ public class IOUtil
         return new BufferedRequestBody(Okio.source(stream), contentType);
     }
 
+    /**
+     * Creates a new request body that streams the provided file.
+     * <br>The file is read again for every write, which means the content is never held in memory.
+     *
+     * @param  contentType
+     *         The {@link okhttp3.MediaType MediaType} of the data
+     * @param  file
+     *         The {@link java.nio.file.Path Path} of the file to be transmitted
+     * @param  options
+     *         The {@link java.nio.file.OpenOption OpenOptions} used to open the file
+     *
+     * @return RequestBody capable of transmitting the provided file
+     */
+    public static BufferedRequestBody createRequestBody(final MediaType contentType, final Path file, final OpenOption... options)
+    {
+        return new BufferedRequestBody(file, contentType, options);
+    }
+
+    /**
+     * Transfers the entire content of the provided channel into the sink, using positional reads.
+     * <br>This does not change the position of the channel.
+     *
+     * @param  channel
+     *         The {@link FileChannel} to read from
+     * @param  sink
+     *         The {@link BufferedSink} to write to
+     *
+     * @throws IOException
+     *         If an I/O error occurs or the file was truncated during the transfer
+     */
+    public static void transferTo(FileChannel channel, BufferedSink sink) throws IOException
+    {
+        long size = channel.size();
+        long position = 0;
+        while (position < size)
+        {
+            long transferred = channel.transferTo(position, size - position, sink);
+            if (transferred <= 0)
+                throw new EOFException("File was truncated during transfer. Expected " + size + " bytes but got " + position);
+            position += transferred;
+        }
+    }
+
     public static short getShortBigEndian(byte[] arr, int offset)
     {
         return (short) ((arr[offset    ] & 0xff) << 8
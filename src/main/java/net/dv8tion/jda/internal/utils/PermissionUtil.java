@@ -303,6 +303,7 @@ public class PermissionUtil
     public static long getEffectivePermission(Member member)
     {
         Checks.notNull(member, "Member");
+        checkAttached(member.getGuild());
 
         if (member.isOwner())
             return Permission.ALL_PERMISSIONS;
@@ -345,6 +346,7 @@ public class PermissionUtil
         Checks.notNull(member, "Member");
 
         Checks.check(channel.getGuild().equals(member.getGuild()), "Provided channel and provided member are not of the same guild!");
+        checkAttached(member.getGuild());
 
         if (member.isOwner())
         {
@@ -410,6 +412,7 @@ public class PermissionUtil
         Guild guild = channel.getGuild();
         if (!guild.equals(role.getGuild()))
             throw new IllegalArgumentException("Provided channel and role are not of the same guild!");
+        checkAttached(guild);
 
         long permissions = getExplicitPermission(channel, role);
         if (isApplied(permissions, Permission.ADMINISTRATOR.getRawValue()))
@@ -441,6 +444,7 @@ public class PermissionUtil
     public static long getExplicitPermission(Member member)
     {
         Checks.notNull(member, "Member");
+        checkAttached(member.getGuild());
 
         final Guild guild = member.getGuild();
         long permission = guild.getPublicRole().getPermissionsRaw();
@@ -515,6 +519,7 @@ public class PermissionUtil
 
         final Guild guild = member.getGuild();
         checkGuild(channel.getGuild(), guild, "Member");
+        checkAttached(guild);
 
         long permission = includeRoles ? getExplicitPermission(member) : 0L;
 
@@ -588,6 +593,7 @@ public class PermissionUtil
 
         final Guild guild = role.getGuild();
         checkGuild(channel.getGuild(), guild, "Role");
+        checkAttached(guild);
 
         long permission = includeRoles ? role.getPermissionsRaw() | guild.getPublicRole().getPermissionsRaw() : 0;
         PermissionOverride override = permsChannel.getPermissionOverride(guild.getPublicRole());
@@ -663,6 +669,13 @@ public class PermissionUtil
         return permission;
     }
 
+    // Detached guilds of stateless sessions have neither the roles nor the permission overrides to compute permissions
+    private static void checkAttached(Guild guild)
+    {
+        if (((GuildImpl) guild).isDetached())
+            throw new IllegalStateException("Cannot compute permissions in a detached guild, only the permissions in the channel of an interaction are known");
+    }
+
     private static void checkGuild(Guild o1, Guild o2, String name)
     {
         Checks.check(o1.equals(o2),
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.dv8tion.jda.internal.utils.cache;
+
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.utils.cache.CachedMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Cache of recent messages, which only keeps the ids and the UTF-8 encoded content of each message.
+ *
+ * <p>Every channel has a ring buffer of records, ordered by the time they were added.
+ * When a channel exceeds its byte limit, its oldest records are evicted.
+ * When the total byte limit is exceeded, the oldest records of the least recently used channel are evicted first.
+ *
+ * <p>The byte limits count the content and a fixed overhead per record, which is only an estimate of the actual memory usage.
+ */
+public class MessageCache
+{
+    public static final int RECORD_OVERHEAD = 40;
+
+    private final int maxChannelBytes;
+    private final long maxTotalBytes;
+    private final LinkedHashMap<Long, ChannelBuffer> channels = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private int size;
+
+    public MessageCache(int maxChannelBytes, long maxTotalBytes)
+    {
+        this.maxChannelBytes = maxChannelBytes;
+        this.maxTotalBytes = maxTotalBytes;
+    }
+
+    public void put(Message message)
+    {
+        put(message.getChannel().getIdLong(), message.getIdLong(), message.getAuthor().getIdLong(), getTimeEdited(message), message.getContentRaw());
+    }
+
+    public synchronized void put(long channelId, long messageId, long authorId, long timeEdited, String content)
+    {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        if (RECORD_OVERHEAD + bytes.length > maxChannelBytes)
+        {
+            // The cached content would be outdated, so it cannot be kept either
+            ChannelBuffer buffer = channels.get(channelId);
+            int index = buffer == null ? -1 : buffer.indexOf(messageId);
+            if (index >= 0)
+            {
+                buffer.remove(index);
+                if (buffer.isEmpty())
+                    channels.remove(channelId);
+            }
+            return;
+        }
+
+        ChannelBuffer buffer = channels.computeIfAbsent(channelId, ChannelBuffer::new);
+        int index = buffer.indexOf(messageId);
+        if (index < 0)
+            buffer.add(messageId, authorId, timeEdited, bytes);
+        else
+            buffer.replace(index, authorId, timeEdited, bytes);
+
+        while (buffer.bytes > maxChannelBytes)
+            buffer.evictOldest();
+        evictGlobal();
+    }
+
+    /**
+     * Replaces the cached content of the updated message.
+     *
+     * @param  message
+     *         The updated message
+     *
+     * @return The previous state of the message, or null if it was not cached
+     */
+    public synchronized CachedMessage update(Message message)
+    {
+        long channelId = message.getChannel().getIdLong();
+        CachedMessage previous = get(channelId, message.getIdLong());
+        put(message);
+        return previous;
+    }
+
+    public synchronized CachedMessage get(long channelId, long messageId)
+    {
+        ChannelBuffer buffer = channels.get(channelId);
+        if (buffer == null)
+            return null;
+        int index = buffer.indexOf(messageId);
+        return index < 0 ? null : buffer.toMessage(index);
+    }
+
+    public synchronized CachedMessage remove(long channelId, long messageId)
+    {
+        ChannelBuffer buffer = channels.get(channelId);
+        if (buffer == null)
+            return null;
+        int index = buffer.indexOf(messageId);
+        if (index < 0)
+            return null;
+        CachedMessage message = buffer.toMessage(index);
+        buffer.remove(index);
+        if (buffer.isEmpty())
+            channels.remove(channelId);
+        return message;
+    }
+
+    public synchronized void removeChannel(long channelId)
+    {
+        ChannelBuffer buffer = channels.remove(channelId);
+        if (buffer != null)
+            buffer.clear();
+    }
+
+    public synchronized void clear()
+    {
+        channels.values().forEach(ChannelBuffer::clear);
+        channels.clear();
+    }
+
+    public synchronized int size()
+    {
+        return size;
+    }
+
+    public synchronized long getTotalBytes()
+    {
+        return totalBytes;
+    }
+
+    private void evictGlobal()
+    {
+        Iterator<ChannelBuffer> iterator = channels.values().iterator();
+        while (totalBytes > maxTotalBytes && iterator.hasNext())
+        {
+            ChannelBuffer eldest = iterator.next();
+            while (totalBytes > maxTotalBytes && !eldest.isEmpty())
+                eldest.evictOldest();
+            if (eldest.isEmpty())
+                iterator.remove();
+        }
+    }
+
+    private static long getTimeEdited(Message message)
+    {
+        OffsetDateTime timeEdited = message.getTimeEdited();
+        return timeEdited == null ? 0 : timeEdited.toInstant().toEpochMilli();
+    }
+
+    // Ring buffer of records, removed records stay as empty slots until they become the oldest slot or the buffer is full.
+    // A full buffer is compacted, and only grows if more than half of its slots are in use.
+    private class ChannelBuffer
+    {
+        private final long channelId;
+        private long[] ids = new long[8];
+        private long[] authors = new long[8];
+        private long[] edits = new long[8];
+        private byte[][] contents = new byte[8][];
+        private int head, slots, count;
+        private int bytes;
+
+        private ChannelBuffer(long channelId)
+        {
+            this.channelId = channelId;
+        }
+
+        private boolean isEmpty()
+        {
+            return count == 0;
+        }
+
+        private int slot(int offset)
+        {
+            return (head + offset) & (ids.length - 1);
+        }
+
+        private int indexOf(long messageId)
+        {
+            // Search from the newest record, since updates and deletes are usually for recent messages
+            for (int i = slots - 1; i >= 0; i--)
+            {
+                int slot = slot(i);
+                if (contents[slot] != null && ids[slot] == messageId)
+                    return slot;
+            }
+            return -1;
+        }
+
+        private void add(long messageId, long authorId, long timeEdited, byte[] content)
+        {
+            if (slots == ids.length)
+                resize(count * 2 > ids.length ? ids.length * 2 : ids.length);
+            int slot = slot(slots++);
+            ids[slot] = messageId;
+            authors[slot] = authorId;
+            edits[slot] = timeEdited;
+            contents[slot] = content;
+            count++;
+            size++;
+            account(RECORD_OVERHEAD + content.length);
+        }
+
+        private void replace(int slot, long authorId, long timeEdited, byte[] content)
+        {
+            account(content.length - contents[slot].length);
+            authors[slot] = authorId;
+            edits[slot] = timeEdited;
+            contents[slot] = content;
+        }
+
+        private void remove(int slot)
+        {
+            account(-(RECORD_OVERHEAD + contents[slot].length));
+            contents[slot] = null;
+            count--;
+            size--;
+            trimHead();
+        }
+
+        private void evictOldest()
+        {
+            remove(head);
+        }
+
+        private void clear()
+        {
+            account(-bytes);
+            size -= count;
+            Arrays.fill(contents, null);
+            head = slots = count = 0;
+        }
+
+        private void trimHead()
+        {
+            while (slots > 0 && contents[head] == null)
+            {
+                head = slot(1);
+                slots--;
+            }
+        }
+
+        private void resize(int length)
+        {
+            long[] ids = new long[length];
+            long[] authors = new long[length];
+            long[] edits = new long[length];
+            byte[][] contents = new byte[length][];
+            int used = 0;
+            for (int i = 0; i < slots; i++)
+            {
+                int slot = slot(i);
+                if (this.contents[slot] == null)
+                    continue;
+                ids[used] = this.ids[slot];
+                authors[used] = this.authors[slot];
+                edits[used] = this.edits[slot];
+                contents[used] = this.contents[slot];
+                used++;
+            }
+            this.ids = ids;
+            this.authors = authors;
+            this.edits = edits;
+            this.contents = contents;
+            this.head = 0;
+            this.slots = used;
+        }
+
+        private void account(int delta)
+        {
+            bytes += delta;
+            totalBytes += delta;
+        }
+
+        private CachedMessage toMessage(int slot)
+        {
+            return new CachedMessage(ids[slot], channelId, authors[slot], edits[slot], new String(contents[slot], StandardCharsets.UTF_8));
+        }
+    }
+}
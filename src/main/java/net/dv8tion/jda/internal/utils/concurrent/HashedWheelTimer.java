@@ -0,0 +1,370 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.concurrent;
+
+import net.dv8tion.jda.internal.utils.Checks;
+import net.dv8tion.jda.internal.utils.JDALogger;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Timer for large amounts of timeouts which are usually cancelled before they expire.
+ *
+ * <p>Timeouts are sorted into a ring of buckets, each covering one tick. Scheduling and cancelling are O(1),
+ * and cancelled timeouts are unlinked from their bucket right away, instead of staying in a heap until their delay has passed
+ * like they would in a {@link java.util.concurrent.ScheduledThreadPoolExecutor ScheduledThreadPoolExecutor}.
+ * The trade-off is precision, timeouts expire up to one tick late.
+ *
+ * <p>Expired tasks run on the single timer thread, so they must be short. Tasks that do more work should hand it off to an executor.
+ */
+public class HashedWheelTimer
+{
+    public static final Logger LOG = JDALogger.getLog(HashedWheelTimer.class);
+
+    private static final int STATE_PENDING = 0, STATE_CANCELLED = 1, STATE_EXPIRED = 2;
+    private static final int TRANSFER_LIMIT = 100000;
+    private static volatile HashedWheelTimer shared;
+
+    private final ThreadFactory threadFactory;
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger state = new AtomicInteger();
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+    private final AtomicLong cancelledTotal = new AtomicLong();
+
+    private volatile long startTime;
+    private long tick;
+
+    public HashedWheelTimer(@Nonnull ThreadFactory threadFactory, long tickDuration, @Nonnull TimeUnit unit, int wheelSize)
+    {
+        Checks.notNull(threadFactory, "ThreadFactory");
+        Checks.notNull(unit, "TimeUnit");
+        Checks.positive(tickDuration, "Tick duration");
+        Checks.check(wheelSize > 0 && wheelSize <= 1 << 30, "Wheel size must be between 1 and 2^30");
+        this.threadFactory = threadFactory;
+        this.tickNanos = unit.toNanos(tickDuration);
+        // Round up to a power of two, so we can use a mask instead of a modulo
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        if (size <= 0)
+            size = 1;
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++)
+            wheel[i] = new Bucket();
+        this.mask = size - 1;
+    }
+
+    /**
+     * The timer shared by all JDA instances, with 100ms ticks.
+     * <br>Used for timeouts like interaction acknowledgements and request deadlines.
+     *
+     * @return The shared timer
+     */
+    @Nonnull
+    public static HashedWheelTimer getShared()
+    {
+        HashedWheelTimer timer = shared;
+        if (timer == null)
+        {
+            synchronized (HashedWheelTimer.class)
+            {
+                timer = shared;
+                if (timer == null)
+                    shared = timer = new HashedWheelTimer(new CountingThreadFactory(() -> "JDA", "Timer"), 100, TimeUnit.MILLISECONDS, 512);
+            }
+        }
+        return timer;
+    }
+
+    /**
+     * Schedules the task to run after the provided delay.
+     *
+     * @param  task
+     *         The task to run on the timer thread
+     * @param  delay
+     *         The delay
+     * @param  unit
+     *         The unit of the delay
+     *
+     * @throws RejectedExecutionException
+     *         If the timer was stopped
+     *
+     * @return The {@link Timeout} handle, which can be used to cancel the task
+     */
+    @Nonnull
+    public Timeout schedule(@Nonnull Runnable task, long delay, @Nonnull TimeUnit unit)
+    {
+        Checks.notNull(task, "Task");
+        Checks.notNull(unit, "TimeUnit");
+        start();
+        long deadline = System.nanoTime() + unit.toNanos(Math.max(0, delay)) - startTime;
+        Timeout timeout = new Timeout(task, deadline);
+        pending.incrementAndGet();
+        scheduled.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Stops the timer thread. Pending timeouts will never expire.
+     */
+    public void stop()
+    {
+        state.set(2);
+    }
+
+    /**
+     * The number of scheduled timeouts which have neither expired nor been cancelled yet.
+     *
+     * @return The number of pending timeouts
+     */
+    public long getPendingTimeouts()
+    {
+        return pending.get();
+    }
+
+    /**
+     * The total number of timeouts which have expired and ran their task.
+     *
+     * @return The number of expired timeouts
+     */
+    public long getExpiredTimeouts()
+    {
+        return expired.get();
+    }
+
+    /**
+     * The total number of timeouts which have been cancelled before they expired.
+     *
+     * @return The number of cancelled timeouts
+     */
+    public long getCancelledTimeouts()
+    {
+        return cancelledTotal.get();
+    }
+
+    private void start()
+    {
+        switch (state.get())
+        {
+        case 0:
+            if (state.compareAndSet(0, 1))
+            {
+                startTime = System.nanoTime();
+                Thread thread = threadFactory.newThread(this::run);
+                thread.start();
+            }
+            break;
+        case 1:
+            break;
+        default:
+            throw new RejectedExecutionException("Timer has been stopped");
+        }
+
+        // Wait for the start time to be visible, in case another thread is starting the timer right now
+        while (startTime == 0)
+            Thread.yield();
+    }
+
+    private void run()
+    {
+        while (state.get() == 1)
+        {
+            long deadline = tickNanos * (tick + 1);
+            long sleep = deadline - (System.nanoTime() - startTime);
+            if (sleep > 0)
+            {
+                try
+                {
+                    TimeUnit.NANOSECONDS.sleep(sleep);
+                }
+                catch (InterruptedException ignored)
+                {
+                    if (state.get() != 1)
+                        return;
+                }
+                continue;
+            }
+
+            removeCancelled();
+            transferScheduled();
+            wheel[(int) (tick & mask)].expire();
+            tick++;
+        }
+    }
+
+    private void removeCancelled()
+    {
+        Timeout timeout;
+        while ((timeout = cancelled.poll()) != null)
+        {
+            if (timeout.bucket != null)
+                timeout.bucket.remove(timeout);
+        }
+    }
+
+    private void transferScheduled()
+    {
+        for (int i = 0; i < TRANSFER_LIMIT; i++)
+        {
+            Timeout timeout = scheduled.poll();
+            if (timeout == null)
+                return;
+            if (timeout.state.get() != STATE_PENDING)
+                continue;
+
+            long ticks = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (ticks - tick) / wheel.length;
+            // Timeouts which are already overdue are expired with the current tick
+            long target = Math.max(ticks, tick);
+            Bucket bucket = wheel[(int) (target & mask)];
+            bucket.add(timeout);
+        }
+    }
+
+    /**
+     * Handle for a scheduled task.
+     */
+    public class Timeout
+    {
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(STATE_PENDING);
+        // Only accessed by the timer thread
+        private long remainingRounds;
+        private Bucket bucket;
+        private Timeout next, prev;
+
+        private Timeout(Runnable task, long deadline)
+        {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels this timeout, if it has not expired yet.
+         *
+         * @return True, if this call cancelled the timeout
+         */
+        public boolean cancel()
+        {
+            if (!state.compareAndSet(STATE_PENDING, STATE_CANCELLED))
+                return false;
+            pending.decrementAndGet();
+            cancelledTotal.incrementAndGet();
+            cancelled.add(this);
+            return true;
+        }
+
+        public boolean isCancelled()
+        {
+            return state.get() == STATE_CANCELLED;
+        }
+
+        public boolean isExpired()
+        {
+            return state.get() == STATE_EXPIRED;
+        }
+
+        private void expire()
+        {
+            if (!state.compareAndSet(STATE_PENDING, STATE_EXPIRED))
+                return;
+            pending.decrementAndGet();
+            expired.incrementAndGet();
+            try
+            {
+                task.run();
+            }
+            catch (Throwable ex)
+            {
+                // The timer thread is shared by all sessions, one failing task must not stop every other timeout from expiring
+                LOG.error("Timer task threw an exception", ex);
+            }
+        }
+    }
+
+    // Doubly linked list, so timeouts can be unlinked in O(1). Only accessed by the timer thread.
+    private static class Bucket
+    {
+        private Timeout head, tail;
+
+        private void add(Timeout timeout)
+        {
+            timeout.bucket = this;
+            if (head == null)
+            {
+                head = tail = timeout;
+            }
+            else
+            {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private void remove(Timeout timeout)
+        {
+            if (timeout.bucket != this)
+                return;
+            if (timeout.prev != null)
+                timeout.prev.next = timeout.next;
+            else
+                head = timeout.next;
+            if (timeout.next != null)
+                timeout.next.prev = timeout.prev;
+            else
+                tail = timeout.prev;
+            timeout.next = timeout.prev = null;
+            timeout.bucket = null;
+        }
+
+        private void expire()
+        {
+            Timeout timeout = head;
+            while (timeout != null)
+            {
+                Timeout next = timeout.next;
+                if (timeout.remainingRounds <= 0)
+                {
+                    remove(timeout);
+                    timeout.expire();
+                }
+                else if (timeout.isCancelled())
+                {
+                    remove(timeout);
+                }
+                else
+                {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+    }
+}
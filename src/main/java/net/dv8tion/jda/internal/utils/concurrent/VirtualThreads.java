@@ -0,0 +1,157 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.concurrent;
+
+import net.dv8tion.jda.internal.utils.JDALogger;
+import org.slf4j.Logger;
+
+import javax.annotation.Nonnull;
+import java.lang.reflect.Method;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Access to the virtual thread API of Java 21, which is looked up with reflection since JDA is compiled for Java 8.
+ *
+ * <p>Virtual threads are cheap to create and unmount from their carrier thread while blocked,
+ * which makes them a good fit for pools running user code that calls {@link net.dv8tion.jda.api.requests.RestAction#complete()}.
+ * A virtual thread which blocks inside a {@code synchronized} block, however, stays pinned to its carrier thread on Java 21 to 23.
+ * Internal code which can block on I/O while holding a lock and runs on these pools should therefore use a {@link java.util.concurrent.locks.ReentrantLock ReentrantLock}.
+ */
+public class VirtualThreads
+{
+    public static final Logger LOG = JDALogger.getLog(VirtualThreads.class);
+
+    private static final Method OF_VIRTUAL;
+    private static final Method FACTORY;
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR;
+
+    static
+    {
+        Method ofVirtual = null, factory = null, newExecutor = null;
+        try
+        {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            newExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+        }
+        catch (ReflectiveOperationException ignored)
+        {
+            ofVirtual = factory = newExecutor = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        FACTORY = factory;
+        NEW_THREAD_PER_TASK_EXECUTOR = newExecutor;
+    }
+
+    /**
+     * Whether the current runtime supports virtual threads.
+     *
+     * @return True, if running on Java 21 or newer
+     */
+    public static boolean isSupported()
+    {
+        return NEW_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Creates a thread factory for virtual threads, with names like {@code "JDA Callback-Virtual 1"}.
+     *
+     * @param  identifier
+     *         The identifier of the JDA instance, resolved for every new thread
+     * @param  baseName
+     *         The name of the pool
+     *
+     * @throws UnsupportedOperationException
+     *         If virtual threads are not supported
+     *
+     * @return The thread factory
+     */
+    @Nonnull
+    public static ThreadFactory newThreadFactory(@Nonnull Supplier<String> identifier, @Nonnull String baseName)
+    {
+        ThreadFactory factory = invoke(() -> (ThreadFactory) FACTORY.invoke(OF_VIRTUAL.invoke(null)));
+        AtomicLong count = new AtomicLong(1);
+        return (r) -> {
+            Thread thread = factory.newThread(r);
+            thread.setName(identifier.get() + " " + baseName + "-Virtual " + count.getAndIncrement());
+            return thread;
+        };
+    }
+
+    /**
+     * Creates an executor which starts a new virtual thread for every task.
+     *
+     * @param  identifier
+     *         The identifier of the JDA instance, resolved for every new thread
+     * @param  baseName
+     *         The name of the pool
+     *
+     * @throws UnsupportedOperationException
+     *         If virtual threads are not supported
+     *
+     * @return The executor
+     */
+    @Nonnull
+    public static ExecutorService newExecutor(@Nonnull Supplier<String> identifier, @Nonnull String baseName)
+    {
+        ThreadFactory factory = newThreadFactory(identifier, baseName);
+        return invoke(() -> (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, factory));
+    }
+
+    /**
+     * Creates a scheduler which runs its tasks on virtual threads.
+     * <br>The core size only limits how many tasks run at the same time, idle virtual threads are cheap to keep around.
+     *
+     * @param  coreSize
+     *         The maximum number of concurrently running tasks
+     * @param  identifier
+     *         The identifier of the JDA instance, resolved for every new thread
+     * @param  baseName
+     *         The name of the pool
+     *
+     * @throws UnsupportedOperationException
+     *         If virtual threads are not supported
+     *
+     * @return The scheduler
+     */
+    @Nonnull
+    public static ScheduledThreadPoolExecutor newScheduler(int coreSize, @Nonnull Supplier<String> identifier, @Nonnull String baseName)
+    {
+        return new ScheduledThreadPoolExecutor(coreSize, newThreadFactory(identifier, baseName));
+    }
+
+    private static <T> T invoke(ReflectiveSupplier<T> supplier)
+    {
+        if (!isSupported())
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or newer");
+        try
+        {
+            return supplier.get();
+        }
+        catch (ReflectiveOperationException e)
+        {
+            throw new UnsupportedOperationException("Failed to create virtual thread executor", e);
+        }
+    }
+
+    private interface ReflectiveSupplier<T>
+    {
+        T get() throws ReflectiveOperationException;
+    }
+}
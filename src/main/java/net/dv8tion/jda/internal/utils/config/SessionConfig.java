@@ -118,6 +118,11 @@ public class SessionConfig
         return flags.contains(ConfigFlag.USE_RELATIVE_RATELIMIT);
     }
 
+    public boolean isIncrementalChunking()
+    {
+        return flags.contains(ConfigFlag.INCREMENTAL_CHUNKING);
+    }
+
     public int getMaxReconnectDelay()
     {
         return maxReconnectDelay;
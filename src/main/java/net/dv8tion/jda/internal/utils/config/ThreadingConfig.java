@@ -17,6 +17,7 @@
 package net.dv8tion.jda.internal.utils.config;
 
 import net.dv8tion.jda.internal.utils.concurrent.CountingThreadFactory;
+import net.dv8tion.jda.internal.utils.concurrent.VirtualThreads;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -28,6 +29,9 @@ import java.util.function.Supplier;
 
 public class ThreadingConfig
 {
+    // Virtual threads are cheap, so the rate-limiter can run far more buckets in parallel than with platform threads
+    public static final int VIRTUAL_RATE_LIMIT_POOL_SIZE = 64;
+
     private final Object audioLock = new Object();
 
     private ScheduledExecutorService rateLimitPool;
@@ -42,6 +46,9 @@ public class ThreadingConfig
     private boolean shutdownEventPool;
     private boolean shutdownAudioPool;
 
+    private volatile Supplier<String> identifier = () -> "JDA";
+    private boolean virtualThreads;
+
     public ThreadingConfig()
     {
         this.callbackPool = ForkJoinPool.commonPool();
@@ -82,9 +89,43 @@ public class ThreadingConfig
         this.shutdownAudioPool = shutdown;
     }
 
+    /**
+     * Replaces the default callback and event pools with virtual-thread-per-task executors, if supported by the runtime.
+     * <br>Pools provided by the user are kept. This has to be called after the pools were set.
+     *
+     * @param enabled
+     *        Whether to use virtual threads
+     */
+    public void setVirtualThreads(boolean enabled)
+    {
+        if (!enabled)
+            return;
+        if (!VirtualThreads.isSupported())
+        {
+            VirtualThreads.LOG.warn("Virtual threads require Java 21 or newer, falling back to the default thread pools");
+            return;
+        }
+
+        this.virtualThreads = true;
+        // The identifier is only known after init, the thread names are resolved for each new thread
+        Supplier<String> identifier = () -> this.identifier.get();
+        if (callbackPool == ForkJoinPool.commonPool())
+            setCallbackPool(VirtualThreads.newExecutor(identifier, "Callback"), true);
+        if (eventPool == null)
+            setEventPool(VirtualThreads.newExecutor(identifier, "Event"), true);
+    }
+
+    public boolean isVirtualThreads()
+    {
+        return virtualThreads;
+    }
+
     public void init(@Nonnull Supplier<String> identifier)
     {
-        if (this.rateLimitPool == null)
+        this.identifier = identifier;
+        if (this.rateLimitPool == null && virtualThreads)
+            this.rateLimitPool = VirtualThreads.newScheduler(VIRTUAL_RATE_LIMIT_POOL_SIZE, identifier, "RateLimit");
+        else if (this.rateLimitPool == null)
             this.rateLimitPool = newScheduler(5, identifier, "RateLimit", false);
         if (this.gatewayPool == null)
             this.gatewayPool = newScheduler(1, identifier, "Gateway");
@@ -16,10 +16,14 @@
 
 package net.dv8tion.jda.internal.utils.config.sharding;
 
+import net.dv8tion.jda.api.hooks.RawDispatchInterceptor;
 import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.utils.JDAMetrics;
 import net.dv8tion.jda.api.utils.MemberCachePolicy;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.nio.file.Path;
 
 public class ShardingConfig
 {
@@ -27,13 +31,30 @@ public class ShardingConfig
     private int intents;
     private MemberCachePolicy memberCachePolicy;
     private final boolean useShutdownNow;
+    private final int messageCacheChannelBytes;
+    private final long messageCacheBytes;
+    private final Path sessionSnapshotDirectory;
+    private final JDAMetrics metrics;
+    private final RawDispatchInterceptor rawDispatchInterceptor;
+    private final boolean stateless;
 
     public ShardingConfig(int shardsTotal, boolean useShutdownNow, int intents, MemberCachePolicy memberCachePolicy)
+    {
+        this(shardsTotal, useShutdownNow, intents, memberCachePolicy, 0, 0, null, null, null, false);
+    }
+
+    public ShardingConfig(int shardsTotal, boolean useShutdownNow, int intents, MemberCachePolicy memberCachePolicy, int messageCacheChannelBytes, long messageCacheBytes, Path sessionSnapshotDirectory, JDAMetrics metrics, RawDispatchInterceptor rawDispatchInterceptor, boolean stateless)
     {
         this.shardsTotal = shardsTotal;
         this.useShutdownNow = useShutdownNow;
         this.intents = intents;
         this.memberCachePolicy = memberCachePolicy;
+        this.messageCacheChannelBytes = messageCacheChannelBytes;
+        this.messageCacheBytes = messageCacheBytes;
+        this.sessionSnapshotDirectory = sessionSnapshotDirectory;
+        this.metrics = metrics;
+        this.rawDispatchInterceptor = rawDispatchInterceptor;
+        this.stateless = stateless;
     }
 
     public void setShardsTotal(int shardsTotal)
@@ -56,6 +77,39 @@ public class ShardingConfig
         return memberCachePolicy;
     }
 
+    public int getMessageCacheChannelBytes()
+    {
+        return messageCacheChannelBytes;
+    }
+
+    public long getMessageCacheBytes()
+    {
+        return messageCacheBytes;
+    }
+
+    @Nullable
+    public Path getSessionSnapshotDirectory()
+    {
+        return sessionSnapshotDirectory;
+    }
+
+    @Nullable
+    public JDAMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    @Nullable
+    public RawDispatchInterceptor getRawDispatchInterceptor()
+    {
+        return rawDispatchInterceptor;
+    }
+
+    public boolean isStateless()
+    {
+        return stateless;
+    }
+
     public boolean isUseShutdownNow()
     {
         return useShutdownNow;
@@ -32,6 +32,7 @@ public class ThreadingProviderConfig
     private final ThreadPoolProvider<? extends ExecutorService> eventPoolProvider;
     private final ThreadPoolProvider<? extends ScheduledExecutorService> audioPoolProvider;
     private final ThreadFactory threadFactory;
+    private final boolean virtualThreads;
 
     public ThreadingProviderConfig(
             @Nullable ThreadPoolProvider<? extends ScheduledExecutorService> rateLimitPoolProvider,
@@ -39,7 +40,8 @@ public class ThreadingProviderConfig
             @Nullable ThreadPoolProvider<? extends ExecutorService> callbackPoolProvider,
             @Nullable ThreadPoolProvider<? extends ExecutorService> eventPoolProvider,
             @Nullable ThreadPoolProvider<? extends ScheduledExecutorService> audioPoolProvider,
-            @Nullable ThreadFactory threadFactory)
+            @Nullable ThreadFactory threadFactory,
+            boolean virtualThreads)
     {
         this.rateLimitPoolProvider = rateLimitPoolProvider;
         this.gatewayPoolProvider = gatewayPoolProvider;
@@ -47,6 +49,7 @@ public class ThreadingProviderConfig
         this.eventPoolProvider = eventPoolProvider;
         this.audioPoolProvider = audioPoolProvider;
         this.threadFactory = threadFactory;
+        this.virtualThreads = virtualThreads;
     }
 
     @Nullable
@@ -85,9 +88,14 @@ public class ThreadingProviderConfig
         return audioPoolProvider;
     }
 
+    public boolean isVirtualThreads()
+    {
+        return virtualThreads;
+    }
+
     @Nonnull
     public static ThreadingProviderConfig getDefault()
     {
-        return new ThreadingProviderConfig(null, null, null, null, null, null);
+        return new ThreadingProviderConfig(null, null, null, null, null, null, false);
     }
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.etf;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * List view of an ETF list term.
+ *
+ * <p>The constructor indexes the offsets of all elements in a single pass, without decoding them.
+ * Elements are decoded on first access and cached. Any modification copies the list into an {@link ArrayList} first.
+ */
+public class LazyTermList extends AbstractList<Object>
+{
+    private static final Object UNDECODED = new Object();
+
+    private final ByteBuffer buffer;
+    private final int[] offsets;
+    // Decoded values are published safely, since views can be shared between threads
+    private final AtomicReferenceArray<Object> values;
+    private volatile List<Object> materialized;
+
+    public LazyTermList(ByteBuffer buffer, int pos)
+    {
+        this.buffer = buffer;
+        int length = buffer.getInt(pos + 1);
+        pos += 5;
+        this.offsets = new int[length];
+        this.values = new AtomicReferenceArray<>(length);
+        for (int i = 0; i < length; i++)
+        {
+            offsets[i] = pos;
+            values.lazySet(i, UNDECODED);
+            pos = TermReader.skip(buffer, pos);
+        }
+    }
+
+    /**
+     * Whether the element at the provided index can be read as a long directly from the buffer.
+     */
+    public boolean isLong(int index)
+    {
+        return materialized == null && index >= 0 && index < offsets.length
+            && values.get(index) == UNDECODED && TermReader.isLong(buffer, offsets[index]);
+    }
+
+    /**
+     * Reads the element at the provided index as long, without decoding it to a String first.
+     *
+     * @see TermReader#readLong(ByteBuffer, int, int)
+     */
+    public long getLong(int index, int mode)
+    {
+        return TermReader.readLong(buffer, offsets[index], mode);
+    }
+
+    @Override
+    public Object get(int index)
+    {
+        List<Object> materialized = this.materialized;
+        if (materialized != null)
+            return materialized.get(index);
+        if (index < 0 || index >= offsets.length)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + offsets.length);
+        Object value = values.get(index);
+        if (value != UNDECODED)
+            return value;
+        // Concurrent readers must see the same instance, so modifications of nested values are not lost
+        value = TermReader.read(buffer, offsets[index]);
+        return values.compareAndSet(index, UNDECODED, value) ? value : values.get(index);
+    }
+
+    /**
+     * The buffer retained by this view, which holds the entire payload it was decoded from.
+     */
+    public ByteBuffer getBuffer()
+    {
+        return buffer;
+    }
+
+    @Override
+    public int size()
+    {
+        List<Object> materialized = this.materialized;
+        return materialized != null ? materialized.size() : offsets.length;
+    }
+
+    @Override
+    public Object set(int index, Object element)
+    {
+        return materialize().set(index, element);
+    }
+
+    @Override
+    public void add(int index, Object element)
+    {
+        materialize().add(index, element);
+        modCount++;
+    }
+
+    @Override
+    public Object remove(int index)
+    {
+        Object removed = materialize().remove(index);
+        modCount++;
+        return removed;
+    }
+
+    private List<Object> materialize()
+    {
+        if (materialized == null)
+        {
+            List<Object> list = new ArrayList<>(offsets.length + 1);
+            for (int i = 0; i < offsets.length; i++)
+                list.add(get(i));
+            materialized = list;
+        }
+        return materialized;
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.etf;
+
+import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Map view of an ETF map term.
+ *
+ * <p>The constructor indexes the offsets of all keys and values in a single pass, without decoding the values.
+ * Values are decoded on first access and cached. Any modification copies the map into a {@link HashMap} first.
+ */
+public class LazyTermMap extends AbstractMap<String, Object>
+{
+    private static final Object UNDECODED = new Object();
+    // Beyond this size, lookups use a hash index instead of a linear scan
+    private static final int INDEX_THRESHOLD = 32;
+
+    private final ByteBuffer buffer;
+    private final String[] keys;
+    private final int[] offsets;
+    // Decoded values and the index are published safely, since views can be shared between threads
+    private final AtomicReferenceArray<Object> values;
+    private volatile Map<String, Integer> index;
+    private volatile Map<String, Object> materialized;
+    private volatile EntrySet entrySet;
+
+    public LazyTermMap(ByteBuffer buffer, int pos)
+    {
+        this.buffer = buffer;
+        int arity = buffer.getInt(pos + 1);
+        pos += 5;
+        this.keys = new String[arity];
+        this.offsets = new int[arity];
+        this.values = new AtomicReferenceArray<>(arity);
+        for (int i = 0; i < arity; i++)
+        {
+            keys[i] = TermReader.readKey(buffer, pos);
+            offsets[i] = pos = TermReader.skip(buffer, pos);
+            values.lazySet(i, UNDECODED);
+            pos = TermReader.skip(buffer, pos);
+        }
+    }
+
+    /**
+     * The index of the provided key, if its value can be read as a long directly from the buffer.
+     *
+     * @return The index for {@link #getLong(int, int)}, or -1 if the value has to be decoded normally
+     */
+    public int indexOfLong(String key)
+    {
+        if (materialized != null)
+            return -1;
+        int i = indexOf(key);
+        if (i < 0 || values.get(i) != UNDECODED || !TermReader.isLong(buffer, offsets[i]))
+            return -1;
+        return i;
+    }
+
+    /**
+     * Reads the value at the provided index as long, without decoding it to a String first.
+     *
+     * @see TermReader#readLong(ByteBuffer, int, int)
+     */
+    public long getLong(int index, int mode)
+    {
+        return TermReader.readLong(buffer, offsets[index], mode);
+    }
+
+    /**
+     * The buffer retained by this view, which holds the entire payload it was decoded from.
+     */
+    public ByteBuffer getBuffer()
+    {
+        return buffer;
+    }
+
+    @Override
+    public int size()
+    {
+        Map<String, Object> materialized = this.materialized;
+        return materialized != null ? materialized.size() : keys.length;
+    }
+
+    @Override
+    public boolean containsKey(Object key)
+    {
+        Map<String, Object> materialized = this.materialized;
+        if (materialized != null)
+            return materialized.containsKey(key);
+        return key instanceof String && indexOf((String) key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key)
+    {
+        Map<String, Object> materialized = this.materialized;
+        if (materialized != null)
+            return materialized.get(key);
+        if (!(key instanceof String))
+            return null;
+        int i = indexOf((String) key);
+        return i < 0 ? null : value(i);
+    }
+
+    @Override
+    public Object put(String key, Object value)
+    {
+        return materialize().put(key, value);
+    }
+
+    @Override
+    public Object remove(Object key)
+    {
+        return materialize().remove(key);
+    }
+
+    @Override
+    public void clear()
+    {
+        materialize().clear();
+    }
+
+    @Nonnull
+    @Override
+    public Set<Entry<String, Object>> entrySet()
+    {
+        Map<String, Object> materialized = this.materialized;
+        if (materialized != null)
+            return materialized.entrySet();
+        EntrySet entrySet = this.entrySet;
+        if (entrySet == null)
+            this.entrySet = entrySet = new EntrySet();
+        return entrySet;
+    }
+
+    private Object value(int i)
+    {
+        Object value = values.get(i);
+        if (value != UNDECODED)
+            return value;
+        // Concurrent readers must see the same instance, so modifications of nested values are not lost
+        value = TermReader.read(buffer, offsets[i]);
+        return values.compareAndSet(i, UNDECODED, value) ? value : values.get(i);
+    }
+
+    private int indexOf(String key)
+    {
+        if (keys.length > INDEX_THRESHOLD)
+        {
+            Map<String, Integer> index = this.index;
+            if (index == null)
+            {
+                // Built completely before it is published, concurrent readers might build their own copy
+                index = new HashMap<>(keys.length * 2);
+                for (int i = 0; i < keys.length; i++)
+                    index.put(keys[i], i);
+                this.index = index;
+            }
+            Integer i = index.get(key);
+            return i == null ? -1 : i;
+        }
+
+        // Iterate backwards, so duplicate keys resolve to the last value like a regular map would
+        for (int i = keys.length - 1; i >= 0; i--)
+        {
+            if (keys[i] == key || keys[i].equals(key))
+                return i;
+        }
+        return -1;
+    }
+
+    private Map<String, Object> materialize()
+    {
+        if (materialized == null)
+        {
+            Map<String, Object> map = new HashMap<>(keys.length * 2);
+            for (int i = 0; i < keys.length; i++)
+                map.put(keys[i], value(i));
+            materialized = map;
+            entrySet = null;
+        }
+        return materialized;
+    }
+
+    private class EntrySet extends AbstractSet<Entry<String, Object>>
+    {
+        @Nonnull
+        @Override
+        public Iterator<Entry<String, Object>> iterator()
+        {
+            Map<String, Object> materialized = LazyTermMap.this.materialized;
+            if (materialized != null)
+                return materialized.entrySet().iterator();
+            return new Iterator<Entry<String, Object>>()
+            {
+                private int next = 0;
+
+                @Override
+                public boolean hasNext()
+                {
+                    return next < keys.length;
+                }
+
+                @Override
+                public Entry<String, Object> next()
+                {
+                    if (!hasNext())
+                        throw new NoSuchElementException();
+                    int i = next++;
+                    return new SimpleImmutableEntry<>(keys[i], value(i));
+                }
+            };
+        }
+
+        @Override
+        public int size()
+        {
+            return LazyTermMap.this.size();
+        }
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.dv8tion.jda.internal.utils.etf;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static net.dv8tion.jda.api.utils.data.etf.ExTermTag.*;
+
+/**
+ * Stateless reader for ETF terms, which uses absolute offsets into a {@link ByteBuffer}.
+ * <br>Maps and lists are decoded into {@link LazyTermMap} and {@link LazyTermList}, which only decode their values on access.
+ */
+public class TermReader
+{
+    /** Parse strings with {@link Long#parseUnsignedLong(String)} */
+    public static final int UNSIGNED = 0;
+    /** Parse strings with {@link net.dv8tion.jda.api.utils.MiscUtil#parseLong(String)} */
+    public static final int SNOWFLAKE = 1;
+    /** Parse strings with {@link Long#parseLong(String)} */
+    public static final int SIGNED = 2;
+
+    private static final long MAX_UNSIGNED_DIV_10 = Long.divideUnsigned(-1L, 10);
+
+    public static Object readRoot(ByteBuffer buffer)
+    {
+        if (buffer.get(0) != -125)
+            throw new IllegalArgumentException("Failed header check");
+        if (buffer.get(1) == COMPRESSED)
+            return read(inflate(buffer, 2), 0);
+        return read(buffer, 1);
+    }
+
+    public static Object read(ByteBuffer buffer, int pos)
+    {
+        byte tag = buffer.get(pos++);
+        switch (tag)
+        {
+        case SMALL_INT: return Byte.toUnsignedInt(buffer.get(pos));
+        case INT: return buffer.getInt(pos);
+        case SMALL_BIGINT: return readSmallBigint(buffer, pos);
+
+        case FLOAT: return Double.parseDouble(readString(buffer, pos, 31, StandardCharsets.ISO_8859_1));
+        case NEW_FLOAT: return buffer.getDouble(pos);
+
+        case SMALL_ATOM_UTF8: return readAtom(buffer, pos + 1, Byte.toUnsignedInt(buffer.get(pos)), StandardCharsets.UTF_8);
+        case SMALL_ATOM: return readAtom(buffer, pos + 1, Byte.toUnsignedInt(buffer.get(pos)), StandardCharsets.ISO_8859_1);
+        case ATOM_UTF8: return readAtom(buffer, pos + 2, Short.toUnsignedInt(buffer.getShort(pos)), StandardCharsets.UTF_8);
+        case ATOM: return readAtom(buffer, pos + 2, Short.toUnsignedInt(buffer.getShort(pos)), StandardCharsets.ISO_8859_1);
+
+        case MAP: return new LazyTermMap(buffer, pos - 1);
+        case LIST: return new LazyTermList(buffer, pos - 1);
+        case NIL: return Collections.emptyList();
+
+        case STRING: return readBytes(buffer, pos + 2, Short.toUnsignedInt(buffer.getShort(pos)));
+        case BINARY: return readString(buffer, pos + 4, buffer.getInt(pos), StandardCharsets.UTF_8);
+        case COMPRESSED:
+            throw new IllegalArgumentException("Compressed terms are only supported at the top level");
+        default:
+            throw new IllegalArgumentException("Unknown tag " + tag);
+        }
+    }
+
+    /**
+     * Computes the offset after the term at the provided position, without decoding it.
+     */
+    public static int skip(ByteBuffer buffer, int pos)
+    {
+        byte tag = buffer.get(pos++);
+        switch (tag)
+        {
+        case SMALL_INT: return pos + 1;
+        case INT: return pos + 4;
+        case SMALL_BIGINT: return pos + 2 + Byte.toUnsignedInt(buffer.get(pos));
+        case FLOAT: return pos + 31;
+        case NEW_FLOAT: return pos + 8;
+        case SMALL_ATOM_UTF8:
+        case SMALL_ATOM: return pos + 1 + Byte.toUnsignedInt(buffer.get(pos));
+        case ATOM_UTF8:
+        case ATOM:
+        case STRING: return pos + 2 + Short.toUnsignedInt(buffer.getShort(pos));
+        case BINARY: return pos + 4 + buffer.getInt(pos);
+        case NIL: return pos;
+        case LIST:
+        {
+            int length = buffer.getInt(pos);
+            pos += 4;
+            while (length-- > 0)
+                pos = skip(buffer, pos);
+            if (buffer.get(pos) != NIL)
+                throw new IllegalArgumentException("Unexpected tail " + read(buffer, pos));
+            return pos + 1;
+        }
+        case MAP:
+        {
+            int arity = buffer.getInt(pos);
+            pos += 4;
+            while (arity-- > 0)
+                pos = skip(buffer, skip(buffer, pos));
+            return pos;
+        }
+        case COMPRESSED:
+            throw new IllegalArgumentException("Compressed terms are only supported at the top level");
+        default:
+            throw new IllegalArgumentException("Unknown tag " + tag);
+        }
+    }
+
+    /**
+     * Whether the term at the provided position can be read with {@link #readLong(ByteBuffer, int, int)}.
+     */
+    public static boolean isLong(ByteBuffer buffer, int pos)
+    {
+        byte tag = buffer.get(pos);
+        return tag == BINARY || tag == SMALL_INT || tag == INT || tag == SMALL_BIGINT;
+    }
+
+    /**
+     * Reads an integer term, or parses the digits of a binary term directly into a long without allocating a String.
+     *
+     * @throws NumberFormatException
+     *         If the binary is not a valid number for the provided mode
+     */
+    public static long readLong(ByteBuffer buffer, int pos, int mode)
+    {
+        byte tag = buffer.get(pos++);
+        switch (tag)
+        {
+        case SMALL_INT: return Byte.toUnsignedInt(buffer.get(pos));
+        case INT: return buffer.getInt(pos);
+        case SMALL_BIGINT: return readSmallBigint(buffer, pos);
+        case BINARY: return parseLong(buffer, pos + 4, buffer.getInt(pos), mode);
+        default:
+            throw new IllegalArgumentException("Cannot read long from tag " + tag);
+        }
+    }
+
+    public static String readKey(ByteBuffer buffer, int pos)
+    {
+        Object key = read(buffer, pos);
+        if (!(key instanceof String))
+            throw new IllegalArgumentException("Unexpected map key " + key);
+        return (String) key;
+    }
+
+    private static long parseLong(ByteBuffer buffer, int pos, int length, int mode)
+    {
+        boolean negative = length > 0 && buffer.get(pos) == '-';
+        if (length == 0 || length > 20 || (negative && mode == UNSIGNED))
+            throw numberError(buffer, pos, length);
+
+        long value = 0;
+        for (int i = negative ? 1 : 0; i < length; i++)
+        {
+            int digit = buffer.get(pos + i) - '0';
+            if (digit < 0 || digit > 9 || Long.compareUnsigned(value, MAX_UNSIGNED_DIV_10) > 0)
+                throw numberError(buffer, pos, length);
+            long next = value * 10 + digit;
+            if (Long.compareUnsigned(next, value * 10) < 0)
+                throw numberError(buffer, pos, length);
+            value = next;
+        }
+
+        if (negative)
+        {
+            // The magnitude of Long.MIN_VALUE is the only unsigned value above Long.MAX_VALUE that can be negated
+            if (length == 1 || (value < 0 && value != Long.MIN_VALUE))
+                throw numberError(buffer, pos, length);
+            return -value;
+        }
+        if (mode == SIGNED && value < 0)
+            throw numberError(buffer, pos, length);
+        return value;
+    }
+
+    private static NumberFormatException numberError(ByteBuffer buffer, int pos, int length)
+    {
+        return new NumberFormatException("For input string: \"" + readString(buffer, pos, length, StandardCharsets.UTF_8) + "\"");
+    }
+
+    private static long readSmallBigint(ByteBuffer buffer, int pos)
+    {
+        int arity = Byte.toUnsignedInt(buffer.get(pos++));
+        int sign = Byte.toUnsignedInt(buffer.get(pos++));
+        long sum = 0;
+        long offset = 0;
+        while (arity-- > 0)
+        {
+            sum += Byte.toUnsignedLong(buffer.get(pos++)) << offset;
+            offset += 8;
+        }
+
+        return sign == 0 ? sum : -sum;
+    }
+
+    private static List<Object> readBytes(ByteBuffer buffer, int pos, int length)
+    {
+        // Mutable like the list of the eager decoder
+        List<Object> bytes = new ArrayList<>(length);
+        for (int i = 0; i < length; i++)
+            bytes.add(buffer.get(pos + i));
+        return bytes;
+    }
+
+    private static Object readAtom(ByteBuffer buffer, int pos, int length, Charset charset)
+    {
+        // Avoid allocating strings for the common atoms
+        if (length == 3 && buffer.get(pos) == 'n' && buffer.get(pos + 1) == 'i' && buffer.get(pos + 2) == 'l')
+            return null;
+        if (length == 4 && buffer.get(pos) == 't' && buffer.get(pos + 1) == 'r' && buffer.get(pos + 2) == 'u' && buffer.get(pos + 3) == 'e')
+            return true;
+        if (length == 5 && buffer.get(pos) == 'f' && buffer.get(pos + 1) == 'a' && buffer.get(pos + 2) == 'l' && buffer.get(pos + 3) == 's' && buffer.get(pos + 4) == 'e')
+            return false;
+        return readString(buffer, pos, length, charset).intern();
+    }
+
+    private static String readString(ByteBuffer buffer, int pos, int length, Charset charset)
+    {
+        if (buffer.hasArray())
+            return new String(buffer.array(), buffer.arrayOffset() + pos, length, charset);
+        byte[] array = new byte[length];
+        for (int i = 0; i < length; i++)
+            array[i] = buffer.get(pos + i);
+        return new String(array, charset);
+    }
+
+    private static ByteBuffer inflate(ByteBuffer buffer, int pos)
+    {
+        int size = buffer.getInt(pos);
+        pos += 4;
+        byte[] input;
+        int offset;
+        if (buffer.hasArray())
+        {
+            input = buffer.array();
+            offset = buffer.arrayOffset() + pos;
+        }
+        else
+        {
+            input = new byte[buffer.limit() - pos];
+            for (int i = 0; i < input.length; i++)
+                input[i] = buffer.get(pos + i);
+            offset = 0;
+        }
+        return ByteBuffer.wrap(inflate(input, offset, buffer.limit() - pos, size));
+    }
+
+    /**
+     * Inflates the zlib data directly into an array of the known uncompressed size.
+     */
+    public static byte[] inflate(byte[] input, int offset, int length, int size)
+    {
+        Inflater inflater = new Inflater();
+        try
+        {
+            inflater.setInput(input, offset, length);
+            byte[] output = new byte[size];
+            int written = 0;
+            while (written < size && !inflater.finished())
+            {
+                int inflated = inflater.inflate(output, written, size - written);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    break;
+                written += inflated;
+            }
+            if (written != size)
+                throw new IllegalArgumentException("Compressed term has size " + written + " but expected " + size);
+            return output;
+        }
+        catch (DataFormatException e)
+        {
+            throw new IllegalArgumentException("Malformed compressed term", e);
+        }
+        finally
+        {
+            inflater.end();
+        }
+    }
+}
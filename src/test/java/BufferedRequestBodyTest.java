@@ -0,0 +1,140 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import net.dv8tion.jda.api.utils.FileUpload;
+import net.dv8tion.jda.internal.utils.BufferedRequestBody;
+import okhttp3.MediaType;
+import okhttp3.RequestBody;
+import okio.Buffer;
+import okio.Okio;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+public class BufferedRequestBodyTest
+{
+    private static final MediaType OCTET = MediaType.get("application/octet-stream");
+    private static final MediaType PNG = MediaType.get("image/png");
+
+    @Test
+    public void testBelowThresholdStaysInMemory() throws IOException
+    {
+        byte[] data = randomBytes(100);
+        BufferedRequestBody body = new BufferedRequestBody(source(data), OCTET, 100);
+
+        Assertions.assertEquals(-1, body.contentLength());
+        Assertions.assertArrayEquals(data, write(body));
+        Assertions.assertNull(body.getTemporaryFile());
+        Assertions.assertEquals(100, body.contentLength());
+
+        body.close();
+        Assertions.assertArrayEquals(data, write(body));
+    }
+
+    @Test
+    public void testAboveThresholdSpillsToDisk() throws IOException
+    {
+        byte[] data = randomBytes(101);
+        BufferedRequestBody body = new BufferedRequestBody(source(data), OCTET, 100);
+
+        Assertions.assertArrayEquals(data, write(body));
+        Path file = body.getTemporaryFile();
+        Assertions.assertNotNull(file);
+        Assertions.assertTrue(Files.exists(file));
+        Assertions.assertEquals(101, body.contentLength());
+        Assertions.assertArrayEquals(data, write(body));
+
+        body.close();
+        Assertions.assertFalse(Files.exists(file));
+        Assertions.assertNull(body.getTemporaryFile());
+        Assertions.assertThrows(IOException.class, () -> write(body));
+    }
+
+    @Test
+    public void testCopiesShareContent() throws IOException
+    {
+        byte[] data = randomBytes(200);
+        BufferedRequestBody body = new BufferedRequestBody(source(data), OCTET, 100);
+        BufferedRequestBody copy = body.withType(PNG);
+
+        Assertions.assertSame(body, body.withType(OCTET));
+        Assertions.assertEquals(PNG, copy.contentType());
+        Assertions.assertArrayEquals(data, write(copy));
+        Assertions.assertArrayEquals(data, write(body));
+        Assertions.assertEquals(copy.getTemporaryFile(), body.getTemporaryFile());
+
+        Path file = body.getTemporaryFile();
+        copy.close();
+        Assertions.assertFalse(Files.exists(file));
+        Assertions.assertThrows(IOException.class, () -> write(body));
+    }
+
+    @Test
+    public void testFileUploadDeleteOnClose() throws IOException
+    {
+        byte[] data = randomBytes(50);
+        Path file = Files.createTempFile("jda-test-", ".bin");
+        Files.write(file, data);
+
+        FileUpload upload = FileUpload.fromData(file, "test.bin", StandardOpenOption.DELETE_ON_CLOSE);
+        RequestBody body = upload.getRequestBody(OCTET);
+
+        // Every attempt opens the file again, so it must only be deleted once the upload is done
+        Assertions.assertArrayEquals(data, write(body));
+        Assertions.assertArrayEquals(data, write(body));
+        Assertions.assertTrue(Files.exists(file));
+
+        upload.close();
+        Assertions.assertFalse(Files.exists(file));
+    }
+
+    @Test
+    public void testFileUploadStreamIsReusable() throws IOException
+    {
+        byte[] data = randomBytes(50);
+        try (FileUpload upload = FileUpload.fromData(new ByteArrayInputStream(data), "test.bin"))
+        {
+            Assertions.assertArrayEquals(data, write(upload.getRequestBody(OCTET)));
+            Assertions.assertArrayEquals(data, write(upload.getRequestBody(PNG)));
+        }
+    }
+
+    private static okio.Source source(byte[] data)
+    {
+        return Okio.source(new ByteArrayInputStream(data));
+    }
+
+    private static byte[] randomBytes(int length)
+    {
+        byte[] data = new byte[length];
+        new Random(length).nextBytes(data);
+        return data;
+    }
+
+    private static byte[] write(RequestBody body) throws IOException
+    {
+        Buffer buffer = new Buffer();
+        body.writeTo(buffer);
+        return buffer.readByteArray();
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.dv8tion.jda.api.entities.ISnowflake;
+import net.dv8tion.jda.api.entities.UserSnowflake;
+import net.dv8tion.jda.api.requests.BulkOperation;
+import net.dv8tion.jda.api.requests.Route;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.requests.RestActionImpl;
+import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+public class BulkOperationTest
+{
+    private final JDAImpl jda = new JDAImpl(new AuthorizationConfig("token"));
+    private final Deque<PendingAction> pending = new ArrayDeque<>();
+
+    @Test
+    public void testMaxInFlightPerBucket()
+    {
+        // Even ids go to the bucket of guild 1, odd ids to the bucket of guild 2
+        BulkOperation operation = new BulkOperation(jda, users(1, 20), id -> new PendingAction(id % 2 + 1, id))
+            .setMaxInFlight(3);
+        CompletableFuture<BulkOperation> future = operation.start();
+
+        Assertions.assertEquals(6, pending.size());
+        while (!pending.isEmpty())
+        {
+            Map<Long, Long> perBucket = pending.stream().collect(Collectors.groupingBy(action -> action.guildId, Collectors.counting()));
+            Assertions.assertTrue(perBucket.values().stream().allMatch(count -> count <= 3));
+            Assertions.assertEquals(pending.size(), operation.getInFlight());
+            Assertions.assertFalse(future.isDone());
+            pending.poll().succeed();
+        }
+
+        Assertions.assertTrue(future.isDone());
+        Assertions.assertEquals(20, operation.getCompleted());
+        Assertions.assertEquals(0, operation.getFailed());
+    }
+
+    @Test
+    public void testResumeFromCheckpoint()
+    {
+        BulkOperation first = new BulkOperation(jda, users(1, 10), id -> new PendingAction(1, id));
+        first.start();
+        pending.poll().succeed();
+        pending.poll().fail();
+        first.cancel();
+        while (!pending.isEmpty())
+            pending.poll().succeed();
+
+        Assertions.assertEquals(3, first.getCompleted());
+        Assertions.assertEquals(1, first.getFailed());
+
+        DataObject stored = first.getCheckpoint().toData();
+        BulkOperation.Checkpoint checkpoint = BulkOperation.Checkpoint.fromData(DataObject.fromJson(stored.toString()));
+
+        Set<Long> queued = new HashSet<>();
+        BulkOperation second = new BulkOperation(jda, users(1, 10), id -> {
+            queued.add(id);
+            return new PendingAction(1, id);
+        }).resumeFrom(checkpoint);
+        CompletableFuture<BulkOperation> future = second.start();
+        while (!pending.isEmpty())
+            pending.poll().succeed();
+
+        Assertions.assertTrue(future.isDone());
+        Assertions.assertEquals(7, queued.size());
+        for (long id : checkpoint.getCompleted())
+            Assertions.assertFalse(queued.contains(id));
+        Assertions.assertEquals(10, second.getCompleted());
+    }
+
+    @Test
+    public void testSynchronousCompletion()
+    {
+        BulkOperation operation = new BulkOperation(jda, users(1, 50000), id -> new ImmediateAction(id, id % 3 != 0));
+        CompletableFuture<BulkOperation> future = operation.start();
+
+        Assertions.assertTrue(future.isDone());
+        Assertions.assertFalse(future.isCompletedExceptionally());
+        Assertions.assertEquals(33334, operation.getCompleted());
+        Assertions.assertEquals(16666, operation.getFailed());
+        Assertions.assertEquals(0, operation.getInFlight());
+    }
+
+    @Test
+    public void testQueueThrows()
+    {
+        BulkOperation operation = new BulkOperation(jda, users(1, 10), id -> id % 2 == 0 ? new RejectedAction(id) : new PendingAction(1, id));
+        CompletableFuture<BulkOperation> future = operation.start();
+        while (!pending.isEmpty())
+            pending.poll().succeed();
+
+        Assertions.assertTrue(future.isDone());
+        Assertions.assertEquals(5, operation.getCompleted());
+        Assertions.assertEquals(5, operation.getFailed());
+        Assertions.assertTrue(operation.getFailures().values().stream().allMatch(RejectedExecutionException.class::isInstance));
+    }
+
+    private static List<ISnowflake> users(long from, long to)
+    {
+        return LongStream.rangeClosed(from, to).mapToObj(UserSnowflake::fromId).collect(Collectors.toList());
+    }
+
+    private class ImmediateAction extends RestActionImpl<Void>
+    {
+        private final boolean success;
+
+        private ImmediateAction(long userId, boolean success)
+        {
+            super(jda, Route.Guilds.ADD_MEMBER_ROLE.compile("1", Long.toString(userId), "1"));
+            this.success = success;
+        }
+
+        @Override
+        public void queue(Consumer<? super Void> success, Consumer<? super Throwable> failure)
+        {
+            if (this.success)
+                success.accept(null);
+            else
+                failure.accept(new IllegalStateException("Failed"));
+        }
+    }
+
+    private class RejectedAction extends RestActionImpl<Void>
+    {
+        private RejectedAction(long userId)
+        {
+            super(jda, Route.Guilds.ADD_MEMBER_ROLE.compile("1", Long.toString(userId), "1"));
+        }
+
+        @Override
+        public void queue(Consumer<? super Void> success, Consumer<? super Throwable> failure)
+        {
+            throw new RejectedExecutionException("Requester has been stopped");
+        }
+    }
+
+    private class PendingAction extends RestActionImpl<Void>
+    {
+        private final long guildId;
+        private Consumer<? super Void> success;
+        private Consumer<? super Throwable> failure;
+
+        private PendingAction(long guildId, long userId)
+        {
+            super(jda, Route.Guilds.ADD_MEMBER_ROLE.compile(Long.toString(guildId), Long.toString(userId), "1"));
+            this.guildId = guildId;
+        }
+
+        @Override
+        public void queue(Consumer<? super Void> success, Consumer<? super Throwable> failure)
+        {
+            this.success = success;
+            this.failure = failure;
+            pending.add(this);
+        }
+
+        private void succeed()
+        {
+            success.accept(null);
+        }
+
+        private void fail()
+        {
+            failure.accept(new IllegalStateException("Failed"));
+        }
+    }
+}
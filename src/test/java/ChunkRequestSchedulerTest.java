@@ -0,0 +1,211 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.requests.ChunkRequestScheduler;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ChunkRequestSchedulerTest
+{
+    @Test
+    public void testPriorityOrder()
+    {
+        ChunkRequestScheduler scheduler = new ChunkRequestScheduler();
+        scheduler.add(1, 100, false, request("setup-small"));
+        scheduler.add(2, 5000, false, request("setup-large"));
+        scheduler.add(3, 10, true, request("join-small"));
+        scheduler.add(4, 2000, true, request("join-large"));
+        scheduler.add(request("user-first"));
+        scheduler.add(5, 100, false, request("setup-small-later"));
+        scheduler.add(request("user-second"));
+
+        Assertions.assertEquals(Arrays.asList(
+            "user-first", "user-second",
+            "join-large", "join-small",
+            "setup-large", "setup-small", "setup-small-later"
+        ), drain(scheduler));
+        Assertions.assertEquals(7, scheduler.getSentRequests());
+        Assertions.assertNull(scheduler.peek());
+    }
+
+    @Test
+    public void testPriorityWhileSending()
+    {
+        ChunkRequestScheduler scheduler = new ChunkRequestScheduler();
+        scheduler.add(1, 100, false, request("setup-first"));
+        scheduler.add(2, 100, false, request("setup-second"));
+        scheduler.add(3, 100, true, request("join-first"));
+        scheduler.add(4, 100, true, request("join-second"));
+
+        Assertions.assertEquals("join-first", scheduler.peek().getString("name"));
+        scheduler.remove();
+
+        // Requests added later still skip ahead of the lower priorities, but not ahead of equal requests added earlier
+        scheduler.add(request("user"));
+        scheduler.add(5, 100, true, request("join-third"));
+        scheduler.add(6, 50000, false, request("setup-huge"));
+        Assertions.assertEquals(Arrays.asList(
+            "user",
+            "join-second", "join-third",
+            "setup-huge", "setup-first", "setup-second"
+        ), drain(scheduler));
+    }
+
+    @Test
+    public void testYieldToOtherMessages()
+    {
+        ChunkRequestScheduler scheduler = new ChunkRequestScheduler();
+        for (int i = 0; i < 10; i++)
+            scheduler.add(i, 10, false, request("guild-" + i));
+
+        for (int i = 0; i < ChunkRequestScheduler.CHUNK_BURST; i++)
+        {
+            Assertions.assertFalse(scheduler.shouldYield(true));
+            scheduler.remove();
+        }
+        Assertions.assertTrue(scheduler.shouldYield(true));
+        // After yielding once, the next burst may be sent
+        Assertions.assertFalse(scheduler.shouldYield(true));
+        scheduler.remove();
+
+        // Without other messages waiting, chunk requests are never held back
+        for (int i = 0; i < 5; i++)
+        {
+            Assertions.assertFalse(scheduler.shouldYield(false));
+            scheduler.remove();
+        }
+        Assertions.assertEquals(1, scheduler.size());
+    }
+
+    @Test
+    public void testBurstResetsWithoutOtherMessages()
+    {
+        ChunkRequestScheduler scheduler = new ChunkRequestScheduler();
+        for (int i = 0; i < 10; i++)
+            scheduler.add(i, 10, false, request("guild-" + i));
+
+        for (int i = 0; i < ChunkRequestScheduler.CHUNK_BURST - 1; i++)
+        {
+            Assertions.assertFalse(scheduler.shouldYield(true));
+            scheduler.remove();
+        }
+        // Once nothing else is waiting, the burst starts over
+        Assertions.assertFalse(scheduler.shouldYield(false));
+        for (int i = 0; i < ChunkRequestScheduler.CHUNK_BURST; i++)
+        {
+            Assertions.assertFalse(scheduler.shouldYield(true));
+            scheduler.remove();
+        }
+        Assertions.assertTrue(scheduler.shouldYield(true));
+    }
+
+    @Test
+    public void testEstimatedTimeRemaining() throws InterruptedException
+    {
+        ChunkRequestScheduler scheduler = new ChunkRequestScheduler();
+        long start = System.currentTimeMillis();
+        scheduler.add(1, 1000, false, request("a"));
+        Thread.sleep(100);
+
+        // Half of the members arrived, so the other half should take about as long again
+        scheduler.onChunk(1, 500, false);
+        long eta = scheduler.getEstimatedTimeRemaining();
+        long elapsed = System.currentTimeMillis() - start;
+        Assertions.assertEquals(0.5, scheduler.getProgress());
+        Assertions.assertTrue(eta >= 100, "ETA " + eta + " is shorter than the elapsed time");
+        Assertions.assertTrue(eta <= elapsed, "ETA " + eta + " is longer than the elapsed time " + elapsed);
+
+        scheduler.onChunk(1, 500, true);
+        Assertions.assertEquals(0, scheduler.getEstimatedTimeRemaining());
+    }
+
+    @Test
+    public void testProgress()
+    {
+        ChunkRequestScheduler scheduler = new ChunkRequestScheduler();
+        Assertions.assertEquals(1, scheduler.getProgress());
+        Assertions.assertEquals(0, scheduler.getEstimatedTimeRemaining());
+
+        scheduler.add(1, 300, false, request("a"));
+        scheduler.add(2, 100, false, request("b"));
+        // A repeated request for the same guild does not count its members twice
+        scheduler.add(2, 100, false, request("b-retry"));
+        Assertions.assertEquals(2, scheduler.getChunkingGuilds());
+        Assertions.assertEquals(400, scheduler.getExpectedMembers());
+        Assertions.assertEquals(-1, scheduler.getEstimatedTimeRemaining());
+
+        scheduler.onChunk(1, 100, false);
+        scheduler.onChunk(3, 1000, true); // Not tracked
+        Assertions.assertEquals(100, scheduler.getReceivedMembers());
+        Assertions.assertEquals(0.25, scheduler.getProgress());
+
+        scheduler.onChunk(2, 100, true);
+        Assertions.assertEquals(1, scheduler.getCompletedGuilds());
+        Assertions.assertEquals(1, scheduler.getChunkingGuilds());
+
+        scheduler.onChunk(1, 200, true);
+        Assertions.assertEquals(2, scheduler.getCompletedGuilds());
+        Assertions.assertEquals(0, scheduler.getChunkingGuilds());
+        Assertions.assertEquals(1, scheduler.getProgress());
+        Assertions.assertEquals(0, scheduler.getEstimatedTimeRemaining());
+    }
+
+    @Test
+    public void testRemoveAndClear()
+    {
+        ChunkRequestScheduler scheduler = new ChunkRequestScheduler();
+        DataObject user = request("user");
+        scheduler.add(user);
+        scheduler.add(1, 10, false, request("setup"));
+        scheduler.add(2, 10, true, request("join"));
+
+        Assertions.assertTrue(scheduler.remove(user));
+        Assertions.assertFalse(scheduler.remove(user));
+        Assertions.assertTrue(scheduler.removeIf(it -> it.getString("name").equals("join")));
+        Assertions.assertEquals(Arrays.asList("setup"), drain(scheduler));
+        // Removed requests were never sent
+        Assertions.assertEquals(1, scheduler.getSentRequests());
+
+        scheduler.add(3, 10, false, request("cleared"));
+        scheduler.clear();
+        Assertions.assertEquals(0, scheduler.size());
+        Assertions.assertEquals(0, scheduler.getChunkingGuilds());
+        Assertions.assertEquals(0, scheduler.getExpectedMembers());
+    }
+
+    private static List<String> drain(ChunkRequestScheduler scheduler)
+    {
+        List<String> order = new ArrayList<>();
+        DataObject next;
+        while ((next = scheduler.peek()) != null)
+        {
+            order.add(next.getString("name"));
+            scheduler.remove();
+        }
+        return order;
+    }
+
+    private static DataObject request(String name)
+    {
+        return DataObject.empty().put("name", name);
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import net.dv8tion.jda.api.exceptions.HttpException;
+import net.dv8tion.jda.api.utils.ChunkedDownloader;
+import net.dv8tion.jda.api.utils.FileProxy;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class ChunkedDownloaderTest
+{
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private final byte[] data = new byte[CHUNK_SIZE * 10 + 123];
+    private final AtomicInteger rangeRequests = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final OkHttpClient client = new OkHttpClient();
+    private HttpServer server;
+    private String baseUrl;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    public void setup() throws IOException
+    {
+        new Random(42).nextBytes(data);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/ranged.bin", this::handleRanged);
+        server.createContext("/plain.bin", exchange -> respond(exchange, 200, 0, data.length - 1));
+        server.createContext("/flaky.bin", this::handleFlaky);
+        server.createContext("/empty.bin", exchange ->
+        {
+            exchange.getResponseHeaders().set("Content-Range", "bytes */0");
+            exchange.sendResponseHeaders(416, -1);
+            exchange.close();
+        });
+        server.createContext("/huge.bin", this::handleHuge);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    public void teardown()
+    {
+        server.stop(0);
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+
+    @Test
+    public void testParallelDownload() throws Exception
+    {
+        ChunkedDownloader downloader = new ChunkedDownloader().setChunkSize(CHUNK_SIZE);
+        Path target = download("/ranged.bin", downloader);
+
+        Assertions.assertArrayEquals(data, Files.readAllBytes(target));
+        Assertions.assertEquals(11, rangeRequests.get());
+        Assertions.assertEquals(1, downloader.getCompletedDownloads());
+        Assertions.assertEquals(data.length, downloader.getDownloadedBytes());
+        Assertions.assertFalse(Files.exists(directory.resolve("file.bin.part")));
+        Assertions.assertFalse(Files.exists(directory.resolve("file.bin.part.progress")));
+    }
+
+    @Test
+    public void testRetryFailedChunk() throws Exception
+    {
+        failures.set(2);
+        ChunkedDownloader downloader = new ChunkedDownloader().setChunkSize(CHUNK_SIZE).setMaxAttempts(3);
+        Path target = download("/ranged.bin", downloader);
+
+        Assertions.assertArrayEquals(data, Files.readAllBytes(target));
+        Assertions.assertEquals(2, downloader.getRetriedChunks());
+    }
+
+    @Test
+    public void testResumeFailedDownload() throws Exception
+    {
+        failures.set(1);
+        ChunkedDownloader downloader = new ChunkedDownloader().setChunkSize(CHUNK_SIZE).setMaxAttempts(1).setMaxConnectionsPerHost(1);
+        Assertions.assertThrows(Exception.class, () -> download("/ranged.bin", downloader));
+        Assertions.assertEquals(1, downloader.getFailedDownloads());
+        Assertions.assertTrue(Files.exists(directory.resolve("file.bin.part.progress")));
+
+        rangeRequests.set(0);
+        Path target = download("/ranged.bin", downloader);
+        Assertions.assertArrayEquals(data, Files.readAllBytes(target));
+        // The probe is always requested, but only the chunks after the failed chunk are downloaded again
+        Assertions.assertEquals(7, rangeRequests.get());
+    }
+
+    @Test
+    public void testFallbackWithoutRanges() throws Exception
+    {
+        ChunkedDownloader downloader = new ChunkedDownloader().setChunkSize(CHUNK_SIZE);
+        Path target = download("/plain.bin", downloader);
+
+        Assertions.assertArrayEquals(data, Files.readAllBytes(target));
+    }
+
+    @Test
+    public void testRetryFailedProbe() throws Exception
+    {
+        failures.set(2);
+        ChunkedDownloader downloader = new ChunkedDownloader().setChunkSize(CHUNK_SIZE).setMaxAttempts(3);
+        Path target = download("/flaky.bin", downloader);
+
+        Assertions.assertArrayEquals(data, Files.readAllBytes(target));
+        Assertions.assertEquals(2, downloader.getRetriedChunks());
+    }
+
+    @Test
+    public void testEmptyFile() throws Exception
+    {
+        ChunkedDownloader downloader = new ChunkedDownloader().setChunkSize(CHUNK_SIZE);
+        Path target = download("/empty.bin", downloader);
+
+        Assertions.assertEquals(0, Files.size(target));
+        Assertions.assertEquals(1, downloader.getCompletedDownloads());
+    }
+
+    @Test
+    public void testFailWithLongQueue() throws Exception
+    {
+        // Every queued chunk is released when the download fails, which must not happen recursively
+        ChunkedDownloader downloader = new ChunkedDownloader().setChunkSize(CHUNK_SIZE).setMaxAttempts(1).setMaxConnectionsPerHost(1);
+        ExecutionException error = Assertions.assertThrows(ExecutionException.class, () -> download("/huge.bin", downloader));
+        Assertions.assertInstanceOf(HttpException.class, error.getCause());
+        Assertions.assertEquals(1, downloader.getFailedDownloads());
+        Assertions.assertEquals(0, downloader.getActiveDownloads());
+
+        // The connection slots of the host must all be released again
+        Path target = download("/ranged.bin", downloader);
+        Assertions.assertArrayEquals(data, Files.readAllBytes(target));
+    }
+
+    private Path download(String path, ChunkedDownloader downloader) throws Exception
+    {
+        return new FileProxy(baseUrl + path)
+                .withClient(client)
+                .withDownloader(downloader)
+                .downloadToPath(directory.resolve("file.bin"))
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    private void handleRanged(HttpExchange exchange) throws IOException
+    {
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        Matcher matcher = range == null ? null : RANGE.matcher(range);
+        if (matcher == null || !matcher.matches())
+        {
+            respond(exchange, 200, 0, data.length - 1);
+            return;
+        }
+
+        rangeRequests.incrementAndGet();
+        int start = Integer.parseInt(matcher.group(1));
+        int end = Math.min(Integer.parseInt(matcher.group(2)), data.length - 1);
+        if (start >= CHUNK_SIZE * 5 && failures.getAndUpdate(i -> Math.max(0, i - 1)) > 0)
+        {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+            return;
+        }
+
+        exchange.getResponseHeaders().set("ETag", "\"test\"");
+        exchange.getResponseHeaders().set("Content-Range", "bytes " + start + "-" + end + "/" + data.length);
+        respond(exchange, 206, start, end);
+    }
+
+    private void handleFlaky(HttpExchange exchange) throws IOException
+    {
+        int failure = failures.getAndUpdate(i -> Math.max(0, i - 1));
+        if (failure == 2)
+        {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+            return;
+        }
+        if (failure == 1)
+        {
+            // Cut the probe off in the middle, after the part file has been created
+            exchange.getResponseHeaders().set("ETag", "\"test\"");
+            exchange.getResponseHeaders().set("Content-Range", "bytes 0-" + (CHUNK_SIZE - 1) + "/" + data.length);
+            exchange.sendResponseHeaders(206, CHUNK_SIZE);
+            exchange.getResponseBody().write(data, 0, 100);
+            exchange.close();
+            return;
+        }
+        handleRanged(exchange);
+    }
+
+    private void handleHuge(HttpExchange exchange) throws IOException
+    {
+        Matcher matcher = RANGE.matcher(exchange.getRequestHeaders().getFirst("Range"));
+        if (!matcher.matches() || !matcher.group(1).equals("0"))
+        {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Range", "bytes 0-" + (CHUNK_SIZE - 1) + "/" + (CHUNK_SIZE * 100000L));
+        respond(exchange, 206, 0, CHUNK_SIZE - 1);
+    }
+
+    private void respond(HttpExchange exchange, int code, int start, int end) throws IOException
+    {
+        exchange.sendResponseHeaders(code, end - start + 1);
+        try (OutputStream out = exchange.getResponseBody())
+        {
+            out.write(data, start, end - start + 1);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.handle.EventCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class EventCacheTest
+{
+    @Test
+    public void testPlayback()
+    {
+        EventCache cache = new EventCache();
+        List<Long> replayed = new ArrayList<>();
+        for (int i = 1; i <= 3; i++)
+            cache.cache(EventCache.Type.USER, 1, i, event(i), (responseTotal, event) -> replayed.add(event.getLong("n")));
+        cache.cache(EventCache.Type.USER, 2, 4, event(4), (responseTotal, event) -> replayed.add(event.getLong("n")));
+        Assertions.assertEquals(4, cache.size());
+        Assertions.assertTrue(cache.getTotalBytes() > 0);
+
+        cache.playbackCache(EventCache.Type.USER, 1);
+        Assertions.assertEquals(Arrays.asList(1L, 2L, 3L), replayed);
+        Assertions.assertEquals(1, cache.size());
+        Assertions.assertEquals(4, cache.getCachedCount());
+        Assertions.assertEquals(3, cache.getReplayedCount());
+        Assertions.assertEquals(0, cache.getDroppedCount());
+
+        cache.clear(EventCache.Type.USER, 2);
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertEquals(0, cache.getTotalBytes());
+        Assertions.assertEquals(1, cache.getDroppedCount());
+    }
+
+    @Test
+    public void testTimeout()
+    {
+        EventCache cache = new EventCache();
+        List<Long> replayed = new ArrayList<>();
+        for (int i = 1; i <= 10; i++)
+            cache.cache(EventCache.Type.CHANNEL, i % 2, i, event(i), (responseTotal, event) -> replayed.add(event.getLong("n")));
+
+        // Events more than TIMEOUT_AMOUNT sequences old are removed
+        cache.timeout(5 + EventCache.TIMEOUT_AMOUNT);
+        Assertions.assertEquals(6, cache.size());
+        Assertions.assertEquals(4, cache.getDroppedCount());
+
+        cache.playbackCache(EventCache.Type.CHANNEL, 1);
+        cache.playbackCache(EventCache.Type.CHANNEL, 0);
+        Assertions.assertEquals(Arrays.asList(5L, 7L, 9L, 6L, 8L, 10L), replayed);
+
+        // Replayed events are skipped by the expiry queue
+        cache.timeout(1000);
+        Assertions.assertEquals(4, cache.getDroppedCount());
+        Assertions.assertEquals(6, cache.getReplayedCount());
+    }
+
+    @Test
+    public void testEntityLimit()
+    {
+        EventCache cache = new EventCache(3, Long.MAX_VALUE);
+        List<Long> replayed = new ArrayList<>();
+        for (int i = 1; i <= 5; i++)
+            cache.cache(EventCache.Type.GUILD, 1, i, event(i), (responseTotal, event) -> replayed.add(event.getLong("n")));
+        Assertions.assertEquals(3, cache.size());
+        Assertions.assertEquals(2, cache.getDroppedCount());
+
+        cache.playbackCache(EventCache.Type.GUILD, 1);
+        Assertions.assertEquals(Arrays.asList(3L, 4L, 5L), replayed);
+    }
+
+    @Test
+    public void testByteLimit()
+    {
+        EventCache probe = new EventCache();
+        probe.cache(EventCache.Type.GUILD, 1, 1, event(1), (responseTotal, event) -> {});
+        long eventSize = probe.getTotalBytes();
+
+        // Only room for 4 events, the oldest are dropped first regardless of their entity
+        EventCache cache = new EventCache(100, eventSize * 4);
+        List<Long> replayed = new ArrayList<>();
+        for (int i = 1; i <= 6; i++)
+            cache.cache(EventCache.Type.GUILD, i % 3, i, event(i), (responseTotal, event) -> replayed.add(event.getLong("n")));
+        Assertions.assertEquals(4, cache.size());
+        Assertions.assertEquals(2, cache.getDroppedCount());
+        Assertions.assertTrue(cache.getTotalBytes() <= eventSize * 4);
+
+        for (int id = 0; id < 3; id++)
+            cache.playbackCache(EventCache.Type.GUILD, id);
+        Assertions.assertEquals(Arrays.asList(3L, 6L, 4L, 5L), replayed);
+    }
+
+    private static DataObject event(long n)
+    {
+        return DataObject.empty().put("n", n).put("content", "event " + n);
+    }
+}
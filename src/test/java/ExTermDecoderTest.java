@@ -0,0 +1,189 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.api.utils.data.etf.ExTermDecoder;
+import net.dv8tion.jda.api.utils.data.etf.ExTermEncoder;
+import net.dv8tion.jda.api.utils.data.etf.ExTermTag;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class ExTermDecoderTest
+{
+    @Test
+    public void testLazyMatchesEager()
+    {
+        Map<String, Object> user = new HashMap<>();
+        user.put("id", "123456789012345678");
+        user.put("username", "minn");
+        user.put("bot", true);
+        user.put("avatar", null);
+
+        List<Object> roles = Arrays.asList("1", "2", Collections.singletonMap("nested", Arrays.asList(1, 2, 3)));
+        Map<String, Object> member = new HashMap<>();
+        member.put("user", user);
+        member.put("roles", roles);
+        member.put("flags", 1 << 20);
+        member.put("small", 7);
+        member.put("big", 1L << 40);
+        member.put("negative", -5L);
+        member.put("ratio", 0.5);
+        member.put("empty", Collections.emptyList());
+
+        ByteBuffer packed = ExTermEncoder.pack(member);
+        Map<String, Object> eager = ExTermDecoder.unpackMap(packed.duplicate());
+        Map<String, Object> lazy = ExTermDecoder.unpackMapLazy(packed.duplicate());
+
+        Assertions.assertEquals(eager, lazy);
+        Assertions.assertEquals(lazy, eager);
+        Assertions.assertEquals(eager.keySet(), lazy.keySet());
+        Assertions.assertEquals(eager.get("roles"), lazy.get("roles"));
+        Assertions.assertEquals(eager.get("user"), lazy.get("user"));
+
+        List<Object> eagerList = ExTermDecoder.unpackList(ExTermEncoder.pack(roles));
+        List<Object> lazyList = ExTermDecoder.unpackListLazy(ExTermEncoder.pack(roles));
+        Assertions.assertEquals(eagerList, lazyList);
+    }
+
+    @Test
+    public void testLargeMap()
+    {
+        // Large maps use a hash index instead of a linear scan
+        Map<String, Object> map = new HashMap<>();
+        for (int i = 0; i < 100; i++)
+            map.put("key" + i, Collections.singletonMap("value", i));
+
+        ByteBuffer packed = ExTermEncoder.pack(map);
+        Map<String, Object> lazy = ExTermDecoder.unpackMapLazy(packed.duplicate());
+        Assertions.assertEquals(ExTermDecoder.unpackMap(packed.duplicate()), lazy);
+        Assertions.assertEquals(Collections.singletonMap("value", 42), lazy.get("key42"));
+        Assertions.assertNull(lazy.get("missing"));
+        Assertions.assertFalse(lazy.containsKey("missing"));
+    }
+
+    @Test
+    public void testModifyNestedValues()
+    {
+        Map<String, Object> map = new HashMap<>();
+        map.put("nested", Collections.singletonMap("a", 1));
+        map.put("list", Arrays.asList(1, 2));
+
+        DataObject object = DataObject.fromETF(toArray(ExTermEncoder.pack(map)));
+        object.getObject("nested").put("b", 2);
+        object.getArray("list").add(3);
+        object.put("added", "value");
+
+        Assertions.assertEquals(2, object.getObject("nested").getInt("b"));
+        Assertions.assertEquals(1, object.getObject("nested").getInt("a"));
+        Assertions.assertEquals(3, object.getArray("list").length());
+        Assertions.assertEquals("value", object.getString("added"));
+    }
+
+    @Test
+    public void testStringTagIsMutable()
+    {
+        byte[] key = "bytes".getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 5 + 5 + key.length + 3 + 3);
+        buffer.put((byte) 131).put(ExTermTag.MAP).putInt(1);
+        buffer.put(ExTermTag.BINARY).putInt(key.length).put(key);
+        buffer.put(ExTermTag.STRING).putShort((short) 3).put((byte) 1).put((byte) 2).put((byte) 3);
+
+        Map<String, Object> eager = ExTermDecoder.unpackMap(ByteBuffer.wrap(buffer.array()));
+        Map<String, Object> lazy = ExTermDecoder.unpackMapLazy(ByteBuffer.wrap(buffer.array()));
+        Assertions.assertEquals(eager, lazy);
+
+        @SuppressWarnings("unchecked")
+        List<Object> bytes = (List<Object>) lazy.get("bytes");
+        Assertions.assertInstanceOf(ArrayList.class, bytes);
+        Assertions.assertEquals(Arrays.asList((byte) 1, (byte) 2, (byte) 3), bytes);
+        bytes.add((byte) 4);
+        Assertions.assertEquals(4, ((List<?>) lazy.get("bytes")).size());
+    }
+
+    @Test
+    public void testReadLongs()
+    {
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", "123456789012345678");
+        map.put("unsigned", "18446744073709551615");
+        map.put("int", 1234);
+        DataObject object = DataObject.fromETF(toArray(ExTermEncoder.pack(map)));
+
+        Assertions.assertEquals(123456789012345678L, object.getLong("id"));
+        Assertions.assertEquals(-1L, object.getUnsignedLong("unsigned"));
+        Assertions.assertEquals(1234L, object.getLong("int"));
+        Assertions.assertEquals(5L, object.getLong("missing", 5));
+        Assertions.assertEquals("123456789012345678", object.getString("id"));
+
+        DataArray array = DataArray.fromETF(toArray(ExTermEncoder.pack(Arrays.asList("42", 7))));
+        Assertions.assertEquals(42L, array.getLong(0));
+        Assertions.assertEquals(7L, array.getLong(1));
+    }
+
+    @Test
+    public void testConcurrentReads() throws Exception
+    {
+        Map<String, Object> map = new HashMap<>();
+        for (int i = 0; i < 50; i++)
+            map.put("key" + i, Collections.singletonMap("value", i));
+        Map<String, Object> lazy = ExTermDecoder.unpackMapLazy(ExTermEncoder.pack(map));
+
+        // Every thread must observe the same decoded instance
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try
+        {
+            CyclicBarrier barrier = new CyclicBarrier(8);
+            List<Future<List<Object>>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++)
+            {
+                results.add(executor.submit(() ->
+                {
+                    barrier.await();
+                    List<Object> values = new ArrayList<>();
+                    for (int i = 0; i < 50; i++)
+                        values.add(lazy.get("key" + i));
+                    return values;
+                }));
+            }
+
+            List<Object> first = results.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<List<Object>> result : results)
+            {
+                List<Object> values = result.get(10, TimeUnit.SECONDS);
+                for (int i = 0; i < 50; i++)
+                    Assertions.assertSame(first.get(i), values.get(i));
+            }
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private static byte[] toArray(ByteBuffer buffer)
+    {
+        byte[] array = new byte[buffer.remaining()];
+        buffer.get(array);
+        return array;
+    }
+}
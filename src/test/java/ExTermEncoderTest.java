@@ -0,0 +1,100 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.api.utils.data.etf.ExTermDecoder;
+import net.dv8tion.jda.api.utils.data.etf.ExTermEncoder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+
+public class ExTermEncoderTest
+{
+    @ParameterizedTest
+    @ValueSource(longs = {
+        0, 1, 255, 256, -1, -255, -256,
+        Integer.MAX_VALUE, Integer.MIN_VALUE,
+        1L << 31, (1L << 32) - 1, 1L << 32, -(1L << 31) - 1, -(1L << 32),
+        1L << 40, -(1L << 40), Long.MAX_VALUE, Long.MIN_VALUE + 1, Long.MIN_VALUE
+    })
+    public void testLongRoundTrip(long value)
+    {
+        ByteBuffer packed = ExTermEncoder.pack(value);
+        Assertions.assertEquals(packed.limit(), ExTermEncoder.sizeOf(value));
+        Assertions.assertEquals(value, ((Number) ExTermDecoder.unpack(packed)).longValue());
+
+        Map<String, Object> map = Collections.singletonMap("value", value);
+        byte[] data = toArray(ExTermEncoder.pack(map));
+        Assertions.assertEquals(data.length, ExTermEncoder.sizeOf(map));
+        Assertions.assertEquals(value, DataObject.fromETF(data).getLong("value"));
+        Assertions.assertEquals(value, ((Number) ExTermDecoder.unpackMap(ByteBuffer.wrap(data)).get("value")).longValue());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 255, 256, -1, Integer.MAX_VALUE, Integer.MIN_VALUE})
+    public void testIntRoundTrip(int value)
+    {
+        ByteBuffer packed = ExTermEncoder.pack(value);
+        Assertions.assertEquals(packed.limit(), ExTermEncoder.sizeOf(value));
+        Assertions.assertEquals(value, ((Number) ExTermDecoder.unpack(packed)).intValue());
+    }
+
+    @Test
+    public void testArraySizes()
+    {
+        long[] longs = {0, -1, 1L << 31, 1L << 32, Long.MIN_VALUE, Long.MAX_VALUE};
+        ByteBuffer packed = ExTermEncoder.pack(longs);
+        Assertions.assertEquals(packed.limit(), ExTermEncoder.sizeOf(longs));
+        List<Object> decoded = ExTermDecoder.unpackList(packed);
+        for (int i = 0; i < longs.length; i++)
+            Assertions.assertEquals(longs[i], ((Number) decoded.get(i)).longValue());
+
+        int[] ints = {0, 300, -300, Integer.MIN_VALUE};
+        Assertions.assertEquals(ExTermEncoder.pack(ints).limit(), ExTermEncoder.sizeOf(ints));
+        Assertions.assertEquals(ExTermEncoder.pack(new long[0]).limit(), ExTermEncoder.sizeOf(new long[0]));
+    }
+
+    @Test
+    public void testNestedSize()
+    {
+        Map<String, Object> map = new HashMap<>();
+        map.put("name", "ünicöde 😀");
+        map.put("list", Arrays.asList(1L << 35, -7, "text", null, true, false, 1.5));
+        map.put("nested", Collections.singletonMap("id", -(1L << 33)));
+        map.put("empty", Collections.emptyList());
+
+        ByteBuffer packed = ExTermEncoder.pack(map);
+        Assertions.assertEquals(packed.limit(), ExTermEncoder.sizeOf(map));
+        Assertions.assertEquals(packed.capacity(), packed.limit());
+
+        Map<String, Object> decoded = ExTermDecoder.unpackMap(packed);
+        Assertions.assertEquals("ünicöde 😀", decoded.get("name"));
+        Assertions.assertEquals(-(1L << 33), ((Number) ((Map<?, ?>) decoded.get("nested")).get("id")).longValue());
+        Assertions.assertEquals(1L << 35, ((Number) ((List<?>) decoded.get("list")).get(0)).longValue());
+    }
+
+    private static byte[] toArray(ByteBuffer buffer)
+    {
+        byte[] array = new byte[buffer.remaining()];
+        buffer.get(array);
+        return array;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import net.dv8tion.jda.api.GatewayEncoding;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.events.session.ReadyEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.utils.Compression;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.requests.GatewayRecorder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.annotation.Nonnull;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class GatewayReplayTest
+{
+    private static final long GUILD_ID = 1000;
+    private static final long SELF_ID = 2000;
+    private static final long USER_ID = 3000;
+
+    @Test
+    public void testReplay(@TempDir Path directory) throws Exception
+    {
+        Path file = directory.resolve("gateway.bin");
+        try (GatewayRecorder recorder = GatewayRecorder.create(file, Compression.NONE, GatewayEncoding.JSON))
+        {
+            Assertions.assertNotNull(recorder);
+            recorder.recordConnect();
+            recorder.recordText(frame(10, null, 0, DataObject.empty().put("heartbeat_interval", 41250)));
+            recorder.recordText(frame(0, "READY", 1, DataObject.empty()
+                    .put("session_id", "session")
+                    .put("user", user(SELF_ID, "self").put("verified", true).put("mfa_enabled", false))
+                    .put("guilds", DataArray.empty().add(DataObject.empty().put("id", GUILD_ID).put("unavailable", true)))
+                    .put("private_channels", DataArray.empty())));
+            recorder.recordText(frame(0, "GUILD_CREATE", 2, DataObject.empty()
+                    .put("id", GUILD_ID)
+                    .put("name", "Guild")
+                    .put("owner_id", SELF_ID)
+                    .put("afk_timeout", 300)
+                    .put("member_count", 1)
+                    .put("roles", DataArray.empty().add(DataObject.empty()
+                            .put("id", GUILD_ID)
+                            .put("name", "@everyone")
+                            .put("position", 0)
+                            .put("permissions", "0")
+                            .put("color", 0)
+                            .put("hoist", false)
+                            .put("managed", false)
+                            .put("mentionable", false)))
+                    .put("members", DataArray.empty().add(DataObject.empty()
+                            .put("user", user(SELF_ID, "self"))
+                            .put("roles", DataArray.empty())
+                            .put("joined_at", "2021-01-01T00:00:00.000+00:00")))
+                    .put("channels", DataArray.empty())
+                    .put("threads", DataArray.empty())
+                    .put("guild_scheduled_events", DataArray.empty())
+                    .put("emojis", DataArray.empty())
+                    .put("stickers", DataArray.empty())
+                    .put("voice_states", DataArray.empty())
+                    .put("presences", DataArray.empty())));
+        }
+
+        List<String> readyGuilds = new ArrayList<>();
+        CompletableFuture<Throwable> requestFailure = new CompletableFuture<>();
+        JDA jda = JDABuilder.createLight("token")
+                .addEventListeners(new ListenerAdapter()
+                {
+                    @Override
+                    public void onReady(@Nonnull ReadyEvent event)
+                    {
+                        for (Guild guild : event.getJDA().getGuilds())
+                            readyGuilds.add(guild.getName());
+                        // Replays must not send requests with the real token, unless enabled explicitly
+                        event.getJDA().retrieveUserById(USER_ID).queue(
+                                user -> requestFailure.complete(null),
+                                requestFailure::complete);
+                    }
+                })
+                .buildReplay(file, false);
+
+        Assertions.assertTrue(jda.awaitShutdown(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(SELF_ID, jda.getSelfUser().getIdLong());
+        Assertions.assertEquals(2, jda.getResponseTotal());
+        Assertions.assertEquals(1, readyGuilds.size());
+        Assertions.assertEquals("Guild", readyGuilds.get(0));
+        Assertions.assertInstanceOf(IllegalStateException.class, requestFailure.get(5, TimeUnit.SECONDS));
+    }
+
+    private static byte[] frame(int op, String type, int sequence, DataObject data)
+    {
+        DataObject frame = DataObject.empty().put("op", op).put("d", data);
+        if (type != null)
+            frame.put("t", type).put("s", sequence);
+        return frame.toJson();
+    }
+
+    private static DataObject user(long id, String name)
+    {
+        return DataObject.empty()
+                .put("id", id)
+                .put("username", name)
+                .put("discriminator", "0")
+                .put("avatar", null);
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import net.dv8tion.jda.internal.utils.concurrent.CountingThreadFactory;
+import net.dv8tion.jda.internal.utils.concurrent.HashedWheelTimer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class HashedWheelTimerTest
+{
+    @Test
+    public void testErrorDoesNotStopTimer() throws InterruptedException
+    {
+        HashedWheelTimer timer = new HashedWheelTimer(new CountingThreadFactory(() -> "Test", "Timer"), 10, TimeUnit.MILLISECONDS, 8);
+        try
+        {
+            CountDownLatch sameTick = new CountDownLatch(1);
+            CountDownLatch later = new CountDownLatch(1);
+            // Both expire with the same tick, the second must still run after the first threw
+            timer.schedule(() -> { throw new AssertionError("Expected"); }, 0, TimeUnit.MILLISECONDS);
+            timer.schedule(sameTick::countDown, 0, TimeUnit.MILLISECONDS);
+            Assertions.assertTrue(sameTick.await(5, TimeUnit.SECONDS));
+
+            timer.schedule(later::countDown, 50, TimeUnit.MILLISECONDS);
+            Assertions.assertTrue(later.await(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(3, timer.getExpiredTimeouts());
+        }
+        finally
+        {
+            timer.stop();
+        }
+    }
+}
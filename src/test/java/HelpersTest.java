@@ -18,8 +18,14 @@ import net.dv8tion.jda.internal.utils.Helpers;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 public class HelpersTest
 {
@@ -118,4 +124,46 @@ public class HelpersTest
         Assertions.assertFalse(Helpers.deepEquals(a, c));
         Assertions.assertFalse(Helpers.deepEqualsUnordered(b, c));
     }
+
+    @Test
+    public void testToTimestamp()
+    {
+        Assertions.assertEquals(0L, Helpers.toTimestamp("1970-01-01T00:00:00+00:00"));
+        Assertions.assertEquals(1577836800123L, Helpers.toTimestamp("2020-01-01T00:00:00.123456+00:00"));
+        Assertions.assertEquals(1577836800100L, Helpers.toTimestamp("2020-01-01T00:00:00.1Z"));
+        Assertions.assertEquals(1577836800000L, Helpers.toTimestamp("2020-01-01T01:30:00+01:30"));
+        Assertions.assertEquals(1582934400000L, Helpers.toTimestamp("2020-02-29T00:00:00+00:00"));
+        // Formats outside the fast path are still accepted
+        Assertions.assertEquals(1577836800000L, Helpers.toTimestamp("2020-01-01T00:00+00:00"));
+        Assertions.assertEquals(1577836800000L, Helpers.toTimestamp("2020-01-01T00:00:00.000+00:00:00"));
+        Assertions.assertEquals(1577836800000L, Helpers.toTimestamp("2020-01-01T00:00:00.+00:00"));
+
+        Assertions.assertThrows(DateTimeParseException.class, () -> Helpers.toTimestamp("2021-02-29T00:00:00+00:00"));
+        Assertions.assertThrows(DateTimeParseException.class, () -> Helpers.toTimestamp("2020-01-01T24:00:00+00:00"));
+        Assertions.assertThrows(DateTimeParseException.class, () -> Helpers.toTimestamp("2020-01-01 00:00:00+00:00"));
+        Assertions.assertThrows(DateTimeParseException.class, () -> Helpers.toTimestamp("2020-01-01T00:00:00"));
+    }
+
+    @Test
+    public void testToTimestampMatchesJdk()
+    {
+        Random random = new Random(42);
+        for (int i = 0; i < 100000; i++)
+        {
+            LocalDateTime time = LocalDateTime.of(
+                1 + random.nextInt(9999), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                random.nextInt(24), random.nextInt(60), random.nextInt(60), random.nextInt(1000000000));
+            ZoneOffset offset = random.nextInt(4) == 0 ? ZoneOffset.UTC : ZoneOffset.ofTotalSeconds((random.nextInt(35 * 4) - 17 * 4) * 15 * 60);
+            int fractionDigits = random.nextInt(10);
+
+            StringBuilder builder = new StringBuilder(time.format(DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss")));
+            if (fractionDigits > 0)
+                builder.append('.').append(String.format("%09d", time.getNano()), 0, fractionDigits);
+            builder.append(offset.getTotalSeconds() == 0 && random.nextBoolean() ? "Z" : offset.getId().equals("Z") ? "+00:00" : offset.getId());
+            String input = builder.toString();
+
+            long expected = Instant.from(DateTimeFormatter.ISO_OFFSET_DATE_TIME.parse(input)).toEpochMilli();
+            Assertions.assertEquals(expected, Helpers.toTimestamp(input), input);
+        }
+    }
 }
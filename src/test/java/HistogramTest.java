@@ -0,0 +1,120 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.dv8tion.jda.api.requests.RestMetrics;
+import net.dv8tion.jda.api.requests.Route;
+import net.dv8tion.jda.api.utils.Histogram;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class HistogramTest
+{
+    @Test
+    public void testSmallValuesAreExact()
+    {
+        Histogram histogram = new Histogram(1000);
+        for (int i = 1; i <= 100; i++)
+            histogram.record(i);
+
+        Assertions.assertEquals(100, histogram.getCount());
+        Assertions.assertEquals(100, histogram.getMax());
+        Assertions.assertEquals(50.5, histogram.getMean(), 0.001);
+        Assertions.assertEquals(1, histogram.getValueAtPercentile(0));
+        Assertions.assertEquals(50, histogram.getValueAtPercentile(50));
+        Assertions.assertEquals(99, histogram.getValueAtPercentile(99));
+        Assertions.assertEquals(100, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testRelativeError()
+    {
+        Histogram histogram = new Histogram(TimeUnit.HOURS.toMicros(1));
+        for (long value = 1; value <= 1_000_000; value++)
+            histogram.record(value);
+
+        for (double percentile : new double[] { 10, 50, 90, 99, 99.9 })
+        {
+            long expected = (long) (percentile * 10_000);
+            long actual = histogram.getValueAtPercentile(percentile);
+            Assertions.assertTrue(actual >= expected, () -> percentile + ": " + actual + " < " + expected);
+            Assertions.assertTrue(actual <= expected * 1.016, () -> percentile + ": " + actual + " > " + expected);
+        }
+        Assertions.assertEquals(1_000_000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testClampAndReset()
+    {
+        Histogram histogram = new Histogram(1000);
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        Assertions.assertEquals(2, histogram.getCount());
+        Assertions.assertEquals(0, histogram.getValueAtPercentile(50));
+        Assertions.assertEquals(1000, histogram.getMax());
+
+        histogram.reset();
+        Assertions.assertEquals(0, histogram.getCount());
+        Assertions.assertEquals(0, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void testConcurrentRecording() throws InterruptedException
+    {
+        Histogram histogram = new Histogram(1_000_000);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int thread = 0; thread < 4; thread++)
+        {
+            executor.execute(() -> {
+                for (int i = 0; i < 100_000; i++)
+                    histogram.record(i);
+            });
+        }
+        executor.shutdown();
+        Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(400_000, histogram.getCount());
+        Assertions.assertEquals(99_999, histogram.getMax());
+    }
+
+    @Test
+    public void testRestMetrics()
+    {
+        RestMetrics metrics = new RestMetrics();
+        Route.CompiledRoute route = Route.Messages.SEND_MESSAGE.compile("1");
+        metrics.onDispatch(route, "hash", TimeUnit.MILLISECONDS.toNanos(5), System.nanoTime());
+        metrics.onResponse(route, 502, 0, TimeUnit.MILLISECONDS.toNanos(100), System.nanoTime());
+        metrics.onResponse(route, 200, 1, TimeUnit.MILLISECONDS.toNanos(50), System.nanoTime());
+        metrics.onRateLimit(route, "hash", 1000, false, System.nanoTime());
+        metrics.onRateLimit(route, "hash", 1000, true, System.nanoTime());
+
+        RestMetrics.RouteMetrics routeMetrics = metrics.getRouteMetrics(Route.Messages.SEND_MESSAGE);
+        Assertions.assertNotNull(routeMetrics);
+        Assertions.assertEquals(2, routeMetrics.getResponses());
+        Assertions.assertEquals(1, routeMetrics.getRetries());
+        Assertions.assertEquals(1, routeMetrics.getErrors());
+        Assertions.assertEquals(100_000, routeMetrics.getLatency().getMax());
+
+        RestMetrics.BucketMetrics bucketMetrics = metrics.getBucketMetrics("hash");
+        Assertions.assertNotNull(bucketMetrics);
+        Assertions.assertEquals(1, bucketMetrics.getDispatched());
+        Assertions.assertEquals(1, bucketMetrics.getRateLimits());
+        Assertions.assertEquals(5000, bucketMetrics.getQueueTime().getMax());
+        Assertions.assertEquals(1, metrics.getGlobalRateLimits());
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import net.dv8tion.jda.api.GatewayEncoding;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.events.role.update.RoleUpdateNameEvent;
+import net.dv8tion.jda.api.events.session.ReadyEvent;
+import net.dv8tion.jda.api.hooks.ListenerAdapter;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.utils.ChunkingFilter;
+import net.dv8tion.jda.api.utils.Compression;
+import net.dv8tion.jda.api.utils.MemberCachePolicy;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.requests.GatewayRecorder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+public class IncrementalChunkingTest
+{
+    private static final long GUILD_ID = 1000;
+    private static final long ROLE_ID = 1001;
+    private static final long OTHER_GUILD_ID = 1100;
+    private static final long SELF_ID = 2000;
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    public void testChunkedMembers(boolean incremental) throws Exception
+    {
+        Path file = directory.resolve("gateway.bin");
+        record(file);
+
+        Map<Long, List<Long>> members = new TreeMap<>();
+        List<String> errors = new ArrayList<>();
+        JDA jda = JDABuilder.createLight("token", GatewayIntent.GUILD_MEMBERS)
+                .setIncrementalChunking(incremental)
+                .setChunkingFilter(ChunkingFilter.ALL)
+                .setMemberCachePolicy(MemberCachePolicy.ALL)
+                .addEventListeners(new ListenerAdapter()
+                {
+                    @Override
+                    public void onReady(@Nonnull ReadyEvent event)
+                    {
+                        Guild guild = event.getJDA().getGuildById(GUILD_ID);
+                        for (Member member : guild.getMembers())
+                        {
+                            members.put(member.getIdLong(), member.getRoles().stream().map(Role::getIdLong).collect(Collectors.toList()));
+                            for (Role role : member.getRoles())
+                            {
+                                // The roles of chunked members must be the roles of the completed guild
+                                if (role != guild.getRoleById(role.getIdLong()))
+                                    errors.add("Role " + role + " of " + member + " is not cached");
+                            }
+                            if (member.getGuild() != guild)
+                                errors.add("Member " + member + " references another guild");
+                        }
+                        if (guild.getMemberCount() != 3)
+                            errors.add("Member count is " + guild.getMemberCount());
+                    }
+                })
+                .buildReplay(file, false);
+
+        Assertions.assertTrue(jda.awaitShutdown(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(Collections.emptyList(), errors);
+
+        // Member 2 was removed while the guild was still chunking
+        Map<Long, List<Long>> expected = new TreeMap<>();
+        expected.put(1L, Collections.singletonList(ROLE_ID));
+        expected.put(3L, Collections.emptyList());
+        expected.put(SELF_ID, Collections.emptyList());
+        Assertions.assertEquals(expected, members);
+    }
+
+    @Test
+    public void testInterleavedGuilds() throws Exception
+    {
+        Path file = directory.resolve("interleaved.bin");
+        recordInterleaved(file);
+
+        Map<Long, Set<Long>> members = new TreeMap<>();
+        List<String> renamedRoles = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        JDA jda = JDABuilder.createLight("token", GatewayIntent.GUILD_MEMBERS)
+                .setIncrementalChunking(true)
+                .setChunkingFilter(ChunkingFilter.ALL)
+                .setMemberCachePolicy(MemberCachePolicy.ALL)
+                .addEventListeners(new ListenerAdapter()
+                {
+                    @Override
+                    public void onReady(@Nonnull ReadyEvent event)
+                    {
+                        for (Guild guild : event.getJDA().getGuilds())
+                        {
+                            members.put(guild.getIdLong(), guild.getMembers().stream().map(Member::getIdLong).collect(Collectors.toCollection(TreeSet::new)));
+                            // Both guilds were chunked at the same time, their members must still share the cached user
+                            for (Member member : guild.getMembers())
+                            {
+                                if (member.getUser() != event.getJDA().getUserById(member.getIdLong()))
+                                    errors.add("User of " + member + " is not cached");
+                            }
+                        }
+                    }
+
+                    @Override
+                    public void onRoleUpdateName(@Nonnull RoleUpdateNameEvent event)
+                    {
+                        // Role events received while chunking are handled once the guild is ready, with the roles of the members
+                        Member member = event.getGuild().getMemberById(1);
+                        if (member == null || !member.getRoles().contains(event.getRole()))
+                            errors.add("Renamed role is not a role of member " + member);
+                        else
+                            renamedRoles.add(member.getRoles().get(0).getName());
+                    }
+                })
+                .buildReplay(file, false);
+
+        Assertions.assertTrue(jda.awaitShutdown(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(Collections.emptyList(), errors);
+        Assertions.assertEquals(Collections.singletonList("Renamed"), renamedRoles);
+
+        // Member 2 was removed before a stale chunk included it again, member 4 was added while chunking
+        Map<Long, Set<Long>> expected = new TreeMap<>();
+        expected.put(GUILD_ID, new TreeSet<>(Arrays.asList(1L, 4L, SELF_ID)));
+        expected.put(OTHER_GUILD_ID, new TreeSet<>(Arrays.asList(1L, 3L, SELF_ID)));
+        Assertions.assertEquals(expected, members);
+    }
+
+    private static void recordInterleaved(Path file) throws IOException
+    {
+        try (GatewayRecorder recorder = GatewayRecorder.create(file, Compression.NONE, GatewayEncoding.JSON))
+        {
+            Assertions.assertNotNull(recorder);
+            recorder.recordConnect();
+            recorder.recordText(frame(10, null, 0, DataObject.empty().put("heartbeat_interval", 41250)));
+            recorder.recordText(frame(0, "READY", 1, DataObject.empty()
+                    .put("session_id", "session")
+                    .put("user", user(SELF_ID).put("verified", true).put("mfa_enabled", false))
+                    .put("guilds", DataArray.empty()
+                            .add(DataObject.empty().put("id", GUILD_ID).put("unavailable", true))
+                            .add(DataObject.empty().put("id", OTHER_GUILD_ID).put("unavailable", true)))
+                    .put("private_channels", DataArray.empty())));
+            recorder.recordText(frame(0, "GUILD_CREATE", 2, guild(GUILD_ID, 3)));
+            recorder.recordText(frame(0, "GUILD_CREATE", 3, guild(OTHER_GUILD_ID, 3)));
+            recorder.recordText(frame(0, "GUILD_MEMBERS_CHUNK", 4, chunk(GUILD_ID, 0, member(SELF_ID), member(1, ROLE_ID))));
+            recorder.recordText(frame(0, "GUILD_MEMBERS_CHUNK", 5, chunk(OTHER_GUILD_ID, 0, member(SELF_ID), member(1))));
+            recorder.recordText(frame(0, "GUILD_MEMBER_ADD", 6, member(4).put("guild_id", GUILD_ID)));
+            recorder.recordText(frame(0, "GUILD_MEMBER_REMOVE", 7, DataObject.empty().put("guild_id", GUILD_ID).put("user", user(2))));
+            recorder.recordText(frame(0, "GUILD_ROLE_UPDATE", 8, DataObject.empty().put("guild_id", GUILD_ID).put("role", role(ROLE_ID, "Renamed"))));
+            recorder.recordText(frame(0, "GUILD_MEMBERS_CHUNK", 9, chunk(GUILD_ID, 1, member(2, ROLE_ID), member(4))));
+            recorder.recordText(frame(0, "GUILD_MEMBERS_CHUNK", 10, chunk(OTHER_GUILD_ID, 1, member(3))));
+        }
+    }
+
+    private static void record(Path file) throws IOException
+    {
+        try (GatewayRecorder recorder = GatewayRecorder.create(file, Compression.NONE, GatewayEncoding.JSON))
+        {
+            Assertions.assertNotNull(recorder);
+            recorder.recordConnect();
+            recorder.recordText(frame(10, null, 0, DataObject.empty().put("heartbeat_interval", 41250)));
+            recorder.recordText(frame(0, "READY", 1, DataObject.empty()
+                    .put("session_id", "session")
+                    .put("user", user(SELF_ID).put("verified", true).put("mfa_enabled", false))
+                    .put("guilds", DataArray.empty().add(DataObject.empty().put("id", GUILD_ID).put("unavailable", true)))
+                    .put("private_channels", DataArray.empty())));
+            recorder.recordText(frame(0, "GUILD_CREATE", 2, DataObject.empty()
+                    .put("id", GUILD_ID)
+                    .put("name", "Guild")
+                    .put("owner_id", SELF_ID)
+                    .put("afk_timeout", 300)
+                    .put("member_count", 4)
+                    .put("roles", DataArray.empty().add(role(GUILD_ID, "@everyone")).add(role(ROLE_ID, "Role")))
+                    .put("members", DataArray.empty().add(member(SELF_ID)))
+                    .put("channels", DataArray.empty())
+                    .put("threads", DataArray.empty())
+                    .put("guild_scheduled_events", DataArray.empty())
+                    .put("emojis", DataArray.empty())
+                    .put("stickers", DataArray.empty())
+                    .put("voice_states", DataArray.empty())
+                    .put("presences", DataArray.empty())));
+            recorder.recordText(frame(0, "GUILD_MEMBERS_CHUNK", 3, chunk(GUILD_ID, 0, member(SELF_ID), member(1, ROLE_ID), member(2, ROLE_ID))));
+            recorder.recordText(frame(0, "GUILD_MEMBER_REMOVE", 4, DataObject.empty().put("guild_id", GUILD_ID).put("user", user(2))));
+            recorder.recordText(frame(0, "GUILD_MEMBERS_CHUNK", 5, chunk(GUILD_ID, 1, member(3))));
+        }
+    }
+
+    private static DataObject guild(long id, int memberCount)
+    {
+        return DataObject.empty()
+                .put("id", id)
+                .put("name", "Guild")
+                .put("owner_id", SELF_ID)
+                .put("afk_timeout", 300)
+                .put("member_count", memberCount)
+                .put("roles", DataArray.empty().add(role(id, "@everyone")).add(role(id == GUILD_ID ? ROLE_ID : id + 1, "Role")))
+                .put("members", DataArray.empty().add(member(SELF_ID)))
+                .put("channels", DataArray.empty())
+                .put("threads", DataArray.empty())
+                .put("guild_scheduled_events", DataArray.empty())
+                .put("emojis", DataArray.empty())
+                .put("stickers", DataArray.empty())
+                .put("voice_states", DataArray.empty())
+                .put("presences", DataArray.empty());
+    }
+
+    private static DataObject chunk(long guildId, int index, DataObject... members)
+    {
+        DataArray array = DataArray.empty();
+        for (DataObject member : members)
+            array.add(member);
+        return DataObject.empty()
+                .put("guild_id", guildId)
+                .put("chunk_index", index)
+                .put("chunk_count", 2)
+                .put("members", array);
+    }
+
+    private static DataObject role(long id, String name)
+    {
+        return DataObject.empty()
+                .put("id", id)
+                .put("name", name)
+                .put("position", name.equals("@everyone") ? 0 : 1)
+                .put("permissions", "0")
+                .put("color", 0)
+                .put("hoist", false)
+                .put("managed", false)
+                .put("mentionable", false);
+    }
+
+    private static DataObject member(long id, long... roles)
+    {
+        DataArray roleIds = DataArray.empty();
+        for (long role : roles)
+            roleIds.add(Long.toUnsignedString(role));
+        return DataObject.empty()
+                .put("user", user(id))
+                .put("roles", roleIds)
+                .put("joined_at", "2021-01-01T00:00:00.000+00:00");
+    }
+
+    private static byte[] frame(int op, String type, int sequence, DataObject data)
+    {
+        DataObject frame = DataObject.empty().put("op", op).put("d", data);
+        if (type != null)
+            frame.put("t", type).put("s", sequence);
+        return frame.toJson();
+    }
+
+    private static DataObject user(long id)
+    {
+        return DataObject.empty()
+                .put("id", id)
+                .put("username", "user" + id)
+                .put("discriminator", "0")
+                .put("avatar", null);
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.iwebpp.crypto.TweetNaclFast;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.hooks.EventListener;
+import net.dv8tion.jda.api.interactions.InteractionEndpoint;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.entities.SelfUserImpl;
+import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
+import net.dv8tion.jda.internal.utils.config.ThreadingConfig;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class InteractionEndpointTest
+{
+    private static final MediaType JSON = MediaType.parse("application/json");
+
+    private final TweetNaclFast.Signature.KeyPair keyPair = TweetNaclFast.Signature.keyPair();
+    private final OkHttpClient client = new OkHttpClient();
+    private ThreadingConfig threadingConfig;
+    private JDAImpl jda;
+    private InteractionEndpoint endpoint;
+    private String url;
+
+    @BeforeEach
+    public void setup() throws IOException
+    {
+        threadingConfig = new ThreadingConfig();
+        threadingConfig.init(() -> "Test");
+        jda = new JDAImpl(new AuthorizationConfig("token"), null, threadingConfig, null, null);
+        jda.setSelfUser(new SelfUserImpl(1, jda));
+        jda.initRequester();
+
+        endpoint = new InteractionEndpoint(jda, TweetNaclFast.hexEncodeToString(keyPair.getPublicKey()))
+            .setResponseTimeout(1, TimeUnit.SECONDS)
+            .start(new InetSocketAddress("127.0.0.1", 0), "/interactions");
+        url = "http://127.0.0.1:" + endpoint.getAddress().getPort() + "/interactions";
+    }
+
+    @AfterEach
+    public void teardown()
+    {
+        endpoint.close();
+        threadingConfig.shutdownNow();
+    }
+
+    @Test
+    public void testPing() throws IOException
+    {
+        try (Response response = post("{\"type\":1}", true))
+        {
+            Assertions.assertEquals(200, response.code());
+            Assertions.assertEquals(1, DataObject.fromJson(response.body().bytes()).getInt("type"));
+        }
+    }
+
+    @Test
+    public void testInvalidSignature() throws IOException
+    {
+        try (Response response = post("{\"type\":1}", false))
+        {
+            Assertions.assertEquals(401, response.code());
+        }
+    }
+
+    @Test
+    public void testReplyInResponseBody() throws IOException
+    {
+        jda.getEventManager().register((EventListener) event -> {
+            if (event instanceof SlashCommandInteractionEvent)
+                ((SlashCommandInteractionEvent) event).reply("pong").queue();
+        });
+
+        try (Response response = post(slashCommand().toString(), true))
+        {
+            Assertions.assertEquals(200, response.code());
+            DataObject body = DataObject.fromJson(response.body().bytes());
+            Assertions.assertEquals(4, body.getInt("type"));
+            Assertions.assertEquals("pong", body.getObject("data").getString("content"));
+        }
+    }
+
+    @Test
+    public void testNoCallback() throws IOException
+    {
+        try (Response response = post(slashCommand().toString(), true))
+        {
+            Assertions.assertEquals(503, response.code());
+        }
+    }
+
+    @Test
+    public void testBodyTooLarge() throws IOException
+    {
+        endpoint.setMaxBodySize(8);
+        try (Response response = post("{\"type\":1}", true))
+        {
+            Assertions.assertEquals(413, response.code());
+        }
+    }
+
+    @Test
+    public void testCallbackCompletesAfterResponse() throws InterruptedException
+    {
+        CountDownLatch success = new CountDownLatch(1);
+        jda.getEventManager().register((EventListener) event -> {
+            if (event instanceof SlashCommandInteractionEvent)
+                ((SlashCommandInteractionEvent) event).reply("pong").queue(hook -> success.countDown());
+        });
+
+        String timestamp = String.valueOf(System.currentTimeMillis() / 1000);
+        String body = slashCommand().toString();
+        InteractionEndpoint.HttpResponse response = endpoint.handle(sign(timestamp, body, true), timestamp, body.getBytes(StandardCharsets.UTF_8));
+        Assertions.assertEquals(200, response.getStatus());
+
+        // The callback is held back until the response was sent
+        Assertions.assertFalse(success.await(100, TimeUnit.MILLISECONDS));
+        response.complete();
+        Assertions.assertTrue(success.await(5, TimeUnit.SECONDS));
+    }
+
+    private Response post(String body, boolean sign) throws IOException
+    {
+        String timestamp = String.valueOf(System.currentTimeMillis() / 1000);
+        return client.newCall(new Request.Builder()
+            .url(url)
+            .header(InteractionEndpoint.SIGNATURE_HEADER, sign(timestamp, body, sign))
+            .header(InteractionEndpoint.TIMESTAMP_HEADER, timestamp)
+            .post(RequestBody.create(body, JSON))
+            .build()).execute();
+    }
+
+    private String sign(String timestamp, String body, boolean valid)
+    {
+        byte[] message = (timestamp + body).getBytes(StandardCharsets.UTF_8);
+        byte[] signature = new TweetNaclFast.Signature(null, keyPair.getSecretKey()).detached(message);
+        if (!valid)
+            signature[0] ^= 1;
+        return TweetNaclFast.hexEncodeToString(signature);
+    }
+
+    private static DataObject slashCommand()
+    {
+        DataObject user = DataObject.empty()
+            .put("id", "2")
+            .put("username", "user")
+            .put("discriminator", "0000")
+            .put("avatar", null);
+        return DataObject.empty()
+            .put("id", "3")
+            .put("application_id", "1")
+            .put("type", 2)
+            .put("token", "interaction-token")
+            .put("version", 1)
+            .put("user", user)
+            .put("channel", DataObject.empty().put("id", "4").put("type", 1))
+            .put("channel_id", "4")
+            .put("data", DataObject.empty()
+                .put("id", "5")
+                .put("name", "ping")
+                .put("type", 1)
+                .put("options", DataArray.empty()));
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import net.dv8tion.jda.api.events.session.ReadyEvent;
+import net.dv8tion.jda.api.utils.Histogram;
+import net.dv8tion.jda.api.utils.JDAMetrics;
+import net.dv8tion.jda.api.utils.MetricsPublisher;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+public class JDAMetricsTest
+{
+    @Test
+    public void testRecording()
+    {
+        JDAMetrics metrics = new JDAMetrics();
+        for (int i = 0; i < 3; i++)
+            metrics.recordDispatch("MESSAGE_CREATE", TimeUnit.MICROSECONDS.toNanos(100));
+        metrics.recordDecompression(100, 400);
+        metrics.recordDecompression(50, 0);
+
+        JDAMetrics.DispatchMetrics dispatch = metrics.getDispatchMetrics("MESSAGE_CREATE");
+        Assertions.assertNotNull(dispatch);
+        Assertions.assertEquals(3, dispatch.getCount());
+        Assertions.assertEquals(100, dispatch.getTime().getMax());
+        Assertions.assertNull(metrics.getDispatchMetrics("GUILD_CREATE"));
+        Assertions.assertEquals(150, metrics.getCompressedBytes());
+        Assertions.assertEquals(400, metrics.getDecompressedBytes());
+
+        CollectingPublisher publisher = new CollectingPublisher();
+        metrics.publish(publisher);
+        Assertions.assertEquals(3L, publisher.values.get("gateway.dispatch{type=MESSAGE_CREATE}"));
+        Assertions.assertEquals(3L, publisher.values.get("gateway.dispatch.time{type=MESSAGE_CREATE}"));
+        Assertions.assertEquals(150L, publisher.values.get("gateway.bytes.compressed{}"));
+
+        metrics.reset();
+        Assertions.assertTrue(metrics.getDispatchMetrics().isEmpty());
+        Assertions.assertEquals(0, metrics.getCompressedBytes());
+    }
+
+    @Test
+    public void testInstanceMetrics()
+    {
+        JDAMetrics metrics = new JDAMetrics();
+        JDAImpl api = new JDAImpl(new AuthorizationConfig("token"));
+        api.setMetrics(metrics);
+        api.getEntityBuilder().createSelfUser(DataObject.empty()
+                .put("id", 1000)
+                .put("username", "self")
+                .put("discriminator", "0")
+                .put("avatar", null)
+                .put("verified", true)
+                .put("mfa_enabled", false));
+
+        api.handleEvent(new ReadyEvent(api));
+        Histogram dispatchTime = metrics.getEventDispatchTime(ReadyEvent.class);
+        Assertions.assertNotNull(dispatchTime);
+        Assertions.assertEquals(1, dispatchTime.getCount());
+
+        CollectingPublisher publisher = new CollectingPublisher();
+        metrics.publish(publisher);
+        Assertions.assertEquals(1L, publisher.values.get("event.dispatch.time{event=ReadyEvent}"));
+        Assertions.assertEquals(0L, publisher.values.get("cache.size{cache=guilds, shard=0}"));
+        Assertions.assertEquals(0L, publisher.values.get("event_cache.size{shard=0}"));
+
+        metrics.unregister(api);
+        publisher = new CollectingPublisher();
+        metrics.publish(publisher);
+        Assertions.assertNull(publisher.values.get("cache.size{cache=guilds, shard=0}"));
+    }
+
+    private static class CollectingPublisher implements MetricsPublisher
+    {
+        private final Map<String, Long> values = new HashMap<>();
+
+        @Override
+        public void counter(@Nonnull String name, @Nonnull Map<String, String> tags, long value)
+        {
+            values.put(name + tags, value);
+        }
+
+        @Override
+        public void gauge(@Nonnull String name, @Nonnull Map<String, String> tags, long value)
+        {
+            values.put(name + tags, value);
+        }
+
+        @Override
+        public void histogram(@Nonnull String name, @Nonnull Map<String, String> tags, @Nonnull Histogram histogram)
+        {
+            values.put(name + tags, histogram.getCount());
+        }
+    }
+}
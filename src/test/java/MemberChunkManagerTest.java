@@ -0,0 +1,82 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import net.dv8tion.jda.api.GatewayEncoding;
+import net.dv8tion.jda.api.utils.Compression;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.entities.GuildImpl;
+import net.dv8tion.jda.internal.requests.MemberChunkManager;
+import net.dv8tion.jda.internal.requests.WebSocketClient;
+import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
+import net.dv8tion.jda.internal.utils.config.ThreadingConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class MemberChunkManagerTest
+{
+    private ThreadingConfig threadingConfig;
+    private MemberChunkManager chunkManager;
+    private GuildImpl guild;
+
+    @BeforeEach
+    public void setup()
+    {
+        threadingConfig = new ThreadingConfig();
+        threadingConfig.init(() -> "Test");
+        JDAImpl jda = new JDAImpl(new AuthorizationConfig("token"), null, threadingConfig, null, null);
+        // Never connects, chunk requests are only queued
+        WebSocketClient client = new WebSocketClient(jda, Compression.NONE, 0, GatewayEncoding.JSON, false) {};
+        chunkManager = client.getChunkManager();
+        guild = new GuildImpl(jda, 1000);
+    }
+
+    @AfterEach
+    public void teardown()
+    {
+        chunkManager.clear();
+        threadingConfig.shutdownNow();
+    }
+
+    @Test
+    public void testShorterTimeout()
+    {
+        MemberChunkManager.ChunkRequest request = chunkManager.chunkGuild(guild, false, (last, members) -> {});
+        request.setTimeout(100);
+
+        // Without the custom timeout this would only fail after the default of 10 seconds
+        ExecutionException exception = Assertions.assertThrows(ExecutionException.class, () -> request.get(5, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(TimeoutException.class, exception.getCause());
+    }
+
+    @Test
+    public void testLongerTimeout() throws InterruptedException
+    {
+        MemberChunkManager.ChunkRequest request = chunkManager.chunkGuild(guild, false, (last, members) -> {});
+        request.setTimeout(TimeUnit.SECONDS.toMillis(15));
+
+        // The request must outlive the default timeout of 10 seconds
+        Thread.sleep(TimeUnit.SECONDS.toMillis(11));
+        Assertions.assertFalse(request.isDone());
+        request.cancel(false);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.entities.MessageMentionsImpl;
+import net.dv8tion.jda.internal.entities.mentions.MentionRenderer;
+import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class MentionRendererTest
+{
+    private final JDAImpl jda = new JDAImpl(new AuthorizationConfig("token"));
+
+    @Test
+    public void testUsers()
+    {
+        DataArray users = DataArray.empty().add(user(1, "first")).add(user(2, "second"));
+        Assertions.assertEquals("hello @first and @second, @first!", render("hello <@1> and <@!2>, <@1>!", users));
+    }
+
+    @Test
+    public void testUnresolvedTokensAreKept()
+    {
+        DataArray users = DataArray.empty().add(user(1, "first"));
+        String content = "<@3> <#4> <@&5> <:name:6> < @1> <@1 > <@1x> <@> <<@1>";
+        Assertions.assertEquals("<@3> <#4> <@&5> :name: < @1> <@1 > <@1x> <@> <@first", render(content, users));
+    }
+
+    @Test
+    public void testEmojis()
+    {
+        String content = "<:pog:123><a:dance:456> <:bad:>";
+        Assertions.assertEquals(":pog::dance: <:bad:>", render(content, DataArray.empty()));
+    }
+
+    @Test
+    public void testNameIsNotReplacedAgain()
+    {
+        DataArray users = DataArray.empty().add(user(1, "<@2>")).add(user(2, "second"));
+        Assertions.assertEquals("@<@2> @second", render("<@1> <@2>", users));
+    }
+
+    @Test
+    public void testWithoutTokens()
+    {
+        String content = "no mentions here";
+        Assertions.assertSame(content, render(content, DataArray.empty()));
+    }
+
+    private String render(String content, DataArray users)
+    {
+        MessageMentionsImpl mentions = new MessageMentionsImpl(jda, null, content, false, users, DataArray.empty());
+        return MentionRenderer.render(content, mentions, null);
+    }
+
+    private static DataObject user(long id, String name)
+    {
+        return DataObject.empty()
+            .put("id", id)
+            .put("username", name)
+            .put("discriminator", "0000")
+            .put("avatar", null);
+    }
+}
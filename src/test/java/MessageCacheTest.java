@@ -0,0 +1,168 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import net.dv8tion.jda.api.utils.cache.CachedMessage;
+import net.dv8tion.jda.internal.utils.cache.MessageCache;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+
+public class MessageCacheTest
+{
+    private static final int RECORD = MessageCache.RECORD_OVERHEAD + 5;
+
+    @Test
+    public void testPutAndRemove()
+    {
+        MessageCache cache = new MessageCache(1000, 10000);
+        cache.put(1, 10, 100, 0, "hello");
+        cache.put(1, 11, 100, 0, "world");
+
+        CachedMessage message = cache.get(1, 10);
+        Assertions.assertNotNull(message);
+        Assertions.assertEquals("hello", message.getContentRaw());
+        Assertions.assertEquals(100, message.getAuthorIdLong());
+        Assertions.assertEquals(1, message.getChannelIdLong());
+        Assertions.assertNull(message.getTimeEdited());
+
+        CachedMessage removed = cache.remove(1, 10);
+        Assertions.assertEquals("hello", removed.getContentRaw());
+        Assertions.assertNull(cache.get(1, 10));
+        Assertions.assertNull(cache.remove(1, 10));
+        Assertions.assertEquals(1, cache.size());
+        Assertions.assertEquals(RECORD, cache.getTotalBytes());
+    }
+
+    @Test
+    public void testReplace()
+    {
+        MessageCache cache = new MessageCache(1000, 10000);
+        cache.put(1, 10, 100, 0, "hello");
+        cache.put(1, 10, 100, 1000, "hello world");
+
+        CachedMessage message = cache.get(1, 10);
+        Assertions.assertEquals("hello world", message.getContentRaw());
+        Assertions.assertNotNull(message.getTimeEdited());
+        Assertions.assertEquals(1, cache.size());
+        Assertions.assertEquals(MessageCache.RECORD_OVERHEAD + 11, cache.getTotalBytes());
+    }
+
+    @Test
+    public void testChannelLimit()
+    {
+        MessageCache cache = new MessageCache(RECORD * 3, 10000);
+        for (int i = 0; i < 20; i++)
+            cache.put(1, i, 100, 0, "abcde");
+
+        Assertions.assertEquals(3, cache.size());
+        Assertions.assertNull(cache.get(1, 16));
+        for (int i = 17; i < 20; i++)
+            Assertions.assertNotNull(cache.get(1, i));
+        Assertions.assertEquals(RECORD * 3, cache.getTotalBytes());
+    }
+
+    @Test
+    public void testGlobalLimitEvictsLeastRecentlyUsedChannel()
+    {
+        MessageCache cache = new MessageCache(RECORD * 10, RECORD * 4);
+        cache.put(1, 10, 100, 0, "abcde");
+        cache.put(1, 11, 100, 0, "abcde");
+        cache.put(2, 20, 100, 0, "abcde");
+        cache.put(2, 21, 100, 0, "abcde");
+
+        // Channel 1 is now the most recently used channel
+        Assertions.assertNotNull(cache.get(1, 10));
+        cache.put(3, 30, 100, 0, "abcde");
+
+        Assertions.assertEquals(4, cache.size());
+        Assertions.assertNull(cache.get(2, 20));
+        Assertions.assertNotNull(cache.get(2, 21));
+        Assertions.assertNotNull(cache.get(1, 10));
+        Assertions.assertNotNull(cache.get(3, 30));
+    }
+
+    @Test
+    public void testDeletedSlotsAreReused()
+    {
+        MessageCache cache = new MessageCache(RECORD * 4, 100000);
+        for (int i = 0; i < 1000; i++)
+        {
+            cache.put(1, i, 100, 0, "abcde");
+            if (i % 2 == 0)
+                Assertions.assertNotNull(cache.remove(1, i));
+        }
+
+        Assertions.assertEquals(4, cache.size());
+        Assertions.assertNotNull(cache.get(1, 999));
+        Assertions.assertNull(cache.get(1, 998));
+        Assertions.assertNotNull(cache.get(1, 993));
+        Assertions.assertNull(cache.get(1, 991));
+
+        cache.removeChannel(1);
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertEquals(0, cache.getTotalBytes());
+    }
+
+    @Test
+    public void testDeletedSlotsAreCompacted() throws ReflectiveOperationException
+    {
+        MessageCache cache = new MessageCache(RECORD * 4, 100000);
+        // The oldest record is never removed, so the deleted slots behind it are never trimmed
+        cache.put(1, 0, 100, 0, "abcde");
+        for (int i = 1; i < 10000; i++)
+        {
+            cache.put(1, i, 100, 0, "abcde");
+            Assertions.assertNotNull(cache.remove(1, i));
+        }
+
+        Assertions.assertEquals(1, cache.size());
+        Assertions.assertNotNull(cache.get(1, 0));
+        Assertions.assertEquals(8, getCapacity(cache, 1));
+    }
+
+    @Test
+    public void testOversizedMessageIsSkipped()
+    {
+        MessageCache cache = new MessageCache(RECORD, 10000);
+        cache.put(1, 10, 100, 0, "abcdef");
+        Assertions.assertNull(cache.get(1, 10));
+        Assertions.assertEquals(0, cache.getTotalBytes());
+    }
+
+    @Test
+    public void testOversizedUpdateRemovesRecord()
+    {
+        MessageCache cache = new MessageCache(RECORD, 10000);
+        cache.put(1, 10, 100, 0, "abcde");
+        cache.put(1, 10, 100, 1000, "abcdef");
+        Assertions.assertNull(cache.get(1, 10));
+        Assertions.assertEquals(0, cache.size());
+        Assertions.assertEquals(0, cache.getTotalBytes());
+    }
+
+    private static int getCapacity(MessageCache cache, long channelId) throws ReflectiveOperationException
+    {
+        Field channels = MessageCache.class.getDeclaredField("channels");
+        channels.setAccessible(true);
+        Object buffer = ((Map<?, ?>) channels.get(cache)).get(channelId);
+        Field ids = buffer.getClass().getDeclaredField("ids");
+        ids.setAccessible(true);
+        return ((long[]) ids.get(buffer)).length;
+    }
+}
@@ -0,0 +1,327 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import net.dv8tion.jda.api.exceptions.HttpException;
+import net.dv8tion.jda.api.utils.FileProxy;
+import net.dv8tion.jda.api.utils.ProxyCache;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+public class ProxyCacheTest
+{
+    private static final byte[] DATA = "avatar".getBytes(StandardCharsets.UTF_8);
+    private static final String LAST_MODIFIED = "Fri, 01 Jan 2021 00:00:00 GMT";
+
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger notModified = new AtomicInteger();
+    private final AtomicInteger failures = new AtomicInteger();
+    private final CountDownLatch received = new CountDownLatch(1);
+    private volatile CountDownLatch blocked = new CountDownLatch(0);
+    private final OkHttpClient client = new OkHttpClient();
+    private HttpServer server;
+    private String base;
+    private String url;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    public void setup() throws IOException
+    {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", this::handle);
+        server.start();
+        base = "http://127.0.0.1:" + server.getAddress().getPort();
+        url = base + "/avatar.png";
+    }
+
+    @AfterEach
+    public void teardown()
+    {
+        blocked.countDown();
+        server.stop(0);
+        client.dispatcher().executorService().shutdown();
+        client.connectionPool().evictAll();
+    }
+
+    @Test
+    public void testSharedRequest() throws Exception
+    {
+        blocked = new CountDownLatch(1);
+        ProxyCache cache = new ProxyCache(1024);
+        CompletableFuture<InputStream> first = download(cache);
+        CompletableFuture<InputStream> second = download(cache);
+        Assertions.assertTrue(received.await(10, TimeUnit.SECONDS));
+
+        blocked.countDown();
+        Assertions.assertArrayEquals(DATA, read(first));
+        Assertions.assertArrayEquals(DATA, read(second));
+        Assertions.assertEquals(1, requests.get());
+
+        Assertions.assertArrayEquals(DATA, read(download(cache)));
+        Assertions.assertEquals(1, requests.get());
+        Assertions.assertEquals(1, cache.getMemoryHits());
+    }
+
+    @Test
+    public void testRevalidation() throws Exception
+    {
+        ProxyCache cache = new ProxyCache(1024, directory, 1024).setMaxAge(0, TimeUnit.MILLISECONDS);
+        Assertions.assertArrayEquals(DATA, read(download(cache)));
+        Thread.sleep(1000);
+        Assertions.assertArrayEquals(DATA, read(download(cache)));
+        Assertions.assertEquals(2, requests.get());
+        Assertions.assertEquals(1, notModified.get());
+        Assertions.assertEquals(1, cache.getRevalidations());
+
+        // The revalidation is written to disk, so a new cache considers the entry fresh
+        ProxyCache restored = new ProxyCache(1024, directory, 1024).setMaxAge(500, TimeUnit.MILLISECONDS);
+        Assertions.assertArrayEquals(DATA, read(download(restored)));
+        Assertions.assertEquals(2, requests.get());
+        Assertions.assertEquals(1, restored.getDiskHits());
+    }
+
+    @Test
+    public void testFailureIsNotCached() throws Exception
+    {
+        failures.set(1);
+        ProxyCache cache = new ProxyCache(1024);
+        ExecutionException error = Assertions.assertThrows(ExecutionException.class, () -> read(download(cache)));
+        Assertions.assertInstanceOf(HttpException.class, error.getCause());
+
+        Assertions.assertArrayEquals(DATA, read(download(cache)));
+        Assertions.assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void testCancelRequest() throws Exception
+    {
+        blocked = new CountDownLatch(1);
+        ProxyCache cache = new ProxyCache(1024);
+        CompletableFuture<InputStream> first = download(cache);
+        CompletableFuture<InputStream> second = download(cache);
+        Assertions.assertTrue(received.await(10, TimeUnit.SECONDS));
+
+        // The request is shared, so it is only cancelled once both downloads are cancelled
+        first.cancel(false);
+        Assertions.assertEquals(1, client.dispatcher().runningCallsCount());
+        second.cancel(false);
+        long deadline = System.currentTimeMillis() + 10000;
+        while (client.dispatcher().runningCallsCount() > 0 && System.currentTimeMillis() < deadline)
+            Thread.sleep(10);
+        Assertions.assertEquals(0, client.dispatcher().runningCallsCount());
+
+        blocked.countDown();
+        Assertions.assertArrayEquals(DATA, read(download(cache)));
+        Assertions.assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void testLastModifiedRevalidation() throws Exception
+    {
+        ProxyCache cache = new ProxyCache(1024).setMaxAge(0, TimeUnit.MILLISECONDS);
+        String modified = base + "/modified.png";
+        Assertions.assertArrayEquals(DATA, read(download(cache, modified)));
+        Thread.sleep(10);
+        Assertions.assertArrayEquals(DATA, read(download(cache, modified)));
+        Assertions.assertEquals(2, requests.get());
+        Assertions.assertEquals(1, notModified.get());
+        Assertions.assertEquals(1, cache.getRevalidations());
+        Assertions.assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testMemoryEviction() throws Exception
+    {
+        // Room for two entries
+        ProxyCache cache = new ProxyCache(DATA.length * 2L);
+        read(download(cache, url + "?size=1"));
+        read(download(cache, url + "?size=2"));
+        // Accessing the first entry makes the second one the least recently used
+        read(download(cache, url + "?size=1"));
+        read(download(cache, url + "?size=3"));
+        Assertions.assertEquals(3, requests.get());
+        Assertions.assertEquals(1, cache.getEvictions());
+        Assertions.assertEquals(DATA.length * 2L, cache.getMemorySize());
+
+        read(download(cache, url + "?size=1"));
+        Assertions.assertEquals(3, requests.get());
+        read(download(cache, url + "?size=2"));
+        Assertions.assertEquals(4, requests.get());
+
+        // 2 memory hits and 4 misses
+        Assertions.assertEquals(2, cache.getMemoryHits());
+        Assertions.assertEquals(4, cache.getMisses());
+        Assertions.assertEquals(2.0 / 6, cache.getHitRate(), 0.0001);
+    }
+
+    @Test
+    public void testDiskEvictionAndRestore() throws Exception
+    {
+        ProxyCache probe = new ProxyCache(1024, directory.resolve("probe"), 1024);
+        read(download(probe, url + "?size=0"));
+        long entrySize = probe.getDiskSize();
+
+        // Room for two entries on disk, the memory is too small to hold any
+        Path cacheDirectory = directory.resolve("cache");
+        ProxyCache cache = new ProxyCache(1, cacheDirectory, entrySize * 2);
+        for (int i = 1; i <= 3; i++)
+        {
+            read(download(cache, url + "?size=" + i));
+            Thread.sleep(50); // Distinct modification times for the LRU order on restart
+        }
+        Assertions.assertEquals(4, requests.get());
+        Assertions.assertEquals(1, cache.getEvictions());
+        Assertions.assertEquals(entrySize * 2, cache.getDiskSize());
+
+        // The index is restored from the directory, the evicted entry is gone
+        ProxyCache restored = new ProxyCache(1, cacheDirectory, entrySize * 2);
+        Assertions.assertEquals(entrySize * 2, restored.getDiskSize());
+        read(download(restored, url + "?size=2"));
+        read(download(restored, url + "?size=3"));
+        Assertions.assertEquals(4, requests.get());
+        Assertions.assertEquals(2, restored.getDiskHits());
+        read(download(restored, url + "?size=1"));
+        Assertions.assertEquals(5, requests.get());
+
+        // A smaller limit keeps only the most recently used entry when the index is loaded
+        Thread.sleep(50);
+        read(download(new ProxyCache(1, cacheDirectory, entrySize * 2), url + "?size=3"));
+        ProxyCache trimmed = new ProxyCache(1, cacheDirectory, entrySize);
+        Assertions.assertEquals(entrySize, trimmed.getDiskSize());
+        read(download(trimmed, url + "?size=3"));
+        Assertions.assertEquals(1, trimmed.getDiskHits());
+        Assertions.assertEquals(5, requests.get());
+    }
+
+    @Test
+    public void testHashCollision() throws Exception
+    {
+        ProxyCache cache = new ProxyCache(1024, directory, 1024);
+        read(download(cache));
+        Assertions.assertEquals(1, requests.get());
+
+        // Pretend a different url was stored under the same file name
+        Path file;
+        try (Stream<Path> files = Files.list(directory))
+        {
+            file = files.filter(it -> it.toString().endsWith(".cache")).findFirst().orElseThrow(AssertionError::new);
+        }
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(file)))
+        {
+            out.writeUTF(base + "/other.png");
+            out.writeUTF("\"v1\"");
+            out.writeUTF("");
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(DATA.length);
+            out.write(DATA);
+        }
+
+        ProxyCache restored = new ProxyCache(1024, directory, 1024);
+        Assertions.assertArrayEquals(DATA, read(download(restored)));
+        Assertions.assertEquals(2, requests.get());
+        Assertions.assertEquals(0, restored.getDiskHits());
+        Assertions.assertEquals(1, restored.getMisses());
+    }
+
+    private CompletableFuture<InputStream> download(ProxyCache cache)
+    {
+        return download(cache, url);
+    }
+
+    private CompletableFuture<InputStream> download(ProxyCache cache, String url)
+    {
+        return new FileProxy(url).withClient(client).withCache(cache).download();
+    }
+
+    private static byte[] read(CompletableFuture<InputStream> future) throws Exception
+    {
+        try (InputStream stream = future.get(10, TimeUnit.SECONDS))
+        {
+            byte[] data = new byte[DATA.length + 1];
+            int length = stream.read(data);
+            Assertions.assertEquals(-1, stream.read());
+            return Arrays.copyOf(data, length);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException
+    {
+        requests.incrementAndGet();
+        received.countDown();
+        try
+        {
+            blocked.await(10, TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        if (failures.getAndUpdate(i -> Math.max(0, i - 1)) > 0)
+        {
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+            return;
+        }
+        // The modified path only supports Last-Modified, everything else uses an ETag
+        boolean lastModified = exchange.getRequestURI().getPath().equals("/modified.png");
+        if (lastModified
+            ? LAST_MODIFIED.equals(exchange.getRequestHeaders().getFirst("If-Modified-Since"))
+            : "\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match")))
+        {
+            notModified.incrementAndGet();
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        if (lastModified)
+            exchange.getResponseHeaders().set("Last-Modified", LAST_MODIFIED);
+        else
+            exchange.getResponseHeaders().set("ETag", "\"v1\"");
+        exchange.sendResponseHeaders(200, DATA.length);
+        try (OutputStream out = exchange.getResponseBody())
+        {
+            out.write(DATA);
+        }
+    }
+}
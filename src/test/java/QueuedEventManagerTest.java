@@ -0,0 +1,188 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.hooks.EventListener;
+import net.dv8tion.jda.api.hooks.QueuedEventManager;
+import net.dv8tion.jda.api.hooks.QueuedEventManager.OverflowPolicy;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class QueuedEventManagerTest
+{
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    public void teardown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testOrderPerListener() throws InterruptedException
+    {
+        QueuedEventManager manager = new QueuedEventManager(executor, 10, OverflowPolicy.BLOCK);
+        RecordingListener first = new RecordingListener(1000);
+        RecordingListener second = new RecordingListener(1000);
+        manager.register(first);
+        manager.register(second);
+
+        for (int i = 0; i < 1000; i++)
+            manager.handle(new TestEvent(i));
+
+        Assertions.assertTrue(first.done.await(10, TimeUnit.SECONDS));
+        Assertions.assertTrue(second.done.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 1000; i++)
+        {
+            Assertions.assertEquals((long) i, first.received.get(i));
+            Assertions.assertEquals((long) i, second.received.get(i));
+        }
+
+        // The metrics are updated after the listener returns
+        Assertions.assertTrue(manager.awaitIdle(10, TimeUnit.SECONDS));
+        QueuedEventManager.ListenerMetrics metrics = manager.getMetrics(first);
+        Assertions.assertNotNull(metrics);
+        Assertions.assertEquals(1000, metrics.getProcessedEvents());
+        Assertions.assertEquals(0, metrics.getDroppedEvents());
+    }
+
+    @Test
+    public void testDropOldest() throws InterruptedException
+    {
+        CountDownLatch blocked = new CountDownLatch(1);
+        QueuedEventManager manager = new QueuedEventManager(executor, 3, OverflowPolicy.DROP_OLDEST);
+        RecordingListener listener = new RecordingListener(4, blocked);
+        manager.register(listener);
+
+        // The first event is taken by the listener, which then waits until the queue has overflowed
+        manager.handle(new TestEvent(0));
+        Assertions.assertTrue(listener.started.await(10, TimeUnit.SECONDS));
+        for (int i = 1; i < 10; i++)
+            manager.handle(new TestEvent(i));
+        blocked.countDown();
+
+        Assertions.assertTrue(listener.done.await(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(0L, listener.received.get(0));
+        Assertions.assertEquals(Arrays.asList(7L, 8L, 9L), listener.received.subList(1, 4));
+        Assertions.assertEquals(6, manager.getMetrics(listener).getDroppedEvents());
+    }
+
+    @Test
+    public void testShedByType() throws InterruptedException
+    {
+        CountDownLatch blocked = new CountDownLatch(1);
+        QueuedEventManager manager = new QueuedEventManager(executor, 2, OverflowPolicy.SHED_BY_TYPE, Collections.singletonList(SheddableEvent.class));
+        RecordingListener listener = new RecordingListener(3, blocked);
+        manager.register(listener);
+
+        manager.handle(new TestEvent(0));
+        Assertions.assertTrue(listener.started.await(10, TimeUnit.SECONDS));
+        manager.handle(new SheddableEvent(1));
+        manager.handle(new TestEvent(2));
+        // Queue is full, a new sheddable event is dropped right away
+        manager.handle(new SheddableEvent(3));
+        blocked.countDown();
+
+        Assertions.assertTrue(listener.done.await(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(Arrays.asList(0L, 1L, 2L), listener.received);
+        Assertions.assertEquals(1, manager.getMetrics(listener).getDroppedEvents());
+    }
+
+    private static class RecordingListener implements EventListener
+    {
+        private final List<Long> received = Collections.synchronizedList(new ArrayList<>());
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch done;
+        private final CountDownLatch blocked;
+
+        private RecordingListener(int expected)
+        {
+            this(expected, new CountDownLatch(0));
+        }
+
+        private RecordingListener(int expected, CountDownLatch blocked)
+        {
+            this.done = new CountDownLatch(expected);
+            this.blocked = blocked;
+        }
+
+        @Override
+        public void onEvent(@Nonnull GenericEvent event)
+        {
+            started.countDown();
+            try
+            {
+                blocked.await();
+            }
+            catch (InterruptedException e)
+            {
+                throw new AssertionError(e);
+            }
+            received.add(event.getResponseNumber());
+            done.countDown();
+        }
+    }
+
+    private static class TestEvent implements GenericEvent
+    {
+        private final long number;
+
+        private TestEvent(long number)
+        {
+            this.number = number;
+        }
+
+        @Nonnull
+        @Override
+        public JDA getJDA()
+        {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long getResponseNumber()
+        {
+            return number;
+        }
+
+        @Override
+        public DataObject getRawData()
+        {
+            return null;
+        }
+    }
+
+    private static class SheddableEvent extends TestEvent
+    {
+        private SheddableEvent(long number)
+        {
+            super(number);
+        }
+    }
+}
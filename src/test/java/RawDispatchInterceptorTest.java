@@ -0,0 +1,135 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import net.dv8tion.jda.api.GatewayEncoding;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.events.user.UserTypingEvent;
+import net.dv8tion.jda.api.hooks.EventListener;
+import net.dv8tion.jda.api.hooks.RawDispatchInterceptor.RawDispatch;
+import net.dv8tion.jda.api.utils.Compression;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.requests.GatewayRecorder;
+import net.dv8tion.jda.internal.requests.RawDispatchReader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class RawDispatchInterceptorTest
+{
+    @Test
+    public void testReadJson()
+    {
+        String json = "{ \"s\" : 42, \"d\": {\"t\": \"NESTED\", \"op\": 1, \"content\": \"quote \\\" } brace\", \"list\": [1, {\"s\": 3}]},\n\"op\":0, \"t\":\"MESSAGE_CREATE\" }";
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        RawDispatch dispatch = RawDispatchReader.read(null, bytes, GatewayEncoding.JSON);
+        Assertions.assertNotNull(dispatch);
+        Assertions.assertEquals("MESSAGE_CREATE", dispatch.getType());
+        Assertions.assertEquals(42, dispatch.getSequence());
+        Assertions.assertSame(bytes, dispatch.getBytes());
+        Assertions.assertTrue(dispatch.getBuffer().isReadOnly());
+
+        Assertions.assertNull(RawDispatchReader.read(null, "{\"op\":11,\"d\":null,\"t\":null,\"s\":null}".getBytes(StandardCharsets.UTF_8), GatewayEncoding.JSON));
+        Assertions.assertNull(RawDispatchReader.read(null, "{\"op\":0,\"t\":\"BROKEN".getBytes(StandardCharsets.UTF_8), GatewayEncoding.JSON));
+
+        dispatch = RawDispatchReader.read(null, "{\"t\":\"TYPING_START\",\"s\":null,\"op\":0,\"d\":{}}".getBytes(StandardCharsets.UTF_8), GatewayEncoding.JSON);
+        Assertions.assertNotNull(dispatch);
+        Assertions.assertEquals(-1, dispatch.getSequence());
+    }
+
+    @Test
+    public void testReadEtf()
+    {
+        byte[] bytes = DataObject.empty()
+                .put("op", 0)
+                .put("t", "MESSAGE_CREATE")
+                .put("s", 7)
+                .put("d", DataObject.empty().put("content", "hello"))
+                .toETF();
+        RawDispatch dispatch = RawDispatchReader.read(null, bytes, GatewayEncoding.ETF);
+        Assertions.assertNotNull(dispatch);
+        Assertions.assertEquals("MESSAGE_CREATE", dispatch.getType());
+        Assertions.assertEquals(7, dispatch.getSequence());
+        Assertions.assertEquals(GatewayEncoding.ETF, dispatch.getEncoding());
+    }
+
+    @Test
+    public void testInterceptDispatch(@TempDir Path directory) throws InterruptedException
+    {
+        byte[] typing = frame(0, "TYPING_START", 2, DataObject.empty()
+                .put("channel_id", 1)
+                .put("user_id", 2)
+                .put("timestamp", 0));
+        Path file = directory.resolve("gateway.bin");
+        try (GatewayRecorder recorder = GatewayRecorder.create(file, Compression.NONE, GatewayEncoding.JSON))
+        {
+            Assertions.assertNotNull(recorder);
+            recorder.recordConnect();
+            recorder.recordText(frame(10, null, 0, DataObject.empty().put("heartbeat_interval", 41250)));
+            recorder.recordText(frame(0, "READY", 1, DataObject.empty()
+                    .put("session_id", "session")
+                    .put("user", DataObject.empty()
+                            .put("id", 2000)
+                            .put("username", "self")
+                            .put("discriminator", "0")
+                            .put("avatar", null)
+                            .put("verified", true)
+                            .put("mfa_enabled", false))
+                    .put("guilds", DataArray.empty())
+                    .put("private_channels", DataArray.empty())));
+            recorder.recordText(typing);
+        }
+
+        List<RawDispatch> intercepted = Collections.synchronizedList(new ArrayList<>());
+        List<GenericEvent> typingEvents = Collections.synchronizedList(new ArrayList<>());
+        JDA jda = JDABuilder.createLight("token")
+                .setRawDispatchInterceptor(dispatch -> intercepted.add(dispatch))
+                .addEventListeners((EventListener) event -> {
+                    if (event instanceof UserTypingEvent)
+                        typingEvents.add(event);
+                })
+                .buildReplay(file, false);
+
+        Assertions.assertTrue(jda.awaitShutdown(10, TimeUnit.SECONDS));
+        // READY is always handled by JDA
+        Assertions.assertEquals(1, intercepted.size());
+        RawDispatch dispatch = intercepted.get(0);
+        Assertions.assertEquals("TYPING_START", dispatch.getType());
+        Assertions.assertEquals(2, dispatch.getSequence());
+        Assertions.assertSame(jda, dispatch.getJDA());
+        Assertions.assertArrayEquals(typing, dispatch.getBytes());
+        Assertions.assertTrue(typingEvents.isEmpty());
+        Assertions.assertEquals(2, jda.getResponseTotal());
+    }
+
+    private static byte[] frame(int op, String type, int sequence, DataObject data)
+    {
+        DataObject frame = DataObject.empty().put("op", op).put("d", data);
+        if (type != null)
+            frame.put("t", type).put("s", sequence);
+        return frame.toJson();
+    }
+}
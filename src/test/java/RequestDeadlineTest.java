@@ -0,0 +1,76 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import net.dv8tion.jda.api.requests.Request;
+import net.dv8tion.jda.api.requests.Route;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.requests.RestActionImpl;
+import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class RequestDeadlineTest
+{
+    private final JDAImpl jda = new JDAImpl(new AuthorizationConfig("token"));
+    private final CompletableFuture<String> result = new CompletableFuture<>();
+
+    @Test
+    public void testQueuedRequestTimesOut() throws Exception
+    {
+        Request<String> request = request(200);
+
+        Throwable error = Assertions.assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+        Assertions.assertInstanceOf(TimeoutException.class, error.getCause());
+        // The requester must not send a request which has already been failed
+        Assertions.assertTrue(request.isSkipped());
+        Assertions.assertFalse(request.startExecution());
+    }
+
+    @Test
+    public void testStartedRequestDoesNotTimeOut() throws Exception
+    {
+        Request<String> request = request(200);
+        Assertions.assertFalse(request.isSkipped());
+        Assertions.assertTrue(request.startExecution());
+
+        // The response takes longer than the deadline, but the request was sent in time
+        Thread.sleep(600);
+        Assertions.assertFalse(result.isDone());
+        request.onSuccess("sent");
+        Assertions.assertEquals("sent", result.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testRequestWithoutDeadline()
+    {
+        Request<String> request = request(0);
+        Assertions.assertFalse(request.isSkipped());
+        Assertions.assertTrue(request.startExecution());
+        Assertions.assertTrue(request.startExecution());
+    }
+
+    private Request<String> request(long timeout)
+    {
+        RestActionImpl<String> action = new RestActionImpl<>(jda, Route.Messages.SEND_MESSAGE.compile("1"));
+        long deadline = timeout > 0 ? System.currentTimeMillis() + timeout : 0;
+        return new Request<>(action, result::complete, result::completeExceptionally, null, true, null, null, deadline, false, action.getRoute(), null);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.User;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.entities.GuildImpl;
+import net.dv8tion.jda.internal.interactions.command.ResolvedEntityMap;
+import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ResolvedEntityMapTest
+{
+    private static final long GUILD_ID = 1000;
+    private static final long MEMBER_ID = 2000;
+    private static final long USER_ID = 3000;
+    private static final long ATTACHMENT_ID = 4000;
+    private static final long UNKNOWN_ID = 5000;
+
+    private JDAImpl api;
+    private GuildImpl guild;
+
+    @BeforeEach
+    public void setup()
+    {
+        api = new JDAImpl(new AuthorizationConfig("token"));
+        guild = new GuildImpl(api, GUILD_ID);
+    }
+
+    @Test
+    public void testMembersAreResolvedEagerly()
+    {
+        ResolvedEntityMap map = new ResolvedEntityMap(api, guild, resolved());
+
+        // The member is built on construction, so it is already part of the member cache
+        Member member = guild.getMemberById(MEMBER_ID);
+        Assertions.assertNotNull(member);
+        Assertions.assertSame(member, map.get(MEMBER_ID));
+        Assertions.assertEquals("nickname", member.getNickname());
+    }
+
+    @Test
+    public void testLazyLookup()
+    {
+        ResolvedEntityMap map = new ResolvedEntityMap(api, guild, resolved());
+
+        Object user = map.get(USER_ID);
+        Assertions.assertInstanceOf(User.class, user);
+        Assertions.assertSame(user, map.get(USER_ID));
+        Assertions.assertEquals("user", ((User) user).getName());
+
+        Object attachment = map.get(ATTACHMENT_ID);
+        Assertions.assertInstanceOf(Message.Attachment.class, attachment);
+        Assertions.assertEquals("file.txt", ((Message.Attachment) attachment).getFileName());
+
+        Assertions.assertTrue(map.containsKey(USER_ID));
+        Assertions.assertFalse(map.containsKey(UNKNOWN_ID));
+        Assertions.assertNull(map.get(UNKNOWN_ID));
+    }
+
+    @Test
+    public void testBulkAccessMatchesLookup()
+    {
+        ResolvedEntityMap map = new ResolvedEntityMap(api, guild, resolved());
+        Object user = map.get(USER_ID);
+
+        // The member replaces its user entry, so there are only three entities
+        Assertions.assertEquals(3, map.size());
+        Assertions.assertFalse(map.isEmpty());
+        Assertions.assertEquals(3, map.values().length);
+        Assertions.assertTrue(map.keySet().containsAll(new long[] { MEMBER_ID, USER_ID, ATTACHMENT_ID }));
+
+        List<Object> values = new ArrayList<>();
+        map.forEachValue(values::add);
+        Assertions.assertEquals(3, values.size());
+        Assertions.assertTrue(values.contains(user));
+        Assertions.assertTrue(values.contains(map.get(MEMBER_ID)));
+        Assertions.assertTrue(values.contains(map.get(ATTACHMENT_ID)));
+        Assertions.assertTrue(map.containsValue(map.get(ATTACHMENT_ID)));
+    }
+
+    private static DataObject resolved()
+    {
+        return DataObject.empty()
+                .put("users", DataObject.empty()
+                        .put(Long.toString(MEMBER_ID), user(MEMBER_ID, "member"))
+                        .put(Long.toString(USER_ID), user(USER_ID, "user")))
+                .put("members", DataObject.empty()
+                        .put(Long.toString(MEMBER_ID), DataObject.empty()
+                                .put("nick", "nickname")
+                                .put("roles", DataArray.empty())
+                                .put("joined_at", "2021-01-01T00:00:00.000+00:00")))
+                .put("attachments", DataObject.empty()
+                        .put(Long.toString(ATTACHMENT_ID), DataObject.empty()
+                                .put("id", ATTACHMENT_ID)
+                                .put("filename", "file.txt")
+                                .put("size", 4)
+                                .put("url", "https://cdn.discordapp.com/attachments/file.txt")
+                                .put("proxy_url", "https://media.discordapp.net/attachments/file.txt")));
+    }
+
+    private static DataObject user(long id, String name)
+    {
+        return DataObject.empty()
+                .put("id", id)
+                .put("username", name)
+                .put("discriminator", "0")
+                .put("avatar", null);
+    }
+}
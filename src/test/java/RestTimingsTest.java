@@ -0,0 +1,87 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import com.sun.net.httpserver.HttpServer;
+import net.dv8tion.jda.api.requests.RestTimings;
+import net.dv8tion.jda.api.requests.RestTimings.Phase;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+public class RestTimingsTest
+{
+    private HttpServer server;
+
+    @BeforeEach
+    public void setup() throws IOException
+    {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody())
+            {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void teardown()
+    {
+        server.stop(0);
+    }
+
+    @Test
+    public void testPooledConnection() throws IOException
+    {
+        RestTimings timings = new RestTimings();
+        OkHttpClient client = new OkHttpClient.Builder().eventListenerFactory(timings).build();
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+
+        for (int i = 0; i < 3; i++)
+        {
+            try (Response response = client.newCall(new Request.Builder().url(url).build()).execute())
+            {
+                Assertions.assertEquals("{}", response.body().string());
+            }
+        }
+
+        Assertions.assertEquals(3, timings.getRequests());
+        Assertions.assertEquals(0, timings.getFailedRequests());
+        // The second and third request reuse the pooled connection
+        Assertions.assertEquals(1, timings.getConnectionsOpened());
+        Assertions.assertEquals(1, timings.getCount(Phase.CONNECT));
+        Assertions.assertEquals(0, timings.getCount(Phase.TLS));
+        Assertions.assertEquals(3, timings.getCount(Phase.TIME_TO_FIRST_BYTE));
+        Assertions.assertEquals(3, timings.getCount(Phase.CALL));
+        Assertions.assertTrue(timings.getMax(Phase.CALL).compareTo(timings.getAverage(Phase.CALL)) >= 0);
+
+        timings.reset();
+        Assertions.assertEquals(0, timings.getRequests());
+        Assertions.assertEquals(0, timings.getCount(Phase.CALL));
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import gnu.trove.map.hash.TLongObjectHashMap;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.entities.Guild;
+import net.dv8tion.jda.api.entities.Member;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.api.requests.GatewayIntent;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.JDAImpl;
+import net.dv8tion.jda.internal.requests.SessionSnapshot;
+import net.dv8tion.jda.internal.utils.IOUtil;
+import net.dv8tion.jda.internal.utils.config.AuthorizationConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class SessionSnapshotTest
+{
+    private static final long GUILD_ID = 1000;
+    private static final long SELF_ID = 2000;
+    private static final long USER_ID = 3000;
+    private static final long CHANNEL_ID = 4000;
+    private static final long ROLE_ID = 5000;
+
+    @Test
+    public void testRoundTrip(@TempDir Path directory) throws IOException
+    {
+        JDAImpl api = createApi();
+        DataObject guildJson = DataObject.empty()
+                .put("id", GUILD_ID)
+                .put("name", "Guild")
+                .put("owner_id", USER_ID)
+                .put("afk_timeout", 300)
+                .put("roles", DataArray.empty()
+                        .add(role(GUILD_ID, "@everyone", 0))
+                        .add(role(ROLE_ID, "Moderator", 1)))
+                .put("channels", DataArray.empty()
+                        .add(DataObject.empty()
+                                .put("id", CHANNEL_ID)
+                                .put("type", 0)
+                                .put("name", "general")
+                                .put("topic", "Hello")
+                                .put("position", 0)
+                                .put("permission_overwrites", DataArray.empty())))
+                .put("threads", DataArray.empty())
+                .put("guild_scheduled_events", DataArray.empty())
+                .put("emojis", DataArray.empty())
+                .put("stickers", DataArray.empty())
+                .put("voice_states", DataArray.empty());
+        TLongObjectHashMap<DataObject> members = new TLongObjectHashMap<>();
+        members.put(USER_ID, DataObject.empty()
+                .put("user", user(USER_ID, "owner"))
+                .put("nick", "Owner")
+                .put("roles", DataArray.empty().add(ROLE_ID))
+                .put("joined_at", "2020-01-01T00:00:00.000+00:00"));
+        members.put(SELF_ID, DataObject.empty()
+                .put("user", user(SELF_ID, "self"))
+                .put("roles", DataArray.empty())
+                .put("joined_at", "2021-01-01T00:00:00.000+00:00"));
+        api.getEntityBuilder().createGuild(GUILD_ID, guildJson, members, 10);
+
+        Path file = directory.resolve("session.bin");
+        int intents = GatewayIntent.DEFAULT;
+        SessionSnapshot.create(api, "session", "wss://resume.example", intents).write(file);
+
+        SessionSnapshot snapshot = SessionSnapshot.read(file);
+        Assertions.assertEquals("session", snapshot.getSessionId());
+        Assertions.assertEquals("wss://resume.example", snapshot.getResumeUrl());
+        Assertions.assertEquals(1, snapshot.getGuildCount());
+        Assertions.assertTrue(snapshot.isCompatible(JDA.ShardInfo.SINGLE, intents));
+        Assertions.assertFalse(snapshot.isCompatible(new JDA.ShardInfo(1, 2), intents));
+        Assertions.assertFalse(snapshot.isCompatible(JDA.ShardInfo.SINGLE, GatewayIntent.ALL_INTENTS));
+
+        JDAImpl restored = createApi();
+        snapshot.restore(restored);
+
+        Assertions.assertEquals(SELF_ID, restored.getSelfUser().getIdLong());
+        Guild guild = restored.getGuildById(GUILD_ID);
+        Assertions.assertNotNull(guild);
+        Assertions.assertEquals("Guild", guild.getName());
+        Assertions.assertEquals(10, guild.getMemberCount());
+        Assertions.assertEquals(2, guild.getRoles().size());
+
+        TextChannel channel = guild.getTextChannelById(CHANNEL_ID);
+        Assertions.assertNotNull(channel);
+        Assertions.assertEquals("general", channel.getName());
+        Assertions.assertEquals("Hello", channel.getTopic());
+
+        Member owner = guild.getMemberById(USER_ID);
+        Assertions.assertNotNull(owner);
+        Assertions.assertEquals("Owner", owner.getNickname());
+        Assertions.assertEquals(guild.getRoleById(ROLE_ID), owner.getRoles().get(0));
+        Assertions.assertEquals(owner, guild.getOwner());
+        Assertions.assertEquals(restored.getSelfUser(), guild.getSelfMember().getUser());
+    }
+
+    @Test
+    public void testExpired(@TempDir Path directory) throws IOException
+    {
+        Path file = directory.resolve("session.bin");
+        SessionSnapshot.create(createApi(), "session", null, GatewayIntent.DEFAULT).write(file);
+        Assertions.assertFalse(SessionSnapshot.read(file).isExpired());
+
+        DataObject data;
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(file)))
+        {
+            data = DataObject.fromETF(IOUtil.readFully(input));
+        }
+        data.put("created_at", System.currentTimeMillis() - SessionSnapshot.MAX_AGE - 1000);
+        try (OutputStream output = new GZIPOutputStream(Files.newOutputStream(file)))
+        {
+            output.write(data.toETF());
+        }
+        Assertions.assertTrue(SessionSnapshot.read(file).isExpired());
+    }
+
+    @Test
+    public void testPendingGuildsPreventSnapshot()
+    {
+        JDAImpl api = createApi();
+        Assertions.assertTrue(SessionSnapshot.canCreate(api));
+
+        // Discord does not send this guild again after resuming, so it would be missing from the restored cache
+        api.getGuildSetupController().getUnavailableGuilds().add(GUILD_ID);
+        Assertions.assertFalse(SessionSnapshot.canCreate(api));
+    }
+
+    private static JDAImpl createApi()
+    {
+        JDAImpl api = new JDAImpl(new AuthorizationConfig("token"));
+        api.getEntityBuilder().createSelfUser(user(SELF_ID, "self")
+                .put("verified", true)
+                .put("mfa_enabled", false));
+        return api;
+    }
+
+    private static DataObject user(long id, String name)
+    {
+        return DataObject.empty()
+                .put("id", id)
+                .put("username", name)
+                .put("discriminator", "0")
+                .put("avatar", null);
+    }
+
+    private static DataObject role(long id, String name, int position)
+    {
+        return DataObject.empty()
+                .put("id", id)
+                .put("name", name)
+                .put("position", position)
+                .put("permissions", "0")
+                .put("color", 0)
+                .put("hoist", false)
+                .put("mentionable", false)
+                .put("managed", false);
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2015 Austin Keener, Michael Ritter, Florian Spieß, and the JDA contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+import net.dv8tion.jda.api.GatewayEncoding;
+import net.dv8tion.jda.api.JDA;
+import net.dv8tion.jda.api.JDABuilder;
+import net.dv8tion.jda.api.Permission;
+import net.dv8tion.jda.api.entities.Message;
+import net.dv8tion.jda.api.entities.Role;
+import net.dv8tion.jda.api.entities.channel.ChannelType;
+import net.dv8tion.jda.api.entities.channel.concrete.TextChannel;
+import net.dv8tion.jda.api.entities.channel.middleman.GuildChannel;
+import net.dv8tion.jda.api.events.GenericEvent;
+import net.dv8tion.jda.api.events.interaction.command.SlashCommandInteractionEvent;
+import net.dv8tion.jda.api.events.message.MessageReceivedEvent;
+import net.dv8tion.jda.api.events.session.ReadyEvent;
+import net.dv8tion.jda.api.hooks.EventListener;
+import net.dv8tion.jda.api.utils.Compression;
+import net.dv8tion.jda.api.utils.data.DataArray;
+import net.dv8tion.jda.api.utils.data.DataObject;
+import net.dv8tion.jda.internal.requests.GatewayRecorder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class StatelessModeTest
+{
+    private static final long GUILD_ID = 1000;
+    private static final long SELF_ID = 2000;
+    private static final long USER_ID = 3000;
+    private static final long CHANNEL_ID = 4000;
+    private static final long ROLE_ID = 5000;
+    private static final long THREAD_ID = 9000;
+    private static final long OTHER_CHANNEL_ID = 9100;
+
+    @Test
+    public void testStateless(@TempDir Path directory) throws InterruptedException
+    {
+        Path file = directory.resolve("gateway.bin");
+        try (GatewayRecorder recorder = GatewayRecorder.create(file, Compression.NONE, GatewayEncoding.JSON))
+        {
+            Assertions.assertNotNull(recorder);
+            recorder.recordConnect();
+            recorder.recordText(frame(10, null, 0, DataObject.empty().put("heartbeat_interval", 41250)));
+            recorder.recordText(frame(0, "READY", 1, DataObject.empty()
+                    .put("session_id", "session")
+                    .put("user", user(SELF_ID, "self").put("verified", true).put("mfa_enabled", false))
+                    .put("guilds", DataArray.empty().add(DataObject.empty().put("id", GUILD_ID).put("unavailable", true)))
+                    .put("private_channels", DataArray.empty())));
+            // Dropped without a handler, it would fail to parse if it was handled
+            recorder.recordText(frame(0, "GUILD_CREATE", 2, DataObject.empty().put("id", GUILD_ID)));
+            recorder.recordText(frame(0, "MESSAGE_CREATE", 3, DataObject.empty()
+                    .put("id", 6000)
+                    .put("type", 0)
+                    .put("guild_id", GUILD_ID)
+                    .put("channel_id", CHANNEL_ID)
+                    .put("author", user(USER_ID, "user"))
+                    .put("member", DataObject.empty()
+                            .put("nick", "nickname")
+                            .put("roles", DataArray.empty().add(ROLE_ID))
+                            .put("joined_at", "2021-01-01T00:00:00.000+00:00"))
+                    .put("content", "hello")
+                    .put("timestamp", "2021-01-01T00:00:00.000+00:00")
+                    .put("edited_timestamp", null)
+                    .put("tts", false)
+                    .put("pinned", false)
+                    .put("mention_everyone", false)
+                    .put("mentions", DataArray.empty())
+                    .put("mention_roles", DataArray.empty())
+                    .put("attachments", DataArray.empty())
+                    .put("embeds", DataArray.empty())));
+            recorder.recordText(frame(0, "INTERACTION_CREATE", 4, DataObject.empty()
+                    .put("id", 7000)
+                    .put("application_id", SELF_ID)
+                    .put("type", 2)
+                    .put("token", "token")
+                    .put("version", 1)
+                    .put("guild_id", GUILD_ID)
+                    .put("channel_id", CHANNEL_ID)
+                    .put("channel", DataObject.empty().put("id", CHANNEL_ID).put("type", 0).put("name", "general"))
+                    .put("member", DataObject.empty()
+                            .put("user", user(USER_ID, "user"))
+                            .put("roles", DataArray.empty())
+                            .put("joined_at", "2021-01-01T00:00:00.000+00:00")
+                            .put("permissions", Long.toString(Permission.getRaw(Permission.VIEW_CHANNEL, Permission.MESSAGE_SEND))))
+                    .put("app_permissions", Long.toString(Permission.getRaw(Permission.VIEW_CHANNEL)))
+                    .put("locale", "en-US")
+                    .put("data", DataObject.empty()
+                            .put("id", 8000)
+                            .put("name", "role")
+                            .put("type", 1)
+                            .put("options", DataArray.empty().add(DataObject.empty().put("name", "role").put("type", 8).put("value", Long.toString(ROLE_ID)))
+                                    .add(DataObject.empty().put("name", "channel").put("type", 7).put("value", Long.toString(OTHER_CHANNEL_ID))))
+                            .put("resolved", DataObject.empty().put("roles", DataObject.empty().put(Long.toString(ROLE_ID), DataObject.empty()
+                                    .put("id", ROLE_ID)
+                                    .put("name", "Moderator")
+                                    .put("position", 1)
+                                    .put("permissions", "0")
+                                    .put("color", 0)
+                                    .put("hoist", false)
+                                    .put("managed", false)
+                                    .put("mentionable", false)))
+                                    .put("channels", DataObject.empty().put(Long.toString(OTHER_CHANNEL_ID), DataObject.empty()
+                                            .put("id", OTHER_CHANNEL_ID)
+                                            .put("type", ChannelType.FORUM.getId())
+                                            .put("name", "forum")))))));
+            // Only messages in threads carry a position
+            recorder.recordText(frame(0, "MESSAGE_CREATE", 5, message(6100, THREAD_ID).put("position", 1)));
+        }
+
+        List<GenericEvent> events = Collections.synchronizedList(new ArrayList<>());
+        JDA jda = JDABuilder.createLight("token")
+                .setStateless(true)
+                .addEventListeners((EventListener) events::add)
+                .buildReplay(file, false);
+
+        Assertions.assertTrue(jda.awaitShutdown(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(5, jda.getResponseTotal());
+        Assertions.assertEquals(0, jda.getGuildCache().size());
+        Assertions.assertEquals(0, jda.getTextChannelCache().size());
+        Assertions.assertNull(jda.getUserById(USER_ID));
+
+        Assertions.assertTrue(events.stream().anyMatch(ReadyEvent.class::isInstance));
+
+        MessageReceivedEvent messageEvent = find(events, MessageReceivedEvent.class);
+        Message message = messageEvent.getMessage();
+        Assertions.assertEquals("hello", message.getContentRaw());
+        Assertions.assertEquals(GUILD_ID, message.getGuild().getIdLong());
+        Assertions.assertEquals(CHANNEL_ID, message.getChannel().getIdLong());
+        Assertions.assertEquals(USER_ID, message.getAuthor().getIdLong());
+        Assertions.assertNotNull(message.getMember());
+        Assertions.assertEquals("nickname", message.getMember().getNickname());
+        Assertions.assertNotNull(message.getGuild().getPublicRole());
+        Assertions.assertThrows(IllegalStateException.class, () -> message.getGuild().getSelfMember());
+        Assertions.assertThrows(IllegalStateException.class, () -> message.getMember().hasPermission(Permission.MESSAGE_SEND));
+        Assertions.assertThrows(IllegalStateException.class, () -> message.getMember().hasPermission(message.getGuildChannel(), Permission.MESSAGE_SEND));
+
+        Message threadMessage = events.stream()
+                .filter(MessageReceivedEvent.class::isInstance)
+                .map(event -> ((MessageReceivedEvent) event).getMessage())
+                .filter(m -> m.getIdLong() == 6100)
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+        Assertions.assertEquals(ChannelType.GUILD_PUBLIC_THREAD, threadMessage.getChannelType());
+        Assertions.assertEquals(THREAD_ID, threadMessage.getChannel().asThreadChannel().getIdLong());
+
+        SlashCommandInteractionEvent commandEvent = find(events, SlashCommandInteractionEvent.class);
+        Assertions.assertNotNull(commandEvent.getGuild());
+        Assertions.assertEquals(GUILD_ID, commandEvent.getGuild().getIdLong());
+        Assertions.assertEquals(ChannelType.TEXT, commandEvent.getChannelType());
+        Assertions.assertEquals("general", commandEvent.getChannel().getName());
+        Assertions.assertEquals(USER_ID, commandEvent.getUser().getIdLong());
+        Role role = commandEvent.getOption("role").getAsRole();
+        Assertions.assertEquals("Moderator", role.getName());
+        Assertions.assertEquals(ChannelType.FORUM, commandEvent.getOption("channel").getAsChannel().getType());
+
+        // Permissions are only known in the channel of the interaction
+        GuildChannel interactionChannel = commandEvent.getGuildChannel();
+        Assertions.assertTrue(commandEvent.getMember().hasPermission(interactionChannel, Permission.MESSAGE_SEND));
+        Assertions.assertFalse(commandEvent.getMember().hasPermission(interactionChannel, Permission.MANAGE_CHANNEL));
+        Assertions.assertNotNull(commandEvent.getGuild().getPublicRole());
+        Assertions.assertNotNull(commandEvent.getGuild().getSelfMember());
+        Assertions.assertFalse(((TextChannel) interactionChannel).canTalk());
+        Assertions.assertThrows(IllegalStateException.class, () -> commandEvent.getMember().getPermissions());
+        // The detached guild leaves the permission checks to discord
+        Assertions.assertDoesNotThrow(() -> message.getChannel().sendMessage("reply"));
+    }
+
+    private static <T> T find(List<GenericEvent> events, Class<T> type)
+    {
+        return events.stream()
+                .filter(type::isInstance)
+                .map(type::cast)
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Missing " + type.getSimpleName()));
+    }
+
+    private static byte[] frame(int op, String type, int sequence, DataObject data)
+    {
+        DataObject frame = DataObject.empty().put("op", op).put("d", data);
+        if (type != null)
+            frame.put("t", type).put("s", sequence);
+        return frame.toJson();
+    }
+
+    private static DataObject message(long id, long channelId)
+    {
+        return DataObject.empty()
+                .put("id", id)
+                .put("type", 0)
+                .put("guild_id", GUILD_ID)
+                .put("channel_id", channelId)
+                .put("author", user(USER_ID, "user"))
+                .put("content", "hello")
+                .put("timestamp", "2021-01-01T00:00:00.000+00:00")
+                .put("edited_timestamp", null)
+                .put("tts", false)
+                .put("pinned", false)
+                .put("mention_everyone", false)
+                .put("mentions", DataArray.empty())
+                .put("mention_roles", DataArray.empty())
+                .put("attachments", DataArray.empty())
+                .put("embeds", DataArray.empty());
+    }
+
+    private static DataObject user(long id, String name)
+    {
+        return DataObject.empty()
+                .put("id", id)
+                .put("username", name)
+                .put("discriminator", "0")
+                .put("avatar", null);
+    }
+}